@@ -0,0 +1,87 @@
+package io.github.samzhu.docmcp.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 基準測試固定語料
+ * <p>
+ * 語料放在 {@code src/test/resources/corpus}，由 build.gradle 加入 jmh 的資源目錄。
+ * 三種格式為同一份文件（標題、程式碼區塊、表格、清單），讓不同解析器的結果可以互相比較；
+ * 語料固定在版本庫中，不同時間的基準結果才有比較意義。
+ * </p>
+ */
+public final class BenchmarkCorpus {
+
+    public enum Format {
+        MARKDOWN("guide.md"),
+        HTML("guide.html"),
+        ASCIIDOC("guide.adoc");
+
+        private final String fileName;
+
+        Format(String fileName) {
+            this.fileName = fileName;
+        }
+
+        public String fileName() {
+            return fileName;
+        }
+    }
+
+    private BenchmarkCorpus() {
+    }
+
+    /**
+     * 讀取語料
+     *
+     * @param format 格式
+     * @return 語料內容
+     */
+    public static String load(Format format) {
+        String resource = "/corpus/" + format.fileName();
+        try (InputStream in = BenchmarkCorpus.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("找不到語料: " + resource);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 將語料內文重複指定次數，維持單一文件的結構
+     * <p>
+     * HTML 只重複 {@code <main>} 內容，AsciiDoc 只重複文件標頭之後的內容，
+     * 避免產生多個文件標題或多份 {@code <html>}。
+     * </p>
+     *
+     * @param format 格式
+     * @param copies 重複次數
+     * @return 放大後的文件
+     */
+    public static String repeat(Format format, int copies) {
+        String content = load(format);
+        if (copies <= 1) {
+            return content;
+        }
+        return switch (format) {
+            case MARKDOWN -> (content + "\n").repeat(copies);
+            case HTML -> {
+                int start = content.indexOf("<main>") + "<main>".length();
+                int end = content.indexOf("</main>");
+                yield content.substring(0, start)
+                        + content.substring(start, end).repeat(copies)
+                        + content.substring(end);
+            }
+            case ASCIIDOC -> {
+                // 文件標頭結束於第一個空白行
+                int bodyStart = content.indexOf("\n\n") + 2;
+                yield content.substring(0, bodyStart) + (content.substring(bodyStart) + "\n").repeat(copies);
+            }
+        };
+    }
+}
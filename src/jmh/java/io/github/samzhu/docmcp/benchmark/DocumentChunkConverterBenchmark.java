@@ -0,0 +1,97 @@
+package io.github.samzhu.docmcp.benchmark;
+
+import com.github.f4b6a3.tsid.TsidFactory;
+import io.github.samzhu.docmcp.config.ChunkingProperties.ChunkSizing;
+import io.github.samzhu.docmcp.domain.model.DocumentChunk;
+import io.github.samzhu.docmcp.infrastructure.parser.MarkdownParser;
+import io.github.samzhu.docmcp.infrastructure.parser.ParsedDocument;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.DocumentChunkConverter;
+import io.github.samzhu.docmcp.service.DocumentChunker;
+import io.github.samzhu.docmcp.service.HeuristicTokenCounter;
+import io.github.samzhu.docmcp.service.IdService;
+import io.github.samzhu.docmcp.service.SectionChunker;
+import io.github.samzhu.docmcp.service.TokenCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.ai.document.Document;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 區塊轉換基準測試
+ * <p>
+ * 以固定 Markdown 語料（重複 32 份）經章節分塊後的區塊，量測 {@link DocumentChunkConverter}
+ * 在同步（建立新區塊的 Spring AI Document）與讀取（DocumentChunk 與 Spring AI Document 互轉）時的成本。
+ * 每次操作轉換整份文件的所有區塊。
+ * </p>
+ *
+ * <pre>
+ * ./gradlew jmh -Pjmh.includes=DocumentChunkConverterBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class DocumentChunkConverterBenchmark {
+
+    private static final String VERSION_ID = "0KFBWG3J6N4QR";
+    private static final String DOCUMENT_ID = "0KFBWG3J6N4QS";
+    private static final String PATH = "docs/guides/reactive-data-service.md";
+
+    private DocumentChunkConverter converter;
+    private ParsedDocument parsed;
+    private List<DocumentChunker.ChunkResult> chunkResults;
+    private List<DocumentChunk> chunks;
+    private List<Document> documents;
+    private io.github.samzhu.docmcp.domain.model.Document document;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        converter = new DocumentChunkConverter(new IdService(TsidFactory.builder().build()));
+
+        TokenCounter tokenCounter = new HeuristicTokenCounter();
+        SectionChunker chunker = new SectionChunker(new DocumentChunker(tokenCounter), tokenCounter);
+        parsed = new MarkdownParser().parse(BenchmarkCorpus.repeat(BenchmarkCorpus.Format.MARKDOWN, 32), PATH);
+        chunkResults = chunker.chunk(parsed, ChunkSizing.DEFAULT);
+
+        document = io.github.samzhu.docmcp.domain.model.Document.create(DOCUMENT_ID, VERSION_ID,
+                parsed.title(), PATH, parsed.content(), "hash", "markdown");
+        documents = createNewChunkDocuments();
+        chunks = documents.stream().map(converter::fromSpringAiDocument).toList();
+    }
+
+    /**
+     * 同步時建立新區塊（SyncService 的用法）
+     */
+    @Benchmark
+    public List<Document> createNewChunkDocuments() {
+        return chunkResults.stream()
+                .map(chunk -> converter.createNewChunkDocument(VERSION_ID, DOCUMENT_ID, chunk.index(),
+                        chunk.content(), chunk.tokenCount(), parsed.title(), PATH, chunk.headingPath()))
+                .toList();
+    }
+
+    @Benchmark
+    public void toSpringAiDocument(Blackhole blackhole) {
+        for (DocumentChunk chunk : chunks) {
+            blackhole.consume(converter.toSpringAiDocument(chunk, document, VERSION_ID));
+        }
+    }
+
+    @Benchmark
+    public void fromSpringAiDocument(Blackhole blackhole) {
+        for (Document doc : documents) {
+            blackhole.consume(converter.fromSpringAiDocument(doc));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package io.github.samzhu.docmcp.benchmark;
+
+import io.github.samzhu.docmcp.config.ChunkingProperties.ChunkSizing;
+import io.github.samzhu.docmcp.infrastructure.parser.MarkdownParser;
+import io.github.samzhu.docmcp.infrastructure.parser.ParsedDocument;
+import io.github.samzhu.docmcp.service.DocumentChunker;
+import io.github.samzhu.docmcp.service.HeuristicTokenCounter;
+import io.github.samzhu.docmcp.service.SectionChunker;
+import io.github.samzhu.docmcp.service.TokenCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文件分塊基準測試
+ * <p>
+ * 以 {@link BenchmarkCorpus} 的固定 Markdown 語料重複串接成指定大小的內容，比較：
+ * 原本以 {@code substring} 與無下限 {@code lastIndexOf} 實作的滑動視窗（基準線）、
+ * 改良後以索引範圍與有界掃描實作的滑動視窗，以及依章節分塊（解析在 setup 完成，不計入）。
+ * </p>
+ * <p>
+ * SINGLE_LINE 將換行替換為空白，模擬 HTML 轉換後缺少段落邊界的內容；
+ * 此時基準線每個視窗都會往前掃描整個前綴，處理時間隨內容大小平方成長。
+ * 搭配 gc profiler（build.gradle 已設定）可比較每次操作的配置量（gc.alloc.rate.norm）。
+ * </p>
+ *
+ * <pre>
+ * ./gradlew jmh -Pjmh.includes=DocumentChunkerBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class DocumentChunkerBenchmark {
+
+    public enum Shape { MARKDOWN, SINGLE_LINE }
+
+    @Param({"1", "2"})
+    private int sizeMb;
+
+    @Param({"MARKDOWN", "SINGLE_LINE"})
+    private Shape shape;
+
+    private String content;
+    private ParsedDocument parsed;
+    private DocumentChunker documentChunker;
+    private SectionChunker sectionChunker;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String corpus = BenchmarkCorpus.load(BenchmarkCorpus.Format.MARKDOWN);
+        StringBuilder builder = new StringBuilder(sizeMb * 1024 * 1024 + corpus.length());
+        while (builder.length() < sizeMb * 1024 * 1024) {
+            builder.append(corpus).append("\n\n");
+        }
+        content = shape == Shape.SINGLE_LINE ? builder.toString().replace('\n', ' ') : builder.toString();
+
+        TokenCounter tokenCounter = new HeuristicTokenCounter();
+        documentChunker = new DocumentChunker(tokenCounter);
+        sectionChunker = new SectionChunker(documentChunker, tokenCounter);
+        parsed = new MarkdownParser().parse(content, "benchmark.md");
+    }
+
+    @Benchmark
+    public List<LegacyChunker.Chunk> slidingWindowLegacy() {
+        return LegacyChunker.chunk(content, 1000, 200);
+    }
+
+    @Benchmark
+    public List<DocumentChunker.ChunkResult> slidingWindow() {
+        return documentChunker.chunk(content);
+    }
+
+    @Benchmark
+    public List<DocumentChunker.ChunkResult> sectionAware() {
+        return sectionChunker.chunk(parsed, ChunkSizing.DEFAULT);
+    }
+
+    /**
+     * 原本 DocumentChunker 的實作（基準線）
+     */
+    public static final class LegacyChunker {
+
+        public record Chunk(String content, int tokenCount) {}
+
+        static List<Chunk> chunk(String content, int chunkSize, int overlap) {
+            List<Chunk> chunks = new ArrayList<>();
+            int contentLength = content.length();
+            int start = 0;
+            while (start < contentLength) {
+                int end = Math.min(start + chunkSize, contentLength);
+                if (end < contentLength) {
+                    end = findNaturalBreakPoint(content, start, end);
+                }
+                String chunkContent = content.substring(start, end);
+                chunks.add(new Chunk(chunkContent, estimateTokenCount(chunkContent)));
+                int step = end - start - overlap;
+                if (step <= 0) {
+                    step = chunkSize - overlap;
+                }
+                start += step;
+            }
+            return chunks;
+        }
+
+        private static int findNaturalBreakPoint(String content, int start, int preferredEnd) {
+            int searchStart = Math.max(start, preferredEnd - 200);
+            int paragraphBreak = content.lastIndexOf("\n\n", preferredEnd);
+            if (paragraphBreak >= searchStart) {
+                return paragraphBreak + 2;
+            }
+            int lineBreak = content.lastIndexOf("\n", preferredEnd);
+            if (lineBreak >= searchStart) {
+                return lineBreak + 1;
+            }
+            for (int i = preferredEnd; i >= searchStart; i--) {
+                char c = content.charAt(i);
+                if ((c == '.' || c == '!' || c == '?' || c == '。' || c == '！' || c == '？') &&
+                        i + 1 < content.length() && Character.isWhitespace(content.charAt(i + 1))) {
+                    return i + 2;
+                }
+            }
+            int spaceBreak = content.lastIndexOf(" ", preferredEnd);
+            if (spaceBreak >= searchStart) {
+                return spaceBreak + 1;
+            }
+            return preferredEnd;
+        }
+
+        private static int estimateTokenCount(String text) {
+            int englishChars = 0;
+            int chineseChars = 0;
+            int otherChars = 0;
+            for (char c : text.toCharArray()) {
+                if (Character.isLetter(c)) {
+                    if (c >= '\u4e00' && c <= '\u9fff') {
+                        chineseChars++;
+                    } else {
+                        englishChars++;
+                    }
+                } else {
+                    otherChars++;
+                }
+            }
+            return (int) (englishChars / 4.0 + chineseChars / 1.5 + otherChars / 4.0);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.samzhu.docmcp.benchmark;
+
+import io.github.samzhu.docmcp.benchmark.BenchmarkCorpus.Format;
+import io.github.samzhu.docmcp.infrastructure.parser.AsciiDocParser;
+import io.github.samzhu.docmcp.infrastructure.parser.AsciidoctorPool;
+import io.github.samzhu.docmcp.infrastructure.parser.DocumentParser;
+import io.github.samzhu.docmcp.infrastructure.parser.HtmlParser;
+import io.github.samzhu.docmcp.infrastructure.parser.MarkdownParser;
+import io.github.samzhu.docmcp.infrastructure.parser.ParsedDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文件解析基準測試
+ * <p>
+ * 以 {@link BenchmarkCorpus} 的固定語料比較 Markdown、HTML、AsciiDoc 解析器，
+ * 分別量測完整解析（含章節結構）與停用章節分塊時使用的 {@code parseWithoutSections}。
+ * copies 將語料內文重複以模擬大型文件（32 份約 180 KB）。
+ * </p>
+ * <p>
+ * AsciiDoc 的 JRuby 執行環境在 setup 建立並先解析一次，不計入第一次建立的數秒成本。
+ * </p>
+ *
+ * <pre>
+ * ./gradlew jmh -Pjmh.includes=DocumentParserBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class DocumentParserBenchmark {
+
+    @Param({"MARKDOWN", "HTML", "ASCIIDOC"})
+    private Format format;
+
+    @Param({"1", "32"})
+    private int copies;
+
+    private String content;
+    private String path;
+    private DocumentParser parser;
+    private AsciidoctorPool asciidoctorPool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        content = BenchmarkCorpus.repeat(format, copies);
+        path = "docs/" + format.fileName();
+        parser = switch (format) {
+            case MARKDOWN -> new MarkdownParser();
+            case HTML -> new HtmlParser();
+            case ASCIIDOC -> {
+                asciidoctorPool = new AsciidoctorPool(1);
+                yield new AsciiDocParser(asciidoctorPool);
+            }
+        };
+        parser.parse(content, path);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (asciidoctorPool != null) {
+            asciidoctorPool.close();
+        }
+    }
+
+    @Benchmark
+    public ParsedDocument parse() {
+        return parser.parse(content, path);
+    }
+
+    @Benchmark
+    public ParsedDocument parseWithoutSections() {
+        return parser.parseWithoutSections(content, path);
+    }
+}
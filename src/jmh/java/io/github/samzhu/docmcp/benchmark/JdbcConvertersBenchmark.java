@@ -0,0 +1,136 @@
+package io.github.samzhu.docmcp.benchmark;
+
+import io.github.samzhu.docmcp.config.JdbcConfig;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.PgVectorCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.postgresql.util.PGobject;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spring Data JDBC 轉換器基準測試
+ * <p>
+ * 量測 {@link JdbcConfig} 註冊的轉換器單次轉換的成本，每筆實體讀寫都會經過這些轉換器：
+ * <ul>
+ *   <li>向量：文字格式 PGobject、{@code vector_send} 二進位格式的讀取，以及 float[] 的寫入</li>
+ *   <li>JSONB：區塊 metadata 與同步統計 metadata（含巢狀 Map）的讀寫</li>
+ * </ul>
+ * </p>
+ *
+ * <pre>
+ * ./gradlew jmh -Pjmh.includes=JdbcConvertersBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class JdbcConvertersBenchmark {
+
+    @Param({"768", "1536"})
+    private int dimensions;
+
+    private final JdbcConfig.VectorToFloatArrayConverter vectorTextReader = new JdbcConfig.VectorToFloatArrayConverter();
+    private final JdbcConfig.VectorBytesToFloatArrayConverter vectorBinaryReader = new JdbcConfig.VectorBytesToFloatArrayConverter();
+    private final JdbcConfig.FloatArrayToVectorConverter vectorWriter = new JdbcConfig.FloatArrayToVectorConverter();
+    private final JdbcConfig.MapToJsonbConverter jsonbWriter = new JdbcConfig.MapToJsonbConverter();
+    private final JdbcConfig.JsonbToMapConverter jsonbReader = new JdbcConfig.JsonbToMapConverter();
+
+    private float[] vector;
+    private PGobject vectorText;
+    private byte[] vectorBinary;
+    private Map<String, Object> chunkMetadata;
+    private Map<String, Object> syncMetadata;
+    private PGobject chunkMetadataJsonb;
+    private PGobject syncMetadataJsonb;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        SplittableRandom random = new SplittableRandom(42);
+        vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = (float) random.nextDouble(-0.1, 0.1);
+        }
+        vectorText = new PGobject();
+        vectorText.setType("vector");
+        vectorText.setValue(PgVectorCodec.formatText(vector));
+        vectorBinary = PgVectorCodec.encode(vector);
+
+        chunkMetadata = new LinkedHashMap<>();
+        chunkMetadata.put("versionId", "0KFBWG3J6N4QR");
+        chunkMetadata.put("documentId", "0KFBWG3J6N4QS");
+        chunkMetadata.put("chunkIndex", 12);
+        chunkMetadata.put("tokenCount", 384);
+        chunkMetadata.put("documentTitle", "Building a Reactive Data Service");
+        chunkMetadata.put("documentPath", "docs/guides/reactive-data-service.md");
+        chunkMetadata.put("headingPath", List.of("Building a Reactive Data Service", "Caching", "Read-Through Cache"));
+        chunkMetadata.put("embeddingModel", "text-embedding-004:768");
+
+        Map<String, Object> stageMillis = new LinkedHashMap<>();
+        for (String stage : List.of("fetch", "extract", "parse", "chunk", "embed", "persist")) {
+            stageMillis.put(stage, random.nextLong(100_000));
+        }
+        syncMetadata = new LinkedHashMap<>();
+        syncMetadata.put("strategy", "Archive");
+        syncMetadata.put("filesTotal", 2400);
+        syncMetadata.put("filesProcessed", 1800);
+        syncMetadata.put("filesSkipped", 550);
+        syncMetadata.put("filesFailed", 2);
+        syncMetadata.put("bytesDownloaded", 48_000_000L);
+        syncMetadata.put("stageMillis", stageMillis);
+        syncMetadata.put("embeddingCalls", 420);
+        syncMetadata.put("filesPerSecond", 14.5);
+
+        chunkMetadataJsonb = jsonbWriter.convert(chunkMetadata);
+        syncMetadataJsonb = jsonbWriter.convert(syncMetadata);
+    }
+
+    @Benchmark
+    public float[] readVectorText() {
+        return vectorTextReader.convert(vectorText);
+    }
+
+    @Benchmark
+    public float[] readVectorBinary() {
+        return vectorBinaryReader.convert(vectorBinary);
+    }
+
+    @Benchmark
+    public PGobject writeVector() {
+        return vectorWriter.convert(vector);
+    }
+
+    @Benchmark
+    public PGobject writeChunkMetadata() {
+        return jsonbWriter.convert(chunkMetadata);
+    }
+
+    @Benchmark
+    public Map<String, Object> readChunkMetadata() {
+        return jsonbReader.convert(chunkMetadataJsonb);
+    }
+
+    @Benchmark
+    public PGobject writeSyncMetadata() {
+        return jsonbWriter.convert(syncMetadata);
+    }
+
+    @Benchmark
+    public Map<String, Object> readSyncMetadata() {
+        return jsonbReader.convert(syncMetadataJsonb);
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.samzhu.docmcp.benchmark;
+
+import io.github.samzhu.docmcp.infrastructure.vectorstore.PgVectorCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * pgvector 編解碼基準測試
+ * <p>
+ * 模擬讀取 10,000 個區塊的向量欄位：比較原本 JdbcConfig 以 {@code String.split} 解析文字格式、
+ * 改良後的文字解析，以及 {@code vector_send} 二進位格式解碼；寫入則比較原本的 StringBuilder 格式化與二進位編碼。
+ * 搭配 gc profiler（build.gradle 已設定）可比較每次操作的配置量（gc.alloc.rate.norm）。
+ * </p>
+ *
+ * <pre>
+ * ./gradlew jmh -Pjmh.includes=PgVectorCodecBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class PgVectorCodecBenchmark {
+
+    private static final int CHUNKS = 10_000;
+
+    @Param({"768"})
+    private int dimensions;
+
+    private String[] textRows;
+    private byte[][] binaryRows;
+    private float[][] vectors;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        textRows = new String[CHUNKS];
+        binaryRows = new byte[CHUNKS][];
+        vectors = new float[CHUNKS][];
+        for (int row = 0; row < CHUNKS; row++) {
+            float[] vector = new float[dimensions];
+            for (int i = 0; i < dimensions; i++) {
+                vector[i] = (float) random.nextDouble(-0.1, 0.1);
+            }
+            vectors[row] = vector;
+            textRows[row] = PgVectorCodec.formatText(vector);
+            binaryRows[row] = PgVectorCodec.encode(vector);
+        }
+    }
+
+    /**
+     * 原本 JdbcConfig.VectorToFloatArrayConverter 的實作（基準線）
+     */
+    @Benchmark
+    public void readTextLegacySplit(Blackhole blackhole) {
+        for (String value : textRows) {
+            if (value.startsWith("[") && value.endsWith("]")) {
+                value = value.substring(1, value.length() - 1);
+            }
+            String[] parts = value.split(",");
+            float[] result = new float[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                result[i] = Float.parseFloat(parts[i].trim());
+            }
+            blackhole.consume(result);
+        }
+    }
+
+    @Benchmark
+    public void readTextCodec(Blackhole blackhole) {
+        for (String value : textRows) {
+            blackhole.consume(PgVectorCodec.parseText(value));
+        }
+    }
+
+    @Benchmark
+    public void readBinaryCodec(Blackhole blackhole) {
+        for (byte[] value : binaryRows) {
+            blackhole.consume(PgVectorCodec.decode(value));
+        }
+    }
+
+    /**
+     * 原本 FloatArrayToVectorConverter / EmbeddingService.toVectorString 的實作（基準線）
+     */
+    @Benchmark
+    public void writeTextLegacy(Blackhole blackhole) {
+        for (float[] vector : vectors) {
+            StringBuilder sb = new StringBuilder("[");
+            for (int i = 0; i < vector.length; i++) {
+                if (i > 0) {
+                    sb.append(",");
+                }
+                sb.append(vector[i]);
+            }
+            sb.append("]");
+            blackhole.consume(sb.toString());
+        }
+    }
+
+    @Benchmark
+    public void writeBinaryCodec(Blackhole blackhole) {
+        for (float[] vector : vectors) {
+            blackhole.consume(PgVectorCodec.encode(vector));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.samzhu.docmcp.benchmark;
+
+import io.github.samzhu.docmcp.mcp.dto.SearchResultItem;
+import io.github.samzhu.docmcp.service.RrfFusion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 混合搜尋 RRF 融合基準測試
+ * <p>
+ * 量測 {@link RrfFusion#calculateScores} 與完整融合（{@link RrfFusion#fuse}：計分、排序、正規化）的成本。
+ * 混合搜尋會各取 limit × 2 筆，resultsPerSide 20 對應預設 limit 10；
+ * 語意搜尋結果中一半與關鍵字結果屬於同一文件區塊。
+ * </p>
+ *
+ * <pre>
+ * ./gradlew jmh -Pjmh.includes=SearchFusionBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class SearchFusionBenchmark {
+
+    private static final double ALPHA = 0.3;
+
+    @Param({"20", "200"})
+    private int resultsPerSide;
+
+    private List<SearchResultItem> keywordResults;
+    private List<SearchResultItem> semanticResults;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keywordResults = new ArrayList<>(resultsPerSide);
+        semanticResults = new ArrayList<>(resultsPerSide);
+        for (int i = 0; i < resultsPerSide; i++) {
+            keywordResults.add(item("doc-" + i, (i % 2 == 0) ? "chunk-" + i : null, 1.0 - i * 0.001));
+            // 偶數名次與關鍵字結果為同一區塊，其餘為只出現在語意搜尋的區塊
+            String chunkId = (i % 2 == 0) ? "chunk-" + (resultsPerSide - 2 - i) : "semantic-" + i;
+            semanticResults.add(item("doc-s" + i, chunkId, 0.9 - i * 0.001));
+        }
+    }
+
+    @Benchmark
+    public Map<String, Double> calculateScores() {
+        return RrfFusion.calculateScores(keywordResults, semanticResults, ALPHA);
+    }
+
+    @Benchmark
+    public List<SearchResultItem> fuse() {
+        return RrfFusion.fuse(keywordResults, semanticResults, ALPHA, resultsPerSide / 2);
+    }
+
+    private static SearchResultItem item(String documentId, String chunkId, double score) {
+        return new SearchResultItem(documentId, chunkId, "Title " + documentId, "docs/" + documentId + ".md",
+                "content of " + documentId, score, chunkId != null ? 0 : null);
+    }
+}
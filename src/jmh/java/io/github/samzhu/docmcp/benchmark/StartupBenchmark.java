@@ -0,0 +1,161 @@
+package io.github.samzhu.docmcp.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 啟動時間基準測試
+ * <p>
+ * 每次量測啟動一個新的應用程式程序，計算從啟動到第一個 MCP 請求（{@code initialize}）成功回應的時間。
+ * 比較三種啟動方式：
+ * <ul>
+ *   <li>JIT：一般啟動</li>
+ *   <li>SPRING_AOT：使用 processAot 產生的 bean 定義（{@code -Dspring.aot.enabled=true}）</li>
+ *   <li>SPRING_AOT_CACHE：再加上訓練執行產生的 JDK AOT cache（{@code -XX:AOTCache}）</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 需要先以 {@code ./gradlew startupTraining -Paot} 產生 build/startup，
+ * 且環境中有可連線的資料庫（子程序沿用目前的環境變數）。
+ * </p>
+ *
+ * <pre>
+ * ./gradlew startupTraining -Paot
+ * ./gradlew jmh -Pjmh.includes=StartupBenchmark
+ * </pre>
+ * <p>
+ * 可用 {@code -Ddocmcp.benchmark.jar=...}、{@code -Ddocmcp.benchmark.aot-cache=...}
+ * 與 {@code -Ddocmcp.benchmark.profiles=...} 指定 jar、AOT cache 與 Spring profiles。
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class StartupBenchmark {
+
+    public enum LaunchMode { JIT, SPRING_AOT, SPRING_AOT_CACHE }
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private static final String INITIALIZE_REQUEST = """
+            {"jsonrpc":"2.0","id":1,"method":"initialize","params":{"protocolVersion":"2025-06-18",\
+            "capabilities":{},"clientInfo":{"name":"startup-benchmark","version":"1.0"}}}""";
+
+    @Param({"JIT", "SPRING_AOT", "SPRING_AOT_CACHE"})
+    private LaunchMode launchMode;
+
+    private Path jar;
+    private Path aotCache;
+    private HttpClient httpClient;
+    private Process process;
+    private int port;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        jar = Path.of(System.getProperty("docmcp.benchmark.jar", "build/startup/docmcp-server-0.0.1-SNAPSHOT.jar"));
+        aotCache = Path.of(System.getProperty("docmcp.benchmark.aot-cache", "build/startup/app.aot"));
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("找不到應用程式 jar（先執行 ./gradlew startupTraining -Paot）: "
+                    + jar.toAbsolutePath());
+        }
+        if (launchMode == LaunchMode.SPRING_AOT_CACHE && !Files.isRegularFile(aotCache)) {
+            throw new IllegalStateException("找不到 AOT cache: " + aotCache.toAbsolutePath());
+        }
+        httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpIteration() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+    }
+
+    @Benchmark
+    public int timeToFirstMcpResponse() throws IOException, InterruptedException {
+        process = new ProcessBuilder(command())
+                .redirectErrorStream(true)
+                .redirectOutput(jar.resolveSibling("startup-benchmark-" + launchMode + ".log").toFile())
+                .start();
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/mcp"))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json, text/event-stream")
+                .timeout(Duration.ofSeconds(10))
+                .POST(HttpRequest.BodyPublishers.ofString(INITIALIZE_REQUEST))
+                .build();
+
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("應用程式提前結束，exit code: " + process.exitValue());
+            }
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return response.statusCode();
+                }
+            } catch (ConnectException e) {
+                // 尚未開始監聽
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("應用程式未在 " + STARTUP_TIMEOUT + " 內回應 MCP 請求");
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDownIteration() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+            process = null;
+        }
+    }
+
+    private List<String> command() {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.add("--add-modules");
+        command.add("jdk.incubator.vector");
+        if (launchMode != LaunchMode.JIT) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        if (launchMode == LaunchMode.SPRING_AOT_CACHE) {
+            command.add("-XX:AOTCache=" + aotCache.toAbsolutePath());
+        }
+        command.add("-jar");
+        command.add(jar.toAbsolutePath().toString());
+        command.add("--server.port=" + port);
+        String profiles = System.getProperty("docmcp.benchmark.profiles");
+        if (profiles != null && !profiles.isBlank()) {
+            command.add("--spring.profiles.active=" + profiles);
+        }
+        return command;
+    }
+}
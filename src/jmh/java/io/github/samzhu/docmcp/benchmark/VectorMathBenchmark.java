@@ -0,0 +1,117 @@
+package io.github.samzhu.docmcp.benchmark;
+
+import io.github.samzhu.docmcp.infrastructure.vectorstore.math.VectorMath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 向量運算基準測試
+ * <p>
+ * 比較原本 GetRelatedDocsTool 的純量 cosine 迴圈、{@link VectorMath#scalar()} 與
+ * {@link VectorMath#get()}（以 --add-modules jdk.incubator.vector 執行時為 SIMD）。
+ * topK 以 10,000 個連續存放的向量模擬單一版本的精確掃描。
+ * </p>
+ *
+ * <pre>
+ * ./gradlew jmh -Pjmh.includes=VectorMathBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class VectorMathBenchmark {
+
+    private static final int SEGMENT_VECTORS = 10_000;
+
+    @Param({"768", "1536"})
+    private int dimensions;
+
+    private float[] a;
+    private float[] b;
+    private MemorySegment segment;
+
+    private final VectorMath scalar = VectorMath.scalar();
+    private final VectorMath best = VectorMath.get();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        a = randomVector(random);
+        b = randomVector(random);
+        segment = Arena.ofAuto().allocate((long) SEGMENT_VECTORS * dimensions * Float.BYTES, 64);
+        for (long i = 0; i < (long) SEGMENT_VECTORS * dimensions; i++) {
+            segment.setAtIndex(ValueLayout.JAVA_FLOAT, i, (float) random.nextDouble(-1, 1));
+        }
+    }
+
+    private float[] randomVector(SplittableRandom random) {
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = (float) random.nextDouble(-1, 1);
+        }
+        return vector;
+    }
+
+    /**
+     * 原本 GetRelatedDocsTool.calculateCosineSimilarity 的實作（基準線）
+     */
+    @Benchmark
+    public double cosineLegacyLoop() {
+        double dotProduct = 0.0;
+        double normA = 0.0;
+        double normB = 0.0;
+        for (int i = 0; i < a.length; i++) {
+            dotProduct += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return dotProduct / (Math.sqrt(normA) * Math.sqrt(normB));
+    }
+
+    @Benchmark
+    public float cosineScalar() {
+        return scalar.cosine(a, b);
+    }
+
+    @Benchmark
+    public float cosineBest() {
+        return best.cosine(a, b);
+    }
+
+    @Benchmark
+    public float dotScalar() {
+        return scalar.dot(a, b);
+    }
+
+    @Benchmark
+    public float dotBest() {
+        return best.dot(a, b);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public VectorMath.TopK topKScalar() {
+        return scalar.topK(segment, SEGMENT_VECTORS, a, 10);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public VectorMath.TopK topKBest() {
+        return best.topK(segment, SEGMENT_VECTORS, a, 10);
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.samzhu.docmcp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.ChunkMetadataCodec;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.DocumentChunkConverter;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.DocumentChunkVectorStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.postgresql.util.PGobject;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 向量儲存 metadata JSON 基準測試
+ * <p>
+ * 量測 {@link DocumentChunkVectorStore} 使用的 {@link ChunkMetadataCodec}：寫入區塊時的 metadata 序列化，
+ * 以及搜尋結果每一列的 metadata 反序列化。
+ * metadata 內容與同步時 {@link DocumentChunkConverter#createNewChunkDocument} 產生的相同。
+ * </p>
+ *
+ * <pre>
+ * ./gradlew jmh -Pjmh.includes=VectorStoreMetadataBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class VectorStoreMetadataBenchmark {
+
+    private ChunkMetadataCodec codec;
+    private Map<String, Object> metadata;
+    private PGobject metadataJsonb;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        codec = new ChunkMetadataCodec(new ObjectMapper());
+
+        metadata = new HashMap<>();
+        metadata.put(DocumentChunkVectorStore.METADATA_VERSION_ID, "0KFBWG3J6N4QR");
+        metadata.put(DocumentChunkVectorStore.METADATA_DOCUMENT_ID, "0KFBWG3J6N4QS");
+        metadata.put(DocumentChunkVectorStore.METADATA_CHUNK_INDEX, 12);
+        metadata.put(DocumentChunkVectorStore.METADATA_TOKEN_COUNT, 384);
+        metadata.put(DocumentChunkVectorStore.METADATA_DOCUMENT_TITLE, "Building a Reactive Data Service");
+        metadata.put(DocumentChunkVectorStore.METADATA_DOCUMENT_PATH, "docs/guides/reactive-data-service.md");
+        metadata.put(DocumentChunkVectorStore.METADATA_HEADING_PATH,
+                List.of("Building a Reactive Data Service", "Caching", "Read-Through Cache"));
+        metadata.put(DocumentChunkVectorStore.METADATA_EMBEDDING_MODEL, "text-embedding-004:768");
+
+        metadataJsonb = new PGobject();
+        metadataJsonb.setType("jsonb");
+        metadataJsonb.setValue(codec.toJson(metadata));
+    }
+
+    @Benchmark
+    public String writeMetadata() {
+        return codec.toJson(metadata);
+    }
+
+    @Benchmark
+    public Map<String, Object> readMetadata() {
+        return codec.toMap(metadataJsonb);
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.samzhu.docmcp.config;
+
+import io.github.samzhu.docmcp.service.HeuristicTokenCounter;
+import io.github.samzhu.docmcp.service.TokenCounter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 文件分塊配置
+ * <p>
+ * 啟用 ChunkingProperties 配置屬性綁定，並提供預設的 token 計數器。
+ * 註冊自訂的 {@link TokenCounter} Bean（例如對應 embedding 模型的 tokenizer）即可取代預設的估算實作。
+ * </p>
+ */
+@Configuration
+@EnableConfigurationProperties(ChunkingProperties.class)
+public class ChunkingConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public TokenCounter tokenCounter() {
+        return new HeuristicTokenCounter();
+    }
+}
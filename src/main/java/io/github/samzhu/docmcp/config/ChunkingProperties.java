@@ -0,0 +1,133 @@
+package io.github.samzhu.docmcp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 文件分塊配置
+ * <p>
+ * 控制同步時依章節分塊的 token 預算，可依函式庫名稱覆寫。
+ * 配置前綴: docmcp.chunking
+ * </p>
+ *
+ * <pre>
+ * docmcp:
+ *   chunking:
+ *     section-aware: true  # 依標題章節分塊（false 使用固定大小滑動視窗）
+ *     max-tokens: 512      # 每個區塊的 token 上限（程式碼區塊不拆分，可能超過）
+ *     min-tokens: 128      # 低於此值的章節與下一章節合併
+ *     libraries:
+ *       spring-boot:
+ *         max-tokens: 768
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "docmcp.chunking")
+public class ChunkingProperties {
+
+    /**
+     * 是否依文件的標題結構分塊（解析器無法提供結構時仍使用滑動視窗）
+     */
+    private boolean sectionAware = true;
+
+    /**
+     * 每個區塊的 token 上限
+     */
+    private int maxTokens = 512;
+
+    /**
+     * 區塊的 token 下限，較小的章節會與後續章節合併
+     */
+    private int minTokens = 128;
+
+    /**
+     * 依函式庫名稱覆寫的分塊大小
+     */
+    private Map<String, Sizing> libraries = new HashMap<>();
+
+    /**
+     * 取得指定函式庫的分塊大小（未覆寫的值使用全域設定）
+     *
+     * @param libraryName 函式庫名稱（可為 null）
+     * @return 分塊大小
+     */
+    public ChunkSizing sizingFor(String libraryName) {
+        Sizing override = libraryName != null ? libraries.get(libraryName) : null;
+        int max = override != null && override.getMaxTokens() != null ? override.getMaxTokens() : maxTokens;
+        int min = override != null && override.getMinTokens() != null ? override.getMinTokens() : minTokens;
+        return new ChunkSizing(sectionAware, max, Math.min(min, max));
+    }
+
+    public boolean isSectionAware() {
+        return sectionAware;
+    }
+
+    public void setSectionAware(boolean sectionAware) {
+        this.sectionAware = sectionAware;
+    }
+
+    public int getMaxTokens() {
+        return maxTokens;
+    }
+
+    public void setMaxTokens(int maxTokens) {
+        this.maxTokens = maxTokens;
+    }
+
+    public int getMinTokens() {
+        return minTokens;
+    }
+
+    public void setMinTokens(int minTokens) {
+        this.minTokens = minTokens;
+    }
+
+    public Map<String, Sizing> getLibraries() {
+        return libraries;
+    }
+
+    public void setLibraries(Map<String, Sizing> libraries) {
+        this.libraries = libraries;
+    }
+
+    /**
+     * 函式庫層級的分塊大小覆寫（null 表示沿用全域設定）
+     */
+    public static class Sizing {
+
+        private Integer maxTokens;
+        private Integer minTokens;
+
+        public Integer getMaxTokens() {
+            return maxTokens;
+        }
+
+        public void setMaxTokens(Integer maxTokens) {
+            this.maxTokens = maxTokens;
+        }
+
+        public Integer getMinTokens() {
+            return minTokens;
+        }
+
+        public void setMinTokens(Integer minTokens) {
+            this.minTokens = minTokens;
+        }
+    }
+
+    /**
+     * 實際使用的分塊大小
+     *
+     * @param sectionAware 是否依章節分塊
+     * @param maxTokens    每個區塊的 token 上限
+     * @param minTokens    區塊的 token 下限
+     */
+    public record ChunkSizing(boolean sectionAware, int maxTokens, int minTokens) {
+
+        /**
+         * 預設分塊大小
+         */
+        public static final ChunkSizing DEFAULT = new ChunkSizing(true, 512, 128);
+    }
+}
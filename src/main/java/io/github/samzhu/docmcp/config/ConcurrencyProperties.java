@@ -0,0 +1,161 @@
+package io.github.samzhu.docmcp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 併發限制配置
+ * <p>
+ * 控制每個 API Key（與所有匿名請求共用）的同時請求上限、等待佇列與請求權重。
+ * 配置前綴: docmcp.security.concurrency
+ * </p>
+ *
+ * <pre>
+ * docmcp:
+ *   security:
+ *     concurrency:
+ *       default-limit: 10     # 每個 API Key 的初始上限（權重總和）
+ *       max-limit: 50         # 自適應調整的上限
+ *       max-wait: 2s          # 超過上限時最多排隊等待的時間
+ *       tool-weights:
+ *         semantic_search: 4
+ *       api-weights:
+ *         search: 4
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "docmcp.security.concurrency")
+public class ConcurrencyProperties {
+
+    /**
+     * 每個 API Key 的初始同時請求上限（以權重計）
+     */
+    private int defaultLimit = 10;
+
+    /**
+     * 所有匿名請求共用的同時請求上限（以權重計，自適應調整時不會超過此值）
+     */
+    private int anonymousLimit = 5;
+
+    /**
+     * 自適應調整的下限
+     */
+    private int minLimit = 1;
+
+    /**
+     * 自適應調整的上限
+     */
+    private int maxLimit = 50;
+
+    /**
+     * 是否依觀察到的延遲自動調整上限
+     */
+    private boolean adaptive = true;
+
+    /**
+     * 超過上限時排隊等待的最長時間（0 表示不等待，立即回應 429）
+     */
+    private Duration maxWait = Duration.ofSeconds(2);
+
+    /**
+     * 每個 API Key 最多排隊等待的請求數
+     */
+    private int maxQueueSize = 20;
+
+    /**
+     * 閒置多久後移除 API Key 的限制器
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    /**
+     * MCP 工具的權重（工具名稱 → 權重，未列出者為 1）
+     */
+    private Map<String, Integer> toolWeights = new HashMap<>();
+
+    /**
+     * REST API 的權重（/api/ 之後的第一段路徑 → 權重，未列出者為 1）
+     */
+    private Map<String, Integer> apiWeights = new HashMap<>();
+
+    public int getDefaultLimit() {
+        return defaultLimit;
+    }
+
+    public void setDefaultLimit(int defaultLimit) {
+        this.defaultLimit = defaultLimit;
+    }
+
+    public int getAnonymousLimit() {
+        return anonymousLimit;
+    }
+
+    public void setAnonymousLimit(int anonymousLimit) {
+        this.anonymousLimit = anonymousLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    public void setAdaptive(boolean adaptive) {
+        this.adaptive = adaptive;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    public void setMaxQueueSize(int maxQueueSize) {
+        this.maxQueueSize = maxQueueSize;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public Map<String, Integer> getToolWeights() {
+        return toolWeights;
+    }
+
+    public void setToolWeights(Map<String, Integer> toolWeights) {
+        this.toolWeights = toolWeights;
+    }
+
+    public Map<String, Integer> getApiWeights() {
+        return apiWeights;
+    }
+
+    public void setApiWeights(Map<String, Integer> apiWeights) {
+        this.apiWeights = apiWeights;
+    }
+}
@@ -0,0 +1,193 @@
+package io.github.samzhu.docmcp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Embedding 模型與遷移配置
+ * <p>
+ * model / dimensions 描述目前部署設定的模型（需與 spring.ai.google.genai.embedding 一致），
+ * migration 控制背景重新嵌入作業的節流參數。
+ * 配置前綴: docmcp.embedding
+ * </p>
+ *
+ * <pre>
+ * docmcp:
+ *   embedding:
+ *     model: gemini-embedding-001
+ *     dimensions: 768
+ *     migration:
+ *       enabled: true
+ *       batch-size: 50
+ *       max-batches-per-run: 4
+ *       interval-ms: 5000
+ *       reconcile-window-minutes: 30
+ *       claim-timeout-seconds: 300
+ *       previous-retention-hours: 168
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "docmcp.embedding")
+public class EmbeddingProperties {
+
+    /**
+     * 目前設定的 embedding 模型名稱
+     */
+    private String model = "gemini-embedding-001";
+
+    /**
+     * 目前設定的輸出維度
+     */
+    private int dimensions = 768;
+
+    /**
+     * 背景遷移配置
+     */
+    private Migration migration = new Migration();
+
+    public String getModel() {
+        return model;
+    }
+
+    public void setModel(String model) {
+        this.model = model;
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    public void setDimensions(int dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    public Migration getMigration() {
+        return migration;
+    }
+
+    public void setMigration(Migration migration) {
+        this.migration = migration;
+    }
+
+    /**
+     * 背景重新嵌入配置
+     */
+    public static class Migration {
+
+        /**
+         * 是否在此實例執行背景遷移作業（多實例部署時可只在部分實例開啟）
+         */
+        private boolean enabled = true;
+
+        /**
+         * 每批重新嵌入的區塊數（不可超過 embedding API 的單批上限 100）
+         */
+        private int batchSize = 50;
+
+        /**
+         * 每次排程最多處理的批次數（用於節流，避免耗盡 embedding API 配額）
+         */
+        private int maxBatchesPerRun = 4;
+
+        /**
+         * 排程間隔（毫秒）
+         */
+        private long intervalMs = 5000;
+
+        /**
+         * 切換後持續修正舊模型區塊的時間（分鐘）
+         * <p>
+         * 切換前已開始的同步或尚未偵測到切換的實例可能仍寫入舊模型向量，
+         * 在此時間內會以新模型補嵌入。
+         * </p>
+         */
+        private int reconcileWindowMinutes = 30;
+
+        /**
+         * 領取批次的期限（秒）
+         * <p>
+         * 批次在短交易中領取後即釋放列鎖，呼叫 embedding API 期間不持有鎖與連線；
+         * 超過期限仍未寫回（API 逾時或實例中斷）的區塊可再由其他實例領取。
+         * </p>
+         */
+        private int claimTimeoutSeconds = 300;
+
+        /**
+         * 影子欄位索引建立的期限（分鐘）
+         * <p>
+         * 從遷移進入 INDEXING（或重新領取建立）起計算，超過期限仍在建立或無法建立時取消建立並標記為 FAILED。
+         * </p>
+         */
+        private int indexTimeoutMinutes = 360;
+
+        /**
+         * 切換後保留舊向量欄位 embedding_previous 的時間（小時）
+         * <p>
+         * 超過此時間後由排程刪除舊欄位與其索引；設為 0 或負數時只在呼叫 finalize API 時刪除。
+         * </p>
+         */
+        private int previousRetentionHours = 168;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxBatchesPerRun() {
+            return maxBatchesPerRun;
+        }
+
+        public void setMaxBatchesPerRun(int maxBatchesPerRun) {
+            this.maxBatchesPerRun = maxBatchesPerRun;
+        }
+
+        public long getIntervalMs() {
+            return intervalMs;
+        }
+
+        public void setIntervalMs(long intervalMs) {
+            this.intervalMs = intervalMs;
+        }
+
+        public int getReconcileWindowMinutes() {
+            return reconcileWindowMinutes;
+        }
+
+        public void setReconcileWindowMinutes(int reconcileWindowMinutes) {
+            this.reconcileWindowMinutes = reconcileWindowMinutes;
+        }
+
+        public int getClaimTimeoutSeconds() {
+            return claimTimeoutSeconds;
+        }
+
+        public void setClaimTimeoutSeconds(int claimTimeoutSeconds) {
+            this.claimTimeoutSeconds = claimTimeoutSeconds;
+        }
+
+        public int getIndexTimeoutMinutes() {
+            return indexTimeoutMinutes;
+        }
+
+        public void setIndexTimeoutMinutes(int indexTimeoutMinutes) {
+            this.indexTimeoutMinutes = indexTimeoutMinutes;
+        }
+
+        public int getPreviousRetentionHours() {
+            return previousRetentionHours;
+        }
+
+        public void setPreviousRetentionHours(int previousRetentionHours) {
+            this.previousRetentionHours = previousRetentionHours;
+        }
+    }
+}
@@ -47,6 +47,11 @@ public class FeatureFlags {
      */
     private boolean concurrencyLimit = true;
 
+    /**
+     * 是否啟用 API Key 速率限制功能（api_keys.rate_limit）
+     */
+    private boolean rateLimit = true;
+
     public boolean isWebUi() {
         return webUi;
     }
@@ -102,4 +107,12 @@ public class FeatureFlags {
     public void setConcurrencyLimit(boolean concurrencyLimit) {
         this.concurrencyLimit = concurrencyLimit;
     }
+
+    public boolean isRateLimit() {
+        return rateLimit;
+    }
+
+    public void setRateLimit(boolean rateLimit) {
+        this.rateLimit = rateLimit;
+    }
 }
@@ -3,6 +3,7 @@ package io.github.samzhu.docmcp.config;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.PgVectorCodec;
 import org.postgresql.util.PGobject;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -24,6 +25,11 @@ import java.util.Map;
  * <p>
  * 配置自訂的型別轉換器，支援 Map 和 JSONB 之間的轉換。
  * </p>
+ * <p>
+ * 向量欄位以 pgvector 二進位格式讀取：查詢使用 {@code vector_send(embedding) AS embedding}
+ * 取得 bytea，由 {@link VectorBytesToFloatArrayConverter} 解碼；直接選取 vector 欄位時
+ * （如 CrudRepository 的預設查詢）才走文字格式解析。
+ * </p>
  */
 @Configuration
 public class JdbcConfig extends AbstractJdbcConfiguration {
@@ -37,6 +43,7 @@ public class JdbcConfig extends AbstractJdbcConfiguration {
                 new JsonbToMapConverter(),
                 new TimestampToOffsetDateTimeConverter(),
                 new VectorToFloatArrayConverter(),
+                new VectorBytesToFloatArrayConverter(),
                 new FloatArrayToVectorConverter()
         ));
     }
@@ -103,23 +110,27 @@ public class JdbcConfig extends AbstractJdbcConfiguration {
     public static class VectorToFloatArrayConverter implements Converter<PGobject, float[]> {
         @Override
         public float[] convert(PGobject source) {
+            if (source instanceof PgVectorCodec.BinaryVector binary) {
+                return binary.getVector();
+            }
             if (source == null || source.getValue() == null) {
                 return null;
             }
-            String value = source.getValue();
-            // 移除方括號 "[" 和 "]"
-            if (value.startsWith("[") && value.endsWith("]")) {
-                value = value.substring(1, value.length() - 1);
-            }
-            if (value.isEmpty()) {
-                return new float[0];
-            }
-            String[] parts = value.split(",");
-            float[] result = new float[parts.length];
-            for (int i = 0; i < parts.length; i++) {
-                result[i] = Float.parseFloat(parts[i].trim());
-            }
-            return result;
+            return PgVectorCodec.parseText(source.getValue());
+        }
+    }
+
+    /**
+     * bytea (vector_send) -> float[] 讀取轉換器
+     * <p>
+     * 解碼 pgvector 二進位格式，查詢需以 {@code vector_send(embedding) AS embedding} 選取向量欄位。
+     * </p>
+     */
+    @ReadingConverter
+    public static class VectorBytesToFloatArrayConverter implements Converter<byte[], float[]> {
+        @Override
+        public float[] convert(byte[] source) {
+            return PgVectorCodec.decode(source);
         }
     }
 
@@ -127,30 +138,17 @@ public class JdbcConfig extends AbstractJdbcConfiguration {
      * float[] -> PGobject (vector) 寫入轉換器
      * <p>
      * 將 Java float[] 轉換為 PostgreSQL pgvector 的 vector 類型。
+     * 回傳可二進位傳送的 {@link PgVectorCodec.BinaryVector}，driver 未啟用二進位傳輸時才產生文字格式。
      * </p>
      */
     @WritingConverter
     public static class FloatArrayToVectorConverter implements Converter<float[], PGobject> {
         @Override
         public PGobject convert(float[] source) {
-            PGobject vectorObject = new PGobject();
-            vectorObject.setType("vector");
-            try {
-                if (source == null || source.length == 0) {
-                    vectorObject.setValue(null);
-                } else {
-                    StringBuilder sb = new StringBuilder("[");
-                    for (int i = 0; i < source.length; i++) {
-                        if (i > 0) sb.append(",");
-                        sb.append(source[i]);
-                    }
-                    sb.append("]");
-                    vectorObject.setValue(sb.toString());
-                }
-            } catch (SQLException e) {
-                throw new RuntimeException("Error converting float[] to vector", e);
+            if (source == null || source.length == 0) {
+                return new PgVectorCodec.BinaryVector();
             }
-            return vectorObject;
+            return PgVectorCodec.toPGobject(source);
         }
     }
 
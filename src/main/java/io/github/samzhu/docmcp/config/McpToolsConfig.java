@@ -1,5 +1,8 @@
 package io.github.samzhu.docmcp.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.samzhu.docmcp.infrastructure.metrics.LibraryTagResolver;
+import io.github.samzhu.docmcp.infrastructure.metrics.TimedToolCallback;
 import io.github.samzhu.docmcp.mcp.tool.discovery.ListLibrariesTool;
 import io.github.samzhu.docmcp.mcp.tool.discovery.ResolveLibraryTool;
 import io.github.samzhu.docmcp.mcp.tool.management.GetSyncStatusTool;
@@ -12,16 +15,21 @@ import io.github.samzhu.docmcp.mcp.tool.retrieve.GetRelatedDocsTool;
 import io.github.samzhu.docmcp.mcp.tool.search.GetApiReferenceTool;
 import io.github.samzhu.docmcp.mcp.tool.search.SearchDocsTool;
 import io.github.samzhu.docmcp.mcp.tool.search.SemanticSearchTool;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.ai.tool.method.MethodToolCallbackProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Arrays;
+
 /**
  * MCP 工具配置
  * <p>
  * 註冊所有 MCP 工具至 Spring AI MCP Server。
  * 這些工具會透過 MCP 協議暴露給 AI 助手使用。
+ * 每個工具回調以 {@link TimedToolCallback} 包裝，記錄各工具的延遲與呼叫次數（{@code docmcp.mcp.tool}）。
  * </p>
  */
 @Configuration
@@ -45,6 +53,9 @@ public class McpToolsConfig {
      * @param getMigrationGuideTool  取得遷移指南工具
      * @param listVersionsTool       列出版本工具
      * @param getSyncStatusTool      取得同步狀態工具
+     * @param meterRegistry          指標登錄
+     * @param objectMapper           解析工具參數（取得函式庫標記）
+     * @param libraryTagResolver     將函式庫參數解析為已註冊的函式庫 ID
      * @return 工具回調提供者
      */
     @Bean
@@ -64,9 +75,12 @@ public class McpToolsConfig {
             GetMigrationGuideTool getMigrationGuideTool,
             // Management Layer
             ListVersionsTool listVersionsTool,
-            GetSyncStatusTool getSyncStatusTool
+            GetSyncStatusTool getSyncStatusTool,
+            MeterRegistry meterRegistry,
+            ObjectMapper objectMapper,
+            LibraryTagResolver libraryTagResolver
     ) {
-        return MethodToolCallbackProvider.builder()
+        ToolCallbackProvider provider = MethodToolCallbackProvider.builder()
                 .toolObjects(
                         // Discovery Layer
                         listLibrariesTool, resolveLibraryTool,
@@ -79,5 +93,10 @@ public class McpToolsConfig {
                         listVersionsTool, getSyncStatusTool
                 )
                 .build();
+
+        return ToolCallbackProvider.from(Arrays.stream(provider.getToolCallbacks())
+                .<ToolCallback>map(callback -> new TimedToolCallback(callback, meterRegistry, objectMapper,
+                        libraryTagResolver))
+                .toList());
     }
 }
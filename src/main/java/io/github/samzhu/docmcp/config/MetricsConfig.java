@@ -0,0 +1,80 @@
+package io.github.samzhu.docmcp.config;
+
+import io.github.samzhu.docmcp.infrastructure.metrics.LibraryTagResolver;
+import io.github.samzhu.docmcp.infrastructure.metrics.SearchMetrics;
+import io.github.samzhu.docmcp.repository.LibraryRepository;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 指標配置
+ * <p>
+ * DocMCP 自訂指標（{@code docmcp.*}）以函式庫標記，函式庫參數來自用戶端輸入，
+ * 因此只以 {@link LibraryTagResolver} 解析出的已註冊函式庫 ID 作為標記值（未知的值記為 other），
+ * 並限制 {@code library} 標記值的數量：超過上限後新出現的函式庫併入 other，指標本身仍會記錄。
+ * </p>
+ * <p>
+ * 設定：{@code docmcp.metrics.max-library-tags}（預設 200）
+ * </p>
+ */
+@Configuration
+public class MetricsConfig {
+
+    static final String LIBRARY_TAG = "library";
+
+    /**
+     * 指標的函式庫標記解析器
+     *
+     * @param libraryRepository 函式庫 Repository
+     * @return 函式庫標記解析器
+     */
+    @Bean
+    public LibraryTagResolver libraryTagResolver(LibraryRepository libraryRepository) {
+        return new LibraryTagResolver(libraryRepository::findAll);
+    }
+
+    /**
+     * 限制 library 標記值數量的 MeterFilter
+     *
+     * @param maxLibraryTags library 標記值上限
+     * @return MeterFilter
+     */
+    @Bean
+    public MeterFilter libraryTagLimitFilter(@Value("${docmcp.metrics.max-library-tags:200}") int maxLibraryTags) {
+        return libraryTagLimit(maxLibraryTags);
+    }
+
+    /**
+     * 超過上限的 library 標記值改為 other（none 與 other 不計入上限）
+     */
+    static MeterFilter libraryTagLimit(int maxLibraryTags) {
+        Set<String> observed = ConcurrentHashMap.newKeySet();
+        return new MeterFilter() {
+            @Override
+            public Meter.Id map(Meter.Id id) {
+                if (!id.getName().startsWith("docmcp.")) {
+                    return id;
+                }
+                String library = id.getTag(LIBRARY_TAG);
+                if (library == null || observed.contains(library)
+                        || SearchMetrics.NO_LIBRARY.equals(library) || LibraryTagResolver.OTHER.equals(library)) {
+                    return id;
+                }
+                synchronized (observed) {
+                    if (observed.size() < maxLibraryTags) {
+                        observed.add(library);
+                        return id;
+                    }
+                }
+                return id.withTag(Tag.of(LIBRARY_TAG, LibraryTagResolver.OTHER));
+            }
+        };
+    }
+}
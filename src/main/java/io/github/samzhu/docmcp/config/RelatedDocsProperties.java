@@ -0,0 +1,68 @@
+package io.github.samzhu.docmcp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 相關文件配置
+ * <p>
+ * 控制 get_related_docs 的文件質心搜尋與預先計算。
+ * 配置前綴: docmcp.search.related
+ * </p>
+ *
+ * <pre>
+ * docmcp:
+ *   search:
+ *     related:
+ *       precompute: true       # 同步完成後預先計算每份文件的相關文件
+ *       precompute-limit: 20   # 每份文件保留的相關文件數
+ *       precompute-max-documents: 5000 # 超過此文件數的版本不預先計算
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "docmcp.search.related")
+public class RelatedDocsProperties {
+
+    /**
+     * 是否在同步完成後預先計算同版本的相關文件
+     * <p>
+     * 關閉時每次查詢即時以文件質心計算（同版本內精確掃描）。
+     * </p>
+     */
+    private boolean precompute = false;
+
+    /**
+     * 每份文件預先計算的相關文件數（查詢數量超過時改為即時計算）
+     */
+    private int precomputeLimit = 20;
+
+    /**
+     * 預先計算的版本文件數上限
+     * <p>
+     * 預先計算為版本內兩兩比對（O(N²)），超過上限的版本不預先計算，查詢時即時計算。
+     * </p>
+     */
+    private int precomputeMaxDocuments = 5000;
+
+    public boolean isPrecompute() {
+        return precompute;
+    }
+
+    public void setPrecompute(boolean precompute) {
+        this.precompute = precompute;
+    }
+
+    public int getPrecomputeLimit() {
+        return precomputeLimit;
+    }
+
+    public void setPrecomputeLimit(int precomputeLimit) {
+        this.precomputeLimit = precomputeLimit;
+    }
+
+    public int getPrecomputeMaxDocuments() {
+        return precomputeMaxDocuments;
+    }
+
+    public void setPrecomputeMaxDocuments(int precomputeMaxDocuments) {
+        this.precomputeMaxDocuments = precomputeMaxDocuments;
+    }
+}
@@ -2,7 +2,9 @@ package io.github.samzhu.docmcp.config;
 
 import io.github.samzhu.docmcp.security.ApiKeyAuthenticationFilter;
 import io.github.samzhu.docmcp.security.ConcurrencyLimitInterceptor;
+import io.github.samzhu.docmcp.security.RateLimitInterceptor;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
@@ -17,19 +19,23 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 /**
  * 安全配置
  * <p>
- * 配置 API Key 認證和併發限制。
+ * 配置 API Key 認證、速率限制和併發限制。
  * </p>
  */
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(ConcurrencyProperties.class)
 public class SecurityConfig implements WebMvcConfigurer {
 
     private final ApiKeyAuthenticationFilter apiKeyAuthenticationFilter;
+    private final RateLimitInterceptor rateLimitInterceptor;
     private final ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
 
     public SecurityConfig(ApiKeyAuthenticationFilter apiKeyAuthenticationFilter,
+                          RateLimitInterceptor rateLimitInterceptor,
                           ConcurrencyLimitInterceptor concurrencyLimitInterceptor) {
         this.apiKeyAuthenticationFilter = apiKeyAuthenticationFilter;
+        this.rateLimitInterceptor = rateLimitInterceptor;
         this.concurrencyLimitInterceptor = concurrencyLimitInterceptor;
     }
 
@@ -86,7 +92,7 @@ public class SecurityConfig implements WebMvcConfigurer {
                         // 靜態資源允許匿名存取
                         .requestMatchers("/css/**", "/js/**", "/images/**", "/favicon.ico").permitAll()
                         // Actuator 端點
-                        .requestMatchers("/actuator/health", "/actuator/info").permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/info", "/actuator/prometheus").permitAll()
                         // Web 頁面允許匿名存取
                         .anyRequest().permitAll()
                 );
@@ -95,10 +101,16 @@ public class SecurityConfig implements WebMvcConfigurer {
     }
 
     /**
-     * 註冊併發限制攔截器
+     * 註冊速率限制與併發限制攔截器
+     * <p>
+     * 速率限制在前，超過配額的請求不佔用併發許可。
+     * </p>
      */
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(rateLimitInterceptor)
+                .addPathPatterns("/mcp/**", "/api/**")
+                .excludePathPatterns("/api/keys/**");
         registry.addInterceptor(concurrencyLimitInterceptor)
                 .addPathPatterns("/mcp/**", "/api/**")
                 .excludePathPatterns("/api/keys/**");  // API Key 管理端點不限制
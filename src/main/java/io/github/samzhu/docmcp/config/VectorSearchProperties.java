@@ -0,0 +1,307 @@
+package io.github.samzhu.docmcp.config;
+
+import io.github.samzhu.docmcp.infrastructure.vectorstore.CoarseSearchOptions;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.HnswScanOptions;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.VectorQuantization;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.memory.InMemoryIndexOptions;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 向量搜尋配置
+ * <p>
+ * 控制語意搜尋的第一階段縮減索引（量化、Matryoshka 維度截斷）與重新排序的候選數。
+ * 配置前綴: docmcp.search.vector
+ * </p>
+ *
+ * <pre>
+ * docmcp:
+ *   search:
+ *     vector:
+ *       quantization: HALFVEC      # NONE、HALFVEC、BINARY
+ *       coarse-dimensions: 256     # 第一階段只使用前 256 維（0 表示不截斷）
+ *       candidate-multiplier: 4    # 第一階段候選數 = topK × multiplier
+ *       max-candidates: 400        # 候選數上限
+ *       hnsw:
+ *         iterative-scan: RELAXED_ORDER  # 版本過濾後結果不足時繼續掃描索引（pgvector 0.8+）
+ *         ef-search: 100
+ *         max-scan-tuples: 20000
+ *       in-memory:
+ *         enabled: true            # 熱門版本的向量載入 JVM 記憶體搜尋
+ *         memory-budget-mb: 512
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "docmcp.search.vector")
+public class VectorSearchProperties {
+
+    /**
+     * 第一階段候選搜尋的量化方式（NONE 表示單階段完整向量搜尋）
+     */
+    private VectorQuantization quantization = VectorQuantization.NONE;
+
+    /**
+     * 第一階段使用的前綴維度（Matryoshka 截斷，0 表示使用完整維度）
+     * <p>
+     * 例如 768 維截斷為 256 維，索引約縮小 3 倍；可與 quantization 組合使用。
+     * </p>
+     */
+    private int coarseDimensions = 0;
+
+    /**
+     * 候選數相對於 topK 的倍數
+     * <p>
+     * 召回率與延遲的主要調整參數：HALFVEC 通常 2-4 倍即可，BINARY 建議 8 倍以上。
+     * </p>
+     */
+    private int candidateMultiplier = 4;
+
+    /**
+     * 第一階段候選數上限（pgvector 的 hnsw.ef_search 最大為 1000）
+     */
+    private int maxCandidates = 400;
+
+    /**
+     * pgvector HNSW 索引掃描配置
+     */
+    private Hnsw hnsw = new Hnsw();
+
+    /**
+     * 記憶體向量索引配置
+     */
+    private InMemory inMemory = new InMemory();
+
+    public VectorQuantization getQuantization() {
+        return quantization;
+    }
+
+    public void setQuantization(VectorQuantization quantization) {
+        this.quantization = quantization;
+    }
+
+    public int getCoarseDimensions() {
+        return coarseDimensions;
+    }
+
+    public void setCoarseDimensions(int coarseDimensions) {
+        this.coarseDimensions = coarseDimensions;
+    }
+
+    public int getCandidateMultiplier() {
+        return candidateMultiplier;
+    }
+
+    public void setCandidateMultiplier(int candidateMultiplier) {
+        this.candidateMultiplier = candidateMultiplier;
+    }
+
+    public int getMaxCandidates() {
+        return maxCandidates;
+    }
+
+    public void setMaxCandidates(int maxCandidates) {
+        this.maxCandidates = maxCandidates;
+    }
+
+    public Hnsw getHnsw() {
+        return hnsw;
+    }
+
+    public void setHnsw(Hnsw hnsw) {
+        this.hnsw = hnsw;
+    }
+
+    public InMemory getInMemory() {
+        return inMemory;
+    }
+
+    public void setInMemory(InMemory inMemory) {
+        this.inMemory = inMemory;
+    }
+
+    /**
+     * 轉換為 VectorStore 使用的兩階段搜尋選項
+     */
+    public CoarseSearchOptions toCoarseSearchOptions() {
+        return new CoarseSearchOptions(quantization, coarseDimensions, candidateMultiplier,
+                Math.min(maxCandidates, 1000));
+    }
+
+    /**
+     * pgvector HNSW 索引掃描配置
+     * <p>
+     * HNSW 索引涵蓋所有版本，版本過濾在索引掃描之後套用；iterative scan 讓過濾後結果不足時繼續掃描，
+     * 避免多個函式庫或版本共用資料表時搜尋結果少於 topK。pgvector 0.8 以前的版本需設為 OFF。
+     * </p>
+     */
+    public static class Hnsw {
+
+        /**
+         * iterative scan 模式（OFF、STRICT_ORDER、RELAXED_ORDER）
+         */
+        private HnswScanOptions.IterativeScan iterativeScan = HnswScanOptions.IterativeScan.RELAXED_ORDER;
+
+        /**
+         * hnsw.ef_search 下限（實際值至少為查詢的 LIMIT，上限 1000）
+         */
+        private int efSearch = 100;
+
+        /**
+         * iterative scan 最多掃描的索引項目數（召回率與最差延遲的上限）
+         */
+        private int maxScanTuples = 20_000;
+
+        public HnswScanOptions.IterativeScan getIterativeScan() {
+            return iterativeScan;
+        }
+
+        public void setIterativeScan(HnswScanOptions.IterativeScan iterativeScan) {
+            this.iterativeScan = iterativeScan;
+        }
+
+        public int getEfSearch() {
+            return efSearch;
+        }
+
+        public void setEfSearch(int efSearch) {
+            this.efSearch = efSearch;
+        }
+
+        public int getMaxScanTuples() {
+            return maxScanTuples;
+        }
+
+        public void setMaxScanTuples(int maxScanTuples) {
+            this.maxScanTuples = maxScanTuples;
+        }
+
+        /**
+         * 轉換為 VectorStore 使用的索引掃描選項
+         */
+        public HnswScanOptions toOptions() {
+            return new HnswScanOptions(iterativeScan, Math.min(efSearch, HnswScanOptions.MAX_EF_SEARCH),
+                    maxScanTuples);
+        }
+    }
+
+    /**
+     * 記憶體向量索引配置
+     * <p>
+     * 將熱門版本的向量載入 JVM（堆外記憶體 + HNSW 圖），查詢時只以主鍵向資料庫取回內容。
+     * </p>
+     */
+    public static class InMemory {
+
+        /**
+         * 是否啟用記憶體向量索引
+         */
+        private boolean enabled = false;
+
+        /**
+         * 所有版本索引的記憶體預算（MB），超過時依 LRU 淘汰
+         */
+        private int memoryBudgetMb = 512;
+
+        /**
+         * HNSW 每層鄰居數
+         */
+        private int m = 16;
+
+        /**
+         * HNSW 建立時的候選清單大小
+         */
+        private int efConstruction = 100;
+
+        /**
+         * HNSW 搜尋時的候選清單大小
+         */
+        private int efSearch = 64;
+
+        /**
+         * 區塊數低於此值的版本不建立 HNSW 圖，直接精確掃描
+         */
+        private int flatSearchThreshold = 2000;
+
+        /**
+         * 索引最長使用時間，超過後在背景重新載入
+         */
+        private Duration maxAge = Duration.ofMinutes(10);
+
+        /**
+         * 同時載入的版本數上限
+         */
+        private int maxConcurrentLoads = 2;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMemoryBudgetMb() {
+            return memoryBudgetMb;
+        }
+
+        public void setMemoryBudgetMb(int memoryBudgetMb) {
+            this.memoryBudgetMb = memoryBudgetMb;
+        }
+
+        public int getM() {
+            return m;
+        }
+
+        public void setM(int m) {
+            this.m = m;
+        }
+
+        public int getEfConstruction() {
+            return efConstruction;
+        }
+
+        public void setEfConstruction(int efConstruction) {
+            this.efConstruction = efConstruction;
+        }
+
+        public int getEfSearch() {
+            return efSearch;
+        }
+
+        public void setEfSearch(int efSearch) {
+            this.efSearch = efSearch;
+        }
+
+        public int getFlatSearchThreshold() {
+            return flatSearchThreshold;
+        }
+
+        public void setFlatSearchThreshold(int flatSearchThreshold) {
+            this.flatSearchThreshold = flatSearchThreshold;
+        }
+
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+        }
+
+        public int getMaxConcurrentLoads() {
+            return maxConcurrentLoads;
+        }
+
+        public void setMaxConcurrentLoads(int maxConcurrentLoads) {
+            this.maxConcurrentLoads = maxConcurrentLoads;
+        }
+
+        /**
+         * 轉換為記憶體索引選項
+         */
+        public InMemoryIndexOptions toOptions() {
+            return new InMemoryIndexOptions(enabled, memoryBudgetMb * 1024L * 1024L, m, efConstruction,
+                    efSearch, flatSearchThreshold, maxAge, maxConcurrentLoads);
+        }
+    }
+}
@@ -1,17 +1,23 @@
 package io.github.samzhu.docmcp.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.samzhu.docmcp.infrastructure.metrics.SearchMetrics;
 import io.github.samzhu.docmcp.infrastructure.vectorstore.DocumentChunkVectorStore;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.EmbeddingProfile;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.VectorIndexManager;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.memory.InMemoryVectorIndexRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.embedding.EmbeddingModel;
-import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.ai.vectorstore.pgvector.autoconfigure.PgVectorStoreProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.util.concurrent.ExecutorService;
+
 /**
  * VectorStore 配置類別
  * <p>
@@ -24,6 +30,7 @@ import org.springframework.jdbc.core.JdbcTemplate;
  * </p>
  */
 @Configuration
+@EnableConfigurationProperties({EmbeddingProperties.class, VectorSearchProperties.class, RelatedDocsProperties.class})
 public class VectorStoreConfig {
 
     private static final Logger log = LoggerFactory.getLogger(VectorStoreConfig.class);
@@ -36,8 +43,12 @@ public class VectorStoreConfig {
      *   <li>批次 embedding 生成（使用 EmbeddingModel）</li>
      *   <li>向量相似度搜尋（使用 pgvector）</li>
      *   <li>透過 JSONPath 進行 metadata 過濾</li>
-     *   <li>使用 JdbcTemplate + PGvector 物件（參考 Spring AI 官方實作）</li>
+     *   <li>使用 JdbcTemplate 綁定 float[]，向量以二進位格式傳輸</li>
      *   <li>與 Spring AI RAG Advisor 等功能相容</li>
+     *   <li>可選的量化兩階段搜尋（docmcp.search.vector.*）</li>
+     *   <li>版本過濾搭配 HNSW iterative scan（docmcp.search.vector.hnsw.*）</li>
+     *   <li>可選的記憶體向量索引（docmcp.search.vector.in-memory.*）</li>
+     *   <li>搜尋階段與 embedding API 耗時指標</li>
      * </ul>
      * </p>
      *
@@ -45,19 +56,73 @@ public class VectorStoreConfig {
      * @param embeddingModel          嵌入模型（Google GenAI 或 Mock）
      * @param objectMapper            JSON 序列化工具
      * @param pgVectorStoreProperties PgVector 配置屬性（從 spring.ai.vectorstore.pgvector.* 讀取）
+     * @param embeddingProperties     Embedding 模型配置（從 docmcp.embedding.* 讀取）
+     * @param vectorSearchProperties  向量搜尋配置（從 docmcp.search.vector.* 讀取）
+     * @param inMemoryIndex           記憶體向量索引登錄表
+     * @param searchMetrics           搜尋與 embedding 指標
      * @return VectorStore 實例
      */
     @Bean
     @Primary
-    public VectorStore documentChunkVectorStore(
+    public DocumentChunkVectorStore documentChunkVectorStore(
             JdbcTemplate jdbcTemplate,
             EmbeddingModel embeddingModel,
             ObjectMapper objectMapper,
-            PgVectorStoreProperties pgVectorStoreProperties) {
+            PgVectorStoreProperties pgVectorStoreProperties,
+            EmbeddingProperties embeddingProperties,
+            VectorSearchProperties vectorSearchProperties,
+            InMemoryVectorIndexRegistry inMemoryIndex,
+            SearchMetrics searchMetrics) {
 
         int dimensions = pgVectorStoreProperties.getDimensions();
         log.info("初始化 DocumentChunkVectorStore，向量維度: {}", dimensions);
 
-        return new DocumentChunkVectorStore(jdbcTemplate, embeddingModel, objectMapper, dimensions);
+        // 已完成的模型遷移會在啟動後由 EmbeddingMigrationService 切換 activeProfile
+        EmbeddingProfile defaultProfile = new EmbeddingProfile(
+                embeddingProperties.getModel(), embeddingProperties.getDimensions());
+
+        return DocumentChunkVectorStore.builder(jdbcTemplate, embeddingModel, objectMapper)
+                .dimensions(dimensions)
+                .defaultProfile(defaultProfile)
+                .coarseSearchOptions(vectorSearchProperties.toCoarseSearchOptions())
+                .hnswScanOptions(vectorSearchProperties.getHnsw().toOptions())
+                .inMemoryIndex(vectorSearchProperties.getInMemory().isEnabled() ? inMemoryIndex : null)
+                .metrics(searchMetrics)
+                .build();
+    }
+
+    /**
+     * 建立記憶體向量索引登錄表
+     * <p>
+     * 停用時仍建立（不載入任何索引），讓同步完成事件的監聽維持一致。
+     * </p>
+     *
+     * @param jdbcTemplate           JDBC 操作模板
+     * @param vectorSearchProperties 向量搜尋配置
+     * @param virtualThreadExecutor  背景載入使用的虛擬執行緒執行器
+     * @return 記憶體向量索引登錄表
+     */
+    @Bean
+    public InMemoryVectorIndexRegistry inMemoryVectorIndexRegistry(JdbcTemplate jdbcTemplate,
+                                                                   VectorSearchProperties vectorSearchProperties,
+                                                                   ExecutorService virtualThreadExecutor) {
+        return new InMemoryVectorIndexRegistry(jdbcTemplate, vectorSearchProperties.getInMemory().toOptions(),
+                virtualThreadExecutor);
+    }
+
+    /**
+     * 建立向量索引管理器
+     * <p>
+     * 完整精度與量化索引於啟動完成及模型遷移切換後由 EmbeddingMigrationService 確認建立。
+     * </p>
+     *
+     * @param jdbcTemplate           JDBC 操作模板
+     * @param vectorSearchProperties 向量搜尋配置
+     * @return 向量索引管理器
+     */
+    @Bean
+    public VectorIndexManager vectorIndexManager(JdbcTemplate jdbcTemplate,
+                                                 VectorSearchProperties vectorSearchProperties) {
+        return new VectorIndexManager(jdbcTemplate, vectorSearchProperties.toCoarseSearchOptions());
     }
 }
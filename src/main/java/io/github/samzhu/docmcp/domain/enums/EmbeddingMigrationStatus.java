@@ -0,0 +1,47 @@
+package io.github.samzhu.docmcp.domain.enums;
+
+/**
+ * Embedding 模型遷移狀態
+ * <p>
+ * 狀態流程：BACKFILLING → INDEXING → READY → COMPLETED，
+ * 任何階段都可能轉為 FAILED 或 CANCELLED。
+ * </p>
+ */
+public enum EmbeddingMigrationStatus {
+    /**
+     * 背景重新嵌入中（寫入影子欄位 embedding_next）
+     */
+    BACKFILLING,
+
+    /**
+     * 影子欄位已填滿，正在建立 HNSW 索引
+     */
+    INDEXING,
+
+    /**
+     * 索引已完成，等待切換
+     */
+    READY,
+
+    /**
+     * 已切換至新模型
+     */
+    COMPLETED,
+
+    /**
+     * 遷移失敗
+     */
+    FAILED,
+
+    /**
+     * 已取消
+     */
+    CANCELLED;
+
+    /**
+     * 是否為進行中的狀態（尚未切換且未終止）
+     */
+    public boolean isInProgress() {
+        return this == BACKFILLING || this == INDEXING || this == READY;
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.samzhu.docmcp.domain.enums;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 文件的遷移相關性分類
+ * <p>
+ * 同步時依標題、路徑與內容開頭的關鍵字分類並寫入 documents.migration_relevance，
+ * get_migration_guide 只需以索引查詢已分類的文件。
+ * 列舉順序即為顯示優先順序，關鍵字依列舉順序比對，先比對標題與路徑，再比對內容開頭。
+ * </p>
+ */
+public enum MigrationRelevance {
+    /**
+     * 遷移指南
+     */
+    MIGRATION("migration", List.of("migration", "migrate")),
+
+    /**
+     * 升級說明
+     */
+    UPGRADE("upgrade", List.of("upgrade", "upgrading")),
+
+    /**
+     * 破壞性變更
+     */
+    BREAKING_CHANGES("breaking-changes", List.of("breaking", "breaking-change", "breaking_change")),
+
+    /**
+     * 版本發布說明
+     */
+    RELEASE_NOTES("release-notes", List.of("changelog", "release-notes", "release_notes")),
+
+    /**
+     * 與遷移無關
+     */
+    NONE("none", List.of());
+
+    /** 只檢查內容的前 2000 字元 */
+    public static final int CONTENT_PREFIX_LENGTH = 2000;
+
+    private final String label;
+    private final List<String> keywords;
+
+    MigrationRelevance(String label, List<String> keywords) {
+        this.label = label;
+        this.keywords = keywords;
+    }
+
+    /**
+     * 工具回傳使用的標籤（如 breaking-changes）
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * 分類文件
+     *
+     * @param title   文件標題
+     * @param path    文件路徑
+     * @param content 文件內容（可為 null，只會檢查前 2000 字元）
+     * @return 遷移相關性，無關時回傳 NONE
+     */
+    public static MigrationRelevance classify(String title, String path, String content) {
+        String lowerTitle = title != null ? title.toLowerCase(Locale.ROOT) : "";
+        String lowerPath = path != null ? path.toLowerCase(Locale.ROOT) : "";
+        for (MigrationRelevance relevance : values()) {
+            for (String keyword : relevance.keywords) {
+                if (lowerTitle.contains(keyword) || lowerPath.contains(keyword)) {
+                    return relevance;
+                }
+            }
+        }
+
+        if (content == null || content.isEmpty()) {
+            return NONE;
+        }
+        String prefix = content.length() > CONTENT_PREFIX_LENGTH
+                ? content.substring(0, CONTENT_PREFIX_LENGTH)
+                : content;
+        String lowerPrefix = prefix.toLowerCase(Locale.ROOT);
+        for (MigrationRelevance relevance : values()) {
+            for (String keyword : relevance.keywords) {
+                if (lowerPrefix.contains(keyword)) {
+                    return relevance;
+                }
+            }
+        }
+        return NONE;
+    }
+}
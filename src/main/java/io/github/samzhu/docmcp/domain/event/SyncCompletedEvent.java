@@ -0,0 +1,16 @@
+package io.github.samzhu.docmcp.domain.event;
+
+/**
+ * 同步完成事件
+ * <p>
+ * 版本的文件同步成功完成後由 SyncService 發佈，
+ * 供快取、記憶體索引等衍生資料在內容變更後重新整理。
+ * </p>
+ *
+ * @param versionId          同步的版本 ID（TSID 格式）
+ * @param syncId             同步記錄 ID（TSID 格式）
+ * @param documentsProcessed 本次處理（新增或更新）的文件數
+ * @param chunksCreated      本次建立的區塊數
+ */
+public record SyncCompletedEvent(String versionId, String syncId, int documentsProcessed, int chunksCreated) {
+}
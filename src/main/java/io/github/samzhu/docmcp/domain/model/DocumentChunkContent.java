@@ -0,0 +1,25 @@
+package io.github.samzhu.docmcp.domain.model;
+
+import org.springframework.data.relational.core.mapping.Column;
+
+/**
+ * 文件區塊內容投影
+ * <p>
+ * 只包含閱讀區塊所需的欄位，不含向量嵌入。
+ * 用於 get_doc_content 等僅需文字內容的讀取路徑，
+ * 避免每個區塊額外傳輸數 KB 的向量資料。
+ * </p>
+ *
+ * @param id         區塊 ID（TSID 格式）
+ * @param documentId 所屬文件 ID（TSID 格式）
+ * @param chunkIndex 區塊索引（從 0 開始）
+ * @param content    區塊內容
+ * @param tokenCount token 數量
+ */
+public record DocumentChunkContent(
+        String id,
+        @Column("document_id") String documentId,
+        @Column("chunk_index") Integer chunkIndex,
+        String content,
+        @Column("token_count") Integer tokenCount
+) {}
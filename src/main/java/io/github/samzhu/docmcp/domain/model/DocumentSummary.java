@@ -0,0 +1,28 @@
+package io.github.samzhu.docmcp.domain.model;
+
+import org.springframework.data.relational.core.mapping.Column;
+
+import java.time.OffsetDateTime;
+
+/**
+ * 文件摘要投影
+ * <p>
+ * 只包含文件的識別與描述欄位，不含文件內容（最大可達 500 KB）。
+ * 用於目錄、列表、相關文件等只需標題與路徑的讀取路徑。
+ * </p>
+ *
+ * @param id        文件 ID（TSID 格式）
+ * @param versionId 所屬版本 ID（TSID 格式）
+ * @param title     文件標題
+ * @param path      文件路徑
+ * @param docType   文件類型（如 markdown、html）
+ * @param updatedAt 更新時間
+ */
+public record DocumentSummary(
+        String id,
+        @Column("version_id") String versionId,
+        String title,
+        String path,
+        @Column("doc_type") String docType,
+        @Column("updated_at") OffsetDateTime updatedAt
+) {}
@@ -0,0 +1,17 @@
+package io.github.samzhu.docmcp.domain.model;
+
+/**
+ * 文件目錄投影
+ * <p>
+ * 只包含建立目錄所需的欄位，供 get_doc_toc 在大型文件集上一次讀取整個版本。
+ * </p>
+ *
+ * @param id    文件 ID（TSID 格式）
+ * @param title 文件標題
+ * @param path  文件路徑
+ */
+public record DocumentTocEntry(
+        String id,
+        String title,
+        String path
+) {}
@@ -0,0 +1,117 @@
+package io.github.samzhu.docmcp.domain.model;
+
+import io.github.samzhu.docmcp.domain.enums.EmbeddingMigrationStatus;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+import lombok.With;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Embedding 模型遷移實體
+ * <p>
+ * 記錄一次 embedding 模型（或輸出維度）的切換作業。
+ * 遷移期間查詢仍使用舊模型與舊索引，新向量寫入影子欄位 embedding_next，
+ * 全部完成並建立索引後才以單一交易切換。
+ * </p>
+ * <p>
+ * 使用 @Value 實現 Immutable Entity，@Version 進行樂觀鎖定。
+ * version = null 表示新實體（執行 INSERT），version 有值表示既有實體（執行 UPDATE）。
+ * </p>
+ */
+@Table("embedding_migrations")
+@Value
+@EqualsAndHashCode(of = "id")
+public class EmbeddingMigration {
+
+    /** 唯一識別碼（TSID 格式，13 字元） */
+    @Id
+    String id;
+
+    /** 來源模型名稱 */
+    @Column("source_model")
+    String sourceModel;
+
+    /** 來源向量維度 */
+    @Column("source_dimensions")
+    Integer sourceDimensions;
+
+    /** 目標模型名稱 */
+    @Column("target_model")
+    String targetModel;
+
+    /** 目標向量維度 */
+    @Column("target_dimensions")
+    Integer targetDimensions;
+
+    /** 遷移狀態 */
+    EmbeddingMigrationStatus status;
+
+    /** 開始時需要重新嵌入的區塊總數 */
+    @Column("total_chunks")
+    Integer totalChunks;
+
+    /** 已重新嵌入的區塊數 */
+    @Column("migrated_chunks")
+    Integer migratedChunks;
+
+    /** 錯誤訊息 */
+    @Column("error_message")
+    String errorMessage;
+
+    /** 開始時間 */
+    @Column("started_at")
+    OffsetDateTime startedAt;
+
+    /** 完成（切換）時間 */
+    @Column("completed_at")
+    OffsetDateTime completedAt;
+
+    /** 樂觀鎖定版本號（null 表示新實體） */
+    @Version
+    @With
+    Long version;
+
+    /** 建立時間（由資料庫 DEFAULT 設定） */
+    @Column("created_at")
+    @With
+    OffsetDateTime createdAt;
+
+    /** 更新時間（由資料庫 DEFAULT 設定） */
+    @Column("updated_at")
+    @With
+    OffsetDateTime updatedAt;
+
+    /**
+     * 建立新的遷移記錄（狀態為 BACKFILLING）
+     *
+     * @param id               應用層生成的 TSID
+     * @param sourceModel      來源模型名稱
+     * @param sourceDimensions 來源向量維度
+     * @param targetModel      目標模型名稱
+     * @param targetDimensions 目標向量維度
+     * @param totalChunks      需要重新嵌入的區塊總數
+     * @return 新的遷移記錄
+     */
+    public static EmbeddingMigration create(String id, String sourceModel, int sourceDimensions,
+                                            String targetModel, int targetDimensions, int totalChunks) {
+        return new EmbeddingMigration(id, sourceModel, sourceDimensions, targetModel, targetDimensions,
+                EmbeddingMigrationStatus.BACKFILLING, totalChunks, 0, null,
+                OffsetDateTime.now(), null, null, null, null);
+    }
+
+    /**
+     * 計算目前進度百分比（0-100）
+     */
+    public int getProgressPercent() {
+        if (totalChunks == null || totalChunks == 0) {
+            return status == EmbeddingMigrationStatus.COMPLETED ? 100 : 0;
+        }
+        int migrated = migratedChunks != null ? migratedChunks : 0;
+        return (int) Math.min(100, Math.round(migrated * 100.0 / totalChunks));
+    }
+}
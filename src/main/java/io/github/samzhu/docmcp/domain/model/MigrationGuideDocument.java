@@ -0,0 +1,26 @@
+package io.github.samzhu.docmcp.domain.model;
+
+import io.github.samzhu.docmcp.domain.enums.MigrationRelevance;
+import org.springframework.data.relational.core.mapping.Column;
+
+/**
+ * 遷移相關文件投影
+ * <p>
+ * 只包含 get_migration_guide 需要的欄位，內容在資料庫端截斷為摘要。
+ * </p>
+ *
+ * @param id                 文件 ID（TSID 格式）
+ * @param versionId          所屬版本 ID（TSID 格式）
+ * @param title              文件標題
+ * @param path               文件路徑
+ * @param migrationRelevance 遷移相關性分類
+ * @param excerpt            內容開頭
+ */
+public record MigrationGuideDocument(
+        String id,
+        @Column("version_id") String versionId,
+        String title,
+        String path,
+        @Column("migration_relevance") MigrationRelevance migrationRelevance,
+        String excerpt
+) {}
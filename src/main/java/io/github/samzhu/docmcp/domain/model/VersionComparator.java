@@ -0,0 +1,131 @@
+package io.github.samzhu.docmcp.domain.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 版本號比較器
+ * <p>
+ * 依語意比較版本號而非字串順序，例如 3.10.0 &gt; 3.9.0、3.5.0-M1 &lt; 3.5.0-RC1 &lt; 3.5.0。
+ * 版本號以 {@code . - _ +} 及數字與字母的交界切分，數字段以數值比較，
+ * 字母段依 alpha &lt; beta &lt; milestone &lt; rc &lt; snapshot &lt; 正式版 &lt; sp 排序，
+ * 其餘字母段視為晚於已知修飾詞並以字母順序比較。
+ * 開頭的 v（如 v1.2.0）與 RELEASE、GA、FINAL 修飾詞會被忽略。
+ * </p>
+ */
+public final class VersionComparator implements Comparator<String> {
+
+    public static final VersionComparator INSTANCE = new VersionComparator();
+
+    private static final int RELEASE_RANK = 6;
+
+    private VersionComparator() {
+    }
+
+    @Override
+    public int compare(String a, String b) {
+        List<String> left = tokenize(a);
+        List<String> right = tokenize(b);
+        int length = Math.max(left.size(), right.size());
+        for (int i = 0; i < length; i++) {
+            String l = i < left.size() ? left.get(i) : null;
+            String r = i < right.size() ? right.get(i) : null;
+            int result = compareTokens(l, r);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 切分版本號（數字段去除前導零）
+     */
+    static List<String> tokenize(String version) {
+        List<String> tokens = new ArrayList<>();
+        if (version == null) {
+            return tokens;
+        }
+        String v = version.trim().toLowerCase(Locale.ROOT);
+        if (v.length() > 1 && v.charAt(0) == 'v' && Character.isDigit(v.charAt(1))) {
+            v = v.substring(1);
+        }
+
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < v.length(); i++) {
+            char c = v.charAt(i);
+            boolean separator = c == '.' || c == '-' || c == '_' || c == '+';
+            boolean boundary = !current.isEmpty()
+                    && Character.isDigit(c) != Character.isDigit(current.charAt(current.length() - 1));
+            if (separator || boundary) {
+                addToken(tokens, current);
+            }
+            if (!separator) {
+                current.append(c);
+            }
+        }
+        addToken(tokens, current);
+        return tokens;
+    }
+
+    private static void addToken(List<String> tokens, StringBuilder current) {
+        if (current.isEmpty()) {
+            return;
+        }
+        String token = current.toString();
+        current.setLength(0);
+        if (isNumeric(token)) {
+            String stripped = token.replaceFirst("^0+(?=.)", "");
+            tokens.add(stripped);
+        } else if (qualifierRank(token) != RELEASE_RANK) {
+            tokens.add(token);
+        }
+    }
+
+    private static int compareTokens(String l, String r) {
+        if (l == null && r == null) {
+            return 0;
+        }
+        if (l == null) {
+            return -compareTokens(r, null);
+        }
+        boolean lNumeric = isNumeric(l);
+        if (r == null) {
+            // 缺少的段落視為 0 或正式版
+            return lNumeric
+                    ? (l.equals("0") ? 0 : 1)
+                    : Integer.compare(qualifierRank(l), RELEASE_RANK);
+        }
+        boolean rNumeric = isNumeric(r);
+        if (lNumeric && rNumeric) {
+            // 以長度比較避免超過 long 範圍
+            int byLength = Integer.compare(l.length(), r.length());
+            return byLength != 0 ? byLength : l.compareTo(r);
+        }
+        if (lNumeric != rNumeric) {
+            // 數字段晚於修飾詞（1.0.1 > 1.0-rc1）
+            return lNumeric ? 1 : -1;
+        }
+        int byRank = Integer.compare(qualifierRank(l), qualifierRank(r));
+        return byRank != 0 ? byRank : l.compareTo(r);
+    }
+
+    private static boolean isNumeric(String token) {
+        return !token.isEmpty() && Character.isDigit(token.charAt(0));
+    }
+
+    private static int qualifierRank(String qualifier) {
+        return switch (qualifier) {
+            case "alpha", "a" -> 1;
+            case "beta", "b" -> 2;
+            case "milestone", "m" -> 3;
+            case "rc", "cr" -> 4;
+            case "snapshot" -> 5;
+            case "release", "ga", "final" -> RELEASE_RANK;
+            case "sp" -> 7;
+            default -> 8;
+        };
+    }
+}
@@ -18,26 +18,29 @@ import java.util.List;
  * <p>
  * 用於取得 GitHub 儲存庫的文件內容、列表和 Release 資訊。
  * 支援認證和非認證模式。
+ * API 與 raw 內容的基礎 URL 取自 {@link GitHubFetchProperties}（{@code docmcp.github.fetch.*-base-url}），
+ * 與同步時的取得策略使用相同的設定。
  * </p>
  */
 @Service
 public class GitHubClient {
 
     private static final Logger log = LoggerFactory.getLogger(GitHubClient.class);
-    private static final String GITHUB_API_BASE = "https://api.github.com";
-    private static final String GITHUB_RAW_BASE = "https://raw.githubusercontent.com";
 
     private final RestClient restClient;
     private final ObjectMapper objectMapper;
+    private final GitHubFetchProperties properties;
     private final String githubToken;
 
     public GitHubClient(
             RestClient.Builder restClientBuilder,
             ObjectMapper objectMapper,
+            GitHubFetchProperties properties,
             @Value("${github.token:}") String githubToken
     ) {
         this.restClient = restClientBuilder.build();
         this.objectMapper = objectMapper;
+        this.properties = properties;
         this.githubToken = githubToken;
     }
 
@@ -52,7 +55,7 @@ public class GitHubClient {
      */
     public List<GitHubFile> listFiles(String owner, String repo, String path, String ref) {
         String url = String.format("%s/repos/%s/%s/contents/%s?ref=%s",
-                GITHUB_API_BASE, owner, repo, path, ref);
+                properties.getApiBaseUrl(), owner, repo, path, ref);
 
         try {
             String response = executeRequest(url);
@@ -74,7 +77,7 @@ public class GitHubClient {
      */
     public String getFileContent(String owner, String repo, String path, String ref) {
         String url = String.format("%s/%s/%s/%s/%s",
-                GITHUB_RAW_BASE, owner, repo, ref, path);
+                properties.getRawBaseUrl(), owner, repo, ref, path);
 
         try {
             return executeRequest(url);
@@ -93,7 +96,7 @@ public class GitHubClient {
      */
     public List<GitHubRelease> listReleases(String owner, String repo) {
         String url = String.format("%s/repos/%s/%s/releases",
-                GITHUB_API_BASE, owner, repo);
+                properties.getApiBaseUrl(), owner, repo);
 
         try {
             String response = executeRequest(url);
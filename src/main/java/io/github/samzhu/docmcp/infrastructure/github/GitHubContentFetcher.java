@@ -5,6 +5,7 @@ import io.github.samzhu.docmcp.infrastructure.github.strategy.GitHubFetchStrateg
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
@@ -28,24 +29,27 @@ import java.util.Optional;
  * </p>
  */
 @Service
+@Lazy
 public class GitHubContentFetcher {
 
     private static final Logger log = LoggerFactory.getLogger(GitHubContentFetcher.class);
-    private static final String GITHUB_RAW_BASE = "https://raw.githubusercontent.com";
 
     private final List<GitHubFetchStrategy> strategies;
     private final RestClient restClient;
+    private final GitHubFetchProperties properties;
     private final String githubToken;
 
     public GitHubContentFetcher(
             List<GitHubFetchStrategy> strategies,
             RestClient.Builder restClientBuilder,
+            GitHubFetchProperties properties,
             @Value("${github.token:}") String githubToken) {
         // 依優先級排序
         this.strategies = strategies.stream()
                 .sorted(Comparator.comparingInt(GitHubFetchStrategy::getPriority))
                 .toList();
         this.restClient = restClientBuilder.build();
+        this.properties = properties;
         this.githubToken = githubToken;
 
         log.info("GitHub Content Fetcher 初始化完成，策略順序: {}",
@@ -120,10 +124,13 @@ public class GitHubContentFetcher {
 
     /**
      * 從 raw.githubusercontent.com 下載檔案內容
+     * <p>
+     * 基底 URL 由 docmcp.github.fetch.raw-base-url 設定。
+     * </p>
      */
     public String downloadRawContent(String owner, String repo, String path, String ref) {
         String url = String.format("%s/%s/%s/%s/%s",
-                GITHUB_RAW_BASE, owner, repo, ref, path);
+                properties.getRawBaseUrl(), owner, repo, ref, path);
 
         log.debug("下載檔案內容: {}", url);
 
@@ -5,13 +5,17 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 /**
  * GitHub 內容取得配置
  * <p>
- * 配置各策略的啟用狀態、優先級和速率控制參數。
+ * 配置各策略的啟用狀態、優先級和速率控制參數，以及 GitHub 各服務的基底 URL
+ * （預設為 GitHub 官方網址；指向本機替身可在不連線 GitHub 的情況下量測同步效能）。
  * </p>
  *
  * <pre>
  * docmcp:
  *   github:
  *     fetch:
+ *       api-base-url: https://api.github.com
+ *       raw-base-url: https://raw.githubusercontent.com
+ *       codeload-base-url: https://codeload.github.com
  *       archive:
  *         enabled: true
  *         priority: 1
@@ -56,6 +60,21 @@ public class GitHubFetchProperties {
      */
     private int readTimeoutMs = 30000;
 
+    /**
+     * REST API 基底 URL（Git Tree、Contents API、GitHubClient，不含結尾斜線）
+     */
+    private String apiBaseUrl = "https://api.github.com";
+
+    /**
+     * 原始檔案下載基底 URL（GitHubContentFetcher、GitHubClient，不含結尾斜線）
+     */
+    private String rawBaseUrl = "https://raw.githubusercontent.com";
+
+    /**
+     * tarball 下載基底 URL（Archive 策略，不含結尾斜線）
+     */
+    private String codeloadBaseUrl = "https://codeload.github.com";
+
     // Getters and Setters
 
     public StrategyConfig getArchive() {
@@ -98,6 +117,30 @@ public class GitHubFetchProperties {
         this.readTimeoutMs = readTimeoutMs;
     }
 
+    public String getApiBaseUrl() {
+        return apiBaseUrl;
+    }
+
+    public void setApiBaseUrl(String apiBaseUrl) {
+        this.apiBaseUrl = apiBaseUrl;
+    }
+
+    public String getRawBaseUrl() {
+        return rawBaseUrl;
+    }
+
+    public void setRawBaseUrl(String rawBaseUrl) {
+        this.rawBaseUrl = rawBaseUrl;
+    }
+
+    public String getCodeloadBaseUrl() {
+        return codeloadBaseUrl;
+    }
+
+    public void setCodeloadBaseUrl(String codeloadBaseUrl) {
+        this.codeloadBaseUrl = codeloadBaseUrl;
+    }
+
     /**
      * 基本策略配置
      */
@@ -8,6 +8,7 @@ import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 import java.io.BufferedInputStream;
@@ -51,6 +52,7 @@ import java.util.Optional;
  * </p>
  */
 @Component
+@Lazy
 @ConditionalOnProperty(name = "docmcp.github.fetch.archive.enabled", havingValue = "true", matchIfMissing = true)
 public class ArchiveFetchStrategy implements GitHubFetchStrategy {
 
@@ -59,7 +61,8 @@ public class ArchiveFetchStrategy implements GitHubFetchStrategy {
     // 使用 codeload.github.com 直接下載，避免 302 重定向問題
     // 原始 URL: https://github.com/{owner}/{repo}/archive/refs/tags/{ref}.tar.gz
     // 會重定向到: https://codeload.github.com/{owner}/{repo}/tar.gz/refs/tags/{ref}
-    private static final String GITHUB_CODELOAD_URL = "https://codeload.github.com/%s/%s/tar.gz/refs/tags/%s";
+    // 基底 URL 由 docmcp.github.fetch.codeload-base-url 設定
+    private static final String CODELOAD_PATH = "%s/%s/%s/tar.gz/refs/tags/%s";
 
     // 支援的文件副檔名
     private static final List<String> SUPPORTED_EXTENSIONS = List.of(
@@ -102,7 +105,7 @@ public class ArchiveFetchStrategy implements GitHubFetchStrategy {
 
     @Override
     public Optional<FetchResult> fetch(String owner, String repo, String path, String ref) {
-        String url = String.format(GITHUB_CODELOAD_URL, owner, repo, ref);
+        String url = String.format(CODELOAD_PATH, properties.getCodeloadBaseUrl(), owner, repo, ref);
         log.info("嘗試下載 Archive: {}", url);
 
         // 使用 OS 暫存目錄，避免大檔案導致 OOM
@@ -130,14 +133,18 @@ public class ArchiveFetchStrategy implements GitHubFetchStrategy {
             }
 
             // 串流寫入暫存檔
+            long bytesWritten;
             try (InputStream inputStream = response.body();
                  OutputStream outputStream = Files.newOutputStream(tempFile)) {
-                long bytesWritten = inputStream.transferTo(outputStream);
+                bytesWritten = inputStream.transferTo(outputStream);
                 log.info("Archive 下載成功，大小: {} bytes，暫存於: {}", bytesWritten, tempFile);
             }
 
             // 從暫存檔解壓並提取檔案
-            return extractFilesFromPath(tempFile, owner, repo, path, ref);
+            long extractStart = System.currentTimeMillis();
+            Optional<FetchResult> result = extractFilesFromPath(tempFile, owner, repo, path, ref);
+            long extractMillis = System.currentTimeMillis() - extractStart;
+            return result.map(r -> r.withTransfer(bytesWritten, extractMillis));
 
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
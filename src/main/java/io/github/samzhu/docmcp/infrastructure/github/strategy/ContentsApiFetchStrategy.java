@@ -9,6 +9,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
@@ -52,11 +53,11 @@ import java.util.concurrent.atomic.AtomicInteger;
  * </p>
  */
 @Component
+@Lazy
 @ConditionalOnProperty(name = "docmcp.github.fetch.contents-api.enabled", havingValue = "true", matchIfMissing = true)
 public class ContentsApiFetchStrategy implements GitHubFetchStrategy {
 
     private static final Logger log = LoggerFactory.getLogger(ContentsApiFetchStrategy.class);
-    private static final String GITHUB_API_BASE = "https://api.github.com";
 
     // 支援的文件副檔名
     private static final List<String> SUPPORTED_EXTENSIONS = List.of(
@@ -231,7 +232,7 @@ public class ContentsApiFetchStrategy implements GitHubFetchStrategy {
      */
     private List<GitHubFile> listFiles(String owner, String repo, String path, String ref) {
         String url = String.format("%s/repos/%s/%s/contents/%s?ref=%s",
-                GITHUB_API_BASE, owner, repo, path, ref);
+                properties.getApiBaseUrl(), owner, repo, path, ref);
 
         try {
             String response = executeRequest(url);
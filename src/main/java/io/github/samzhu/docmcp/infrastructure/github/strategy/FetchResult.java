@@ -11,16 +11,28 @@ import java.util.Map;
  * 包含檔案列表、預載入的內容（Archive 策略會預先載入）、
  * 以及使用的策略名稱。
  * </p>
+ * <p>
+ * 下載整包內容的策略（Archive）另外記錄下載大小與解壓耗時，供同步統計使用；
+ * 其他策略兩者皆為 0。
+ * </p>
  *
- * @param files        檔案列表
- * @param contents     檔案路徑 → 內容（Archive 策略會預先載入，其他策略為空）
- * @param strategyUsed 使用的策略名稱
+ * @param files           檔案列表
+ * @param contents        檔案路徑 → 內容（Archive 策略會預先載入，其他策略為空）
+ * @param strategyUsed    使用的策略名稱
+ * @param bytesDownloaded 取得階段下載的位元組數
+ * @param extractMillis   解壓耗時（毫秒）
  */
 public record FetchResult(
         List<GitHubFile> files,
         Map<String, String> contents,
-        String strategyUsed
+        String strategyUsed,
+        long bytesDownloaded,
+        long extractMillis
 ) {
+    public FetchResult(List<GitHubFile> files, Map<String, String> contents, String strategyUsed) {
+        this(files, contents, strategyUsed, 0, 0);
+    }
+
     /**
      * 建立只有檔案列表的結果（無預載入內容）
      */
@@ -35,6 +47,13 @@ public record FetchResult(
         return new FetchResult(files, contents, strategyUsed);
     }
 
+    /**
+     * 附上下載大小與解壓耗時
+     */
+    public FetchResult withTransfer(long bytesDownloaded, long extractMillis) {
+        return new FetchResult(files, contents, strategyUsed, bytesDownloaded, extractMillis);
+    }
+
     /**
      * 檢查指定檔案是否有預載入內容
      */
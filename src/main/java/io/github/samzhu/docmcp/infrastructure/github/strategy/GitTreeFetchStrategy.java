@@ -8,6 +8,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
@@ -38,11 +39,11 @@ import java.util.Optional;
  * </p>
  */
 @Component
+@Lazy
 @ConditionalOnProperty(name = "docmcp.github.fetch.git-tree.enabled", havingValue = "true", matchIfMissing = true)
 public class GitTreeFetchStrategy implements GitHubFetchStrategy {
 
     private static final Logger log = LoggerFactory.getLogger(GitTreeFetchStrategy.class);
-    private static final String GITHUB_API_BASE = "https://api.github.com";
 
     // 支援的文件副檔名
     private static final List<String> SUPPORTED_EXTENSIONS = List.of(
@@ -85,7 +86,7 @@ public class GitTreeFetchStrategy implements GitHubFetchStrategy {
     public Optional<FetchResult> fetch(String owner, String repo, String path, String ref) {
         // GET /repos/{owner}/{repo}/git/trees/{ref}?recursive=1
         String url = String.format("%s/repos/%s/%s/git/trees/%s?recursive=1",
-                GITHUB_API_BASE, owner, repo, ref);
+                properties.getApiBaseUrl(), owner, repo, ref);
 
         log.info("嘗試使用 Git Tree API: {}", url);
 
@@ -2,6 +2,7 @@ package io.github.samzhu.docmcp.infrastructure.local;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
@@ -23,6 +24,7 @@ import java.util.List;
  * </p>
  */
 @Component
+@Lazy
 public class LocalFileClient {
 
     private static final Logger log = LoggerFactory.getLogger(LocalFileClient.class);
@@ -0,0 +1,61 @@
+package io.github.samzhu.docmcp.infrastructure.metrics;
+
+import io.github.samzhu.docmcp.infrastructure.vectorstore.memory.InMemoryVectorIndexRegistry;
+import io.github.samzhu.docmcp.security.ApiKeyCache;
+import io.github.samzhu.docmcp.service.DocTocService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 快取命中率指標
+ * <p>
+ * 各快取自行以計數器累計命中與未命中次數，此處註冊為 {@code docmcp.cache.requests}
+ * （{@code cache}、{@code result} = hit / miss），命中率於查詢端以 hit / (hit + miss) 計算：
+ * <ul>
+ *   <li>{@code toc}：版本目錄快取（{@link DocTocService}）</li>
+ *   <li>{@code vector_index}：記憶體向量索引（{@link InMemoryVectorIndexRegistry}），未載入時走資料庫</li>
+ *   <li>{@code api_key}：已驗證 API Key 快取（{@link ApiKeyCache}）</li>
+ * </ul>
+ * </p>
+ */
+@Component
+public class CacheMetrics implements MeterBinder {
+
+    private final DocTocService docTocService;
+    private final InMemoryVectorIndexRegistry vectorIndexRegistry;
+    private final ApiKeyCache apiKeyCache;
+
+    public CacheMetrics(DocTocService docTocService,
+                        InMemoryVectorIndexRegistry vectorIndexRegistry,
+                        ApiKeyCache apiKeyCache) {
+        this.docTocService = docTocService;
+        this.vectorIndexRegistry = vectorIndexRegistry;
+        this.apiKeyCache = apiKeyCache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "toc", docTocService, DocTocService::getHitCount, DocTocService::getMissCount);
+        bind(registry, "vector_index", vectorIndexRegistry,
+                InMemoryVectorIndexRegistry::getHitCount, InMemoryVectorIndexRegistry::getMissCount);
+        bind(registry, "api_key", apiKeyCache, ApiKeyCache::getHitCount, ApiKeyCache::getMissCount);
+    }
+
+    private static <T> void bind(MeterRegistry registry, String cache, T source,
+                                 ToDoubleFunction<T> hits, ToDoubleFunction<T> misses) {
+        FunctionCounter.builder("docmcp.cache.requests", source, hits)
+                .description("Cache lookups")
+                .tag("cache", cache)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("docmcp.cache.requests", source, misses)
+                .description("Cache lookups")
+                .tag("cache", cache)
+                .tag("result", "miss")
+                .register(registry);
+    }
+}
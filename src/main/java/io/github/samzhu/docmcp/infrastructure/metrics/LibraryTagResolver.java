@@ -0,0 +1,137 @@
+package io.github.samzhu.docmcp.infrastructure.metrics;
+
+import io.github.samzhu.docmcp.domain.model.Library;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 指標的函式庫標記解析
+ * <p>
+ * 工具參數與搜尋請求中的函式庫來自用戶端輸入，只有對應到已註冊的函式庫（ID 或名稱）時
+ * 才以該函式庫的 ID 作為 {@code library} 標記值，未知的值一律記為 {@value #OTHER}，
+ * 任意輸入不會產生新的時間序列。
+ * </p>
+ * <p>
+ * 函式庫清單快取於記憶體並每 60 秒重新載入；遇到未知的值時最多每 5 秒提前重新載入一次，
+ * 讓新建立的函式庫能盡快以自己的 ID 出現在指標中。
+ * 每次工具呼叫與搜尋都會解析標記，因此讀取快照不加鎖；需要重新載入時只有一個呼叫端執行，
+ * 其他呼叫端在載入期間繼續使用既有的清單。
+ * </p>
+ */
+public class LibraryTagResolver {
+
+    private static final Logger log = LoggerFactory.getLogger(LibraryTagResolver.class);
+
+    /** 未知函式庫與超過標記上限的函式庫所使用的標記值 */
+    public static final String OTHER = "other";
+
+    private static final long REFRESH_NANOS = TimeUnit.SECONDS.toNanos(60);
+    private static final long MISS_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final Supplier<? extends Iterable<Library>> libraries;
+
+    // 目前的函式庫清單（null 表示尚未載入）
+    private volatile Snapshot snapshot;
+    private final AtomicBoolean reloading = new AtomicBoolean();
+
+    /**
+     * @param libraries 取得所有已註冊函式庫的來源
+     */
+    public LibraryTagResolver(Supplier<? extends Iterable<Library>> libraries) {
+        this.libraries = libraries;
+    }
+
+    /**
+     * 不認得任何函式庫的解析器（未設定函式庫來源時使用）
+     */
+    public static LibraryTagResolver none() {
+        return new LibraryTagResolver(List::of);
+    }
+
+    /**
+     * 解析函式庫標記值
+     *
+     * @param library 用戶端提供的函式庫 ID 或名稱
+     * @return 已註冊函式庫的 ID；未提供時為 {@value SearchMetrics#NO_LIBRARY}，未知時為 {@value #OTHER}
+     */
+    public String resolve(String library) {
+        if (library == null || library.isBlank()) {
+            return SearchMetrics.NO_LIBRARY;
+        }
+        reloadIfOlderThan(REFRESH_NANOS);
+        String id = knownIds().get(library);
+        if (id == null && reloadIfOlderThan(MISS_REFRESH_NANOS)) {
+            id = knownIds().get(library);
+        }
+        return id != null ? id : OTHER;
+    }
+
+    private Map<String, String> knownIds() {
+        Snapshot current = snapshot;
+        return current != null ? current.knownIds() : Map.of();
+    }
+
+    /**
+     * 快取超過指定時間時重新載入函式庫清單
+     * <p>
+     * 以 CAS 取得載入權，其他呼叫端不等待，直接沿用既有的清單。
+     * </p>
+     *
+     * @return 是否由此呼叫重新載入
+     */
+    private boolean reloadIfOlderThan(long maxAgeNanos) {
+        if (isFresh(snapshot, maxAgeNanos) || !reloading.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            // 取得載入權前可能已由其他呼叫端完成載入
+            Snapshot current = snapshot;
+            if (isFresh(current, maxAgeNanos)) {
+                return false;
+            }
+            snapshot = load(current);
+            return true;
+        } finally {
+            reloading.set(false);
+        }
+    }
+
+    private static boolean isFresh(Snapshot current, long maxAgeNanos) {
+        return current != null && System.nanoTime() - current.loadedAt() < maxAgeNanos;
+    }
+
+    private Snapshot load(Snapshot current) {
+        long now = System.nanoTime();
+        try {
+            Map<String, String> ids = new HashMap<>();
+            for (Library library : libraries.get()) {
+                ids.put(library.getId(), library.getId());
+                // 名稱與其他函式庫的 ID 相同時以 ID 為準
+                if (library.getName() != null && !library.getName().equals(library.getId())) {
+                    ids.merge(library.getName(), library.getId(), (existing, byName) -> existing);
+                }
+            }
+            return new Snapshot(Map.copyOf(ids), now);
+        } catch (RuntimeException e) {
+            // 資料庫暫時無法使用時沿用上次的清單，不影響被記錄的呼叫
+            log.debug("無法載入函式庫清單，沿用既有的指標標記: {}", e.getMessage());
+            return new Snapshot(current != null ? current.knownIds() : Map.of(), now);
+        }
+    }
+
+    /**
+     * 函式庫清單快照
+     *
+     * @param knownIds 函式庫 ID 與名稱對應到函式庫 ID
+     * @param loadedAt 載入時間（System.nanoTime）
+     */
+    private record Snapshot(Map<String, String> knownIds, long loadedAt) {
+    }
+}
@@ -0,0 +1,144 @@
+package io.github.samzhu.docmcp.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 搜尋與 embedding 指標
+ * <p>
+ * 記錄搜尋各階段的耗時、結果數量分佈與 embedding API 延遲：
+ * <ul>
+ *   <li>{@code docmcp.search.stage}：各階段耗時，{@code stage} 為
+ *       {@value #STAGE_EMBEDDING}、{@value #STAGE_VECTOR_SQL}、{@value #STAGE_VECTOR_MEMORY}、
+ *       {@value #STAGE_KEYWORD_SQL}、{@value #STAGE_FUSION}、{@value #STAGE_HYDRATION}</li>
+ *   <li>{@code docmcp.search.results}：每次搜尋回傳的結果數，{@code mode} 為 fulltext / semantic / hybrid</li>
+ *   <li>{@code docmcp.embedding.request}：embedding API 呼叫耗時，{@code operation} 為 query / document</li>
+ *   <li>{@code docmcp.embedding.texts}：送往 embedding API 的文字數</li>
+ * </ul>
+ * 輸出直方圖的計時器（stage、request）不以函式庫標記，避免 bucket 數隨函式庫數量倍增；
+ * 結果數與文字數以函式庫標記。
+ * </p>
+ * <p>
+ * 向量搜尋在 {@code VectorStore} 內進行，無法從參數得知函式庫，
+ * 因此由 {@link #withLibrary} 以 {@link ScopedValue} 將函式庫 ID 帶入呼叫範圍，範圍外記錄為 {@value #NO_LIBRARY}。
+ * 函式庫 ID 來自請求參數，經 {@link LibraryTagResolver} 解析後才作為標記值（未知的函式庫記為 other），
+ * 標記值的數量另由 {@code MetricsConfig} 的 MeterFilter 限制。
+ * </p>
+ * <p>
+ * embedding 的計時由 VectorStore 的 embedding 觀察點負責，本類別以 {@link #recordEmbedding} 訂閱，只負責寫入指標。
+ * </p>
+ */
+@Component
+public class SearchMetrics {
+
+    public static final String STAGE_EMBEDDING = "embedding";
+    public static final String STAGE_VECTOR_SQL = "vector_sql";
+    public static final String STAGE_VECTOR_MEMORY = "vector_memory";
+    public static final String STAGE_KEYWORD_SQL = "keyword_sql";
+    public static final String STAGE_FUSION = "fusion";
+    public static final String STAGE_HYDRATION = "hydration";
+
+    public static final String MODE_FULLTEXT = "fulltext";
+    public static final String MODE_SEMANTIC = "semantic";
+    public static final String MODE_HYBRID = "hybrid";
+
+    public static final String NO_LIBRARY = "none";
+
+    private static final ScopedValue<String> LIBRARY = ScopedValue.newInstance();
+
+    private final MeterRegistry registry;
+    private final LibraryTagResolver libraryTags;
+
+    public SearchMetrics(MeterRegistry registry, LibraryTagResolver libraryTags) {
+        this.registry = registry;
+        this.libraryTags = libraryTags;
+    }
+
+    /**
+     * 不輸出任何指標的實例（未設定 MeterRegistry 時使用）
+     */
+    public static SearchMetrics noop() {
+        return new SearchMetrics(new CompositeMeterRegistry(), LibraryTagResolver.none());
+    }
+
+    /**
+     * 在指定函式庫的範圍內執行，範圍內記錄的指標以該函式庫標記
+     *
+     * @param libraryId 函式庫 ID
+     * @param action    要執行的動作
+     * @return 動作的結果
+     */
+    public <T> T withLibrary(String libraryId, Supplier<T> action) {
+        return ScopedValue.where(LIBRARY, libraryTag(libraryId)).call(action::get);
+    }
+
+    /**
+     * 記錄搜尋階段耗時
+     *
+     * @param stage  階段名稱
+     * @param action 階段動作
+     * @return 動作的結果
+     */
+    public <T> T recordStage(String stage, Supplier<T> action) {
+        return Timer.builder("docmcp.search.stage")
+                .description("Latency of each search stage")
+                .tag("stage", stage)
+                .register(registry)
+                .record(action);
+    }
+
+    /**
+     * 記錄搜尋回傳的結果數
+     *
+     * @param mode      搜尋模式
+     * @param libraryId 函式庫 ID
+     * @param count     結果數
+     */
+    public void recordResults(String mode, String libraryId, int count) {
+        DistributionSummary.builder("docmcp.search.results")
+                .description("Number of results returned per search")
+                .tag("mode", mode)
+                .tag("library", libraryTag(libraryId))
+                .register(registry)
+                .record(count);
+    }
+
+    /**
+     * 記錄一次 embedding API 呼叫的耗時與文字數
+     *
+     * @param operation 呼叫目的（query / document）
+     * @param texts     本次送出的文字數
+     * @param nanos     呼叫耗時（奈秒）
+     */
+    public void recordEmbedding(String operation, int texts, long nanos) {
+        Counter.builder("docmcp.embedding.texts")
+                .description("Texts sent to the embedding API")
+                .tag("operation", operation)
+                .tag("library", currentLibrary())
+                .register(registry)
+                .increment(texts);
+        Timer.builder("docmcp.embedding.request")
+                .description("Latency of embedding API calls")
+                .tag("operation", operation)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 目前範圍的函式庫標記
+     */
+    static String currentLibrary() {
+        return LIBRARY.orElse(NO_LIBRARY);
+    }
+
+    private String libraryTag(String libraryId) {
+        return libraryTags.resolve(libraryId);
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.samzhu.docmcp.infrastructure.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+/**
+ * 記錄耗時的 MCP 工具回調
+ * <p>
+ * 包裝原本的 {@link ToolCallback}，記錄每次呼叫：
+ * <ul>
+ *   <li>{@code docmcp.mcp.tool}：呼叫耗時（輸出直方圖），以 {@code tool}（工具名稱）與
+ *       {@code outcome}（success / error）標記</li>
+ *   <li>{@code docmcp.mcp.tool.calls}：呼叫次數，另以 {@code library} 標記參數中的 libraryId、libraryName
+ *       或 library 所對應的函式庫 ID（皆無時為 none，不是已註冊的函式庫時為 other）</li>
+ * </ul>
+ * 計時器不以函式庫標記：每個標記值都會產生一組直方圖 bucket，函式庫上限 200 個時時間序列會放大兩百倍。
+ * </p>
+ */
+public class TimedToolCallback implements ToolCallback {
+
+    private static final String[] LIBRARY_PARAMS = {"libraryId", "libraryName", "library"};
+
+    private final ToolCallback delegate;
+    private final MeterRegistry registry;
+    private final ObjectMapper objectMapper;
+    private final LibraryTagResolver libraryTags;
+
+    public TimedToolCallback(ToolCallback delegate, MeterRegistry registry, ObjectMapper objectMapper,
+                             LibraryTagResolver libraryTags) {
+        this.delegate = delegate;
+        this.registry = registry;
+        this.objectMapper = objectMapper;
+        this.libraryTags = libraryTags;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return call(toolInput, null);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "error";
+        try {
+            String result = toolContext != null
+                    ? delegate.call(toolInput, toolContext)
+                    : delegate.call(toolInput);
+            outcome = "success";
+            return result;
+        } finally {
+            String tool = delegate.getToolDefinition().name();
+            sample.stop(Timer.builder("docmcp.mcp.tool")
+                    .description("Latency of MCP tool calls")
+                    .tag("tool", tool)
+                    .tag("outcome", outcome)
+                    .register(registry));
+            Counter.builder("docmcp.mcp.tool.calls")
+                    .description("MCP tool calls by library")
+                    .tag("tool", tool)
+                    .tag("outcome", outcome)
+                    .tag("library", resolveLibrary(toolInput))
+                    .register(registry)
+                    .increment();
+        }
+    }
+
+    /**
+     * 從工具參數取出函式庫，解析為已註冊函式庫的 ID
+     */
+    String resolveLibrary(String toolInput) {
+        if (toolInput == null || toolInput.isBlank()) {
+            return SearchMetrics.NO_LIBRARY;
+        }
+        try {
+            JsonNode input = objectMapper.readTree(toolInput);
+            for (String param : LIBRARY_PARAMS) {
+                JsonNode value = input.path(param);
+                if (value.isTextual() && !value.asText().isBlank()) {
+                    return libraryTags.resolve(value.asText());
+                }
+            }
+        } catch (Exception e) {
+            // 參數格式錯誤時由工具本身回報
+        }
+        return SearchMetrics.NO_LIBRARY;
+    }
+}
@@ -1,29 +1,48 @@
 package io.github.samzhu.docmcp.infrastructure.parser;
 
-import org.asciidoctor.Asciidoctor;
 import org.asciidoctor.Options;
 import org.asciidoctor.ast.Block;
+import org.asciidoctor.ast.Cursor;
 import org.asciidoctor.ast.Document;
+import org.asciidoctor.ast.Section;
 import org.asciidoctor.ast.StructuralNode;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
  * AsciiDoc 文件解析器
  * <p>
- * 使用 asciidoctorj 解析 AsciiDoc 文件。
+ * 使用 asciidoctorj 解析 AsciiDoc 文件，擷取標題、程式碼區塊和章節結構。
+ * 程式碼區塊與章節錨點在同一次走訪中收集，章節結構依 sourcemap 提供的行號從原始內容切出，保留原始 AsciiDoc 語法。
+ * </p>
+ * <p>
+ * Asciidoctor 執行環境由 {@link AsciidoctorPool} 延遲建立並共用。
+ * 不需要章節結構時（{@link #parseWithoutSections}）以 {@link AsciiDocQuickScanner} 逐行擷取標題與 listing 區塊，
+ * 不載入完整文件，也不會啟動執行環境。
  * </p>
  */
 @Service
+@Lazy
 public class AsciiDocParser implements DocumentParser {
 
-    private final Asciidoctor asciidoctor;
+    // 不可分割的區塊類型
+    private static final Set<String> ATOMIC_CONTEXTS = Set.of("listing", "literal", "table");
+
+    // 區塊屬性（[source,java]）、錨點（[[id]]）與區塊標題（.Title）屬於其後的區塊
+    private static final Pattern BLOCK_PREFIX_LINE = Pattern.compile("^(\\[.*]|\\.[^.\\s].*)$");
 
-    public AsciiDocParser() {
-        this.asciidoctor = Asciidoctor.Factory.create();
+    private static final Pattern HTML_TAG = Pattern.compile("<[^>]+>");
+
+    private final AsciidoctorPool asciidoctorPool;
+
+    public AsciiDocParser(AsciidoctorPool asciidoctorPool) {
+        this.asciidoctorPool = asciidoctorPool;
     }
 
     @Override
@@ -32,37 +51,49 @@ public class AsciiDocParser implements DocumentParser {
             return new ParsedDocument("", "", List.of(), Map.of());
         }
 
+        String body = DocumentParser.normalizeBody(content);
         try {
-            Document document = asciidoctor.load(content, Options.builder().build());
-
-            // 擷取標題
-            String title = document.getDoctitle();
-            if (title == null || title.isBlank()) {
-                title = extractFileNameWithoutExtension(path);
-            }
-
-            // 擷取程式碼區塊
-            List<ParsedDocument.CodeBlock> codeBlocks = extractCodeBlocks(document);
-
-            // 元資料
-            Map<String, Object> metadata = Map.of(
-                    "path", path,
-                    "format", "asciidoc",
-                    "codeBlockCount", codeBlocks.size()
-            );
-
-            return new ParsedDocument(title, content, codeBlocks, metadata);
+            // 走訪 AST 時仍持有執行環境，避免與其他解析共用同一個 JRuby 執行環境
+            return asciidoctorPool.execute(asciidoctor -> toParsedDocument(
+                    asciidoctor.load(body, Options.builder().sourcemap(true).build()), body, path));
         } catch (Exception e) {
             // 解析失敗時，回傳基本資訊
             return new ParsedDocument(
                     extractFileNameWithoutExtension(path),
-                    content,
+                    body,
                     List.of(),
                     Map.of("path", path, "format", "asciidoc", "parseError", e.getMessage())
             );
         }
     }
 
+    /**
+     * 不建立章節結構的快速解析
+     * <p>
+     * 快速掃描無法確定結果時（條件式、標題中的屬性參照）改用完整解析。
+     * </p>
+     */
+    @Override
+    public ParsedDocument parseWithoutSections(String content, String path) {
+        if (content == null || content.isBlank()) {
+            return new ParsedDocument("", "", List.of(), Map.of());
+        }
+
+        String body = DocumentParser.normalizeBody(content);
+        AsciiDocQuickScanner.Result scan = AsciiDocQuickScanner.scan(body);
+        if (!scan.complete()) {
+            return parse(content, path);
+        }
+
+        String title = scan.title() != null ? scan.title() : extractFileNameWithoutExtension(path);
+        Map<String, Object> metadata = Map.of(
+                "path", path,
+                "format", "asciidoc",
+                "codeBlockCount", scan.codeBlocks().size()
+        );
+        return new ParsedDocument(title, body, scan.codeBlocks(), metadata);
+    }
+
     @Override
     public boolean supports(String path) {
         if (path == null) return false;
@@ -75,33 +106,168 @@ public class AsciiDocParser implements DocumentParser {
         return "asciidoc";
     }
 
-    private List<ParsedDocument.CodeBlock> extractCodeBlocks(Document document) {
-        List<ParsedDocument.CodeBlock> codeBlocks = new ArrayList<>();
-        extractCodeBlocksRecursively(document, codeBlocks);
-        return codeBlocks;
+    private ParsedDocument toParsedDocument(Document document, String body, String path) {
+        // 擷取標題
+        String doctitle = document.getDoctitle();
+        boolean hasTitle = doctitle != null && !doctitle.isBlank();
+        String title = hasTitle ? doctitle : extractFileNameWithoutExtension(path);
+
+        // 一次走訪擷取程式碼區塊與章節錨點
+        List<String> rootPath = hasTitle ? List.of(plainTitle(doctitle)) : List.of();
+        Outline outline = new Outline();
+        walk(document, rootPath, true, outline);
+        List<ParsedDocument.CodeBlock> codeBlocks = outline.codeBlocks;
+
+        // 擷取章節結構
+        List<ParsedDocument.Section> sections = outline.sourcemapComplete
+                ? extractSections(outline.anchors, rootPath, body)
+                : List.of();
+
+        // 元資料
+        Map<String, Object> metadata = Map.of(
+                "path", path,
+                "format", "asciidoc",
+                "codeBlockCount", codeBlocks.size()
+        );
+
+        return new ParsedDocument(title, body, codeBlocks, metadata, sections);
     }
 
-    private void extractCodeBlocksRecursively(StructuralNode node,
-                                               List<ParsedDocument.CodeBlock> result) {
+    /**
+     * 依文件順序走訪所有節點
+     * <p>
+     * 所有層級的 listing 區塊收集為程式碼區塊；文件、前言與章節的直接子節點另外記錄為章節錨點。
+     * 任何錨點缺少行號時標記 sourcemap 不完整，由呼叫端改用一般分塊。
+     * </p>
+     *
+     * @param node            目前節點
+     * @param headingPath     目前節點所屬章節的標題路徑
+     * @param anchorChildren  子節點是否為章節錨點
+     * @param outline         收集結果
+     */
+    private void walk(StructuralNode node, List<String> headingPath, boolean anchorChildren, Outline outline) {
         for (StructuralNode child : node.getBlocks()) {
             if (child instanceof Block block && "listing".equals(child.getContext())) {
                 String language = (String) child.getAttribute("language", "text");
-                String code = block.getSource();
-
-                result.add(new ParsedDocument.CodeBlock(
+                outline.codeBlocks.add(new ParsedDocument.CodeBlock(
                         language,
-                        code,
+                        block.getSource(),
                         block.getTitle() != null ? block.getTitle() : "",
                         0,  // AsciiDoc 不提供行號
                         0
                 ));
             }
 
+            List<String> childPath = headingPath;
+            boolean structural = false;
+            if (anchorChildren) {
+                if ("preamble".equals(child.getContext())) {
+                    structural = true;
+                } else {
+                    Cursor cursor = child.getSourceLocation();
+                    if (cursor == null) {
+                        outline.sourcemapComplete = false;
+                    } else if (child instanceof Section section) {
+                        List<String> sectionPath = new ArrayList<>(headingPath);
+                        sectionPath.add(plainTitle(section.getTitle()));
+                        childPath = List.copyOf(sectionPath);
+                        structural = true;
+                        outline.anchors.add(new Anchor(cursor.getLineNumber(), childPath, true, false));
+                    } else {
+                        outline.anchors.add(new Anchor(cursor.getLineNumber(), headingPath, false,
+                                ATOMIC_CONTEXTS.contains(child.getContext())));
+                    }
+                }
+            }
+
             // 遞迴處理子節點
             if (child.getBlocks() != null && !child.getBlocks().isEmpty()) {
-                extractCodeBlocksRecursively(child, result);
+                walk(child, childPath, structural, outline);
+            }
+        }
+    }
+
+    /**
+     * 依章節切分文件
+     * <p>
+     * 以每個章節標題與區塊的起始行號為錨點，錨點之間的原始行即為該區塊的文字；
+     * 文件標頭（= Title 與屬性）歸入第一個章節。
+     * </p>
+     */
+    private List<ParsedDocument.Section> extractSections(List<Anchor> anchors, List<String> rootPath, String content) {
+        if (anchors.isEmpty()) {
+            return List.of();
+        }
+
+        String[] lines = content.split("\n", -1);
+        int[] starts = new int[anchors.size()];
+        for (int i = 0; i < anchors.size(); i++) {
+            int start = Math.clamp(anchors.get(i).line() - 1, 0, lines.length);
+            int lowerBound = i > 0 ? starts[i - 1] + 1 : 0;
+            while (start > lowerBound && BLOCK_PREFIX_LINE.matcher(lines[start - 1]).matches()) {
+                start--;
+            }
+            starts[i] = Math.max(start, lowerBound);
+        }
+
+        List<ParsedDocument.Section> sections = new ArrayList<>();
+        List<String> headingPath = rootPath;
+        List<ParsedDocument.ContentBlock> blocks = new ArrayList<>();
+        addBlock(blocks, lines, 0, starts[0], false);
+
+        for (int i = 0; i < anchors.size(); i++) {
+            Anchor anchor = anchors.get(i);
+            if (anchor.heading() && !blocks.isEmpty()) {
+                sections.add(new ParsedDocument.Section(headingPath, List.copyOf(blocks)));
+                blocks.clear();
+            }
+            if (anchor.heading()) {
+                headingPath = anchor.headingPath();
             }
+            int end = i + 1 < anchors.size() ? starts[i + 1] : lines.length;
+            addBlock(blocks, lines, starts[i], end, anchor.atomic());
+        }
+        if (!blocks.isEmpty()) {
+            sections.add(new ParsedDocument.Section(headingPath, List.copyOf(blocks)));
+        }
+        return sections;
+    }
+
+    private void addBlock(List<ParsedDocument.ContentBlock> blocks, String[] lines,
+                          int start, int end, boolean atomic) {
+        if (start >= end) {
+            return;
         }
+        String text = String.join("\n", List.of(lines).subList(start, end)).stripTrailing();
+        if (!text.isBlank()) {
+            blocks.add(new ParsedDocument.ContentBlock(text, atomic));
+        }
+    }
+
+    /**
+     * 移除標題轉換後的 HTML 標籤（如 {@code <code>}）
+     */
+    private String plainTitle(String title) {
+        return title == null ? "" : HTML_TAG.matcher(title).replaceAll("").trim();
+    }
+
+    /**
+     * 章節或區塊的起始位置
+     *
+     * @param line        起始行號（從 1 開始）
+     * @param headingPath 所屬章節的標題路徑
+     * @param heading     是否為章節標題
+     * @param atomic      是否不可分割
+     */
+    private record Anchor(int line, List<String> headingPath, boolean heading, boolean atomic) {}
+
+    /**
+     * 走訪收集的結果
+     */
+    private static final class Outline {
+        private final List<ParsedDocument.CodeBlock> codeBlocks = new ArrayList<>();
+        private final List<Anchor> anchors = new ArrayList<>();
+        private boolean sourcemapComplete = true;
     }
 
     private String extractFileNameWithoutExtension(String path) {
@@ -0,0 +1,213 @@
+package io.github.samzhu.docmcp.infrastructure.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * AsciiDoc 快速掃描器
+ * <p>
+ * 逐行掃描原始內容擷取文件標題與 listing 區塊，不需要啟動 Asciidoctor 執行環境。
+ * 只支援不需要處理器就能判斷的語法：
+ * <ul>
+ *   <li>文件標題（標頭的 {@code = Title}，之前可有錨點、區塊屬性、屬性設定與註解），
+ *       並套用與 Asciidoctor doctitle 相同的基本替換（特殊字元與 {@code *strong*}、{@code _emphasis_}、
+ *       {@code `monospace`} 格式）</li>
+ *   <li>以 {@code ----} 或 {@code ```} 分隔的 listing 區塊，以及 {@code [source,lang]} 樣式的段落</li>
+ *   <li>區塊屬性（{@code [source,java]}）、區塊標題（{@code .Title}）與 {@code :source-language:} 屬性</li>
+ *   <li>略過註解、literal 與 passthrough 區塊的內容</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 遇到會改變結果的語法（條件式 {@code ifdef::}、標題中的屬性參照、巨集或其他替換）時標記為不完整，
+ * 由呼叫端改用完整解析。
+ * </p>
+ */
+final class AsciiDocQuickScanner {
+
+    private static final Pattern DOCUMENT_TITLE = Pattern.compile("^=\\s+(\\S.*)$");
+    private static final Pattern LISTING_DELIMITER = Pattern.compile("^-{4,}\\s*$");
+    private static final Pattern FENCE = Pattern.compile("^```\\s*([\\w+#.-]*)\\s*$");
+    private static final Pattern VERBATIM_DELIMITER = Pattern.compile("^(/{4,}|\\.{4,}|\\+{4,})\\s*$");
+    private static final Pattern BLOCK_ATTRIBUTES = Pattern.compile("^\\[(.*)]\\s*$");
+    private static final Pattern BLOCK_TITLE = Pattern.compile("^\\.([^.\\s].*)$");
+    private static final Pattern SOURCE_LANGUAGE = Pattern.compile("^:source-language:\\s*(\\S+)\\s*$");
+    private static final Pattern CONDITIONAL = Pattern.compile("^(ifdef|ifndef|ifeval)::.*");
+    private static final Pattern ATTRIBUTE_ENTRY = Pattern.compile("^:!?(\\w[\\w-]*)!?:(\\s.*)?$");
+    private static final Pattern BLOCK_COMMENT = Pattern.compile("^/{4,}\\s*$");
+
+    // 標題中需要 Asciidoctor 其餘替換（屬性、巨集、排版符號、跳脫、巢狀或非受限格式）才能得到相同結果的語法
+    private static final Pattern COMPLEX_TITLE = Pattern.compile(
+            "[{}\\[\\]+#^~\\\\\"'@]|\\*\\*|__|``|--|\\.\\.\\.|->|=>|<-|<=|<<|\\(\\(|\\((?:C|R|TM)\\)|\\w:\\S");
+
+    // 受限（constrained）格式：前後不可緊接文字字元，與 Asciidoctor 的 quotes 替換相同
+    private static final Pattern STRONG = Pattern.compile(
+            "(^|[^\\w;:}])\\*(\\S|\\S.*?\\S)\\*(?!\\w)", Pattern.UNICODE_CHARACTER_CLASS);
+    private static final Pattern MONOSPACE = Pattern.compile(
+            "(^|[^\\w;:\"'`}])`(\\S|\\S.*?\\S)`(?![\\w\"'`])", Pattern.UNICODE_CHARACTER_CLASS);
+    private static final Pattern EMPHASIS = Pattern.compile(
+            "(^|[^\\w;:}])_(\\S|\\S.*?\\S)_(?!\\w)", Pattern.UNICODE_CHARACTER_CLASS);
+
+    private AsciiDocQuickScanner() {
+    }
+
+    /**
+     * 掃描結果
+     *
+     * @param title      文件標題（沒有標頭時為 null）
+     * @param codeBlocks listing 區塊
+     * @param complete   是否可取代完整解析
+     */
+    record Result(String title, List<ParsedDocument.CodeBlock> codeBlocks, boolean complete) {}
+
+    /**
+     * 掃描正規化後的 AsciiDoc 內容
+     *
+     * @param body 以 {@code \n} 分行的內容
+     * @return 掃描結果
+     */
+    static Result scan(String body) {
+        String[] lines = body.split("\n", -1);
+        List<ParsedDocument.CodeBlock> codeBlocks = new ArrayList<>();
+        String title = null;
+        String sourceLanguage = null;
+        boolean headerDone = false;
+
+        // 等待套用到下一個區塊的屬性與標題
+        String pendingStyle = null;
+        String pendingLanguage = null;
+        String pendingTitle = null;
+
+        int i = 0;
+        while (i < lines.length) {
+            String line = lines[i];
+
+            if (CONDITIONAL.matcher(line).matches()) {
+                return new Result(title, codeBlocks, false);
+            }
+            if (line.startsWith("//") && !line.startsWith("////")) {
+                i++;
+                continue;
+            }
+
+            Matcher matcher = SOURCE_LANGUAGE.matcher(line);
+            if (matcher.matches()) {
+                sourceLanguage = matcher.group(1);
+                i++;
+                continue;
+            }
+            matcher = ATTRIBUTE_ENTRY.matcher(line);
+            if (matcher.matches() && "doctitle".equals(matcher.group(1))) {
+                return new Result(title, codeBlocks, false);
+            }
+            // 標題之前的錨點、區塊屬性、屬性設定與註解區塊不結束標頭搜尋，仍交由下方一般流程處理
+            if (!headerDone && !line.isBlank() && !isHeaderPrelude(line)) {
+                headerDone = true;
+                matcher = DOCUMENT_TITLE.matcher(line);
+                if (matcher.matches()) {
+                    String rawTitle = matcher.group(1).strip();
+                    if (COMPLEX_TITLE.matcher(rawTitle).find()) {
+                        return new Result(rawTitle, codeBlocks, false);
+                    }
+                    title = substituteTitle(rawTitle);
+                    // 標題前的區塊屬性屬於文件本身
+                    pendingStyle = pendingLanguage = pendingTitle = null;
+                    i++;
+                    continue;
+                }
+            }
+
+            // 略過內容不會被解析的區塊
+            matcher = VERBATIM_DELIMITER.matcher(line);
+            if (matcher.matches()) {
+                i = indexOfClosing(lines, i + 1, line.strip()) + 1;
+                pendingStyle = pendingLanguage = pendingTitle = null;
+                continue;
+            }
+
+            matcher = BLOCK_ATTRIBUTES.matcher(line);
+            if (matcher.matches() && !line.startsWith("[[")) {
+                String[] attributes = matcher.group(1).split(",");
+                pendingStyle = attributes[0].strip();
+                pendingLanguage = attributes.length > 1 ? attributes[1].strip() : null;
+                i++;
+                continue;
+            }
+            matcher = BLOCK_TITLE.matcher(line);
+            if (matcher.matches()) {
+                pendingTitle = matcher.group(1).strip();
+                i++;
+                continue;
+            }
+
+            boolean source = "source".equals(pendingStyle);
+            String language = source ? firstNonEmpty(pendingLanguage, sourceLanguage) : null;
+            String description = pendingTitle != null ? pendingTitle : "";
+
+            if (LISTING_DELIMITER.matcher(line).matches()) {
+                int end = indexOfClosing(lines, i + 1, line.strip());
+                codeBlocks.add(codeBlock(language, lines, i + 1, end, description));
+                i = end + 1;
+            } else if ((matcher = FENCE.matcher(line)).matches()) {
+                int end = indexOfClosing(lines, i + 1, "```");
+                String fenceLanguage = matcher.group(1).isEmpty() ? language : matcher.group(1);
+                codeBlocks.add(codeBlock(fenceLanguage, lines, i + 1, end, description));
+                i = end + 1;
+            } else if ((source || "listing".equals(pendingStyle)) && !line.isBlank()) {
+                // [source,lang] 或 [listing] 樣式的段落
+                int end = i;
+                while (end < lines.length && !lines[end].isBlank()) {
+                    end++;
+                }
+                codeBlocks.add(codeBlock(language, lines, i, end, description));
+                i = end;
+            } else {
+                i++;
+            }
+            pendingStyle = pendingLanguage = pendingTitle = null;
+        }
+        return new Result(title, codeBlocks, true);
+    }
+
+    private static boolean isHeaderPrelude(String line) {
+        return BLOCK_ATTRIBUTES.matcher(line).matches()
+                || ATTRIBUTE_ENTRY.matcher(line).matches()
+                || BLOCK_COMMENT.matcher(line).matches();
+    }
+
+    /**
+     * 套用 Asciidoctor doctitle 的特殊字元與受限格式替換（其餘替換已由 {@link #COMPLEX_TITLE} 排除）
+     */
+    static String substituteTitle(String title) {
+        String escaped = title.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+        escaped = STRONG.matcher(escaped).replaceAll("$1<strong>$2</strong>");
+        escaped = MONOSPACE.matcher(escaped).replaceAll("$1<code>$2</code>");
+        return EMPHASIS.matcher(escaped).replaceAll("$1<em>$2</em>");
+    }
+
+    private static int indexOfClosing(String[] lines, int from, String delimiter) {
+        for (int i = from; i < lines.length; i++) {
+            if (lines[i].strip().equals(delimiter)) {
+                return i;
+            }
+        }
+        return lines.length;
+    }
+
+    private static ParsedDocument.CodeBlock codeBlock(String language, String[] lines, int start, int end,
+                                                      String description) {
+        String code = String.join("\n", List.of(lines).subList(start, Math.min(end, lines.length)));
+        return new ParsedDocument.CodeBlock(
+                language == null || language.isEmpty() ? "text" : language,
+                code,
+                description,
+                0,  // 與完整解析一致，不提供行號
+                0
+        );
+    }
+
+    private static String firstNonEmpty(String value, String fallback) {
+        return value != null && !value.isEmpty() ? value : fallback;
+    }
+}
@@ -0,0 +1,149 @@
+package io.github.samzhu.docmcp.infrastructure.parser;
+
+import jakarta.annotation.PreDestroy;
+import org.asciidoctor.Asciidoctor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Asciidoctor 執行環境池
+ * <p>
+ * Asciidoctor 底層為 JRuby，建立一個執行環境需要數秒與數百 MB 記憶體。
+ * 此類別延後到第一次解析 AsciiDoc 時才建立執行環境，沒有 AsciiDoc 文件的部署不會啟動 JRuby；
+ * 建立後的執行環境保留在池中重複使用，最多建立 {@code pool-size} 個供同時進行的同步共用。
+ * </p>
+ * <p>
+ * 設定：
+ * <ul>
+ *   <li>{@code docmcp.parser.asciidoc.pool-size}：執行環境數量上限（預設 2）</li>
+ * </ul>
+ * </p>
+ */
+@Component
+@Lazy
+public class AsciidoctorPool {
+
+    private static final Logger log = LoggerFactory.getLogger(AsciidoctorPool.class);
+
+    private final int poolSize;
+    private final BlockingQueue<Asciidoctor> idle = new LinkedBlockingQueue<>();
+    private final Queue<Asciidoctor> created = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger createdCount = new AtomicInteger();
+
+    public AsciidoctorPool(@Value("${docmcp.parser.asciidoc.pool-size:2}") int poolSize) {
+        this.poolSize = Math.max(1, poolSize);
+    }
+
+    /**
+     * 借用一個執行環境執行操作，完成後歸還
+     * <p>
+     * 有閒置的執行環境時直接使用；未達上限時建立新的執行環境；否則等待其他操作歸還。
+     * </p>
+     *
+     * @param action 使用執行環境的操作
+     * @return 操作結果
+     */
+    public <T> T execute(Function<Asciidoctor, T> action) {
+        Asciidoctor asciidoctor = borrow();
+        try {
+            return action.apply(asciidoctor);
+        } finally {
+            idle.offer(asciidoctor);
+        }
+    }
+
+    /**
+     * 已建立的執行環境數量
+     */
+    public int getCreatedCount() {
+        return createdCount.get();
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * 關閉所有已建立的執行環境
+     */
+    @PreDestroy
+    public void close() {
+        Asciidoctor asciidoctor;
+        while ((asciidoctor = created.poll()) != null) {
+            try {
+                asciidoctor.close();
+            } catch (Exception e) {
+                log.warn("Failed to shut down Asciidoctor runtime", e);
+            }
+        }
+        idle.clear();
+    }
+
+    /**
+     * 建立執行環境（測試可覆寫以避免啟動 JRuby）
+     */
+    protected Asciidoctor createAsciidoctor() {
+        return Asciidoctor.Factory.create();
+    }
+
+    private Asciidoctor borrow() {
+        try {
+            while (true) {
+                Asciidoctor asciidoctor = idle.poll();
+                if (asciidoctor != null) {
+                    return asciidoctor;
+                }
+                if (tryReserve()) {
+                    return create();
+                }
+                // 定期重新檢查，涵蓋其他借用者建立失敗而釋出名額的情況
+                asciidoctor = idle.poll(1, TimeUnit.SECONDS);
+                if (asciidoctor != null) {
+                    return asciidoctor;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an Asciidoctor runtime", e);
+        }
+    }
+
+    /**
+     * 保留一個建立名額（不持有鎖，建立期間不阻擋其他借用者取得歸還的執行環境）
+     */
+    private boolean tryReserve() {
+        int count;
+        do {
+            count = createdCount.get();
+            if (count >= poolSize) {
+                return false;
+            }
+        } while (!createdCount.compareAndSet(count, count + 1));
+        return true;
+    }
+
+    private Asciidoctor create() {
+        try {
+            long startTime = System.currentTimeMillis();
+            Asciidoctor asciidoctor = createAsciidoctor();
+            created.add(asciidoctor);
+            log.info("Created Asciidoctor runtime {}/{} in {}ms",
+                    createdCount.get(), poolSize, System.currentTimeMillis() - startTime);
+            return asciidoctor;
+        } catch (RuntimeException e) {
+            createdCount.decrementAndGet();
+            throw e;
+        }
+    }
+}
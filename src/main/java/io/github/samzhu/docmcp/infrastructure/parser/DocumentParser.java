@@ -10,6 +10,10 @@ public interface DocumentParser {
 
     /**
      * 解析文件內容
+     * <p>
+     * 解析結果的 {@link ParsedDocument#content()} 為正規化後的本文（如 HTML 轉換後的 Markdown），
+     * 分塊與儲存都使用此本文，而非原始內容。
+     * </p>
      *
      * @param content 文件原始內容
      * @param path    文件路徑（用於判斷格式和設定元資料）
@@ -17,6 +21,21 @@ public interface DocumentParser {
      */
     ParsedDocument parse(String content, String path);
 
+    /**
+     * 解析文件內容，但不建立章節結構
+     * <p>
+     * 呼叫端只需要標題、本文與程式碼區塊時（如停用章節分塊）使用，解析器可改用較快的方式；
+     * 預設與 {@link #parse(String, String)} 相同。
+     * </p>
+     *
+     * @param content 文件原始內容
+     * @param path    文件路徑
+     * @return 解析後的文件（章節結構可能為空）
+     */
+    default ParsedDocument parseWithoutSections(String content, String path) {
+        return parse(content, path);
+    }
+
     /**
      * 是否支援此檔案類型
      *
@@ -31,4 +50,25 @@ public interface DocumentParser {
      * @return 文件類型名稱
      */
     String getDocType();
+
+    /**
+     * 正規化文件本文
+     * <p>
+     * 移除開頭的 BOM，並將 {@code \r\n} 與 {@code \r} 統一為 {@code \n}，
+     * 讓章節切分與分塊不受來源平台的換行格式影響。
+     * </p>
+     *
+     * @param content 文件內容
+     * @return 正規化後的內容（不需處理時回傳原字串）
+     */
+    static String normalizeBody(String content) {
+        if (content == null || content.isEmpty()) {
+            return content;
+        }
+        String body = content.charAt(0) == '\uFEFF' ? content.substring(1) : content;
+        if (body.indexOf('\r') < 0) {
+            return body;
+        }
+        return body.replace("\r\n", "\n").replace('\r', '\n');
+    }
 }
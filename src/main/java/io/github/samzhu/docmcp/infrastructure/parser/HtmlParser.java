@@ -1,29 +1,39 @@
 package io.github.samzhu.docmcp.infrastructure.parser;
 
 import com.vladsch.flexmark.html2md.converter.FlexmarkHtmlConverter;
+import com.vladsch.flexmark.parser.Parser;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 /**
  * HTML 文件解析器
  * <p>
- * 使用 jsoup 解析 HTML 文件，並可轉換為 Markdown。
+ * 使用 jsoup 解析 HTML 文件，並轉換為 Markdown 作為文件本文。
+ * 標題與程式碼區塊（含語言類別）從 HTML 擷取，章節結構則從轉換後的 Markdown 擷取，
+ * 因此分塊與儲存的內容不含 HTML 標籤。
  * </p>
  */
 @Service
+@Lazy
 public class HtmlParser implements DocumentParser {
 
+    private static final Pattern HTML_TAG = Pattern.compile("<[^>]+>");
+
     private final FlexmarkHtmlConverter htmlToMarkdownConverter;
+    private final Parser markdownParser;
 
     public HtmlParser() {
         this.htmlToMarkdownConverter = FlexmarkHtmlConverter.builder().build();
+        this.markdownParser = Parser.builder().build();
     }
 
     @Override
@@ -41,8 +51,11 @@ public class HtmlParser implements DocumentParser {
             // 擷取程式碼區塊
             List<ParsedDocument.CodeBlock> codeBlocks = extractCodeBlocks(document);
 
-            // 轉換為 Markdown（方便後續處理）
-            String markdownContent = convertToMarkdown(document);
+            // 轉換為 Markdown 作為文件本文
+            String markdownContent = DocumentParser.normalizeBody(convertToMarkdown(document));
+
+            // 從轉換後的 Markdown 擷取章節結構
+            MarkdownOutline outline = MarkdownOutline.extract(markdownParser.parse(markdownContent));
 
             // 元資料
             Map<String, Object> metadata = Map.of(
@@ -52,11 +65,12 @@ public class HtmlParser implements DocumentParser {
                     "codeBlockCount", codeBlocks.size()
             );
 
-            return new ParsedDocument(title, markdownContent, codeBlocks, metadata);
+            return new ParsedDocument(title, markdownContent, codeBlocks, metadata, outline.sections());
         } catch (Exception e) {
+            // 解析失敗時只保留移除標籤後的文字，避免將 HTML 標籤存入本文
             return new ParsedDocument(
                     extractFileNameWithoutExtension(path),
-                    content,
+                    HTML_TAG.matcher(content).replaceAll(""),
                     List.of(),
                     Map.of("path", path, "format", "html", "parseError", e.getMessage())
             );
@@ -0,0 +1,116 @@
+package io.github.samzhu.docmcp.infrastructure.parser;
+
+import com.vladsch.flexmark.ast.FencedCodeBlock;
+import com.vladsch.flexmark.ast.Heading;
+import com.vladsch.flexmark.ast.IndentedCodeBlock;
+import com.vladsch.flexmark.util.ast.Node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Markdown 文件結構
+ * <p>
+ * 只走訪 flexmark AST 一次，同時擷取第一個 H1 標題、程式碼區塊與章節結構，
+ * 由 {@link MarkdownParser} 與 {@link HtmlParser}（轉換後的 Markdown）共用。
+ * </p>
+ *
+ * @param title      第一個 H1 標題（沒有時為 null）
+ * @param codeBlocks 程式碼區塊列表
+ * @param sections   依標題切分的章節結構
+ */
+record MarkdownOutline(
+        String title,
+        List<ParsedDocument.CodeBlock> codeBlocks,
+        List<ParsedDocument.Section> sections
+) {
+
+    private static final int MAX_DESCRIPTION_LENGTH = 200;
+
+    /**
+     * 擷取文件結構
+     * <p>
+     * 每個最上層節點（段落、列表、程式碼區塊等）為一個內容區塊，程式碼區塊標記為不可分割，
+     * 標題路徑依標題層級維護；同時走訪該節點的子孫節點以取得巢狀的程式碼區塊與標題。
+     * </p>
+     *
+     * @param document flexmark 解析後的文件節點
+     * @return 文件結構
+     */
+    static MarkdownOutline extract(Node document) {
+        String title = null;
+        List<ParsedDocument.CodeBlock> codeBlocks = new ArrayList<>();
+        List<ParsedDocument.Section> sections = new ArrayList<>();
+
+        String[] headings = new String[7];
+        List<String> headingPath = List.of();
+        List<ParsedDocument.ContentBlock> blocks = new ArrayList<>();
+
+        for (Node node = document.getFirstChild(); node != null; node = node.getNext()) {
+            if (node instanceof Heading heading) {
+                if (!blocks.isEmpty()) {
+                    sections.add(new ParsedDocument.Section(headingPath, List.copyOf(blocks)));
+                    blocks.clear();
+                }
+                int level = heading.getLevel();
+                headings[level] = heading.getText().toString().trim();
+                Arrays.fill(headings, level + 1, headings.length, null);
+                headingPath = Arrays.stream(headings, 1, level + 1)
+                        .filter(h -> h != null && !h.isEmpty())
+                        .toList();
+            }
+
+            String text = node.getChars().toString().stripTrailing();
+            if (!text.isBlank()) {
+                boolean atomic = node instanceof FencedCodeBlock || node instanceof IndentedCodeBlock;
+                blocks.add(new ParsedDocument.ContentBlock(text, atomic));
+            }
+
+            // 同一次走訪中處理本節點與其子孫節點的標題和程式碼區塊
+            title = visit(node, title, codeBlocks);
+            for (Node descendant : node.getDescendants()) {
+                title = visit(descendant, title, codeBlocks);
+            }
+        }
+        if (!blocks.isEmpty()) {
+            sections.add(new ParsedDocument.Section(headingPath, List.copyOf(blocks)));
+        }
+        return new MarkdownOutline(title, codeBlocks, sections);
+    }
+
+    private static String visit(Node node, String title, List<ParsedDocument.CodeBlock> codeBlocks) {
+        if (node instanceof Heading heading) {
+            if (title == null && heading.getLevel() == 1) {
+                return heading.getText().toString().trim();
+            }
+        } else if (node instanceof FencedCodeBlock codeBlock) {
+            codeBlocks.add(toCodeBlock(codeBlock));
+        }
+        return title;
+    }
+
+    private static ParsedDocument.CodeBlock toCodeBlock(FencedCodeBlock codeBlock) {
+        String language = codeBlock.getInfo().toString().trim();
+        String code = codeBlock.getContentChars().toString();
+
+        // 取得程式碼前的文字作為描述
+        String description = "";
+        Node prev = codeBlock.getPrevious();
+        if (prev != null) {
+            description = prev.getChars().toString().trim();
+            // 限制描述長度
+            if (description.length() > MAX_DESCRIPTION_LENGTH) {
+                description = description.substring(0, MAX_DESCRIPTION_LENGTH) + "...";
+            }
+        }
+
+        return new ParsedDocument.CodeBlock(
+                language.isEmpty() ? "text" : language,
+                code,
+                description,
+                codeBlock.getStartLineNumber(),
+                codeBlock.getEndLineNumber()
+        );
+    }
+}
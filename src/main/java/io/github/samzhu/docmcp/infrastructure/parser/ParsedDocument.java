@@ -10,13 +10,22 @@ import java.util.Map;
  * @param content    文件內容（純文字或 Markdown）
  * @param codeBlocks 程式碼區塊列表
  * @param metadata   額外的元資料
+ * @param sections   依標題切分的章節結構（無法取得結構時為空列表）
  */
 public record ParsedDocument(
         String title,
         String content,
         List<CodeBlock> codeBlocks,
-        Map<String, Object> metadata
+        Map<String, Object> metadata,
+        List<Section> sections
 ) {
+    /**
+     * 建立不含章節結構的解析結果
+     */
+    public ParsedDocument(String title, String content, List<CodeBlock> codeBlocks, Map<String, Object> metadata) {
+        this(title, content, codeBlocks, metadata, List.of());
+    }
+
     /**
      * 程式碼區塊
      *
@@ -33,4 +42,30 @@ public record ParsedDocument(
             int startLine,
             int endLine
     ) {}
+
+    /**
+     * 章節
+     * <p>
+     * 一個標題及其下（不含子章節）的內容區塊，依文件順序排列。
+     * 第一個標題之前的內容為標題路徑為空（或只有文件標題）的章節。
+     * </p>
+     *
+     * @param headingPath 標題路徑（由最上層至本章節，如 [Spring Boot, Configuration, Profiles]）
+     * @param blocks      內容區塊（第一個區塊通常為標題本身）
+     */
+    public record Section(
+            List<String> headingPath,
+            List<ContentBlock> blocks
+    ) {}
+
+    /**
+     * 內容區塊
+     *
+     * @param text   區塊原始文字
+     * @param atomic 是否不可分割（程式碼區塊、表格）
+     */
+    public record ContentBlock(
+            String text,
+            boolean atomic
+    ) {}
 }
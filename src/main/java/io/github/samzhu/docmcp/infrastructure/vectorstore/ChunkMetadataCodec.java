@@ -0,0 +1,51 @@
+package io.github.samzhu.docmcp.infrastructure.vectorstore;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.postgresql.util.PGobject;
+
+import java.util.Map;
+
+/**
+ * 文件區塊 metadata 的 JSON 轉換
+ * <p>
+ * {@link DocumentChunkVectorStore} 寫入區塊時將 metadata 序列化為 JSONB，
+ * 搜尋時將每一列的 JSONB 還原為 Map。
+ * 參考 Spring AI PgVectorStore，失敗時拋出 RuntimeException 而非返回空物件。
+ * </p>
+ */
+public final class ChunkMetadataCodec {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param objectMapper JSON 序列化工具
+     */
+    public ChunkMetadataCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 將 Map 轉換為 JSON 字串
+     */
+    public String toJson(Map<String, Object> map) {
+        try {
+            return objectMapper.writeValueAsString(map);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("JSON 序列化失敗", e);
+        }
+    }
+
+    /**
+     * 將 PGobject 轉換為 Map
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> toMap(PGobject pgObject) {
+        String source = pgObject.getValue();
+        try {
+            return (Map<String, Object>) objectMapper.readValue(source, Map.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("JSON 解析失敗", e);
+        }
+    }
+}
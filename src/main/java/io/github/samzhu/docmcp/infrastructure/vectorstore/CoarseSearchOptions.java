@@ -0,0 +1,121 @@
+package io.github.samzhu.docmcp.infrastructure.vectorstore;
+
+/**
+ * 兩階段向量搜尋選項
+ * <p>
+ * 第一階段以縮減後的索引取得 topK × candidateMultiplier 個候選（上限 maxCandidates），
+ * 第二階段以完整精度的 cosine 距離重新排序。候選數越多召回率越高、延遲也越高。
+ * </p>
+ * <p>
+ * 縮減方式可組合使用：
+ * <ul>
+ *   <li>quantization：降低每一維的精度（halfvec / bit）</li>
+ *   <li>coarseDimensions：Matryoshka 截斷，只取向量前 N 維（gemini-embedding-001 以 MRL 訓練，前綴仍具語意）</li>
+ * </ul>
+ * </p>
+ *
+ * @param quantization        第一階段使用的量化方式
+ * @param coarseDimensions    第一階段使用的前綴維度（0 表示不截斷）
+ * @param candidateMultiplier 候選數相對於 topK 的倍數
+ * @param maxCandidates       候選數上限（同時作為 hnsw.ef_search）
+ */
+public record CoarseSearchOptions(VectorQuantization quantization, int coarseDimensions,
+                                  int candidateMultiplier, int maxCandidates) {
+
+    /** 不使用兩階段搜尋 */
+    public static final CoarseSearchOptions DISABLED = new CoarseSearchOptions(VectorQuantization.NONE, 0, 1, 1000);
+
+    public CoarseSearchOptions {
+        if (quantization == null) {
+            quantization = VectorQuantization.NONE;
+        }
+        if (coarseDimensions < 0) {
+            throw new IllegalArgumentException("coarseDimensions 不可小於 0");
+        }
+        if (candidateMultiplier < 1) {
+            throw new IllegalArgumentException("candidateMultiplier 必須大於等於 1");
+        }
+        if (maxCandidates < 1) {
+            throw new IllegalArgumentException("maxCandidates 必須大於等於 1");
+        }
+    }
+
+    /**
+     * 建立不截斷維度的選項
+     */
+    public CoarseSearchOptions(VectorQuantization quantization, int candidateMultiplier, int maxCandidates) {
+        this(quantization, 0, candidateMultiplier, maxCandidates);
+    }
+
+    /**
+     * 是否啟用兩階段搜尋
+     */
+    public boolean enabled() {
+        return quantization != VectorQuantization.NONE || coarseDimensions > 0;
+    }
+
+    /**
+     * 計算第一階段的候選數
+     *
+     * @param topK 最終結果數
+     */
+    public int candidateCount(int topK) {
+        long candidates = (long) topK * candidateMultiplier;
+        return (int) Math.max(topK, Math.min(candidates, maxCandidates));
+    }
+
+    /**
+     * 計算第一階段實際使用的維度
+     *
+     * @param fullDimensions 完整向量維度
+     */
+    public int effectiveDimensions(int fullDimensions) {
+        return coarseDimensions > 0 && coarseDimensions < fullDimensions ? coarseDimensions : fullDimensions;
+    }
+
+    /**
+     * 取得第一階段的向量表達式（索引與查詢 ORDER BY 必須完全一致才會使用索引）
+     *
+     * @param column         向量欄位或參數（如 dc.embedding、?::vector）
+     * @param fullDimensions 完整向量維度
+     */
+    public String coarseExpression(String column, int fullDimensions) {
+        int dimensions = effectiveDimensions(fullDimensions);
+        if (dimensions == fullDimensions) {
+            return quantization.columnExpression(column, dimensions);
+        }
+        String prefix = "subvector(" + column + ", 1, " + dimensions + ")";
+        return quantization == VectorQuantization.NONE
+                ? "(" + prefix + ")::vector(" + dimensions + ")"
+                : quantization.columnExpression(prefix, dimensions);
+    }
+
+    /**
+     * 取得第一階段索引名稱（如 idx_document_chunks_embedding_halfvec_256）
+     *
+     * @param fullDimensions 完整向量維度
+     */
+    public String indexName(int fullDimensions) {
+        return indexName("embedding", fullDimensions);
+    }
+
+    /**
+     * 取得指定向量欄位的第一階段索引名稱（如模型遷移影子欄位的 idx_document_chunks_embedding_next_halfvec_3072）
+     *
+     * @param column         向量欄位名稱
+     * @param fullDimensions 完整向量維度
+     */
+    public String indexName(String column, int fullDimensions) {
+        String kind = quantization == VectorQuantization.NONE ? "vector" : quantization.name().toLowerCase();
+        return "idx_document_chunks_" + column + "_" + kind + "_" + effectiveDimensions(fullDimensions);
+    }
+
+    /**
+     * 第一階段索引是否支援指定的完整向量維度
+     *
+     * @param fullDimensions 完整向量維度
+     */
+    public boolean supportsIndexDimensions(int fullDimensions) {
+        return effectiveDimensions(fullDimensions) <= quantization.maxIndexDimensions();
+    }
+}
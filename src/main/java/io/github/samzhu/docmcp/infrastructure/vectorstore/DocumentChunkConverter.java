@@ -6,6 +6,7 @@ import org.springframework.ai.document.Document;
 import org.springframework.stereotype.Component;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static io.github.samzhu.docmcp.infrastructure.vectorstore.DocumentChunkVectorStore.*;
@@ -186,7 +187,7 @@ public class DocumentChunkConverter {
     }
 
     /**
-     * 建立新文件區塊的 Spring AI Document（完整版本）
+     * 建立新文件區塊的 Spring AI Document（含文件標題與路徑）
      *
      * @param versionId     版本 ID（TSID 格式字串）
      * @param documentId    文件 ID（TSID 格式字串）
@@ -201,6 +202,27 @@ public class DocumentChunkConverter {
             String versionId, String documentId, int chunkIndex, String content, int tokenCount,
             String documentTitle, String documentPath) {
 
+        return createNewChunkDocument(versionId, documentId, chunkIndex, content, tokenCount,
+                documentTitle, documentPath, null);
+    }
+
+    /**
+     * 建立新文件區塊的 Spring AI Document（完整版本）
+     *
+     * @param versionId     版本 ID（TSID 格式字串）
+     * @param documentId    文件 ID（TSID 格式字串）
+     * @param chunkIndex    區塊索引
+     * @param content       區塊內容
+     * @param tokenCount    token 數量
+     * @param documentTitle 文件標題（可選）
+     * @param documentPath  文件路徑（可選）
+     * @param headingPath   區塊所屬章節的標題路徑（可選，空列表時不寫入）
+     * @return Spring AI Document 物件
+     */
+    public Document createNewChunkDocument(
+            String versionId, String documentId, int chunkIndex, String content, int tokenCount,
+            String documentTitle, String documentPath, List<String> headingPath) {
+
         Map<String, Object> metadata = new HashMap<>();
         metadata.put(METADATA_VERSION_ID, versionId);
         metadata.put(METADATA_DOCUMENT_ID, documentId);
@@ -213,6 +235,9 @@ public class DocumentChunkConverter {
         if (documentPath != null) {
             metadata.put(METADATA_DOCUMENT_PATH, documentPath);
         }
+        if (headingPath != null && !headingPath.isEmpty()) {
+            metadata.put(METADATA_HEADING_PATH, headingPath);
+        }
 
         // Spring AI 2.0 使用 3 參數建構子，使用 IdService 生成 TSID
         return new Document(idService.generateId(), content, metadata);
@@ -1,15 +1,18 @@
 package io.github.samzhu.docmcp.infrastructure.vectorstore;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.f4b6a3.tsid.TsidCreator;
-import com.pgvector.PGvector;
+import io.github.samzhu.docmcp.infrastructure.metrics.SearchMetrics;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.memory.InMemoryVectorIndexRegistry;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.memory.ScoredChunk;
 import org.postgresql.util.PGobject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.document.DocumentMetadata;
+import org.springframework.ai.embedding.Embedding;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.ai.vectorstore.filter.Filter;
@@ -25,8 +28,13 @@ import org.springframework.util.StringUtils;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * DocumentChunk VectorStore 實作
@@ -38,10 +46,15 @@ import java.util.Map;
  * 此實作的特點：
  * <ul>
  *   <li>使用 PostgreSQL pgvector 擴展進行向量相似度計算</li>
- *   <li>使用 JdbcTemplate + PGvector 物件進行參數綁定</li>
+ *   <li>使用 JdbcTemplate 綁定 float[]（driver 以二進位 float4[] 傳送，SQL 端轉型為 vector）</li>
  *   <li>透過 JSONPath 格式進行 metadata 過濾</li>
  *   <li>支援批次 embedding 生成</li>
  *   <li>與 Spring AI 生態系統（如 RAG Advisor）相容</li>
+ *   <li>支援執行期切換 embedding 模型（配合 EmbeddingMigrationService 的遷移切換）</li>
+ *   <li>可選的兩階段搜尋：量化（halfvec / bit）或截斷維度的索引取候選，再以完整向量精確重新排序</li>
+ *   <li>可選的記憶體向量索引：限定單一版本的搜尋在 JVM 內比對向量，資料庫只以主鍵取回內容</li>
+ *   <li>記錄查詢 embedding、向量搜尋、取回內容各階段的耗時（{@link SearchMetrics}）</li>
+ *   <li>embedding API 呼叫經 {@link EmbeddingObservation} 計時，通知指標與同步統計等訂閱者</li>
  * </ul>
  * </p>
  *
@@ -58,6 +71,8 @@ public class DocumentChunkVectorStore implements VectorStore {
     public static final String METADATA_TOKEN_COUNT = "tokenCount";
     public static final String METADATA_DOCUMENT_TITLE = "documentTitle";
     public static final String METADATA_DOCUMENT_PATH = "documentPath";
+    public static final String METADATA_HEADING_PATH = "headingPath";
+    public static final String METADATA_EMBEDDING_MODEL = "embeddingModel";
 
     // Google GenAI embedding API 限制每批最多 100 個請求
     private static final int EMBEDDING_BATCH_SIZE = 100;
@@ -66,39 +81,114 @@ public class DocumentChunkVectorStore implements VectorStore {
     // ID 欄位現為 CHAR(13) TSID 格式，不需要 ::uuid 轉換
     private static final String SQL_INSERT = """
         INSERT INTO document_chunks (id, document_id, chunk_index, content, embedding, token_count, metadata, created_at)
-        VALUES (?, ?, ?, ?, ?, ?, ?::jsonb, CURRENT_TIMESTAMP)
+        VALUES (?, ?, ?, ?, ?::vector, ?, ?::jsonb, CURRENT_TIMESTAMP)
         ON CONFLICT (id) DO UPDATE SET
             content = ?,
-            embedding = ?,
+            embedding = ?::vector,
             token_count = ?,
             metadata = ?::jsonb
         """;
 
     private static final String SQL_DELETE_BY_ID = "DELETE FROM document_chunks WHERE id = ?";
 
+    // 寫入前與模型遷移的切換（ACCESS EXCLUSIVE）互斥：取得鎖後切換已提交，持有期間不會再切換
+    private static final String SQL_LOCK_FOR_WRITE = "LOCK TABLE document_chunks IN ROW EXCLUSIVE MODE";
+
+    // embedding 欄位目前的模型（最近一次完成的遷移）
+    private static final String SQL_COMMITTED_PROFILE = """
+        SELECT target_model, target_dimensions
+        FROM embedding_migrations
+        WHERE status = 'COMPLETED'
+        ORDER BY completed_at DESC
+        LIMIT 1
+        """;
+
     // 相似度搜尋 SQL - 使用餘弦距離 (<=>)，參考 Spring AI 的格式
     // 注意：distance = 1 - similarity，所以 distance < threshold 等同於 similarity > (1 - threshold)
+    // 只選取 DocumentRowMapper 會讀取的欄位，向量本身不回傳（每筆可達數 KB）
+    // 版本過濾在 HNSW 索引掃描之後套用，以 MATERIALIZED CTE 讓 iterative scan 湊滿 LIMIT，
+    // 距離閾值與最終排序放在外層（relaxed_order 的結果可能略為亂序）
     private static final String SQL_SIMILARITY_SEARCH = """
-        SELECT dc.id, dc.document_id, dc.chunk_index, dc.content,
-               dc.embedding, dc.token_count, dc.metadata,
-               dc.embedding <=> ? AS distance
-        FROM document_chunks dc
-        WHERE dc.embedding IS NOT NULL
-        %s
-        AND dc.embedding <=> ? < ?
+        WITH candidates AS MATERIALIZED (
+            SELECT dc.id, dc.content, dc.metadata,
+                   dc.embedding <=> ?::vector AS distance
+            FROM document_chunks dc
+            WHERE dc.embedding IS NOT NULL
+            %s
+            ORDER BY distance
+            LIMIT ?
+        )
+        SELECT id, content, metadata, distance
+        FROM candidates
+        WHERE distance < ?
+        ORDER BY distance
+        """;
+
+    // 兩階段搜尋 SQL - 內層以縮減後的表達式走 HNSW 索引取候選，外層以完整精度 cosine 距離重新排序
+    // 內層的版本過濾在索引掃描之後套用，由 iterative scan 確保過濾後仍取得足夠的候選
+    // 格式參數依序為：JSONPath 過濾條件、縮減後的欄位表達式、距離運算子、縮減後的查詢參數表達式
+    private static final String SQL_TWO_PHASE_SEARCH = """
+        SELECT c.id, c.content, c.metadata,
+               c.embedding <=> ?::vector AS distance
+        FROM (
+            SELECT dc.id, dc.content, dc.metadata, dc.embedding
+            FROM document_chunks dc
+            WHERE dc.embedding IS NOT NULL
+            %s
+            ORDER BY %s %s %s
+            LIMIT ?
+        ) c
+        WHERE c.embedding <=> ?::vector < ?
         ORDER BY distance
         LIMIT ?
         """;
 
+    // 一次設定多個 HNSW 掃描參數（交易內有效），預設 ef_search 40 會限制索引掃描可取得的候選數
+    // 格式參數為 (?, ?) 佔位符列表
+    private static final String SQL_SET_HNSW_CONFIG = """
+        SELECT count(set_config(s.name, s.value, true))
+        FROM (VALUES %s) AS s(name, value)
+        """;
+
+    // 記憶體索引搜尋後取回內容 - 以 VALUES 帶入 (id, distance) 並以主鍵 JOIN，保持相似度排序
+    // 格式參數為 (?, ?::float8) 佔位符列表
+    private static final String SQL_HYDRATE_BY_IDS = """
+        SELECT dc.id, dc.content, dc.metadata, v.distance
+        FROM document_chunks dc
+        JOIN (VALUES %s) AS v(id, distance) ON dc.id = v.id
+        ORDER BY v.distance
+        """;
+
     private final JdbcTemplate jdbcTemplate;
     private final EmbeddingModel embeddingModel;
-    private final ObjectMapper objectMapper;
+    private final ChunkMetadataCodec metadataCodec;
     private final int dimensions;
     private final FilterExpressionConverter filterExpressionConverter;
     private final DocumentRowMapper documentRowMapper;
 
+    // 模型預設設定（來自 spring.ai.google.genai.embedding.*），null 表示不追蹤模型
+    private final EmbeddingProfile defaultProfile;
+
+    // 目前 embedding 欄位所使用的模型，遷移切換後由 EmbeddingMigrationService 更新
+    private volatile EmbeddingProfile activeProfile;
+
+    // 兩階段搜尋設定
+    private final CoarseSearchOptions coarseSearchOptions;
+
+    // HNSW 索引掃描設定（ef_search、iterative scan）
+    private final HnswScanOptions hnswScanOptions;
+
+    // 記憶體向量索引，null 表示停用
+    private final InMemoryVectorIndexRegistry inMemoryIndex;
+
+    // 搜尋階段指標
+    private final SearchMetrics metrics;
+
+    // embedding API 呼叫的觀察點（指標與同步統計皆由此訂閱）
+    private final EmbeddingObservation embeddings;
+
     /**
-     * 建構子
+     * 建構子（僅指定向量維度，其餘選項使用預設值）
      *
      * @param jdbcTemplate   JDBC 操作模板
      * @param embeddingModel 嵌入模型（用於生成向量）
@@ -109,14 +199,27 @@ public class DocumentChunkVectorStore implements VectorStore {
                                      EmbeddingModel embeddingModel,
                                      ObjectMapper objectMapper,
                                      int dimensions) {
-        this.jdbcTemplate = jdbcTemplate;
-        this.embeddingModel = embeddingModel;
-        this.objectMapper = objectMapper;
-        this.dimensions = dimensions;
-        this.filterExpressionConverter = new DocumentChunkFilterExpressionConverter();
-        this.documentRowMapper = new DocumentRowMapper(objectMapper);
+        this(builder(jdbcTemplate, embeddingModel, objectMapper).dimensions(dimensions));
+    }
 
-        log.info("初始化 DocumentChunkVectorStore，向量維度: {}", dimensions);
+    private DocumentChunkVectorStore(Builder builder) {
+        this.jdbcTemplate = builder.jdbcTemplate;
+        this.embeddingModel = builder.embeddingModel;
+        this.metadataCodec = new ChunkMetadataCodec(builder.objectMapper);
+        this.dimensions = builder.dimensions;
+        this.filterExpressionConverter = new DocumentChunkFilterExpressionConverter();
+        this.documentRowMapper = new DocumentRowMapper(metadataCodec);
+        this.defaultProfile = builder.defaultProfile;
+        this.activeProfile = builder.defaultProfile;
+        this.coarseSearchOptions = builder.coarseSearchOptions != null
+                ? builder.coarseSearchOptions : CoarseSearchOptions.DISABLED;
+        this.hnswScanOptions = builder.hnswScanOptions != null ? builder.hnswScanOptions : HnswScanOptions.DEFAULT;
+        this.inMemoryIndex = builder.inMemoryIndex;
+        this.metrics = builder.metrics != null ? builder.metrics : SearchMetrics.noop();
+        this.embeddings = new EmbeddingObservation(List.of(metrics::recordEmbedding));
+
+        log.info("初始化 DocumentChunkVectorStore，向量維度: {}，第一階段量化: {}，記憶體索引: {}",
+                dimensions, coarseSearchOptions.quantization(), inMemoryIndex != null ? "啟用" : "停用");
     }
 
     /**
@@ -126,6 +229,11 @@ public class DocumentChunkVectorStore implements VectorStore {
      * 使用 JdbcTemplate.batchUpdate 進行批次插入。
      * 為避免 Google GenAI 的批次限制（最多 100 個），會自動分批處理。
      * </p>
+     * <p>
+     * 追蹤模型時，每批寫入前先取得與遷移切換互斥的鎖，再確認 embedding 欄位目前的模型：
+     * 其他實例已完成切換（可能改變維度）而此實例尚未輪詢到時，改用新模型重新嵌入該批後寫入，
+     * 避免將舊維度的向量寫入切換後的欄位。
+     * </p>
      *
      * @param documents 要新增的 Spring AI Document 列表
      */
@@ -149,7 +257,18 @@ public class DocumentChunkVectorStore implements VectorStore {
             List<String> texts = batch.stream()
                     .map(Document::getText)
                     .toList();
-            List<float[]> embeddings = embeddingModel.embed(texts);
+            EmbeddingProfile embedded = activeProfile;
+            List<float[]> batchEmbeddings = embedTexts(embedded, texts);
+
+            EmbeddingProfile committed = lockCommittedProfile();
+            if (committed != null && !committed.equals(embedded)) {
+                log.info("寫入期間 embedding 欄位已切換至 {}，以新模型重新嵌入此批次", committed.key());
+                switchActiveProfile(committed);
+                embedded = committed;
+                batchEmbeddings = embedTexts(committed, texts);
+            }
+            EmbeddingProfile profile = embedded;
+            List<float[]> embeddings = batchEmbeddings;
 
             // 使用 JdbcTemplate.batchUpdate 進行批次插入
             // 參考 Spring AI PgVectorStore，使用 StatementCreatorUtils 設定參數
@@ -157,9 +276,8 @@ public class DocumentChunkVectorStore implements VectorStore {
                 @Override
                 public void setValues(PreparedStatement ps, int i) throws SQLException {
                     Document doc = batch.get(i);
-                    Map<String, Object> metadata = doc.getMetadata();
+                    Map<String, Object> metadata = withEmbeddingModel(doc.getMetadata(), profile);
                     float[] embedding = embeddings.get(i);
-                    PGvector pGvector = new PGvector(embedding);
 
                     // 準備參數值（使用 TSID 作為 ID）
                     String id = doc.getId() != null ? doc.getId() : TsidCreator.getTsid().toString();
@@ -167,20 +285,20 @@ public class DocumentChunkVectorStore implements VectorStore {
                     int chunkIndex = getIntFromMetadata(metadata, METADATA_CHUNK_INDEX, 0);
                     String content = doc.getText();
                     int tokenCount = getIntFromMetadata(metadata, METADATA_TOKEN_COUNT, 0);
-                    String metadataJson = toJson(metadata);
+                    String metadataJson = metadataCodec.toJson(metadata);
 
                     // INSERT 部分的參數（1-7）
                     StatementCreatorUtils.setParameterValue(ps, 1, SqlTypeValue.TYPE_UNKNOWN, id);
                     StatementCreatorUtils.setParameterValue(ps, 2, SqlTypeValue.TYPE_UNKNOWN, documentId);
                     StatementCreatorUtils.setParameterValue(ps, 3, SqlTypeValue.TYPE_UNKNOWN, chunkIndex);
                     StatementCreatorUtils.setParameterValue(ps, 4, SqlTypeValue.TYPE_UNKNOWN, content);
-                    StatementCreatorUtils.setParameterValue(ps, 5, SqlTypeValue.TYPE_UNKNOWN, pGvector);
+                    StatementCreatorUtils.setParameterValue(ps, 5, SqlTypeValue.TYPE_UNKNOWN, embedding);
                     StatementCreatorUtils.setParameterValue(ps, 6, SqlTypeValue.TYPE_UNKNOWN, tokenCount);
                     StatementCreatorUtils.setParameterValue(ps, 7, SqlTypeValue.TYPE_UNKNOWN, metadataJson);
 
                     // UPDATE 部分的參數（8-11）- 參考官方風格，重複傳值
                     StatementCreatorUtils.setParameterValue(ps, 8, SqlTypeValue.TYPE_UNKNOWN, content);
-                    StatementCreatorUtils.setParameterValue(ps, 9, SqlTypeValue.TYPE_UNKNOWN, pGvector);
+                    StatementCreatorUtils.setParameterValue(ps, 9, SqlTypeValue.TYPE_UNKNOWN, embedding);
                     StatementCreatorUtils.setParameterValue(ps, 10, SqlTypeValue.TYPE_UNKNOWN, tokenCount);
                     StatementCreatorUtils.setParameterValue(ps, 11, SqlTypeValue.TYPE_UNKNOWN, metadataJson);
                 }
@@ -265,14 +383,27 @@ public class DocumentChunkVectorStore implements VectorStore {
      * 向量相似度搜尋
      * <p>
      * 使用 pgvector 的餘弦距離進行相似度搜尋。
-     * 參考 Spring AI PgVectorStore 實作，使用 JdbcTemplate + PGvector 物件。
+     * 參考 Spring AI PgVectorStore 實作，查詢向量以 float[] 綁定（二進位傳送）。
      * 支援透過 filterExpression 過濾特定 versionId 的文件。
      * </p>
+     * <p>
+     * HNSW 索引涵蓋所有版本，搜尋前會在交易內設定 hnsw.ef_search 與 iterative scan（{@link HnswScanOptions}），
+     * 讓版本過濾後仍能湊滿 topK。
+     * </p>
+     * <p>
+     * 啟用量化或維度截斷時改為兩階段搜尋：先以縮減後的索引取得 topK × candidateMultiplier 個候選，
+     * 再以完整精度的 cosine 距離重新排序並套用相似度閾值。
+     * </p>
+     * <p>
+     * 啟用記憶體向量索引且過濾條件為單一版本（versionId == 'X'）時，若該版本索引已載入，
+     * 直接在記憶體中完成搜尋，資料庫只以主鍵取回內容；尚未載入時觸發背景載入並走資料庫搜尋。
+     * </p>
      *
      * @param request 搜尋請求（包含查詢文字、topK、similarityThreshold、filterExpression）
      * @return 相似度最高的 Document 列表
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Document> similaritySearch(SearchRequest request) {
         if (request.getQuery() == null || request.getQuery().isBlank()) {
             return List.of();
@@ -282,8 +413,21 @@ public class DocumentChunkVectorStore implements VectorStore {
                 request.getQuery(), request.getTopK(), request.getSimilarityThreshold());
 
         // 將查詢文字轉換為向量
-        float[] queryEmbedding = embeddingModel.embed(request.getQuery());
-        PGvector queryVector = new PGvector(queryEmbedding);
+        EmbeddingProfile profile = activeProfile;
+        float[] queryEmbedding = metrics.recordStage(SearchMetrics.STAGE_EMBEDDING,
+                () -> embedQuery(profile, request.getQuery()));
+        // 計算距離閾值：distance = 1 - similarity
+        double distanceThreshold = 1 - request.getSimilarityThreshold();
+        int topK = request.getTopK() > 0 ? request.getTopK() : 10;
+
+        if (inMemoryIndex != null) {
+            String versionId = extractVersionId(request.getFilterExpression());
+            Optional<List<ScoredChunk>> hits = metrics.recordStage(SearchMetrics.STAGE_VECTOR_MEMORY,
+                    () -> inMemoryIndex.search(versionId, queryEmbedding, topK, request.getSimilarityThreshold()));
+            if (hits.isPresent()) {
+                return hydrate(hits.get());
+            }
+        }
 
         // 處理過濾條件 - 使用 JSONPath 格式
         String jsonPathFilter = "";
@@ -294,22 +438,27 @@ public class DocumentChunkVectorStore implements VectorStore {
             }
         }
 
-        // 計算距離閾值：distance = 1 - similarity
-        double distanceThreshold = 1 - request.getSimilarityThreshold();
-        int topK = request.getTopK() > 0 ? request.getTopK() : 10;
+        if (coarseSearchOptions.enabled()) {
+            int coarseDimensions = profile != null ? profile.dimensions() : queryEmbedding.length;
+            String filter = jsonPathFilter;
+            return metrics.recordStage(SearchMetrics.STAGE_VECTOR_SQL,
+                    () -> twoPhaseSearch(queryEmbedding, filter, coarseDimensions, distanceThreshold, topK));
+        }
 
         // 建構 SQL
         String sql = String.format(SQL_SIMILARITY_SEARCH, jsonPathFilter);
 
-        // 執行查詢 - 參考 Spring AI，直接傳遞 PGvector 物件
-        List<Document> results = jdbcTemplate.query(
-                sql,
-                documentRowMapper,
-                queryVector,      // 用於計算 distance
-                queryVector,      // 用於 WHERE 條件
-                distanceThreshold,
-                topK
-        );
+        // 執行查詢 - 直接傳遞 float[]，SQL 端以 ?::vector 轉型
+        List<Document> results = metrics.recordStage(SearchMetrics.STAGE_VECTOR_SQL, () -> {
+            applyHnswSettings(topK);
+            return jdbcTemplate.query(
+                    sql,
+                    documentRowMapper,
+                    queryEmbedding,   // 用於計算 distance 與索引排序
+                    topK,
+                    distanceThreshold
+            );
+        });
 
         log.debug("語意搜尋完成，找到 {} 個結果", results.size());
         return results;
@@ -323,20 +472,194 @@ public class DocumentChunkVectorStore implements VectorStore {
         return "DocumentChunkVectorStore";
     }
 
+    /**
+     * 取得目前 embedding 欄位所使用的模型設定
+     *
+     * @return 模型設定（未追蹤模型時為 null）
+     */
+    public EmbeddingProfile getActiveProfile() {
+        return activeProfile;
+    }
+
+    /**
+     * 切換目前使用的模型設定
+     * <p>
+     * 僅應在 embedding 欄位已完成切換後呼叫，之後的寫入與查詢都會使用新模型。
+     * </p>
+     *
+     * @param profile 新的模型設定
+     */
+    public void switchActiveProfile(EmbeddingProfile profile) {
+        EmbeddingProfile previous = this.activeProfile;
+        if (profile == null || profile.equals(previous)) {
+            return;
+        }
+        this.activeProfile = profile;
+        if (inMemoryIndex != null) {
+            inMemoryIndex.invalidateAll();
+        }
+        log.info("VectorStore embedding 模型切換: {} -> {}",
+                previous != null ? previous.key() : "default", profile.key());
+    }
+
+    /**
+     * 使用指定模型設定批次生成 embedding
+     * <p>
+     * 透過執行期 EmbeddingOptions 覆蓋模型預設值，供遷移作業產生目標模型的向量。
+     * </p>
+     *
+     * @param profile 模型設定
+     * @param texts   文字列表
+     * @return 與輸入順序相同的向量列表
+     */
+    public List<float[]> embedWith(EmbeddingProfile profile, List<String> texts) {
+        return embeddings.record(EmbeddingObservation.OPERATION_DOCUMENT, texts.size(),
+                () -> callWith(profile, texts));
+    }
+
     // ========== 私有輔助方法 ==========
 
     /**
-     * 將 Map 轉換為 JSON 字串
+     * 兩階段搜尋：縮減後的索引取候選，完整向量重新排序
+     */
+    private List<Document> twoPhaseSearch(float[] queryVector, String jsonPathFilter, int vectorDimensions,
+                                          double distanceThreshold, int topK) {
+        VectorQuantization quantization = coarseSearchOptions.quantization();
+        int candidates = coarseSearchOptions.candidateCount(topK);
+
+        String sql = String.format(SQL_TWO_PHASE_SEARCH,
+                jsonPathFilter,
+                coarseSearchOptions.coarseExpression("dc.embedding", vectorDimensions),
+                quantization.distanceOperator(),
+                coarseSearchOptions.coarseExpression("?::vector", vectorDimensions));
+
+        // 確保 HNSW 索引掃描在版本過濾後仍能回傳足夠的候選（需在交易內才會生效）
+        applyHnswSettings(candidates);
+
+        List<Document> results = jdbcTemplate.query(
+                sql,
+                documentRowMapper,
+                queryVector,      // 外層精確 distance
+                queryVector,      // 內層量化排序
+                candidates,
+                queryVector,      // 外層 WHERE 條件
+                distanceThreshold,
+                topK
+        );
+
+        log.debug("兩階段語意搜尋完成（{} / {} 維，候選 {}），找到 {} 個結果", quantization,
+                coarseSearchOptions.effectiveDimensions(vectorDimensions), candidates, results.size());
+        return results;
+    }
+
+    /**
+     * 設定 HNSW 索引掃描參數（set_config 的 is_local = true，需在交易內才會生效）
+     *
+     * @param limit 索引掃描需要回傳的筆數
+     */
+    private void applyHnswSettings(int limit) {
+        List<String[]> settings = hnswScanOptions.settings(limit);
+        String values = String.join(", ", Collections.nCopies(settings.size(), "(?, ?)"));
+        Object[] params = settings.stream().flatMap(Arrays::stream).toArray();
+        jdbcTemplate.queryForObject(String.format(SQL_SET_HNSW_CONFIG, values), Long.class, params);
+    }
+
+    /**
+     * 依記憶體索引的搜尋結果以主鍵取回區塊內容
      * <p>
-     * 參考 Spring AI PgVectorStore，失敗時拋出 RuntimeException 而非返回空物件。
+     * 同步進行中被刪除的區塊不會出現在結果中（索引會在同步完成後重建）。
      * </p>
      */
-    private String toJson(Map<String, Object> map) {
-        try {
-            return objectMapper.writeValueAsString(map);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("JSON 序列化失敗", e);
+    private List<Document> hydrate(List<ScoredChunk> hits) {
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        String values = String.join(", ", Collections.nCopies(hits.size(), "(?, ?::float8)"));
+        List<Object> params = new ArrayList<>(hits.size() * 2);
+        for (ScoredChunk hit : hits) {
+            params.add(hit.id());
+            params.add(1.0 - hit.similarity());
+        }
+        List<Document> results = metrics.recordStage(SearchMetrics.STAGE_HYDRATION, () -> jdbcTemplate.query(
+                String.format(SQL_HYDRATE_BY_IDS, values), documentRowMapper, params.toArray()));
+
+        log.debug("記憶體索引語意搜尋完成，找到 {} 個結果", results.size());
+        return results;
+    }
+
+    /**
+     * 從過濾條件取出單一版本 ID（僅支援 versionId == 'X' 形式，其他條件回傳 null）
+     */
+    static String extractVersionId(Filter.Expression expression) {
+        if (expression == null || expression.type() != Filter.ExpressionType.EQ) {
+            return null;
+        }
+        if (expression.left() instanceof Filter.Key key
+                && expression.right() instanceof Filter.Value value
+                && value.value() != null
+                && METADATA_VERSION_ID.equals(key.key().replace("\"", "").replace("'", ""))) {
+            return value.value().toString();
+        }
+        return null;
+    }
+
+    /**
+     * 取得與遷移切換互斥的寫入鎖，並回傳 embedding 欄位目前的模型
+     * <p>
+     * 鎖持有至交易結束；未追蹤模型或尚無完成的遷移時回傳 null。
+     * </p>
+     */
+    private EmbeddingProfile lockCommittedProfile() {
+        if (defaultProfile == null) {
+            return null;
+        }
+        jdbcTemplate.execute(SQL_LOCK_FOR_WRITE);
+        List<EmbeddingProfile> committed = jdbcTemplate.query(SQL_COMMITTED_PROFILE,
+                (rs, rowNum) -> new EmbeddingProfile(rs.getString("target_model"), rs.getInt("target_dimensions")));
+        return committed.isEmpty() ? null : committed.getFirst();
+    }
+
+    /**
+     * 使用目前模型批次生成 embedding（與預設設定相同時直接使用模型預設值）
+     */
+    private List<float[]> embedTexts(EmbeddingProfile profile, List<String> texts) {
+        if (profile == null || profile.equals(defaultProfile)) {
+            return embeddings.record(EmbeddingObservation.OPERATION_DOCUMENT, texts.size(),
+                    () -> embeddingModel.embed(texts));
+        }
+        return embedWith(profile, texts);
+    }
+
+    /**
+     * 使用目前模型將查詢文字轉換為向量
+     */
+    private float[] embedQuery(EmbeddingProfile profile, String query) {
+        return embeddings.record(EmbeddingObservation.OPERATION_QUERY, 1,
+                () -> (profile == null || profile.equals(defaultProfile))
+                        ? embeddingModel.embed(query)
+                        : callWith(profile, List.of(query)).getFirst());
+    }
+
+    /**
+     * 以執行期 EmbeddingOptions 呼叫模型
+     */
+    private List<float[]> callWith(EmbeddingProfile profile, List<String> texts) {
+        return embeddingModel.call(new EmbeddingRequest(texts, profile.toOptions()))
+                .getResults().stream()
+                .map(Embedding::getOutput)
+                .toList();
+    }
+
+    /**
+     * 在 metadata 中記錄產生向量的模型（供遷移作業辨識需要補嵌入的區塊）
+     */
+    private Map<String, Object> withEmbeddingModel(Map<String, Object> metadata, EmbeddingProfile profile) {
+        if (profile == null) {
+            return metadata;
         }
+        Map<String, Object> result = metadata != null ? new HashMap<>(metadata) : new HashMap<>();
+        result.put(METADATA_EMBEDDING_MODEL, profile.key());
+        return result;
     }
 
     /**
@@ -368,6 +691,95 @@ public class DocumentChunkVectorStore implements VectorStore {
         }
     }
 
+    /**
+     * 建立 Builder
+     * <p>
+     * 參考 Spring AI PgVectorStore.builder()，必要相依以參數傳入，其餘選項皆有預設值。
+     * </p>
+     *
+     * @param jdbcTemplate   JDBC 操作模板
+     * @param embeddingModel 嵌入模型（用於生成向量）
+     * @param objectMapper   JSON 序列化工具
+     * @return Builder
+     */
+    public static Builder builder(JdbcTemplate jdbcTemplate, EmbeddingModel embeddingModel, ObjectMapper objectMapper) {
+        return new Builder(jdbcTemplate, embeddingModel, objectMapper);
+    }
+
+    /**
+     * DocumentChunkVectorStore Builder
+     */
+    public static final class Builder {
+
+        private final JdbcTemplate jdbcTemplate;
+        private final EmbeddingModel embeddingModel;
+        private final ObjectMapper objectMapper;
+        private int dimensions = 768;
+        private EmbeddingProfile defaultProfile;
+        private CoarseSearchOptions coarseSearchOptions = CoarseSearchOptions.DISABLED;
+        private HnswScanOptions hnswScanOptions = HnswScanOptions.DEFAULT;
+        private InMemoryVectorIndexRegistry inMemoryIndex;
+        private SearchMetrics metrics = SearchMetrics.noop();
+
+        private Builder(JdbcTemplate jdbcTemplate, EmbeddingModel embeddingModel, ObjectMapper objectMapper) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.embeddingModel = embeddingModel;
+            this.objectMapper = objectMapper;
+        }
+
+        /**
+         * 向量維度（預設 768）
+         */
+        public Builder dimensions(int dimensions) {
+            this.dimensions = dimensions;
+            return this;
+        }
+
+        /**
+         * 嵌入模型的預設設定，寫入區塊時會記錄於 metadata（未設定表示不追蹤模型）
+         */
+        public Builder defaultProfile(EmbeddingProfile defaultProfile) {
+            this.defaultProfile = defaultProfile;
+            return this;
+        }
+
+        /**
+         * 兩階段搜尋選項（預設停用）
+         */
+        public Builder coarseSearchOptions(CoarseSearchOptions coarseSearchOptions) {
+            this.coarseSearchOptions = coarseSearchOptions;
+            return this;
+        }
+
+        /**
+         * HNSW 索引掃描選項（預設 relaxed_order iterative scan）
+         */
+        public Builder hnswScanOptions(HnswScanOptions hnswScanOptions) {
+            this.hnswScanOptions = hnswScanOptions;
+            return this;
+        }
+
+        /**
+         * 記憶體向量索引（null 表示停用）
+         */
+        public Builder inMemoryIndex(InMemoryVectorIndexRegistry inMemoryIndex) {
+            this.inMemoryIndex = inMemoryIndex;
+            return this;
+        }
+
+        /**
+         * 搜尋階段與 embedding API 指標（預設不記錄）
+         */
+        public Builder metrics(SearchMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        public DocumentChunkVectorStore build() {
+            return new DocumentChunkVectorStore(this);
+        }
+    }
+
     /**
      * Document RowMapper
      * <p>
@@ -383,10 +795,10 @@ public class DocumentChunkVectorStore implements VectorStore {
         private static final String COLUMN_METADATA = "metadata";
         private static final String COLUMN_DISTANCE = "distance";
 
-        private final ObjectMapper objectMapper;
+        private final ChunkMetadataCodec metadataCodec;
 
-        public DocumentRowMapper(ObjectMapper objectMapper) {
-            this.objectMapper = objectMapper;
+        public DocumentRowMapper(ChunkMetadataCodec metadataCodec) {
+            this.metadataCodec = metadataCodec;
         }
 
         @Override
@@ -396,7 +808,7 @@ public class DocumentChunkVectorStore implements VectorStore {
             PGobject pgMetadata = rs.getObject(COLUMN_METADATA, PGobject.class);
             float distance = rs.getFloat(COLUMN_DISTANCE);
 
-            Map<String, Object> metadata = toMap(pgMetadata);
+            Map<String, Object> metadata = metadataCodec.toMap(pgMetadata);
             metadata.put(DocumentMetadata.DISTANCE.value(), distance);
 
             // 參考官方風格，使用 Document.builder() 並設定 score
@@ -407,22 +819,6 @@ public class DocumentChunkVectorStore implements VectorStore {
                     .score(1.0 - distance)
                     .build();
         }
-
-        /**
-         * 將 PGobject 轉換為 Map
-         * <p>
-         * 參考 Spring AI PgVectorStore，失敗時拋出 RuntimeException。
-         * </p>
-         */
-        @SuppressWarnings("unchecked")
-        private Map<String, Object> toMap(PGobject pgObject) {
-            String source = pgObject.getValue();
-            try {
-                return (Map<String, Object>) objectMapper.readValue(source, Map.class);
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException("JSON 解析失敗", e);
-            }
-        }
     }
 
 }
@@ -0,0 +1,86 @@
+package io.github.samzhu.docmcp.infrastructure.vectorstore;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * embedding API 呼叫的觀察點
+ * <p>
+ * {@link DocumentChunkVectorStore} 的每次 embedding 呼叫都經由 {@link #record} 計時，
+ * 完成後（成功或失敗）將目的、文字數與耗時通知訂閱者：
+ * <ul>
+ *   <li>建立時指定的訂閱者：接收所有呼叫，例如指標記錄</li>
+ *   <li>{@link #observe} 綁定的訂閱者：以 {@link ScopedValue} 綁定，只接收該呼叫範圍內的呼叫，例如單次同步的統計</li>
+ * </ul>
+ * </p>
+ */
+public final class EmbeddingObservation {
+
+    public static final String OPERATION_QUERY = "query";
+    public static final String OPERATION_DOCUMENT = "document";
+
+    private static final ScopedValue<Listener> SCOPED_LISTENER = ScopedValue.newInstance();
+
+    private final List<Listener> listeners;
+
+    public EmbeddingObservation(List<Listener> listeners) {
+        this.listeners = List.copyOf(listeners);
+    }
+
+    /**
+     * 沒有全域訂閱者的實例（仍會通知 {@link #observe} 綁定的訂閱者）
+     */
+    public static EmbeddingObservation none() {
+        return new EmbeddingObservation(List.of());
+    }
+
+    /**
+     * 在綁定訂閱者的範圍內執行，範圍內的 embedding 呼叫會另外通知該訂閱者
+     *
+     * @param listener 訂閱者
+     * @param action   要執行的動作
+     * @return 動作的結果
+     */
+    public static <T> T observe(Listener listener, Supplier<T> action) {
+        return ScopedValue.where(SCOPED_LISTENER, listener).call(action::get);
+    }
+
+    /**
+     * 計時一次 embedding 呼叫並通知訂閱者
+     *
+     * @param operation 呼叫目的（query / document）
+     * @param texts     本次送出的文字數
+     * @param call      呼叫動作
+     * @return 呼叫的結果
+     */
+    public <T> T record(String operation, int texts, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            for (Listener listener : listeners) {
+                listener.onEmbedding(operation, texts, elapsed);
+            }
+            if (SCOPED_LISTENER.isBound()) {
+                SCOPED_LISTENER.get().onEmbedding(operation, texts, elapsed);
+            }
+        }
+    }
+
+    /**
+     * embedding 呼叫訂閱者
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * 一次 embedding API 呼叫完成（成功或失敗）
+         *
+         * @param operation 呼叫目的（query / document）
+         * @param texts     送出的文字數
+         * @param nanos     呼叫耗時（奈秒）
+         */
+        void onEmbedding(String operation, int texts, long nanos);
+    }
+}
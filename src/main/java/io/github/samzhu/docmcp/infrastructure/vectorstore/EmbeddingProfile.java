@@ -0,0 +1,42 @@
+package io.github.samzhu.docmcp.infrastructure.vectorstore;
+
+import org.springframework.ai.embedding.EmbeddingOptions;
+
+/**
+ * Embedding 模型設定
+ * <p>
+ * 以模型名稱加上輸出維度識別一組向量空間。不同 profile 產生的向量不可互相比較，
+ * 因此每個區塊都會在 metadata 記錄產生它的 profile（見 {@link #key()}）。
+ * </p>
+ *
+ * @param model      模型名稱（如 gemini-embedding-001）
+ * @param dimensions 輸出維度
+ */
+public record EmbeddingProfile(String model, int dimensions) {
+
+    public EmbeddingProfile {
+        if (model == null || model.isBlank()) {
+            throw new IllegalArgumentException("Embedding 模型名稱不可為空");
+        }
+        if (dimensions <= 0) {
+            throw new IllegalArgumentException("Embedding 維度必須大於 0");
+        }
+    }
+
+    /**
+     * 取得寫入區塊 metadata 的識別字串（如 gemini-embedding-001@768）
+     */
+    public String key() {
+        return model + "@" + dimensions;
+    }
+
+    /**
+     * 轉換為 Spring AI 執行期 EmbeddingOptions（覆蓋模型預設值）
+     */
+    public EmbeddingOptions toOptions() {
+        return EmbeddingOptions.builder()
+                .model(model)
+                .dimensions(dimensions)
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.samzhu.docmcp.infrastructure.vectorstore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * HNSW 索引掃描選項（每次搜尋以 set_config(..., true) 設定於交易內）
+ * <p>
+ * document_chunks 的 HNSW 索引涵蓋所有版本，版本過濾（metadata->>'versionId'）在索引掃描之後才套用：
+ * 索引只回傳 hnsw.ef_search 筆最近鄰，其中屬於目標版本的可能少於 topK，甚至為 0。
+ * pgvector 0.8 的 iterative scan 會在過濾後結果不足時繼續掃描索引，直到湊滿 LIMIT
+ * 或掃描數達到 hnsw.max_scan_tuples。
+ * </p>
+ * <ul>
+ *   <li>OFF：不設定 iterative scan（pgvector 0.8 以前的版本只能使用此值）</li>
+ *   <li>STRICT_ORDER：結果嚴格依距離排序</li>
+ *   <li>RELAXED_ORDER：結果可能略為亂序，由查詢外層重新排序（建議值）</li>
+ * </ul>
+ *
+ * @param iterativeScan iterative scan 模式
+ * @param efSearch      HNSW 搜尋的候選清單大小下限（實際值至少為 LIMIT，上限 1000）
+ * @param maxScanTuples iterative scan 最多掃描的索引項目數
+ */
+public record HnswScanOptions(IterativeScan iterativeScan, int efSearch, int maxScanTuples) {
+
+    /** pgvector 允許的 hnsw.ef_search 上限 */
+    public static final int MAX_EF_SEARCH = 1000;
+
+    /** 預設值：relaxed_order iterative scan，ef_search 100，最多掃描 20000 項 */
+    public static final HnswScanOptions DEFAULT = new HnswScanOptions(IterativeScan.RELAXED_ORDER, 100, 20_000);
+
+    /**
+     * iterative scan 模式
+     */
+    public enum IterativeScan {
+
+        OFF,
+
+        STRICT_ORDER,
+
+        RELAXED_ORDER;
+
+        /**
+         * 取得 hnsw.iterative_scan 的設定值
+         */
+        public String setting() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public HnswScanOptions {
+        if (iterativeScan == null) {
+            iterativeScan = IterativeScan.OFF;
+        }
+        if (efSearch < 1 || efSearch > MAX_EF_SEARCH) {
+            throw new IllegalArgumentException("efSearch 必須介於 1 與 " + MAX_EF_SEARCH + " 之間");
+        }
+        if (maxScanTuples < 1) {
+            throw new IllegalArgumentException("maxScanTuples 必須大於等於 1");
+        }
+    }
+
+    /**
+     * 計算實際使用的 hnsw.ef_search（至少涵蓋查詢的 LIMIT）
+     *
+     * @param limit 索引掃描需要回傳的筆數
+     */
+    public int efSearchFor(int limit) {
+        return Math.min(Math.max(efSearch, limit), MAX_EF_SEARCH);
+    }
+
+    /**
+     * 取得搜尋前要設定的 (名稱, 值) 清單
+     *
+     * @param limit 索引掃描需要回傳的筆數
+     */
+    public List<String[]> settings(int limit) {
+        List<String[]> settings = new ArrayList<>(3);
+        settings.add(new String[]{"hnsw.ef_search", String.valueOf(efSearchFor(limit))});
+        if (iterativeScan != IterativeScan.OFF) {
+            settings.add(new String[]{"hnsw.iterative_scan", iterativeScan.setting()});
+            settings.add(new String[]{"hnsw.max_scan_tuples", String.valueOf(maxScanTuples)});
+        }
+        return settings;
+    }
+}
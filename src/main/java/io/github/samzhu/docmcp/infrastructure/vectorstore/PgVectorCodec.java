@@ -0,0 +1,375 @@
+package io.github.samzhu.docmcp.infrastructure.vectorstore;
+
+import org.postgresql.util.PGBinaryObject;
+import org.postgresql.util.PGobject;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * pgvector 向量編解碼
+ * <p>
+ * 提供 pgvector 二進位格式（{@code vector_send} / {@code vector_recv}）的編解碼，
+ * 取代以 {@code String.split} + {@code Float.parseFloat} 解析文字格式的作法：
+ * 768 維向量的二進位格式固定為 3,076 bytes，解碼只需一次陣列配置。
+ * </p>
+ * <p>
+ * 二進位格式（網路位元組順序）：
+ * <pre>
+ * int16   dim      維度
+ * int16   unused   保留（0）
+ * float4  x[dim]   各維度的值
+ * </pre>
+ * </p>
+ * <p>
+ * 使用方式：
+ * <ul>
+ *   <li>讀取：查詢時以 {@code vector_send(embedding) AS embedding} 取得 bytea，再以 {@link #decode(byte[])} 解碼</li>
+ *   <li>JdbcTemplate 寫入：直接綁定 {@code float[]} 並在 SQL 使用 {@code ?::vector}，
+ *       PostgreSQL JDBC driver 會以二進位 float4[] 傳送</li>
+ *   <li>Spring Data JDBC 寫入：{@link BinaryVector}，driver 啟用 vector 型別的二進位傳輸時以二進位送出</li>
+ * </ul>
+ * </p>
+ */
+public final class PgVectorCodec {
+
+    /** 二進位格式的標頭長度（dim + unused） */
+    public static final int HEADER_BYTES = 4;
+
+    private static final VarHandle SHORT_BE =
+            MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle FLOAT_BE =
+            MethodHandles.byteArrayViewVarHandle(float[].class, ByteOrder.BIG_ENDIAN);
+
+    // 可精確表示為 double 的 10 的次方（10^22 以內）
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    // 尾數超過 2^53 時乘除法不再精確
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private PgVectorCodec() {
+    }
+
+    /**
+     * 編碼為 pgvector 二進位格式
+     *
+     * @param vector 向量
+     * @return vector_recv 可接受的位元組
+     */
+    public static byte[] encode(float[] vector) {
+        byte[] bytes = new byte[encodedLength(vector)];
+        encode(vector, bytes, 0);
+        return bytes;
+    }
+
+    /**
+     * 編碼至既有陣列的指定位置
+     */
+    public static void encode(float[] vector, byte[] bytes, int offset) {
+        if (vector.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("向量維度超過 pgvector 上限: " + vector.length);
+        }
+        SHORT_BE.set(bytes, offset, (short) vector.length);
+        SHORT_BE.set(bytes, offset + 2, (short) 0);
+        int position = offset + HEADER_BYTES;
+        for (float value : vector) {
+            FLOAT_BE.set(bytes, position, value);
+            position += Float.BYTES;
+        }
+    }
+
+    /**
+     * 二進位格式的長度
+     */
+    public static int encodedLength(float[] vector) {
+        return HEADER_BYTES + vector.length * Float.BYTES;
+    }
+
+    /**
+     * 解碼 pgvector 二進位格式（vector_send 的輸出）
+     *
+     * @param bytes 位元組，null 時回傳 null
+     * @return 向量
+     * @throws IllegalArgumentException 格式不正確時
+     */
+    public static float[] decode(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        return decode(bytes, 0);
+    }
+
+    /**
+     * 自指定位置解碼 pgvector 二進位格式
+     */
+    public static float[] decode(byte[] bytes, int offset) {
+        if (bytes.length - offset < HEADER_BYTES) {
+            throw new IllegalArgumentException("vector 二進位資料長度不足: " + (bytes.length - offset));
+        }
+        int dimensions = Short.toUnsignedInt((short) SHORT_BE.get(bytes, offset));
+        if (bytes.length - offset < HEADER_BYTES + dimensions * Float.BYTES) {
+            throw new IllegalArgumentException("vector 二進位資料與維度不符: dim=" + dimensions
+                    + ", bytes=" + (bytes.length - offset));
+        }
+        float[] vector = new float[dimensions];
+        int position = offset + HEADER_BYTES;
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = (float) FLOAT_BE.get(bytes, position);
+            position += Float.BYTES;
+        }
+        return vector;
+    }
+
+    /**
+     * 解析文字格式 "[0.1,0.2,...]"（未使用 vector_send 的查詢後備路徑）
+     * <p>
+     * 以逗號位置逐段就地解析，不建立 split 的中間陣列，也不為每個值建立子字串。
+     * </p>
+     *
+     * @param text 文字格式，null 時回傳 null
+     * @return 向量
+     */
+    public static float[] parseText(String text) {
+        if (text == null) {
+            return null;
+        }
+        int start = 0;
+        int end = text.length();
+        if (end >= 2 && text.charAt(0) == '[' && text.charAt(end - 1) == ']') {
+            start = 1;
+            end--;
+        }
+        if (start >= end) {
+            return new float[0];
+        }
+        int count = 1;
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == ',') {
+                count++;
+            }
+        }
+        float[] vector = new float[count];
+        int index = 0;
+        int from = start;
+        while (index < count) {
+            int comma = text.indexOf(',', from);
+            int to = comma < 0 || comma > end ? end : comma;
+            vector[index++] = parseFloat(text, from, to);
+            from = to + 1;
+        }
+        return vector;
+    }
+
+    /**
+     * 就地解析 text[from, to) 的十進位浮點數（略過前後空白）
+     * <p>
+     * pgvector 輸出的是 float 的最短十進位表示（最多 9 位有效數字），尾數以 long 累加後
+     * 以單次 double 乘除 10 的次方換算：尾數不超過 2^53 且指數在 ±22 以內時結果為正確捨入的 double
+     * （Clinger 快速路徑）。double 再轉為 float 只有在剛好落在兩個 float 中點時可能二次捨入錯誤，
+     * 此時與超出快速路徑範圍或格式不符的值一樣改用 {@link Float#parseFloat}（格式錯誤時拋出相同的例外）。
+     * </p>
+     */
+    static float parseFloat(CharSequence text, int from, int to) {
+        while (from < to && text.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && text.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        int i = from;
+        boolean negative = false;
+        if (i < to && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        boolean hasDigits = false;
+        boolean afterPoint = false;
+        for (; i < to; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                hasDigits = true;
+                if (mantissa != 0 || c != '0') {
+                    if (++significantDigits > 18) {
+                        return parseFloatSlow(text, from, to);
+                    }
+                    mantissa = mantissa * 10 + (c - '0');
+                }
+                if (afterPoint) {
+                    exponent--;
+                }
+            } else if (c == '.' && !afterPoint) {
+                afterPoint = true;
+            } else {
+                break;
+            }
+        }
+        if (!hasDigits) {
+            return parseFloatSlow(text, from, to);
+        }
+        if (i < to && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < to && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+                negativeExponent = text.charAt(i) == '-';
+                i++;
+            }
+            int exponentDigits = 0;
+            int explicitExponent = 0;
+            for (; i < to && text.charAt(i) >= '0' && text.charAt(i) <= '9'; i++) {
+                if (++exponentDigits > 4) {
+                    return parseFloatSlow(text, from, to);
+                }
+                explicitExponent = explicitExponent * 10 + (text.charAt(i) - '0');
+            }
+            if (exponentDigits == 0) {
+                return parseFloatSlow(text, from, to);
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        if (i != to) {
+            return parseFloatSlow(text, from, to);
+        }
+        if (mantissa == 0) {
+            return negative ? -0f : 0f;
+        }
+        if (mantissa > MAX_EXACT_MANTISSA || exponent < -22 || exponent > 22) {
+            return parseFloatSlow(text, from, to);
+        }
+        double value = exponent < 0
+                ? mantissa / POWERS_OF_TEN[-exponent]
+                : mantissa * POWERS_OF_TEN[exponent];
+        float result = (float) value;
+        if ((double) result != value) {
+            float neighbor = value > result ? Math.nextUp(result) : Math.nextDown(result);
+            if (value == ((double) result + (double) neighbor) / 2) {
+                return parseFloatSlow(text, from, to);
+            }
+        }
+        return negative ? -result : result;
+    }
+
+    private static float parseFloatSlow(CharSequence text, int from, int to) {
+        return Float.parseFloat(text.subSequence(from, to).toString());
+    }
+
+    /**
+     * 格式化為文字格式 "[0.1,0.2,...]"
+     *
+     * @param vector 向量
+     * @return pgvector 文字格式
+     */
+    public static String formatText(float[] vector) {
+        // 每個值約 10-12 字元，預先配置避免 StringBuilder 擴容
+        StringBuilder sb = new StringBuilder(2 + vector.length * 12);
+        sb.append('[');
+        for (int i = 0; i < vector.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(vector[i]);
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * 建立可二進位傳送的 vector 參數物件
+     */
+    public static BinaryVector toPGobject(float[] vector) {
+        return new BinaryVector(vector);
+    }
+
+    /**
+     * 支援二進位傳輸的 pgvector 參數物件
+     * <p>
+     * 實作 {@link PGBinaryObject}：driver 對 vector 型別啟用二進位傳輸時直接送出二進位格式，
+     * 否則才延遲產生文字格式。讀取時若 driver 以二進位回傳也可直接解碼。
+     * </p>
+     */
+    public static final class BinaryVector extends PGobject implements PGBinaryObject {
+
+        private float[] vector;
+
+        public BinaryVector() {
+            setType("vector");
+        }
+
+        public BinaryVector(float[] vector) {
+            this();
+            this.vector = vector;
+        }
+
+        /**
+         * 取得向量（未設定時為 null）
+         */
+        public float[] getVector() {
+            return vector;
+        }
+
+        @Override
+        public void setValue(String value) throws SQLException {
+            this.vector = parseText(value);
+        }
+
+        @Override
+        public String getValue() {
+            return vector != null ? formatText(vector) : null;
+        }
+
+        @Override
+        public void setByteValue(byte[] value, int offset) throws SQLException {
+            try {
+                this.vector = decode(value, offset);
+            } catch (IllegalArgumentException e) {
+                throw new SQLException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public int lengthInBytes() {
+            return vector != null ? encodedLength(vector) : 0;
+        }
+
+        @Override
+        public void toBytes(byte[] bytes, int offset) {
+            if (vector != null) {
+                encode(vector, bytes, offset);
+            }
+        }
+
+        @Override
+        public boolean isNull() {
+            return vector == null;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof BinaryVector other && Arrays.equals(vector, other.vector);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(vector);
+        }
+
+        @Override
+        public BinaryVector clone() throws CloneNotSupportedException {
+            BinaryVector copy = (BinaryVector) super.clone();
+            copy.vector = vector != null ? vector.clone() : null;
+            return copy;
+        }
+
+        @Override
+        public String toString() {
+            return getValue();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package io.github.samzhu.docmcp.infrastructure.vectorstore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 向量索引管理
+ * <p>
+ * 在 document_chunks.embedding 上建立完整精度的 HNSW 索引，以及依設定的量化方式與截斷維度建立的
+ * HNSW 表達式索引。索引不在 schema.sql 建立：既有資料量大時非 CONCURRENTLY 的建立會在整個建立期間
+ * 以 SHARE 鎖阻擋寫入，啟動也會被卡住；因此於啟動完成後在背景執行緒建立。
+ * 模型遷移切換時舊欄位上的表達式索引會被刪除，切換後重新建立。
+ * 使用 CREATE INDEX CONCURRENTLY 避免阻擋寫入（不可在交易內執行）。
+ * </p>
+ * <p>
+ * 中斷的 CONCURRENTLY 建立（重新啟動、逾時、取消）會留下 INVALID 索引，IF NOT EXISTS 不會重建，
+ * 查詢規劃器也永遠不會使用它；因此建立前先檢查 pg_index.indisvalid，無效且沒有進行中的建立時刪除後重建。
+ * </p>
+ */
+public class VectorIndexManager {
+
+    private static final Logger log = LoggerFactory.getLogger(VectorIndexManager.class);
+
+    /** 完整精度的 HNSW 索引（模型遷移切換時以 RENAME 替換） */
+    public static final String ACTIVE_INDEX = "idx_document_chunks_embedding_hnsw";
+
+    /** pgvector 的 HNSW 索引對 vector 型別最多支援 2000 維 */
+    public static final int MAX_VECTOR_INDEX_DIMENSIONS = 2000;
+
+    // 索引存在時回傳是否有效（不存在時無資料列）
+    private static final String SQL_INDEX_VALID = """
+        SELECT i.indisvalid
+        FROM pg_index i
+        WHERE i.indexrelid = to_regclass(?)
+        """;
+
+    // 其他實例正在建立中的索引同樣是 INVALID，不可刪除
+    private static final String SQL_INDEX_BUILD_IN_PROGRESS = """
+        SELECT count(*)
+        FROM pg_stat_progress_create_index
+        WHERE index_relid = to_regclass(?)
+        """;
+
+    // 取消建立中的索引（被取消的 CONCURRENTLY 建立會留下 INVALID 索引，由下次建立刪除）
+    private static final String SQL_CANCEL_INDEX_BUILD = """
+        SELECT pg_cancel_backend(pid)
+        FROM pg_stat_progress_create_index
+        WHERE index_relid = to_regclass(?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CoarseSearchOptions options;
+
+    public VectorIndexManager(JdbcTemplate jdbcTemplate, CoarseSearchOptions options) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.options = options;
+    }
+
+    /**
+     * 確保 embedding 欄位的向量索引存在
+     * <p>
+     * 完整精度索引只在維度不超過 {@value #MAX_VECTOR_INDEX_DIMENSIONS} 時建立；
+     * 啟用兩階段搜尋時另建立量化索引。建立失敗只記錄警告。
+     * </p>
+     *
+     * @param dimensions 目前 embedding 欄位的維度
+     */
+    public void ensureIndexes(int dimensions) {
+        for (IndexDefinition index : definitions("embedding", dimensions)) {
+            try {
+                log.info("確認向量索引: {}", index.name());
+                createIndex(index);
+            } catch (Exception e) {
+                // 多實例同時啟動時可能重複建立，查詢仍可正確執行（僅較慢）
+                log.warn("建立向量索引 {} 失敗: {}", index.name(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 建立指定向量欄位的所有索引（模型遷移的影子欄位使用）
+     * <p>
+     * 與 {@link #ensureIndexes} 建立相同種類的索引，索引名稱以欄位名稱區分。
+     * 建立失敗時拋出例外。
+     * </p>
+     *
+     * @param column     向量欄位名稱
+     * @param dimensions 欄位維度
+     */
+    public void buildIndexes(String column, int dimensions) {
+        for (IndexDefinition index : definitions(column, dimensions)) {
+            log.info("建立向量索引: {}", index.name());
+            createIndex(index);
+        }
+    }
+
+    /**
+     * 取得指定向量欄位應建立的索引名稱（與 {@link #buildIndexes} 的建立順序相同）
+     *
+     * @param column     向量欄位名稱
+     * @param dimensions 欄位維度
+     */
+    public List<String> indexNames(String column, int dimensions) {
+        return definitions(column, dimensions).stream().map(IndexDefinition::name).toList();
+    }
+
+    /**
+     * 取得指定向量欄位所有索引的整體狀態
+     * <p>
+     * 任一索引建立中時為 {@link IndexState#BUILDING}；否則任一索引為 INVALID 時為 {@link IndexState#INVALID}；
+     * 否則任一索引不存在時為 {@link IndexState#MISSING}；全部有效時為 {@link IndexState#VALID}。
+     * 建立中的判斷包含其他實例（pg_stat_progress_create_index）。
+     * </p>
+     *
+     * @param column     向量欄位名稱
+     * @param dimensions 欄位維度
+     */
+    public IndexState indexState(String column, int dimensions) {
+        IndexState state = IndexState.VALID;
+        for (IndexDefinition index : definitions(column, dimensions)) {
+            IndexState current = indexState(index.name());
+            if (current.ordinal() > state.ordinal()) {
+                state = current;
+            }
+        }
+        return state;
+    }
+
+    /**
+     * 取消指定向量欄位上建立中的索引（包含其他實例的建立）
+     *
+     * @param column     向量欄位名稱
+     * @param dimensions 欄位維度
+     */
+    public void cancelBuilds(String column, int dimensions) {
+        for (IndexDefinition index : definitions(column, dimensions)) {
+            jdbcTemplate.queryForList(SQL_CANCEL_INDEX_BUILD, Boolean.class, index.name());
+        }
+    }
+
+    /**
+     * 是否能為指定維度建立可供搜尋使用的索引
+     * <p>
+     * 超過 {@value #MAX_VECTOR_INDEX_DIMENSIONS} 維時需啟用兩階段搜尋，
+     * 並以量化（halfvec 最多 4000 維、bit 最多 64000 維）或截斷維度建立第一階段索引。
+     * </p>
+     *
+     * @param dimensions 向量維度
+     */
+    public boolean supportsDimensions(int dimensions) {
+        return dimensions <= MAX_VECTOR_INDEX_DIMENSIONS
+                || (options.enabled() && options.supportsIndexDimensions(dimensions));
+    }
+
+    /**
+     * 取得欄位上應建立的索引
+     */
+    private List<IndexDefinition> definitions(String column, int dimensions) {
+        List<IndexDefinition> indexes = new ArrayList<>(2);
+        if (dimensions <= MAX_VECTOR_INDEX_DIMENSIONS) {
+            String name = "idx_document_chunks_" + column + "_hnsw";
+            indexes.add(new IndexDefinition(name, "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + name
+                    + " ON document_chunks USING hnsw (" + column + " vector_cosine_ops)"));
+        }
+        if (options.enabled() && options.supportsIndexDimensions(dimensions)) {
+            String name = options.indexName(column, dimensions);
+            indexes.add(new IndexDefinition(name, "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + name
+                    + " ON document_chunks USING hnsw ((" + options.coarseExpression(column, dimensions) + ") "
+                    + options.quantization().operatorClass() + ")"));
+        }
+        return indexes;
+    }
+
+    private IndexState indexState(String indexName) {
+        List<Boolean> valid = jdbcTemplate.queryForList(SQL_INDEX_VALID, Boolean.class, indexName);
+        if (!valid.isEmpty() && Boolean.TRUE.equals(valid.getFirst())) {
+            return IndexState.VALID;
+        }
+        Long building = jdbcTemplate.queryForObject(SQL_INDEX_BUILD_IN_PROGRESS, Long.class, indexName);
+        if (building != null && building > 0) {
+            return IndexState.BUILDING;
+        }
+        return valid.isEmpty() ? IndexState.MISSING : IndexState.INVALID;
+    }
+
+    private void createIndex(IndexDefinition index) {
+        dropIfInvalid(index.name());
+        jdbcTemplate.execute(index.sql());
+    }
+
+    /**
+     * 刪除中斷建立所留下的 INVALID 索引
+     */
+    private void dropIfInvalid(String indexName) {
+        List<Boolean> valid = jdbcTemplate.queryForList(SQL_INDEX_VALID, Boolean.class, indexName);
+        if (valid.isEmpty() || Boolean.TRUE.equals(valid.getFirst())) {
+            return;
+        }
+        Long building = jdbcTemplate.queryForObject(SQL_INDEX_BUILD_IN_PROGRESS, Long.class, indexName);
+        if (building != null && building > 0) {
+            log.info("向量索引 {} 建立中，略過", indexName);
+            return;
+        }
+        log.warn("向量索引 {} 為 INVALID（先前的建立中斷），刪除後重建", indexName);
+        jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + indexName);
+    }
+
+    /**
+     * 索引狀態（依嚴重程度排序，彙總多個索引時取最後者）
+     */
+    public enum IndexState {
+        /** 索引有效，可供查詢使用 */
+        VALID,
+        /** 索引不存在 */
+        MISSING,
+        /** 中斷的建立所留下的無效索引 */
+        INVALID,
+        /** 建立中（可能為其他實例） */
+        BUILDING
+    }
+
+    /**
+     * 索引名稱與建立語句
+     */
+    private record IndexDefinition(String name, String sql) {
+    }
+}
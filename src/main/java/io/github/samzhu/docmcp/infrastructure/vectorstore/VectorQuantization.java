@@ -0,0 +1,65 @@
+package io.github.samzhu.docmcp.infrastructure.vectorstore;
+
+/**
+ * 向量量化方式
+ * <p>
+ * 量化只用於第一階段的候選搜尋：HNSW 索引建立在量化後的表達式上，
+ * 資料表仍保留完整精度的 embedding 欄位供第二階段精確重新排序。
+ * </p>
+ * <ul>
+ *   <li>NONE：直接以完整 vector 搜尋（單階段）</li>
+ *   <li>HALFVEC：半精度浮點（索引約縮小 2 倍，召回率幾乎不變）</li>
+ *   <li>BINARY：每維 1 bit 的二元量化 + Hamming 距離（索引約縮小 32 倍，需較多候選重新排序）</li>
+ * </ul>
+ */
+public enum VectorQuantization {
+
+    NONE,
+
+    HALFVEC,
+
+    BINARY;
+
+    /**
+     * 取得量化後的欄位表達式（索引與查詢 ORDER BY 必須完全一致才會使用索引）
+     *
+     * @param column     向量欄位或表達式（含資料表別名）
+     * @param dimensions 向量維度
+     */
+    public String columnExpression(String column, int dimensions) {
+        return switch (this) {
+            case NONE -> column;
+            case HALFVEC -> "(" + column + ")::halfvec(" + dimensions + ")";
+            case BINARY -> "binary_quantize(" + column + ")::bit(" + dimensions + ")";
+        };
+    }
+
+    /**
+     * 取得距離運算子
+     */
+    public String distanceOperator() {
+        return this == BINARY ? "<~>" : "<=>";
+    }
+
+    /**
+     * 取得 HNSW 索引支援的最大維度（vector 2000、halfvec 4000、bit 64000）
+     */
+    public int maxIndexDimensions() {
+        return switch (this) {
+            case NONE -> 2000;
+            case HALFVEC -> 4000;
+            case BINARY -> 64000;
+        };
+    }
+
+    /**
+     * 取得 HNSW 索引的 operator class
+     */
+    public String operatorClass() {
+        return switch (this) {
+            case NONE -> "vector_cosine_ops";
+            case HALFVEC -> "halfvec_cosine_ops";
+            case BINARY -> "bit_hamming_ops";
+        };
+    }
+}
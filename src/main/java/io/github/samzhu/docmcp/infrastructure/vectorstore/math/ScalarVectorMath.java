@@ -0,0 +1,75 @@
+package io.github.samzhu.docmcp.infrastructure.vectorstore.math;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * 純量向量運算
+ * <p>
+ * 不依賴 incubator 模組的後備實作，也是 SIMD 實作的正確性基準。
+ * </p>
+ */
+final class ScalarVectorMath implements VectorMath {
+
+    static final ScalarVectorMath INSTANCE = new ScalarVectorMath();
+
+    private ScalarVectorMath() {
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    @Override
+    public float dot(float[] a, float[] b) {
+        checkLength(a, b);
+        float sum = 0f;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public float dot(MemorySegment segment, long byteOffset, float[] query) {
+        float sum = 0f;
+        long offset = byteOffset;
+        for (int i = 0; i < query.length; i++, offset += Float.BYTES) {
+            sum += segment.get(ValueLayout.JAVA_FLOAT, offset) * query[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public float cosine(float[] a, float[] b) {
+        checkLength(a, b);
+        float dot = 0f;
+        float normA = 0f;
+        float normB = 0f;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        if (normA == 0f || normB == 0f) {
+            return 0f;
+        }
+        return (float) (dot / Math.sqrt((double) normA * normB));
+    }
+
+    @Override
+    public float norm(float[] a) {
+        float sum = 0f;
+        for (float v : a) {
+            sum += v * v;
+        }
+        return (float) Math.sqrt(sum);
+    }
+
+    static void checkLength(float[] a, float[] b) {
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("向量長度不同: " + a.length + " != " + b.length);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package io.github.samzhu.docmcp.infrastructure.vectorstore.math;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.foreign.MemorySegment;
+
+/**
+ * 向量運算元件
+ * <p>
+ * 所有在 JVM 內比對 embedding 的地方（相關文件相似度、記憶體向量索引）共用此元件。
+ * 執行期有 {@code jdk.incubator.vector} 模組（以 {@code --add-modules jdk.incubator.vector} 啟動）時
+ * 使用 SIMD 實作，否則使用純量實作；兩者結果僅有浮點累加順序造成的誤差。
+ * </p>
+ * <p>
+ * 可透過系統屬性 {@code docmcp.vector-math=scalar} 強制使用純量實作。
+ * </p>
+ */
+public interface VectorMath {
+
+    /**
+     * 取得目前 JVM 可用的最佳實作
+     */
+    static VectorMath get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * 純量實作（供基準測試與比對使用）
+     */
+    static VectorMath scalar() {
+        return ScalarVectorMath.INSTANCE;
+    }
+
+    /**
+     * 實作名稱（simd 或 scalar）
+     */
+    String name();
+
+    /**
+     * 內積
+     *
+     * @throws IllegalArgumentException 向量長度不同時
+     */
+    float dot(float[] a, float[] b);
+
+    /**
+     * 儲存區中自 byteOffset 開始的向量與 query 的內積
+     *
+     * @param segment    以原生位元組順序存放 float 的儲存區
+     * @param byteOffset 向量起始位置（bytes）
+     * @param query      查詢向量，長度即為維度
+     */
+    float dot(MemorySegment segment, long byteOffset, float[] query);
+
+    /**
+     * cosine 相似度；任一向量為零向量時回傳 0
+     *
+     * @throws IllegalArgumentException 向量長度不同時
+     */
+    float cosine(float[] a, float[] b);
+
+    /**
+     * L2 範數
+     */
+    float norm(float[] a);
+
+    /**
+     * 回傳正規化後的複本；零向量原樣回傳複本
+     */
+    default float[] normalize(float[] a) {
+        float[] result = a.clone();
+        float norm = norm(a);
+        if (norm == 0f) {
+            return result;
+        }
+        float scale = 1f / norm;
+        for (int i = 0; i < result.length; i++) {
+            result[i] *= scale;
+        }
+        return result;
+    }
+
+    /**
+     * 在連續存放的 count 個向量中找出與 query 內積最大的 k 個
+     * <p>
+     * 向量依序存放（第 i 個向量自 {@code i * query.length * Float.BYTES} 開始），
+     * 以固定大小的最小堆保留結果，過程中不配置物件。
+     * </p>
+     *
+     * @param segment 以原生位元組順序存放 float 的儲存區
+     * @param count   向量數量
+     * @param query   查詢向量
+     * @param k       回傳數量
+     * @return 依內積由高至低排序的結果
+     */
+    default TopK topK(MemorySegment segment, int count, float[] query, int k) {
+        int size = Math.min(k, count);
+        int[] indices = new int[size];
+        float[] scores = new float[size];
+        if (size == 0) {
+            return new TopK(indices, scores);
+        }
+        long stride = (long) query.length * Float.BYTES;
+        int filled = 0;
+        for (int i = 0; i < count; i++) {
+            float score = dot(segment, i * stride, query);
+            if (filled < size) {
+                indices[filled] = i;
+                scores[filled] = score;
+                siftUp(indices, scores, filled++);
+            } else if (score > scores[0]) {
+                indices[0] = i;
+                scores[0] = score;
+                siftDown(indices, scores, size);
+            }
+        }
+        // 堆排序：每次把最小值移到尾端，結果即為由高至低
+        for (int end = size - 1; end > 0; end--) {
+            swap(indices, scores, 0, end);
+            siftDown(indices, scores, end);
+        }
+        return new TopK(indices, scores);
+    }
+
+    private static void siftUp(int[] indices, float[] scores, int child) {
+        while (child > 0) {
+            int parent = (child - 1) >>> 1;
+            if (scores[parent] <= scores[child]) {
+                return;
+            }
+            swap(indices, scores, parent, child);
+            child = parent;
+        }
+    }
+
+    private static void siftDown(int[] indices, float[] scores, int size) {
+        int parent = 0;
+        while (true) {
+            int smallest = parent;
+            int left = 2 * parent + 1;
+            int right = left + 1;
+            if (left < size && scores[left] < scores[smallest]) {
+                smallest = left;
+            }
+            if (right < size && scores[right] < scores[smallest]) {
+                smallest = right;
+            }
+            if (smallest == parent) {
+                return;
+            }
+            swap(indices, scores, parent, smallest);
+            parent = smallest;
+        }
+    }
+
+    private static void swap(int[] indices, float[] scores, int i, int j) {
+        int index = indices[i];
+        indices[i] = indices[j];
+        indices[j] = index;
+        float score = scores[i];
+        scores[i] = scores[j];
+        scores[j] = score;
+    }
+
+    /**
+     * top-K 結果
+     *
+     * @param indices 向量編號（依分數由高至低）
+     * @param scores  對應的內積
+     */
+    record TopK(int[] indices, float[] scores) {
+
+        public int size() {
+            return indices.length;
+        }
+    }
+
+    /**
+     * 延遲選擇實作：只有在 jdk.incubator.vector 模組存在時才載入 SIMD 類別
+     */
+    final class Holder {
+
+        private static final Logger log = LoggerFactory.getLogger(VectorMath.class);
+
+        static final VectorMath INSTANCE = select();
+
+        private Holder() {
+        }
+
+        private static VectorMath select() {
+            if ("scalar".equalsIgnoreCase(System.getProperty("docmcp.vector-math"))) {
+                return ScalarVectorMath.INSTANCE;
+            }
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+                log.info("未載入 jdk.incubator.vector 模組，向量運算使用純量實作");
+                return ScalarVectorMath.INSTANCE;
+            }
+            try {
+                VectorMath simd = (VectorMath) Class
+                        .forName(VectorMath.class.getPackageName() + ".SimdVectorMath")
+                        .getDeclaredConstructor()
+                        .newInstance();
+                log.info("向量運算使用 SIMD 實作（{}）", simd.name());
+                return simd;
+            } catch (ReflectiveOperationException | LinkageError e) {
+                log.warn("無法初始化 SIMD 向量運算，改用純量實作: {}", e.toString());
+                return ScalarVectorMath.INSTANCE;
+            }
+        }
+    }
+}
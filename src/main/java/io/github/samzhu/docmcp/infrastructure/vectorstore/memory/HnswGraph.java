@@ -0,0 +1,284 @@
+package io.github.samzhu.docmcp.infrastructure.vectorstore.memory;
+
+import io.github.samzhu.docmcp.infrastructure.vectorstore.math.VectorMath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+/**
+ * HNSW（Hierarchical Navigable Small World）近似最近鄰圖
+ * <p>
+ * 在建立時以單一執行緒依序插入所有節點，建立完成後即不再變更，
+ * 因此搜尋不需要任何同步。內容變更時由呼叫端重新建立整張圖並替換。
+ * </p>
+ * <p>
+ * 相似度使用內積（向量已於 {@link OffHeapVectorArena} 正規化，等同 cosine）。
+ * 鄰居清單存為 int 陣列：{@code links[node][level][0]} 為鄰居數，其後為鄰居節點。
+ * </p>
+ */
+final class HnswGraph {
+
+    /** 依相似度由高至低排序 */
+    private static final Comparator<Candidate> BEST_FIRST =
+            Comparator.comparingDouble(Candidate::similarity).reversed();
+
+    /** 依相似度由低至高排序（堆頂為目前最差的結果） */
+    private static final Comparator<Candidate> WORST_FIRST =
+            Comparator.comparingDouble(Candidate::similarity);
+
+    private final OffHeapVectorArena vectors;
+    private final VectorMath math = VectorMath.get();
+    private final int m;
+    private final int maxM0;
+    private final int[][][] links;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    private HnswGraph(OffHeapVectorArena vectors, int m) {
+        this.vectors = vectors;
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.links = new int[vectors.count()][][];
+    }
+
+    /**
+     * 依序插入儲存區內所有向量建立圖
+     *
+     * @param vectors        已寫入向量的儲存區
+     * @param m              每層鄰居數
+     * @param efConstruction 建立時的候選清單大小
+     * @param seed           層級亂數種子（固定種子讓相同資料建出相同的圖）
+     */
+    static HnswGraph build(OffHeapVectorArena vectors, int m, int efConstruction, long seed) {
+        HnswGraph graph = new HnswGraph(vectors, m);
+        SplittableRandom random = new SplittableRandom(seed);
+        double levelMultiplier = 1.0 / Math.log(m);
+        for (int node = 0; node < vectors.count(); node++) {
+            int level = (int) Math.floor(-Math.log(1.0 - random.nextDouble()) * levelMultiplier);
+            graph.insert(node, level, efConstruction);
+        }
+        return graph;
+    }
+
+    /**
+     * 搜尋與查詢向量最相似的 topK 個節點
+     *
+     * @param query    已正規化的查詢向量
+     * @param topK     回傳數量
+     * @param efSearch 搜尋時的候選清單大小
+     * @return 依相似度由高至低排序的結果
+     */
+    List<Candidate> search(float[] query, int topK, int efSearch) {
+        if (entryPoint < 0) {
+            return List.of();
+        }
+        Candidate current = new Candidate(entryPoint, vectors.dot(entryPoint, query));
+        for (int level = maxLevel; level > 0; level--) {
+            current = greedyClosest(query, current, level);
+        }
+        List<Candidate> results = searchLayer(query, List.of(current), Math.max(efSearch, topK), 0);
+        return results.size() > topK ? results.subList(0, topK) : results;
+    }
+
+    /**
+     * 估算鄰居清單佔用的堆積記憶體
+     */
+    long estimatedLinkBytes() {
+        long bytes = 0;
+        for (int[][] nodeLinks : links) {
+            if (nodeLinks == null) {
+                continue;
+            }
+            bytes += 16L + 4L * nodeLinks.length;
+            for (int[] level : nodeLinks) {
+                bytes += 16L + 4L * level.length;
+            }
+        }
+        return bytes;
+    }
+
+    private void insert(int node, int level, int efConstruction) {
+        int[][] nodeLinks = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            nodeLinks[l] = new int[(l == 0 ? maxM0 : m) + 1];
+        }
+        links[node] = nodeLinks;
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+
+        float[] query = vectors.get(node);
+        Candidate current = new Candidate(entryPoint, vectors.dot(entryPoint, query));
+        for (int l = maxLevel; l > level; l--) {
+            current = greedyClosest(query, current, l);
+        }
+
+        List<Candidate> entryPoints = List.of(current);
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            List<Candidate> candidates = searchLayer(query, entryPoints, efConstruction, l);
+            int maxNeighbors = l == 0 ? maxM0 : m;
+            List<Candidate> neighbors = selectNeighbors(candidates, m);
+            for (Candidate neighbor : neighbors) {
+                addLink(node, neighbor.node(), l);
+                connectBack(neighbor.node(), node, neighbor.similarity(), l, maxNeighbors);
+            }
+            entryPoints = candidates;
+        }
+
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = node;
+        }
+    }
+
+    /**
+     * 在單一層中以貪婪方式移動到最相似的節點
+     */
+    private Candidate greedyClosest(float[] query, Candidate start, int level) {
+        Candidate best = start;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            int[] neighbors = links[best.node()][level];
+            for (int i = 1; i <= neighbors[0]; i++) {
+                int neighbor = neighbors[i];
+                float similarity = vectors.dot(neighbor, query);
+                if (similarity > best.similarity()) {
+                    best = new Candidate(neighbor, similarity);
+                    changed = true;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 在單一層中以 best-first 方式搜尋，回傳最多 ef 個依相似度由高至低排序的結果
+     */
+    private List<Candidate> searchLayer(float[] query, List<Candidate> entryPoints, int ef, int level) {
+        BitSet visited = new BitSet(links.length);
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(BEST_FIRST);
+        PriorityQueue<Candidate> results = new PriorityQueue<>(WORST_FIRST);
+        for (Candidate entry : entryPoints) {
+            if (!visited.get(entry.node())) {
+                visited.set(entry.node());
+                candidates.add(entry);
+                results.add(entry);
+            }
+        }
+        while (results.size() > ef) {
+            results.poll();
+        }
+
+        while (!candidates.isEmpty()) {
+            Candidate current = candidates.poll();
+            if (results.size() >= ef && current.similarity() < results.peek().similarity()) {
+                break;
+            }
+            int[][] nodeLinks = links[current.node()];
+            if (level >= nodeLinks.length) {
+                continue;
+            }
+            int[] neighbors = nodeLinks[level];
+            for (int i = 1; i <= neighbors[0]; i++) {
+                int neighbor = neighbors[i];
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+                float similarity = vectors.dot(neighbor, query);
+                if (results.size() < ef || similarity > results.peek().similarity()) {
+                    Candidate candidate = new Candidate(neighbor, similarity);
+                    candidates.add(candidate);
+                    results.add(candidate);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+
+        List<Candidate> sorted = new ArrayList<>(results);
+        sorted.sort(BEST_FIRST);
+        return sorted;
+    }
+
+    /**
+     * 啟發式鄰居選擇：優先保留彼此分散的鄰居，提升圖的連通性與召回率
+     *
+     * @param candidates 依相似度由高至低排序的候選
+     */
+    private List<Candidate> selectNeighbors(List<Candidate> candidates, int maxNeighbors) {
+        List<Candidate> selected = new ArrayList<>(maxNeighbors);
+        List<float[]> selectedVectors = new ArrayList<>(maxNeighbors);
+        for (Candidate candidate : candidates) {
+            if (selected.size() >= maxNeighbors) {
+                break;
+            }
+            float[] candidateVector = vectors.get(candidate.node());
+            boolean diverse = true;
+            for (int i = 0; i < selected.size(); i++) {
+                if (math.dot(candidateVector, selectedVectors.get(i)) > candidate.similarity()) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected.add(candidate);
+                selectedVectors.add(candidateVector);
+            }
+        }
+        // 分散條件過濾太多時，以最相似的候選補滿
+        for (Candidate candidate : candidates) {
+            if (selected.size() >= maxNeighbors) {
+                break;
+            }
+            if (!selected.contains(candidate)) {
+                selected.add(candidate);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * 將 node 加入 neighbor 的鄰居清單；清單已滿時重新挑選
+     */
+    private void connectBack(int neighbor, int node, float similarity, int level, int maxNeighbors) {
+        int[] neighborLinks = links[neighbor][level];
+        if (neighborLinks[0] < maxNeighbors) {
+            addLink(neighbor, node, level);
+            return;
+        }
+        float[] base = vectors.get(neighbor);
+        List<Candidate> candidates = new ArrayList<>(maxNeighbors + 1);
+        candidates.add(new Candidate(node, similarity));
+        for (int i = 1; i <= neighborLinks[0]; i++) {
+            candidates.add(new Candidate(neighborLinks[i], vectors.dot(neighborLinks[i], base)));
+        }
+        candidates.sort(BEST_FIRST);
+        List<Candidate> kept = selectNeighbors(candidates, maxNeighbors);
+        Arrays.fill(neighborLinks, 0);
+        for (Candidate candidate : kept) {
+            addLink(neighbor, candidate.node(), level);
+        }
+    }
+
+    private void addLink(int from, int to, int level) {
+        int[] fromLinks = links[from][level];
+        fromLinks[++fromLinks[0]] = to;
+    }
+
+    /**
+     * 搜尋候選：節點編號與相似度
+     */
+    record Candidate(int node, float similarity) {
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.samzhu.docmcp.infrastructure.vectorstore.memory;
+
+import java.time.Duration;
+
+/**
+ * 記憶體向量索引選項
+ *
+ * @param enabled             是否啟用
+ * @param memoryBudgetBytes   所有版本索引的記憶體預算（超過時依 LRU 淘汰）
+ * @param m                   HNSW 每層的鄰居數（第 0 層為 2m）
+ * @param efConstruction      HNSW 建立時的候選清單大小
+ * @param efSearch            HNSW 搜尋時的候選清單大小（實際使用 max(efSearch, topK)）
+ * @param flatSearchThreshold 區塊數低於此值時不建立圖，直接精確掃描
+ * @param maxAge              索引最長使用時間，超過後在背景重新載入（多實例部署時同步其他實例的變更）
+ * @param maxConcurrentLoads  同時載入的版本數上限（建立索引為 CPU 密集工作）
+ */
+public record InMemoryIndexOptions(boolean enabled, long memoryBudgetBytes, int m, int efConstruction,
+                                   int efSearch, int flatSearchThreshold, Duration maxAge,
+                                   int maxConcurrentLoads) {
+
+    /** 停用記憶體索引 */
+    public static final InMemoryIndexOptions DISABLED =
+            new InMemoryIndexOptions(false, 0, 16, 100, 64, 2000, Duration.ofMinutes(10), 1);
+
+    public InMemoryIndexOptions {
+        if (m < 2) {
+            throw new IllegalArgumentException("m 必須大於等於 2");
+        }
+        if (efConstruction < m || efSearch < 1) {
+            throw new IllegalArgumentException("efConstruction 不可小於 m，efSearch 必須大於 0");
+        }
+        if (maxConcurrentLoads < 1) {
+            throw new IllegalArgumentException("maxConcurrentLoads 必須大於 0");
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package io.github.samzhu.docmcp.infrastructure.vectorstore.memory;
+
+import io.github.samzhu.docmcp.domain.event.SyncCompletedEvent;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.PgVectorCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 記憶體向量索引登錄表
+ * <p>
+ * 以版本為單位，將熱門版本的區塊向量載入 JVM 內的 {@link VersionVectorIndex}，
+ * 讓語意搜尋在記憶體中完成向量比對，資料庫只需以主鍵取回結果內容。
+ * </p>
+ * <p>
+ * 載入策略：
+ * <ul>
+ *   <li>首次查詢某版本時於背景非同步載入，載入完成前該查詢仍走資料庫</li>
+ *   <li>所有索引共用一個記憶體預算，超過時淘汰最久未使用（LRU）的版本；
+ *       單一版本就超過預算時不載入（先以 COUNT 與維度判斷，不讀取向量）</li>
+ *   <li>向量逐列解碼後直接寫入堆外儲存區，載入期間堆積只保留區塊 ID</li>
+ *   <li>同步完成（{@link SyncCompletedEvent}）後重新建立已載入的版本並整個替換</li>
+ *   <li>索引超過 maxAge 時在背景重新載入，涵蓋其他實例完成同步的情況</li>
+ *   <li>embedding 模型切換後清空所有索引（向量空間已不同）</li>
+ * </ul>
+ * </p>
+ */
+public class InMemoryVectorIndexRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryVectorIndexRegistry.class);
+
+    // 依 metadata.versionId 過濾（使用 idx_document_chunks_version_id 表達式索引），向量以二進位格式取出
+    // 載入前先確認區塊數與維度，超過預算的版本不讀取任何向量
+    private static final String SQL_VERSION_STATS = """
+        SELECT COUNT(*) AS chunk_count,
+               MIN(vector_dims(embedding)) AS min_dimensions,
+               MAX(vector_dims(embedding)) AS max_dimensions
+        FROM document_chunks
+        WHERE metadata->>'versionId' = ? AND embedding IS NOT NULL
+        """;
+
+    private static final String SQL_LOAD_VERSION = """
+        SELECT id, vector_send(embedding) AS embedding
+        FROM document_chunks
+        WHERE metadata->>'versionId' = ? AND embedding IS NOT NULL
+        ORDER BY id
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InMemoryIndexOptions options;
+    private final Executor executor;
+    private final Semaphore loadPermits;
+
+    // 存取順序的 LinkedHashMap 作為 LRU，所有存取皆以 this 同步
+    private final LinkedHashMap<String, VersionVectorIndex> indexes = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedBytes;
+
+    private final Set<String> loading = ConcurrentHashMap.newKeySet();
+    private final Set<String> oversized = ConcurrentHashMap.newKeySet();
+
+    // 清空索引時遞增，丟棄清空前開始的載入結果
+    private final AtomicLong generation = new AtomicLong();
+
+    // 索引命中統計（由 CacheMetrics 輸出）
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * 建構子
+     *
+     * @param jdbcTemplate JDBC 操作模板
+     * @param options      索引選項
+     * @param executor     背景載入使用的執行器
+     */
+    public InMemoryVectorIndexRegistry(JdbcTemplate jdbcTemplate, InMemoryIndexOptions options, Executor executor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.options = options;
+        this.executor = executor;
+        this.loadPermits = new Semaphore(options.maxConcurrentLoads());
+    }
+
+    /**
+     * 在記憶體索引中搜尋
+     * <p>
+     * 版本尚未載入、查詢維度不符或功能停用時回傳 empty，呼叫端應改走資料庫搜尋。
+     * </p>
+     *
+     * @param versionId     版本 ID
+     * @param query         查詢向量
+     * @param topK          回傳數量
+     * @param minSimilarity 最低相似度門檻
+     * @return 依相似度由高至低排序的結果
+     */
+    public Optional<List<ScoredChunk>> search(String versionId, float[] query, int topK, double minSimilarity) {
+        if (!options.enabled() || versionId == null) {
+            return Optional.empty();
+        }
+        VersionVectorIndex index;
+        synchronized (this) {
+            index = indexes.get(versionId);
+        }
+        if (index == null) {
+            misses.increment();
+            scheduleLoad(versionId);
+            return Optional.empty();
+        }
+        if (index.getDimensions() != query.length) {
+            misses.increment();
+            return Optional.empty();
+        }
+        if (index.getLoadedAt().plus(options.maxAge()).isBefore(Instant.now())) {
+            scheduleLoad(versionId);
+        }
+        hits.increment();
+        return Optional.of(index.search(query, topK, minSimilarity, options.efSearch()));
+    }
+
+    /**
+     * 同步完成後重新建立已載入的版本索引
+     *
+     * @param event 同步完成事件
+     */
+    @EventListener
+    public void onSyncCompleted(SyncCompletedEvent event) {
+        oversized.remove(event.versionId());
+        if (isLoaded(event.versionId())) {
+            log.debug("版本 {} 同步完成，重新建立記憶體向量索引", event.versionId());
+            scheduleLoad(event.versionId());
+        }
+    }
+
+    /**
+     * 清空所有索引（embedding 模型切換後呼叫）
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        synchronized (this) {
+            indexes.clear();
+            usedBytes = 0;
+        }
+        oversized.clear();
+        log.info("已清空記憶體向量索引");
+    }
+
+    /**
+     * 版本索引是否已載入
+     */
+    public synchronized boolean isLoaded(String versionId) {
+        return indexes.containsKey(versionId);
+    }
+
+    /**
+     * 目前所有索引的估計記憶體用量（bytes）
+     */
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * 搜尋時索引已載入的次數
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * 搜尋時索引未載入（改走資料庫）的次數
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * 同步載入並建立版本索引（供背景載入與測試使用）
+     *
+     * @param versionId 版本 ID
+     */
+    void load(String versionId) {
+        long startGeneration = generation.get();
+        long startTime = System.currentTimeMillis();
+
+        VersionStats stats = jdbcTemplate.queryForObject(SQL_VERSION_STATS, (rs, rowNum) -> new VersionStats(
+                rs.getInt("chunk_count"), rs.getInt("min_dimensions"), rs.getInt("max_dimensions")), versionId);
+        if (stats == null || stats.count() == 0) {
+            return;
+        }
+        if (stats.minDimensions() != stats.maxDimensions()) {
+            log.warn("版本 {} 的向量維度不一致，不建立記憶體索引", versionId);
+            return;
+        }
+        // 先以向量本身大小檢查預算，避免讀取或建立注定放不下的索引
+        if ((long) stats.count() * stats.maxDimensions() * Float.BYTES > options.memoryBudgetBytes()) {
+            markOversized(versionId, stats.count());
+            return;
+        }
+
+        OffHeapVectorArena arena = OffHeapVectorArena.allocate(stats.count(), stats.maxDimensions());
+        String[] ids = new String[stats.count()];
+        int[] rows = {0};
+        jdbcTemplate.query(SQL_LOAD_VERSION, rs -> {
+            int row = rows[0]++;
+            // 計數後新增的區塊不寫入，整批載入於下方捨棄
+            if (row < ids.length) {
+                ids[row] = rs.getString("id");
+                arena.set(row, PgVectorCodec.decode(rs.getBytes("embedding")));
+            }
+        }, versionId);
+        if (rows[0] != ids.length) {
+            log.debug("版本 {} 載入期間區塊數量改變（{} -> {}），留待下次載入", versionId, ids.length, rows[0]);
+            return;
+        }
+
+        VersionVectorIndex index = VersionVectorIndex.build(versionId, ids, arena, options);
+        if (index.getEstimatedBytes() > options.memoryBudgetBytes()) {
+            markOversized(versionId, stats.count());
+            return;
+        }
+        if (generation.get() != startGeneration) {
+            log.debug("版本 {} 載入期間索引已被清空，捨棄載入結果", versionId);
+            return;
+        }
+        put(index);
+        log.info("版本 {} 記憶體向量索引建立完成：{} 個區塊，{}，約 {} KB，耗時 {} ms",
+                versionId, index.size(), index.isGraphIndexed() ? "HNSW" : "精確掃描",
+                index.getEstimatedBytes() / 1024, System.currentTimeMillis() - startTime);
+    }
+
+    private void scheduleLoad(String versionId) {
+        if (oversized.contains(versionId) || !loading.add(versionId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                boolean acquired = false;
+                try {
+                    loadPermits.acquire();
+                    acquired = true;
+                    load(versionId);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    log.warn("版本 {} 記憶體向量索引載入失敗: {}", versionId, e.getMessage());
+                } finally {
+                    if (acquired) {
+                        loadPermits.release();
+                    }
+                    loading.remove(versionId);
+                }
+            });
+        } catch (RuntimeException e) {
+            loading.remove(versionId);
+            log.warn("無法排程記憶體向量索引載入: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 放入索引（替換舊索引），並依 LRU 淘汰直到符合記憶體預算
+     */
+    private synchronized void put(VersionVectorIndex index) {
+        VersionVectorIndex previous = indexes.remove(index.getVersionId());
+        if (previous != null) {
+            usedBytes -= previous.getEstimatedBytes();
+        }
+        Iterator<Map.Entry<String, VersionVectorIndex>> eldest = indexes.entrySet().iterator();
+        while (usedBytes + index.getEstimatedBytes() > options.memoryBudgetBytes() && eldest.hasNext()) {
+            VersionVectorIndex evicted = eldest.next().getValue();
+            eldest.remove();
+            usedBytes -= evicted.getEstimatedBytes();
+            log.info("淘汰版本 {} 的記憶體向量索引（釋放約 {} KB）",
+                    evicted.getVersionId(), evicted.getEstimatedBytes() / 1024);
+        }
+        indexes.put(index.getVersionId(), index);
+        usedBytes += index.getEstimatedBytes();
+    }
+
+    /**
+     * 版本的區塊數與向量維度範圍
+     */
+    private record VersionStats(int count, int minDimensions, int maxDimensions) {
+    }
+
+    private void markOversized(String versionId, int chunkCount) {
+        oversized.add(versionId);
+        log.info("版本 {} 共 {} 個區塊，超過記憶體向量索引預算，維持資料庫搜尋", versionId, chunkCount);
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.samzhu.docmcp.infrastructure.vectorstore.memory;
+
+import io.github.samzhu.docmcp.infrastructure.vectorstore.math.VectorMath;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * 堆外向量儲存區
+ * <p>
+ * 以單一連續的 {@link MemorySegment} 存放同一版本的所有向量（正規化後的 float），
+ * 避免數十萬個 {@code float[]} 物件對 GC 造成的壓力，也讓掃描時的記憶體存取保持連續。
+ * </p>
+ * <p>
+ * 使用 {@link Arena#ofAuto()} 配置：記憶體在索引不再被引用後由 GC 回收，
+ * 因此索引被淘汰或替換時，仍在進行中的查詢不會讀到已釋放的記憶體。
+ * </p>
+ * <p>
+ * 向量比對透過 {@link VectorMath} 直接在儲存區上以 SIMD 計算，不複製成陣列。
+ * </p>
+ */
+final class OffHeapVectorArena {
+
+    private static final ValueLayout.OfFloat FLOAT = ValueLayout.JAVA_FLOAT;
+
+    private final VectorMath math = VectorMath.get();
+
+    private final MemorySegment segment;
+    private final int count;
+    private final int dimensions;
+
+    private OffHeapVectorArena(MemorySegment segment, int count, int dimensions) {
+        this.segment = segment;
+        this.count = count;
+        this.dimensions = dimensions;
+    }
+
+    /**
+     * 配置可存放 count 個 dimensions 維向量的儲存區
+     */
+    static OffHeapVectorArena allocate(int count, int dimensions) {
+        if (count < 0 || dimensions <= 0) {
+            throw new IllegalArgumentException("count 不可為負數，dimensions 必須大於 0");
+        }
+        long bytes = (long) count * dimensions * Float.BYTES;
+        MemorySegment segment = Arena.ofAuto().allocate(Math.max(bytes, 1), 64);
+        return new OffHeapVectorArena(segment, count, dimensions);
+    }
+
+    /**
+     * 寫入第 index 個向量（寫入前正規化為單位向量，使內積即為 cosine 相似度）
+     */
+    void set(int index, float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException(
+                    "向量維度不符: 預期 " + dimensions + "，實際 " + vector.length);
+        }
+        float[] normalized = normalize(vector);
+        MemorySegment.copy(normalized, 0, segment, FLOAT, offset(index), dimensions);
+    }
+
+    /**
+     * 第 index 個向量與查詢向量（已正規化）的內積
+     */
+    float dot(int index, float[] query) {
+        return math.dot(segment, offset(index), query);
+    }
+
+    /**
+     * 找出與查詢向量（已正規化）內積最大的 k 個向量
+     */
+    VectorMath.TopK topK(float[] query, int k) {
+        return math.topK(segment, count, query, k);
+    }
+
+    /**
+     * 讀出第 index 個向量（已正規化）
+     */
+    float[] get(int index) {
+        float[] vector = new float[dimensions];
+        MemorySegment.copy(segment, FLOAT, offset(index), vector, 0, dimensions);
+        return vector;
+    }
+
+    int count() {
+        return count;
+    }
+
+    int dimensions() {
+        return dimensions;
+    }
+
+    long byteSize() {
+        return segment.byteSize();
+    }
+
+    private long offset(int index) {
+        return (long) index * dimensions * Float.BYTES;
+    }
+
+    /**
+     * 回傳正規化後的複本；零向量原樣回傳
+     */
+    static float[] normalize(float[] vector) {
+        return VectorMath.get().normalize(vector);
+    }
+}
@@ -0,0 +1,10 @@
+package io.github.samzhu.docmcp.infrastructure.vectorstore.memory;
+
+/**
+ * 記憶體索引搜尋結果
+ *
+ * @param id         區塊 ID（TSID 格式）
+ * @param similarity cosine 相似度（-1 到 1）
+ */
+public record ScoredChunk(String id, float similarity) {
+}
@@ -0,0 +1,152 @@
+package io.github.samzhu.docmcp.infrastructure.vectorstore.memory;
+
+import io.github.samzhu.docmcp.infrastructure.vectorstore.math.VectorMath;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 單一文件版本的記憶體向量索引
+ * <p>
+ * 建立後不可變：向量存於堆外 {@link OffHeapVectorArena}，
+ * 區塊數達門檻時另建 {@link HnswGraph}，否則以精確掃描搜尋。
+ * 內容變更時由 {@link InMemoryVectorIndexRegistry} 建立新索引並整個替換。
+ * </p>
+ */
+public final class VersionVectorIndex {
+
+    /** 每個區塊 ID 字串的估計堆積大小（TSID 為 13 字元） */
+    private static final long ID_BYTES_ESTIMATE = 64;
+
+    private final String versionId;
+    private final String[] chunkIds;
+    private final OffHeapVectorArena vectors;
+    private final HnswGraph graph;
+    private final Instant loadedAt;
+    private final long estimatedBytes;
+
+    private VersionVectorIndex(String versionId, String[] chunkIds, OffHeapVectorArena vectors,
+                               HnswGraph graph, Instant loadedAt) {
+        this.versionId = versionId;
+        this.chunkIds = chunkIds;
+        this.vectors = vectors;
+        this.graph = graph;
+        this.loadedAt = loadedAt;
+        this.estimatedBytes = vectors.byteSize()
+                + ID_BYTES_ESTIMATE * chunkIds.length
+                + (graph != null ? graph.estimatedLinkBytes() : 0);
+    }
+
+    /**
+     * 建立版本索引
+     *
+     * @param versionId 版本 ID
+     * @param chunkIds  區塊 ID，與 embeddings 一一對應
+     * @param embeddings 區塊向量（同一維度）
+     * @param options   索引選項
+     * @return 建立完成的索引
+     */
+    public static VersionVectorIndex build(String versionId, List<String> chunkIds, List<float[]> embeddings,
+                                           InMemoryIndexOptions options) {
+        if (chunkIds.size() != embeddings.size()) {
+            throw new IllegalArgumentException("區塊 ID 與向量數量不符");
+        }
+        if (embeddings.isEmpty()) {
+            throw new IllegalArgumentException("版本沒有任何向量: " + versionId);
+        }
+        int dimensions = embeddings.getFirst().length;
+        OffHeapVectorArena arena = OffHeapVectorArena.allocate(embeddings.size(), dimensions);
+        for (int i = 0; i < embeddings.size(); i++) {
+            arena.set(i, embeddings.get(i));
+        }
+        return build(versionId, chunkIds.toArray(String[]::new), arena, options);
+    }
+
+    /**
+     * 以已填入向量的儲存區建立版本索引（載入時直接寫入堆外記憶體，不經過 {@code List<float[]>}）
+     *
+     * @param versionId 版本 ID
+     * @param chunkIds  區塊 ID，與儲存區的向量一一對應
+     * @param arena     已寫入所有向量的儲存區
+     * @param options   索引選項
+     * @return 建立完成的索引
+     */
+    static VersionVectorIndex build(String versionId, String[] chunkIds, OffHeapVectorArena arena,
+                                    InMemoryIndexOptions options) {
+        if (chunkIds.length != arena.count()) {
+            throw new IllegalArgumentException("區塊 ID 與向量數量不符");
+        }
+        HnswGraph graph = arena.count() >= options.flatSearchThreshold()
+                ? HnswGraph.build(arena, options.m(), options.efConstruction(), versionId.hashCode())
+                : null;
+        return new VersionVectorIndex(versionId, chunkIds, arena, graph, Instant.now());
+    }
+
+    /**
+     * 搜尋與查詢向量最相似的區塊
+     *
+     * @param query         查詢向量（不需預先正規化）
+     * @param topK          回傳數量
+     * @param minSimilarity 最低相似度門檻
+     * @param efSearch      HNSW 搜尋候選清單大小（精確掃描時忽略）
+     * @return 依相似度由高至低排序的結果
+     */
+    public List<ScoredChunk> search(float[] query, int topK, double minSimilarity, int efSearch) {
+        if (query.length != vectors.dimensions()) {
+            throw new IllegalArgumentException(
+                    "查詢向量維度不符: 預期 " + vectors.dimensions() + "，實際 " + query.length);
+        }
+        float[] normalized = OffHeapVectorArena.normalize(query);
+        List<HnswGraph.Candidate> hits = graph != null
+                ? graph.search(normalized, topK, efSearch)
+                : exactSearch(normalized, topK);
+
+        List<ScoredChunk> results = new ArrayList<>(hits.size());
+        for (HnswGraph.Candidate hit : hits) {
+            if (hit.similarity() >= minSimilarity) {
+                results.add(new ScoredChunk(chunkIds[hit.node()], hit.similarity()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 精確掃描所有向量（批次 top-K，依相似度由高至低）
+     */
+    private List<HnswGraph.Candidate> exactSearch(float[] query, int topK) {
+        VectorMath.TopK top = vectors.topK(query, topK);
+        List<HnswGraph.Candidate> results = new ArrayList<>(top.size());
+        for (int i = 0; i < top.size(); i++) {
+            results.add(new HnswGraph.Candidate(top.indices()[i], top.scores()[i]));
+        }
+        return results;
+    }
+
+    public String getVersionId() {
+        return versionId;
+    }
+
+    public int size() {
+        return chunkIds.length;
+    }
+
+    public int getDimensions() {
+        return vectors.dimensions();
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * 是否使用 HNSW 圖搜尋（否則為精確掃描）
+     */
+    public boolean isGraphIndexed() {
+        return graph != null;
+    }
+}
@@ -3,11 +3,13 @@ package io.github.samzhu.docmcp.mcp.dto;
 import io.github.samzhu.docmcp.domain.model.SyncHistory;
 
 import java.time.OffsetDateTime;
+import java.util.Map;
 
 /**
  * 同步歷史資料傳輸物件
  * <p>
  * 用於 MCP 工具回傳同步歷史資訊。
+ * 執行中的同步會定期更新 metadata，包含處理速率（filesPerSecond）與預估剩餘秒數（etaSeconds）。
  * </p>
  *
  * @param id                 唯一識別碼
@@ -18,6 +20,7 @@ import java.time.OffsetDateTime;
  * @param documentsProcessed 已處理文件數
  * @param chunksCreated      已建立區塊數
  * @param errorMessage       錯誤訊息
+ * @param metadata           同步統計與進度（各階段耗時、下載大小、embedding 呼叫等）
  */
 public record SyncHistoryDto(
         String id,
@@ -27,7 +30,8 @@ public record SyncHistoryDto(
         OffsetDateTime completedAt,
         Integer documentsProcessed,
         Integer chunksCreated,
-        String errorMessage
+        String errorMessage,
+        Map<String, Object> metadata
 ) {
     /**
      * 從 SyncHistory 實體轉換
@@ -41,7 +45,8 @@ public record SyncHistoryDto(
                 syncHistory.getCompletedAt(),
                 syncHistory.getDocumentsProcessed(),
                 syncHistory.getChunksCreated(),
-                syncHistory.getErrorMessage()
+                syncHistory.getErrorMessage(),
+                syncHistory.getMetadata()
         );
     }
 }
@@ -48,8 +48,11 @@ public class GetSyncStatusTool {
                     - 當需要查看文件同步是否正在進行中時
                     - 當需要查詢最近的同步結果（成功或失敗）時
                     - 當需要了解已處理的文件數量和區塊數量時
+                    - 當需要估計執行中的同步還要多久完成時
 
                     回傳：同步狀態（是否執行中）、最新同步記錄、最近的同步歷史。
+                    同步記錄的 metadata 包含處理進度（filesTotal、filesProcessed、filesPerSecond、etaSeconds）
+                    與各階段耗時（stageMillis）。
                     """)
     public GetSyncStatusResult getSyncStatus(
             @ToolParam(description = "函式庫名稱", required = true)
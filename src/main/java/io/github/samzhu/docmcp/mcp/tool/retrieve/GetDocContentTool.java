@@ -62,9 +62,9 @@ public class GetDocContentTool {
         // 轉換為 DTO
         var chunkDtos = content.chunks().stream()
                 .map(chunk -> new DocumentContentDto.ChunkDto(
-                        chunk.getId(),
-                        chunk.getChunkIndex(),
-                        chunk.getContent()
+                        chunk.id(),
+                        chunk.chunkIndex(),
+                        chunk.content()
                 ))
                 .toList();
 
@@ -1,21 +1,17 @@
 package io.github.samzhu.docmcp.mcp.tool.retrieve;
 
-import io.github.samzhu.docmcp.domain.model.Document;
 import io.github.samzhu.docmcp.mcp.dto.GetDocTocResult;
-import io.github.samzhu.docmcp.repository.DocumentRepository;
+import io.github.samzhu.docmcp.service.DocTocService;
 import io.github.samzhu.docmcp.service.LibraryService;
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * 取得文件目錄工具
  * <p>
  * MCP Level 3 - Retrieve 工具，用於取得文件庫的目錄結構。
- * 將文件依路徑結構組織成樹狀目錄。
+ * 將文件依路徑結構組織成樹狀目錄，目錄由 {@link DocTocService} 依版本快取。
  * </p>
  */
 @Component
@@ -24,11 +20,11 @@ public class GetDocTocTool {
     private static final int DEFAULT_MAX_DEPTH = 3;
 
     private final LibraryService libraryService;
-    private final DocumentRepository documentRepository;
+    private final DocTocService docTocService;
 
-    public GetDocTocTool(LibraryService libraryService, DocumentRepository documentRepository) {
+    public GetDocTocTool(LibraryService libraryService, DocTocService docTocService) {
         this.libraryService = libraryService;
-        this.documentRepository = documentRepository;
+        this.docTocService = docTocService;
     }
 
     /**
@@ -67,57 +63,18 @@ public class GetDocTocTool {
         var library = resolved.library();
         var libraryVersion = resolved.version();
 
-        // 取得所有文件（依路徑排序）
-        var documents = documentRepository.findByVersionIdOrderByPathAsc(libraryVersion.getId());
+        // 取得版本目錄（同步完成前重複查詢皆由快取回應）
+        var toc = docTocService.getToc(libraryVersion.getId());
 
         // 設定最大深度
         int depth = maxDepth != null && maxDepth > 0 ? maxDepth : DEFAULT_MAX_DEPTH;
 
-        // 建立目錄結構
-        var entries = buildTocEntries(documents, depth);
-
         return new GetDocTocResult(
                 library.getId(),
                 library.getName(),
                 libraryVersion.getVersion(),
-                entries,
-                documents.size()
+                toc.slice(depth),
+                toc.totalDocs()
         );
     }
-
-    /**
-     * 建立目錄條目列表
-     */
-    private List<GetDocTocResult.TocEntry> buildTocEntries(List<Document> documents, int maxDepth) {
-        List<GetDocTocResult.TocEntry> entries = new ArrayList<>();
-
-        for (Document doc : documents) {
-            // 計算文件深度
-            int docDepth = calculateDepth(doc.getPath());
-
-            // 只加入深度符合限制的文件
-            if (docDepth <= maxDepth) {
-                entries.add(new GetDocTocResult.TocEntry(
-                        doc.getId(),
-                        doc.getTitle(),
-                        doc.getPath(),
-                        docDepth,
-                        List.of()  // 簡化實作：不建立巢狀結構
-                ));
-            }
-        }
-
-        return entries;
-    }
-
-    /**
-     * 計算路徑深度
-     */
-    private int calculateDepth(String path) {
-        if (path == null || path.isBlank()) {
-            return 0;
-        }
-        // 計算路徑分隔符數量
-        return (int) path.chars().filter(c -> c == '/').count();
-    }
 }
@@ -1,8 +1,10 @@
 package io.github.samzhu.docmcp.mcp.tool.retrieve;
 
 import io.github.samzhu.docmcp.config.FeatureFlags;
-import io.github.samzhu.docmcp.domain.model.Document;
+import io.github.samzhu.docmcp.domain.enums.MigrationRelevance;
 import io.github.samzhu.docmcp.domain.model.LibraryVersion;
+import io.github.samzhu.docmcp.domain.model.MigrationGuideDocument;
+import io.github.samzhu.docmcp.domain.model.VersionComparator;
 import io.github.samzhu.docmcp.mcp.dto.GetMigrationGuideResult;
 import io.github.samzhu.docmcp.mcp.dto.GetMigrationGuideResult.MigrationGuideItem;
 import io.github.samzhu.docmcp.repository.DocumentRepository;
@@ -11,26 +13,23 @@ import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * get_migration_guide MCP 工具
  * <p>
  * MCP Level 3 - Retrieve 工具，取得版本間的遷移指南。
- * 搜尋包含 migration、upgrade、breaking changes 等關鍵字的文件。
+ * 文件在同步時已依 migration、upgrade、breaking changes 等關鍵字分類（見 {@link MigrationRelevance}），
+ * 此處只查詢版本範圍內已分類的文件。
  * </p>
  */
 @Component
 public class GetMigrationGuideTool {
 
-    private static final List<String> MIGRATION_KEYWORDS = List.of(
-            "migration", "migrate", "upgrade", "upgrading",
-            "breaking", "breaking-change", "breaking_change",
-            "changelog", "release-notes", "release_notes"
-    );
-
     private final FeatureFlags featureFlags;
     private final LibraryVersionRepository versionRepository;
     private final DocumentRepository documentRepository;
@@ -98,92 +97,60 @@ public class GetMigrationGuideTool {
             );
         }
 
-        // 取得所有版本
+        // 取得所有版本，依版本號語意排序後篩選 (fromVersion, toVersion] 範圍
         List<LibraryVersion> versions = versionRepository.findByLibraryId(libraryId);
-        if (versions.isEmpty()) {
+        Map<String, String> versionsInRange = selectVersionRange(versions, fromVersion, toVersion);
+        Set<String> versionIds = versionsInRange.keySet();
+        // 範圍內沒有版本時不執行 IN () 查詢（空列表會產生無效的 SQL）
+        if (versionIds.isEmpty()) {
             return GetMigrationGuideResult.empty(libraryId, fromVersion, toVersion);
         }
 
-        // 搜尋遷移相關文件
-        List<MigrationGuideItem> guides = new ArrayList<>();
-
-        for (LibraryVersion version : versions) {
-            // 搜尋此版本的遷移相關文件
-            List<Document> documents = documentRepository.findByVersionId(version.getId());
-
-            for (Document doc : documents) {
-                String relevance = detectMigrationRelevance(doc);
-                if (relevance != null) {
-                    guides.add(new MigrationGuideItem(
-                            doc.getId(),
-                            doc.getTitle(),
-                            doc.getPath(),
-                            version.getVersion(),
-                            truncateContent(doc.getContent(), 300),
-                            relevance
-                    ));
-                }
-            }
-        }
-
-        // 依相關性排序（優先顯示 migration 相關文件）
-        guides.sort(Comparator
-                .comparing((MigrationGuideItem g) -> getRelevancePriority(g.relevance()))
-                .thenComparing(MigrationGuideItem::version));
+        // 單一查詢取得範圍內已分類的遷移相關文件，
+        // 依相關性排序（優先顯示 migration 相關文件），同類再依版本號排序
+        List<MigrationGuideItem> guides = documentRepository.findMigrationGuides(versionIds)
+                .stream()
+                .sorted(Comparator.comparing(MigrationGuideDocument::migrationRelevance)
+                        .thenComparing(doc -> versionsInRange.get(doc.versionId()), VersionComparator.INSTANCE))
+                .map(doc -> new MigrationGuideItem(
+                        doc.id(),
+                        doc.title(),
+                        doc.path(),
+                        versionsInRange.get(doc.versionId()),
+                        truncateContent(doc.excerpt(), 300),
+                        doc.migrationRelevance().getLabel()
+                ))
+                .toList();
 
         return GetMigrationGuideResult.of(libraryId, fromVersion, toVersion, guides);
     }
 
     /**
-     * 檢測文件是否與遷移相關
+     * 篩選版本範圍
+     * <p>
+     * 回傳版本號大於較舊版本、且不大於較新版本的版本（兩者相同時只包含該版本），
+     * 不論參數順序皆以較舊者為起點。
+     * </p>
+     *
+     * @return 版本 ID 對應版本號
      */
-    private String detectMigrationRelevance(Document doc) {
-        String title = doc.getTitle().toLowerCase();
-        String path = doc.getPath().toLowerCase();
-        String content = doc.getContent() != null ? doc.getContent().toLowerCase() : "";
-
-        // 檢查標題和路徑
-        for (String keyword : MIGRATION_KEYWORDS) {
-            if (title.contains(keyword) || path.contains(keyword)) {
-                return categorizeRelevance(keyword);
-            }
-        }
-
-        // 檢查內容（只檢查前 2000 字元以提升效能）
-        String contentPrefix = content.length() > 2000 ? content.substring(0, 2000) : content;
-        for (String keyword : MIGRATION_KEYWORDS) {
-            if (contentPrefix.contains(keyword)) {
-                return categorizeRelevance(keyword);
+    private Map<String, String> selectVersionRange(List<LibraryVersion> versions,
+                                                   String fromVersion, String toVersion) {
+        VersionComparator comparator = VersionComparator.INSTANCE;
+        String lower = comparator.compare(fromVersion, toVersion) <= 0 ? fromVersion : toVersion;
+        String upper = lower.equals(fromVersion) ? toVersion : fromVersion;
+        boolean singleVersion = comparator.compare(lower, upper) == 0;
+
+        Map<String, String> result = new LinkedHashMap<>();
+        for (LibraryVersion version : versions) {
+            int toLower = comparator.compare(version.getVersion(), lower);
+            int toUpper = comparator.compare(version.getVersion(), upper);
+            boolean inRange = singleVersion ? toUpper == 0 : toLower > 0 && toUpper <= 0;
+            if (inRange) {
+                result.put(version.getId(), version.getVersion());
             }
         }
-
-        return null;
-    }
-
-    /**
-     * 分類相關性
-     */
-    private String categorizeRelevance(String keyword) {
-        return switch (keyword) {
-            case "migration", "migrate" -> "migration";
-            case "upgrade", "upgrading" -> "upgrade";
-            case "breaking", "breaking-change", "breaking_change" -> "breaking-changes";
-            case "changelog", "release-notes", "release_notes" -> "release-notes";
-            default -> "other";
-        };
-    }
-
-    /**
-     * 取得相關性優先順序
-     */
-    private int getRelevancePriority(String relevance) {
-        return switch (relevance) {
-            case "migration" -> 1;
-            case "upgrade" -> 2;
-            case "breaking-changes" -> 3;
-            case "release-notes" -> 4;
-            default -> 5;
-        };
+        return result;
     }
 
     /**
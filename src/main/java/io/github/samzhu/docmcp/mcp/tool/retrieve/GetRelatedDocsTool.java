@@ -1,24 +1,20 @@
 package io.github.samzhu.docmcp.mcp.tool.retrieve;
 
 import io.github.samzhu.docmcp.domain.exception.LibraryNotFoundException;
-import io.github.samzhu.docmcp.domain.model.DocumentChunk;
 import io.github.samzhu.docmcp.mcp.dto.GetRelatedDocsResult;
-import io.github.samzhu.docmcp.repository.DocumentChunkRepository;
 import io.github.samzhu.docmcp.repository.DocumentRepository;
+import io.github.samzhu.docmcp.service.RelatedDocsService;
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 /**
  * 取得相關文件工具
  * <p>
  * MCP Level 3 - Retrieve 工具，用於查找與指定文件相似的其他文件。
- * 基於向量嵌入的內容相似度進行搜尋。
+ * 以文件質心（所有區塊向量的平均值）比較整份文件的內容相似度，預設只搜尋同一版本。
  * </p>
  */
 @Component
@@ -27,12 +23,12 @@ public class GetRelatedDocsTool {
     private static final int DEFAULT_LIMIT = 5;
 
     private final DocumentRepository documentRepository;
-    private final DocumentChunkRepository chunkRepository;
+    private final RelatedDocsService relatedDocsService;
 
     public GetRelatedDocsTool(DocumentRepository documentRepository,
-                              DocumentChunkRepository chunkRepository) {
+                              RelatedDocsService relatedDocsService) {
         this.documentRepository = documentRepository;
-        this.chunkRepository = chunkRepository;
+        this.relatedDocsService = relatedDocsService;
     }
 
     /**
@@ -42,8 +38,9 @@ public class GetRelatedDocsTool {
      * AI 助手可用此工具協助使用者探索相關主題。
      * </p>
      *
-     * @param documentId 文件 ID
-     * @param limit      最大回傳數量（可選，預設 5）
+     * @param documentId      文件 ID
+     * @param limit           最大回傳數量（可選，預設 5）
+     * @param sameVersionOnly 是否只搜尋同一版本（可選，預設 true；false 時搜尋同函式庫所有版本）
      * @return 相關文件列表
      */
     @Tool(name = "get_related_docs",
@@ -61,95 +58,39 @@ public class GetRelatedDocsTool {
             @ToolParam(description = "文件 ID（TSID 格式）", required = true)
             String documentId,
             @ToolParam(description = "最大回傳數量（可選，預設 5）", required = false)
-            Integer limit
+            Integer limit,
+            @ToolParam(description = "是否只搜尋同一版本（可選，預設 true；false 時搜尋同函式庫的所有版本）", required = false)
+            Boolean sameVersionOnly
     ) {
-        // 取得來源文件
-        var sourceDoc = documentRepository.findById(documentId)
+        // 取得來源文件（只需標題與路徑）
+        var sourceDoc = documentRepository.findSummaryById(documentId)
                 .orElseThrow(() -> new LibraryNotFoundException("文件不存在: " + documentId));
 
-        // 取得來源文件的第一個區塊（代表向量）
-        var sourceChunk = chunkRepository.findFirstByDocumentId(documentId);
-        if (sourceChunk == null || sourceChunk.getEmbedding() == null) {
-            // 沒有 embedding，回傳空結果
-            return new GetRelatedDocsResult(
-                    documentId,
-                    sourceDoc.getTitle(),
-                    sourceDoc.getPath(),
-                    List.of()
-            );
-        }
-
         // 設定限制數量
         int maxResults = limit != null && limit > 0 ? limit : DEFAULT_LIMIT;
-
-        // 搜尋相似區塊（排除來源文件）
-        String vectorString = toVectorString(sourceChunk.getEmbedding());
-        var similarChunks = chunkRepository.findSimilarChunksExcludingDocument(
-                documentId, vectorString, maxResults * 2);  // 多取一些以確保去重後有足夠數量
-
-        // 去重並轉換為文件
-        List<GetRelatedDocsResult.RelatedDoc> relatedDocs = new ArrayList<>();
-        Set<String> seenDocIds = new HashSet<>();
-
-        for (DocumentChunk chunk : similarChunks) {
-            if (seenDocIds.contains(chunk.getDocumentId())) {
-                continue;  // 跳過已加入的文件
-            }
-            if (relatedDocs.size() >= maxResults) {
-                break;  // 已達到限制數量
-            }
-
-            var relatedDoc = documentRepository.findById(chunk.getDocumentId()).orElse(null);
-            if (relatedDoc != null) {
-                seenDocIds.add(chunk.getDocumentId());
-
-                // 計算相似度
-                double similarity = calculateCosineSimilarity(
-                        sourceChunk.getEmbedding(), chunk.getEmbedding());
-
-                relatedDocs.add(new GetRelatedDocsResult.RelatedDoc(
-                        relatedDoc.getId(),
-                        relatedDoc.getTitle(),
-                        relatedDoc.getPath(),
-                        similarity,
-                        truncateContent(chunk.getContent(), 200)
-                ));
-            }
-        }
+        boolean versionScoped = sameVersionOnly == null || sameVersionOnly;
+
+        // 相似度與文件資訊由單一查詢取回
+        List<GetRelatedDocsResult.RelatedDoc> relatedDocs = relatedDocsService
+                .findRelated(documentId, sourceDoc.versionId(), maxResults, versionScoped)
+                .stream()
+                .map(doc -> new GetRelatedDocsResult.RelatedDoc(
+                        doc.documentId(),
+                        doc.title(),
+                        doc.path(),
+                        doc.similarity(),
+                        truncateContent(doc.snippet(), 200)
+                ))
+                .toList();
 
         return new GetRelatedDocsResult(
                 documentId,
-                sourceDoc.getTitle(),
-                sourceDoc.getPath(),
+                sourceDoc.title(),
+                sourceDoc.path(),
                 relatedDocs
         );
     }
 
-    /**
-     * 計算餘弦相似度
-     */
-    private double calculateCosineSimilarity(float[] a, float[] b) {
-        if (a == null || b == null || a.length != b.length) {
-            return 0.0;
-        }
-
-        double dotProduct = 0.0;
-        double normA = 0.0;
-        double normB = 0.0;
-
-        for (int i = 0; i < a.length; i++) {
-            dotProduct += a[i] * b[i];
-            normA += a[i] * a[i];
-            normB += b[i] * b[i];
-        }
-
-        if (normA == 0 || normB == 0) {
-            return 0.0;
-        }
-
-        return dotProduct / (Math.sqrt(normA) * Math.sqrt(normB));
-    }
-
     /**
      * 截斷內容
      */
@@ -162,25 +103,4 @@ public class GetRelatedDocsTool {
         }
         return content.substring(0, maxLength) + "...";
     }
-
-    /**
-     * 將 float[] 轉換為 PostgreSQL vector 字串格式
-     *
-     * @param embedding 向量陣列
-     * @return PostgreSQL vector 格式字串，如 "[0.1, 0.2, ...]"
-     */
-    private String toVectorString(float[] embedding) {
-        if (embedding == null || embedding.length == 0) {
-            throw new IllegalArgumentException("向量不得為空");
-        }
-        StringBuilder sb = new StringBuilder("[");
-        for (int i = 0; i < embedding.length; i++) {
-            if (i > 0) {
-                sb.append(",");
-            }
-            sb.append(embedding[i]);
-        }
-        sb.append("]");
-        return sb.toString();
-    }
 }
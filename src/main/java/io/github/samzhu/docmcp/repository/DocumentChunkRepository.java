@@ -1,6 +1,8 @@
 package io.github.samzhu.docmcp.repository;
 
 import io.github.samzhu.docmcp.domain.model.DocumentChunk;
+import io.github.samzhu.docmcp.domain.model.DocumentChunkContent;
+import org.springframework.data.jdbc.repository.query.Modifying;
 import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
@@ -14,19 +16,58 @@ import java.util.List;
  * 提供文件區塊的 CRUD 操作及向量相似度搜尋功能。
  * ID 類型為 TSID 字串。
  * </p>
+ * <p>
+ * 自訂查詢以 {@code vector_send(embedding)} 取得 pgvector 二進位格式，
+ * 由 JdbcConfig 的轉換器直接解碼，避免逐筆解析向量文字。
+ * 不需要向量的讀取路徑請使用 {@link DocumentChunkContent} 投影，完全不傳輸向量。
+ * </p>
  */
 @Repository
 public interface DocumentChunkRepository extends CrudRepository<DocumentChunk, String> {
 
+    /** 區塊欄位（向量以二進位格式取出） */
+    String CHUNK_COLUMNS = """
+            dc.id, dc.document_id, dc.chunk_index, dc.content,
+            vector_send(dc.embedding) AS embedding,
+            dc.token_count, dc.metadata, dc.version, dc.created_at, dc.updated_at
+            """;
+
     /**
      * 取得指定文件的所有區塊（依索引排序）
      *
      * @param documentId 文件 ID（TSID 格式）
      * @return 區塊列表
      */
-    @Query("SELECT * FROM document_chunks WHERE document_id = :documentId ORDER BY chunk_index")
+    @Query("SELECT " + CHUNK_COLUMNS + " FROM document_chunks dc WHERE dc.document_id = :documentId ORDER BY dc.chunk_index")
     List<DocumentChunk> findByDocumentIdOrderByChunkIndex(@Param("documentId") String documentId);
 
+    /**
+     * 取得指定文件所有區塊的文字內容（依索引排序，不含向量）
+     *
+     * @param documentId 文件 ID（TSID 格式）
+     * @return 區塊內容列表
+     */
+    @Query("""
+            SELECT id, document_id, chunk_index, content, token_count
+            FROM document_chunks
+            WHERE document_id = :documentId
+            ORDER BY chunk_index
+            """)
+    List<DocumentChunkContent> findContentByDocumentId(@Param("documentId") String documentId);
+
+    /**
+     * 刪除指定文件的所有區塊
+     * <p>
+     * 以單一 DELETE 取代逐筆載入後刪除，避免為了刪除而讀取向量。
+     * </p>
+     *
+     * @param documentId 文件 ID（TSID 格式）
+     * @return 刪除的區塊數量
+     */
+    @Modifying
+    @Query("DELETE FROM document_chunks WHERE document_id = :documentId")
+    int deleteByDocumentId(@Param("documentId") String documentId);
+
     /**
      * 向量相似度搜尋
      * <p>
@@ -39,8 +80,8 @@ public interface DocumentChunkRepository extends CrudRepository<DocumentChunk, S
      * @param limit          最大回傳筆數
      * @return 最相似的區塊列表
      */
-    @Query("""
-            SELECT dc.* FROM document_chunks dc
+    @Query("SELECT " + CHUNK_COLUMNS + """
+            FROM document_chunks dc
             JOIN documents d ON dc.document_id = d.id
             WHERE d.version_id = :versionId
             AND dc.embedding IS NOT NULL
@@ -52,37 +93,4 @@ public interface DocumentChunkRepository extends CrudRepository<DocumentChunk, S
             @Param("queryEmbedding") String queryEmbedding,
             @Param("limit") int limit
     );
-
-    /**
-     * 查找與指定文件相似的區塊（排除來源文件）
-     * <p>
-     * 使用文件第一個區塊的向量進行相似度搜尋。
-     * </p>
-     *
-     * @param documentId     來源文件 ID（TSID 格式，會被排除）
-     * @param queryEmbedding 查詢向量
-     * @param limit          最大回傳筆數
-     * @return 相似的區塊列表
-     */
-    @Query("""
-            SELECT dc.* FROM document_chunks dc
-            WHERE dc.document_id != :documentId
-            AND dc.embedding IS NOT NULL
-            ORDER BY dc.embedding <=> cast(:queryEmbedding as vector)
-            LIMIT :limit
-            """)
-    List<DocumentChunk> findSimilarChunksExcludingDocument(
-            @Param("documentId") String documentId,
-            @Param("queryEmbedding") String queryEmbedding,
-            @Param("limit") int limit
-    );
-
-    /**
-     * 取得指定文件的第一個區塊
-     *
-     * @param documentId 文件 ID（TSID 格式）
-     * @return 第一個區塊（用於取得代表向量）
-     */
-    @Query("SELECT * FROM document_chunks WHERE document_id = :documentId ORDER BY chunk_index LIMIT 1")
-    DocumentChunk findFirstByDocumentId(@Param("documentId") String documentId);
 }
@@ -1,11 +1,15 @@
 package io.github.samzhu.docmcp.repository;
 
 import io.github.samzhu.docmcp.domain.model.Document;
+import io.github.samzhu.docmcp.domain.model.DocumentSummary;
+import io.github.samzhu.docmcp.domain.model.DocumentTocEntry;
+import io.github.samzhu.docmcp.domain.model.MigrationGuideDocument;
 import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +19,10 @@ import java.util.Optional;
  * 提供文件的 CRUD 操作及全文搜尋功能。
  * ID 類型為 TSID 字串。
  * </p>
+ * <p>
+ * 只需標題與路徑的讀取路徑請使用回傳 {@link DocumentSummary} 的查詢，
+ * 避免載入完整文件內容。
+ * </p>
  */
 @Repository
 public interface DocumentRepository extends CrudRepository<Document, String> {
@@ -29,13 +37,56 @@ public interface DocumentRepository extends CrudRepository<Document, String> {
     List<Document> findByVersionId(@Param("versionId") String versionId);
 
     /**
-     * 取得指定版本的所有文件（依路徑排序）
+     * 取得指定版本的所有文件摘要（依路徑排序）
+     * <p>
+     * 不含文件內容，用於目錄與列表顯示。
+     * </p>
      *
      * @param versionId 版本 ID（TSID 格式）
-     * @return 依路徑排序的文件列表
+     * @return 依路徑排序的文件摘要列表
      */
-    @Query("SELECT * FROM documents WHERE version_id = :versionId ORDER BY path ASC")
-    List<Document> findByVersionIdOrderByPathAsc(@Param("versionId") String versionId);
+    @Query("""
+            SELECT id, version_id, title, path, doc_type, updated_at
+            FROM documents
+            WHERE version_id = :versionId
+            ORDER BY path ASC
+            """)
+    List<DocumentSummary> findSummariesByVersionIdOrderByPathAsc(@Param("versionId") String versionId);
+
+    /**
+     * 取得指定版本的目錄條目（依路徑排序）
+     * <p>
+     * 只讀取 id、title、path，供目錄快取建立使用。
+     * </p>
+     *
+     * @param versionId 版本 ID（TSID 格式）
+     * @return 依路徑排序的目錄條目列表
+     */
+    @Query("""
+            SELECT id, title, path
+            FROM documents
+            WHERE version_id = :versionId
+            ORDER BY path ASC
+            """)
+    List<DocumentTocEntry> findTocEntriesByVersionIdOrderByPathAsc(@Param("versionId") String versionId);
+
+    /**
+     * 根據 ID 取得文件摘要（不含文件內容）
+     *
+     * @param id 文件 ID（TSID 格式）
+     * @return 文件摘要（若存在）
+     */
+    @Query("SELECT id, version_id, title, path, doc_type, updated_at FROM documents WHERE id = :id")
+    Optional<DocumentSummary> findSummaryById(@Param("id") String id);
+
+    /**
+     * 根據多個 ID 取得文件摘要（不含文件內容）
+     *
+     * @param ids 文件 ID 列表（TSID 格式，不可為空：空列表會產生無效的 IN () 語法，呼叫端需先判斷）
+     * @return 文件摘要列表（順序不保證）
+     */
+    @Query("SELECT id, version_id, title, path, doc_type, updated_at FROM documents WHERE id IN (:ids)")
+    List<DocumentSummary> findSummariesByIdIn(@Param("ids") Collection<String> ids);
 
     /**
      * 根據版本 ID 和路徑查找文件
@@ -50,6 +101,24 @@ public interface DocumentRepository extends CrudRepository<Document, String> {
             @Param("path") String path
     );
 
+    /**
+     * 取得指定版本中與遷移相關的文件
+     * <p>
+     * 依同步時寫入的 migration_relevance 分類查詢（部分索引），
+     * 內容只回傳開頭 301 字元作為摘要。
+     * </p>
+     *
+     * @param versionIds 版本 ID 列表（TSID 格式，不可為空：空列表會產生無效的 IN () 語法，呼叫端需先判斷）
+     * @return 遷移相關文件列表
+     */
+    @Query("""
+            SELECT id, version_id, title, path, migration_relevance, left(content, 301) AS excerpt
+            FROM documents
+            WHERE version_id IN (:versionIds)
+            AND migration_relevance <> 'NONE'
+            """)
+    List<MigrationGuideDocument> findMigrationGuides(@Param("versionIds") Collection<String> versionIds);
+
     /**
      * 全文搜尋文件
      * <p>
@@ -0,0 +1,59 @@
+package io.github.samzhu.docmcp.repository;
+
+import io.github.samzhu.docmcp.domain.model.EmbeddingMigration;
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Embedding 模型遷移資料存取介面
+ * <p>
+ * 狀態轉換由 EmbeddingMigrationService 以條件式 UPDATE 完成（多實例部署時只有一個實例會成功），
+ * 此介面只負責查詢與建立記錄。
+ * </p>
+ */
+@Repository
+public interface EmbeddingMigrationRepository extends CrudRepository<EmbeddingMigration, String> {
+
+    /**
+     * 取得進行中的遷移（同一時間最多一筆）
+     *
+     * @return 進行中的遷移（若存在）
+     */
+    @Query("""
+            SELECT * FROM embedding_migrations
+            WHERE status IN ('BACKFILLING', 'INDEXING', 'READY')
+            ORDER BY started_at DESC
+            LIMIT 1
+            """)
+    Optional<EmbeddingMigration> findInProgress();
+
+    /**
+     * 取得最近一次完成切換的遷移
+     * <p>
+     * 其目標模型即為目前 document_chunks.embedding 欄位所使用的模型。
+     * </p>
+     *
+     * @return 最近完成的遷移（若存在）
+     */
+    @Query("""
+            SELECT * FROM embedding_migrations
+            WHERE status = 'COMPLETED'
+            ORDER BY completed_at DESC
+            LIMIT 1
+            """)
+    Optional<EmbeddingMigration> findLatestCompleted();
+
+    /**
+     * 取得遷移記錄（依開始時間降序，限制數量）
+     *
+     * @param limit 結果數量上限
+     * @return 遷移記錄列表
+     */
+    @Query("SELECT * FROM embedding_migrations ORDER BY started_at DESC LIMIT :limit")
+    List<EmbeddingMigration> findAllOrderByStartedAtDesc(@Param("limit") int limit);
+}
@@ -45,6 +45,19 @@ public interface LibraryRepository extends CrudRepository<Library, String> {
     @Query("SELECT * FROM libraries WHERE source_type = :sourceType")
     List<Library> findBySourceType(@Param("sourceType") SourceType sourceType);
 
+    /**
+     * 取得版本所屬的函式庫名稱
+     *
+     * @param versionId 版本 ID（TSID 格式）
+     * @return 函式庫名稱（若版本存在）
+     */
+    @Query("""
+            SELECT l.name FROM libraries l
+            JOIN library_versions lv ON lv.library_id = l.id
+            WHERE lv.id = :versionId
+            """)
+    Optional<String> findNameByVersionId(@Param("versionId") String versionId);
+
     /**
      * 取得所有函式庫列表
      *
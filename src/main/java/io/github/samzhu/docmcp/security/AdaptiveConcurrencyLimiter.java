@@ -0,0 +1,182 @@
+package io.github.samzhu.docmcp.security;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 加權、可排隊、依延遲自適應的併發限制器
+ * <p>
+ * 每個請求依成本佔用不同的權重，同時進行的權重總和不超過目前上限：
+ * <ul>
+ *   <li>超過上限時在有界佇列中等待，直到有權重釋放或超過等待期限</li>
+ *   <li>已有請求排隊時，新請求不插隊</li>
+ *   <li>單一請求的權重超過目前上限時以上限計，避免永遠無法取得</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 自適應調整採用梯度法：比較每單位權重延遲的短期與長期平均，
+ * 短期延遲明顯變長（後端開始排隊）時降低上限，延遲穩定且上限已用滿時逐步提高。
+ * 使用量低於上限一半時不調整，避免閒置時上限無限成長。
+ * </p>
+ */
+final class AdaptiveConcurrencyLimiter {
+
+    /** 短期延遲超過長期延遲的此倍數才開始降低上限 */
+    private static final double TOLERANCE = 1.5;
+
+    private static final double SHORT_ALPHA = 0.2;
+    private static final double LONG_ALPHA = 0.02;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueueSize;
+    private final boolean adaptive;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    // 以下欄位在 lock 保護下存取
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private double shortLatency = Double.NaN;
+    private double longLatency = Double.NaN;
+    private long lastActivity;
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int maxQueueSize,
+                               boolean adaptive, long nowNanos) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.maxQueueSize = Math.max(0, maxQueueSize);
+        this.adaptive = adaptive;
+        this.limit = Math.clamp(initialLimit, this.minLimit, this.maxLimit);
+        this.lastActivity = nowNanos;
+    }
+
+    /**
+     * 取得權重，必要時排隊等待
+     *
+     * @param weight       請求權重
+     * @param maxWaitNanos 最長等待時間
+     * @return 實際佔用的權重；佇列已滿或逾時回傳 0
+     * @throws InterruptedException 等待時被中斷
+     */
+    int acquire(int weight, long maxWaitNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            lastActivity = System.nanoTime();
+            int granted = Math.clamp(weight, 1, currentLimit());
+            if (waiting == 0 && inFlight + granted <= currentLimit()) {
+                inFlight += granted;
+                return granted;
+            }
+            if (waiting >= maxQueueSize || maxWaitNanos <= 0) {
+                return 0;
+            }
+
+            waiting++;
+            try {
+                long remaining = maxWaitNanos;
+                while (inFlight + Math.min(granted, currentLimit()) > currentLimit()) {
+                    if (remaining <= 0) {
+                        return 0;
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+                granted = Math.min(granted, currentLimit());
+                inFlight += granted;
+                return granted;
+            } finally {
+                waiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 釋放權重並以請求延遲調整上限
+     *
+     * @param weight       {@link #acquire} 回傳的權重
+     * @param latencyNanos 請求處理時間
+     */
+    void release(int weight, long latencyNanos) {
+        lock.lock();
+        try {
+            int inFlightBefore = inFlight;
+            inFlight = Math.max(0, inFlight - weight);
+            lastActivity = System.nanoTime();
+            if (adaptive && latencyNanos > 0) {
+                adjust(latencyNanos / (double) weight, inFlightBefore);
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 梯度調整（lock 內呼叫）
+     */
+    private void adjust(double latencyPerWeight, int inFlightBefore) {
+        if (Double.isNaN(longLatency)) {
+            shortLatency = latencyPerWeight;
+            longLatency = latencyPerWeight;
+            return;
+        }
+        shortLatency = shortLatency * (1 - SHORT_ALPHA) + latencyPerWeight * SHORT_ALPHA;
+        longLatency = longLatency * (1 - LONG_ALPHA) + latencyPerWeight * LONG_ALPHA;
+        // 負載下降後讓長期基準較快回落
+        if (longLatency / shortLatency > 2) {
+            longLatency *= 0.95;
+        }
+        if (inFlightBefore < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.clamp(TOLERANCE * longLatency / shortLatency, 0.5, 1.0);
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        limit = Math.clamp(limit * (1 - SMOOTHING) + newLimit * SMOOTHING, minLimit, maxLimit);
+    }
+
+    /**
+     * 目前上限（權重總和）
+     */
+    int getLimit() {
+        lock.lock();
+        try {
+            return currentLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 目前可用的權重
+     */
+    int getAvailable() {
+        lock.lock();
+        try {
+            return Math.max(0, currentLimit() - inFlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 是否已閒置（沒有進行中或排隊的請求，且超過閒置時間）
+     */
+    boolean isIdle(long nowNanos, long idleTimeoutNanos) {
+        lock.lock();
+        try {
+            return inFlight == 0 && waiting == 0 && nowNanos - lastActivity > idleTimeoutNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+}
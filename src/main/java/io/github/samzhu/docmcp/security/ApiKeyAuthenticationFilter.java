@@ -55,7 +55,7 @@ public class ApiKeyAuthenticationFilter extends OncePerRequestFilter {
             if (validatedKey.isPresent()) {
                 ApiKey apiKey = validatedKey.get();
 
-                // 更新最後使用時間（非同步）
+                // 記錄最後使用時間（批次寫回資料庫）
                 try {
                     apiKeyService.updateLastUsed(apiKey);
                 } catch (Exception e) {
@@ -65,7 +65,8 @@ public class ApiKeyAuthenticationFilter extends OncePerRequestFilter {
                 // 建立認證 Token
                 var authorities = List.of(new SimpleGrantedAuthority("ROLE_API_KEY"));
                 var authentication = new UsernamePasswordAuthenticationToken(
-                        new ApiKeyPrincipal(apiKey.getId(), apiKey.getName(), apiKey.getKeyPrefix()),
+                        new ApiKeyPrincipal(apiKey.getId(), apiKey.getName(), apiKey.getKeyPrefix(),
+                                apiKey.getRateLimit()),
                         null,
                         authorities
                 );
@@ -107,10 +108,12 @@ public class ApiKeyAuthenticationFilter extends OncePerRequestFilter {
      * @param id        金鑰 ID（TSID 格式）
      * @param name      金鑰名稱
      * @param keyPrefix 金鑰前綴
+     * @param rateLimit 每小時請求上限（null 表示不限制）
      */
     public record ApiKeyPrincipal(
             String id,
             String name,
-            String keyPrefix
+            String keyPrefix,
+            Integer rateLimit
     ) {}
 }
@@ -0,0 +1,163 @@
+package io.github.samzhu.docmcp.security;
+
+import io.github.samzhu.docmcp.domain.model.ApiKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 已驗證 API Key 快取
+ * <p>
+ * BCrypt 驗證刻意消耗大量 CPU（每次約 50–100 ms），因此將驗證通過的結果以原始金鑰的 SHA-256 為鍵短暫快取，
+ * 同一金鑰在 TTL 內只有第一次請求需要查詢資料庫與比對 BCrypt。快取不保存原始金鑰。
+ * </p>
+ * <p>
+ * 撤銷金鑰時立即失效（其他實例透過 {@link ApiKeyRevocationChannel} 通知）；
+ * 以世代計數避免失效前開始的驗證在失效後寫回舊結果。只快取驗證通過的結果，無效金鑰不佔用快取。
+ * </p>
+ * <p>
+ * 設定：
+ * <ul>
+ *   <li>{@code docmcp.security.api-key.cache-ttl}：快取存活時間（預設 60s，0 表示停用快取）</li>
+ *   <li>{@code docmcp.security.api-key.cache-max-size}：快取的金鑰數上限（LRU 淘汰，預設 10000）</li>
+ * </ul>
+ * </p>
+ */
+@Component
+public class ApiKeyCache {
+
+    private final long ttlNanos;
+    private final int maxSize;
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    // 存取順序的 LinkedHashMap 作為 LRU，所有操作在 this 上同步
+    private final LinkedHashMap<String, Entry> entries;
+
+    public ApiKeyCache(@Value("${docmcp.security.api-key.cache-ttl:60s}") Duration ttl,
+                       @Value("${docmcp.security.api-key.cache-max-size:10000}") int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = Math.max(1, maxSize);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ApiKeyCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * 計算原始金鑰的 SHA-256 指紋
+     *
+     * @param rawKey 原始金鑰
+     * @return 十六進位指紋
+     */
+    public static String fingerprint(String rawKey) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawKey.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+
+    /**
+     * 取得快取的驗證結果
+     * <p>
+     * 超過 TTL 或金鑰已過期時移除並回傳 empty。
+     * </p>
+     *
+     * @param fingerprint 原始金鑰的指紋
+     * @return 驗證通過的 API Key（若已快取）
+     */
+    public synchronized Optional<ApiKey> get(String fingerprint) {
+        Entry entry = entries.get(fingerprint);
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        if (System.nanoTime() - entry.cachedAt() >= ttlNanos || !entry.apiKey().isValid()) {
+            entries.remove(fingerprint);
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(entry.apiKey());
+    }
+
+    /**
+     * 目前的世代，驗證開始前取得並在寫入時傳回
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * 快取驗證通過的結果
+     * <p>
+     * 取得世代後發生過失效時不寫入，避免撤銷前讀取的結果在撤銷後被快取。
+     * </p>
+     *
+     * @param fingerprint 原始金鑰的指紋
+     * @param apiKey      驗證通過的 API Key
+     * @param generation  驗證開始前取得的世代
+     */
+    public synchronized void put(String fingerprint, ApiKey apiKey, long generation) {
+        if (ttlNanos <= 0 || generation != this.generation.get()) {
+            return;
+        }
+        entries.put(fingerprint, new Entry(apiKey, System.nanoTime()));
+    }
+
+    /**
+     * 移除指定金鑰的所有快取結果
+     *
+     * @param keyId 金鑰 ID
+     */
+    public synchronized void invalidate(String keyId) {
+        generation.incrementAndGet();
+        entries.values().removeIf(entry -> entry.apiKey().getId().equals(keyId));
+    }
+
+    /**
+     * 清除所有快取結果（如撤銷通知可能遺失時）
+     */
+    public synchronized void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * 快取命中次數
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * 快取未命中次數
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * 目前快取的金鑰數
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private record Entry(ApiKey apiKey, long cachedAt) {}
+}
@@ -0,0 +1,315 @@
+package io.github.samzhu.docmcp.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * API Key 速率限制器
+ * <p>
+ * 依 {@code api_keys.rate_limit}（每小時請求上限）以 token bucket 限制每個金鑰的請求速率：
+ * 容量為每小時上限，以每秒 {@code rateLimit / 3600} 的速度補充。
+ * </p>
+ * <p>
+ * 多個實例共用 {@code api_key_rate_limits} 表中的桶：
+ * <ul>
+ *   <li>請求路徑只以 CAS 操作本機的桶（無鎖），不存取資料庫</li>
+ *   <li>排程每個間隔以一次批次 UPDATE 將各實例自上次同步後的消耗量扣除，並取回共用桶的剩餘量</li>
+ *   <li>補充以資料庫時間計算，各實例的時鐘不需一致</li>
+ *   <li>金鑰在本機第一次出現（或閒置後再出現）時同步讀取一次共用桶</li>
+ * </ul>
+ * 同步之間各實例只知道自己的消耗，叢集合計最多超出約「實例數 × 每個同步間隔的請求數」，
+ * 超出的部分會讓共用桶變為負值，由後續補充抵銷。資料庫無法連線時退化為本機限制。
+ * </p>
+ * <p>
+ * 設定：
+ * <ul>
+ *   <li>{@code docmcp.security.rate-limit.sync-interval-ms}：同步間隔（預設 1000）</li>
+ *   <li>{@code docmcp.security.rate-limit.idle-timeout}：閒置多久後移除本機的桶（預設 10m）</li>
+ * </ul>
+ * </p>
+ */
+@Component
+public class ApiKeyRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiKeyRateLimiter.class);
+
+    private static final double SECONDS_PER_HOUR = 3600.0;
+
+    /** 以千分之一 token 為單位儲存，避免浮點 CAS */
+    private static final long MILLI = 1000;
+
+    private static final String SQL_ENSURE = """
+            INSERT INTO api_key_rate_limits (key_id, tokens, refilled_at)
+            SELECT u.key_id, u.capacity, now()
+            FROM unnest(?::varchar[], ?::float8[]) AS u(key_id, capacity)
+            ON CONFLICT (key_id) DO NOTHING
+            """;
+
+    private static final String SQL_SYNC = """
+            UPDATE api_key_rate_limits r
+            SET tokens = LEAST(u.capacity,
+                               r.tokens + EXTRACT(EPOCH FROM (now() - r.refilled_at)) * u.capacity / 3600.0)
+                         - u.consumed,
+                refilled_at = now()
+            FROM unnest(?::varchar[], ?::float8[], ?::float8[]) AS u(key_id, capacity, consumed)
+            WHERE r.key_id = u.key_id
+            RETURNING r.key_id, r.tokens
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long idleTimeoutNanos;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public ApiKeyRateLimiter(JdbcTemplate jdbcTemplate,
+                             @Value("${docmcp.security.rate-limit.idle-timeout:10m}") Duration idleTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+    }
+
+    /**
+     * 嘗試消耗一個請求配額
+     *
+     * @param keyId     金鑰 ID
+     * @param rateLimit 每小時請求上限
+     * @return 判定結果與目前配額資訊
+     */
+    public Decision tryAcquire(String keyId, int rateLimit) {
+        return tryAcquire(keyId, rateLimit, System.nanoTime());
+    }
+
+    Decision tryAcquire(String keyId, int rateLimit, long nowNanos) {
+        Bucket bucket = buckets.computeIfAbsent(keyId, id -> new Bucket(rateLimit, nowNanos));
+        if (bucket.capacity != rateLimit) {
+            // 上限變更後以新的容量重建
+            Bucket replacement = new Bucket(rateLimit, nowNanos);
+            bucket = buckets.merge(keyId, replacement, (old, fresh) -> old.capacity == rateLimit ? old : fresh);
+        }
+        if (!bucket.loaded) {
+            loadSynchronously(keyId, bucket);
+        }
+        return bucket.tryConsume(nowNanos);
+    }
+
+    /**
+     * 將各金鑰的本機消耗量批次同步到共用桶，並移除閒置的桶
+     */
+    @Scheduled(fixedDelayString = "${docmcp.security.rate-limit.sync-interval-ms:1000}")
+    public void sync() {
+        long now = System.nanoTime();
+        buckets.entrySet().removeIf(entry -> entry.getValue().isIdle(now, idleTimeoutNanos));
+
+        Map<String, Bucket> snapshot = new HashMap<>();
+        buckets.forEach((keyId, bucket) -> {
+            if (bucket.loaded) {
+                snapshot.put(keyId, bucket);
+            }
+        });
+        if (!snapshot.isEmpty()) {
+            syncBuckets(snapshot);
+        }
+    }
+
+    /**
+     * 本機目前持有的桶數
+     */
+    int size() {
+        return buckets.size();
+    }
+
+    private void loadSynchronously(String keyId, Bucket bucket) {
+        synchronized (bucket) {
+            if (bucket.loaded) {
+                return;
+            }
+            syncBuckets(Map.of(keyId, bucket));
+            // 資料庫無法連線時以本機的桶繼續運作
+            bucket.loaded = true;
+        }
+    }
+
+    private void syncBuckets(Map<String, Bucket> toSync) {
+        int size = toSync.size();
+        String[] keyIds = new String[size];
+        Double[] capacities = new Double[size];
+        Double[] consumed = new Double[size];
+        long[] consumedMarks = new long[size];
+        int i = 0;
+        for (Map.Entry<String, Bucket> entry : toSync.entrySet()) {
+            Bucket bucket = entry.getValue();
+            keyIds[i] = entry.getKey();
+            capacities[i] = (double) bucket.capacity;
+            consumedMarks[i] = bucket.consumed();
+            consumed[i] = bucket.pendingSince(consumedMarks[i]) / (double) MILLI;
+            i++;
+        }
+
+        Map<String, Double> remaining = new HashMap<>();
+        try {
+            jdbcTemplate.update(connection -> prepare(connection, SQL_ENSURE, keyIds, capacities));
+            jdbcTemplate.query(connection -> prepare(connection, SQL_SYNC, keyIds, capacities, consumed),
+                    rs -> {
+                        remaining.put(rs.getString(1), rs.getDouble(2));
+                    });
+        } catch (Exception e) {
+            log.warn("Failed to synchronize rate limits for {} API keys", size, e);
+            return;
+        }
+
+        long now = System.nanoTime();
+        for (i = 0; i < size; i++) {
+            Double tokens = remaining.get(keyIds[i]);
+            if (tokens != null) {
+                toSync.get(keyIds[i]).applySync(tokens, consumedMarks[i], now);
+            }
+        }
+    }
+
+    private static PreparedStatement prepare(Connection connection, String sql, String[] keyIds,
+                                             Double[]... columns) throws SQLException {
+        PreparedStatement ps = connection.prepareStatement(sql);
+        ps.setArray(1, connection.createArrayOf("varchar", keyIds));
+        for (int c = 0; c < columns.length; c++) {
+            Array array = connection.createArrayOf("float8", columns[c]);
+            ps.setArray(c + 2, array);
+        }
+        return ps;
+    }
+
+    /**
+     * 速率限制判定結果
+     *
+     * @param allowed           是否允許
+     * @param limit             每小時請求上限
+     * @param remaining         剩餘可用請求數
+     * @param resetSeconds      配額完全補滿所需秒數
+     * @param retryAfterSeconds 被拒絕時，下一個配額可用所需秒數（允許時為 0）
+     */
+    public record Decision(
+            boolean allowed,
+            int limit,
+            long remaining,
+            long resetSeconds,
+            long retryAfterSeconds
+    ) {}
+
+    /**
+     * 本機桶的狀態
+     *
+     * @param milliTokens 剩餘量（千分之一 token，超用時可為負值）
+     * @param refilledAt  上次補充的本機時間（nanoTime）
+     * @param consumed    累計的本機消耗量（千分之一 token），與剩餘量一起替換，同步時不會漏算
+     */
+    private record State(long milliTokens, long refilledAt, long consumed) {}
+
+    /**
+     * 本機的桶
+     * <p>
+     * 狀態以不可變的 {@link State} 整體 CAS 替換；同步時以共用桶的剩餘量扣除同步期間的本機消耗後重設，
+     * 重設同樣以 CAS 進行，與同時的扣除衝突時重新讀取消耗量再試。
+     * </p>
+     */
+    private static final class Bucket {
+
+        final int capacity;
+        final double milliTokensPerNano;
+        final AtomicReference<State> state;
+        final AtomicLong lastUsed;
+        volatile long syncedMark;
+        volatile boolean loaded;
+
+        Bucket(int capacity, long nowNanos) {
+            this.capacity = capacity;
+            this.milliTokensPerNano = capacity * MILLI / SECONDS_PER_HOUR / 1_000_000_000.0;
+            this.state = new AtomicReference<>(new State(capacity * MILLI, nowNanos, 0));
+            this.lastUsed = new AtomicLong(nowNanos);
+        }
+
+        Decision tryConsume(long nowNanos) {
+            lastUsed.accumulateAndGet(nowNanos, Math::max);
+            while (true) {
+                State current = state.get();
+                State refilled = refill(current, nowNanos);
+                long tokens = refilled.milliTokens();
+                if (tokens < MILLI) {
+                    return new Decision(false, capacity, 0,
+                            secondsUntil(capacity * MILLI - tokens), secondsUntil(MILLI - tokens));
+                }
+                State next = new State(tokens - MILLI, refilled.refilledAt(), current.consumed() + MILLI);
+                if (state.compareAndSet(current, next)) {
+                    long left = next.milliTokens();
+                    return new Decision(true, capacity, left / MILLI, secondsUntil(capacity * MILLI - left), 0);
+                }
+            }
+        }
+
+        /**
+         * 以共用桶的剩餘量重設本機狀態
+         *
+         * @param sharedTokens 共用桶的剩餘量（已扣除 consumedMark 之前的本機消耗）
+         * @param consumedMark 送出同步時的本機消耗量
+         * @param nowNanos     同步完成的本機時間
+         */
+        void applySync(double sharedTokens, long consumedMark, long nowNanos) {
+            long shared = Math.min(capacity * MILLI, Math.round(sharedTokens * MILLI));
+            while (true) {
+                State current = state.get();
+                long pending = current.consumed() - consumedMark;
+                if (state.compareAndSet(current, new State(shared - pending, nowNanos, current.consumed()))) {
+                    break;
+                }
+            }
+            syncedMark = consumedMark;
+        }
+
+        /**
+         * 累計的本機消耗量（千分之一 token）
+         */
+        long consumed() {
+            return state.get().consumed();
+        }
+
+        long pendingSince(long consumedMark) {
+            return consumedMark - syncedMark;
+        }
+
+        boolean isIdle(long nowNanos, long idleTimeoutNanos) {
+            return loaded && nowNanos - lastUsed.get() > idleTimeoutNanos
+                    && consumed() == syncedMark;
+        }
+
+        /**
+         * 補充到指定時間；只推進已換算為整數千分之一 token 的時間，避免高頻請求時捨去補充量
+         */
+        private State refill(State current, long nowNanos) {
+            long elapsed = Math.max(0, nowNanos - current.refilledAt());
+            long added = (long) (elapsed * milliTokensPerNano);
+            long tokens = current.milliTokens() + added;
+            if (tokens >= capacity * MILLI) {
+                return new State(capacity * MILLI, Math.max(nowNanos, current.refilledAt()), current.consumed());
+            }
+            return new State(tokens, current.refilledAt() + (long) (added / milliTokensPerNano), current.consumed());
+        }
+
+        private long secondsUntil(long milliTokens) {
+            if (milliTokens <= 0) {
+                return 0;
+            }
+            return (long) Math.ceil(milliTokens / (milliTokensPerNano * 1_000_000_000.0));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.samzhu.docmcp.security;
+
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * API Key 撤銷通知頻道
+ * <p>
+ * 使用 PostgreSQL LISTEN/NOTIFY 在實例間傳遞撤銷事件：
+ * <ul>
+ *   <li>撤銷時在同一交易中執行 {@code pg_notify}，交易提交後才送出，回滾時不送出</li>
+ *   <li>每個實例以一條專用連線 LISTEN，收到通知後立即讓 {@link ApiKeyCache} 失效</li>
+ *   <li>連線中斷期間可能遺失通知，因此重新連線後清除整個快取</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 只有啟用 API Key 認證（{@code docmcp.security.api-key.enabled}）時才會 LISTEN。
+ * </p>
+ */
+@Component
+public class ApiKeyRevocationChannel {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiKeyRevocationChannel.class);
+
+    static final String CHANNEL = "docmcp_api_key_revoked";
+
+    private static final int POLL_TIMEOUT_MS = 1000;
+    private static final long RECONNECT_DELAY_MS = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final ApiKeyCache apiKeyCache;
+    private final boolean enabled;
+
+    private volatile boolean running;
+    private volatile Thread listenerThread;
+
+    public ApiKeyRevocationChannel(JdbcTemplate jdbcTemplate,
+                                   DataSource dataSource,
+                                   ApiKeyCache apiKeyCache,
+                                   @Value("${docmcp.security.api-key.enabled:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.apiKeyCache = apiKeyCache;
+        this.enabled = enabled;
+    }
+
+    /**
+     * 發送撤銷通知（在呼叫端的交易中執行，提交後送出）
+     *
+     * @param keyId 被撤銷的金鑰 ID
+     */
+    public void publish(String keyId) {
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, keyId);
+    }
+
+    /**
+     * 啟動完成後開始在背景監聽撤銷通知
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        listenerThread = Thread.ofVirtual().name("api-key-revocation-listener").start(this::listen);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = listenerThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // 未監聽期間的撤銷通知已遺失
+                apiKeyCache.invalidateAll();
+                log.info("Listening for API key revocations on channel {}", CHANNEL);
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        log.debug("API key revoked on another instance: {}", notification.getParameter());
+                        apiKeyCache.invalidate(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("API key revocation listener disconnected, retrying in {}ms", RECONNECT_DELAY_MS, e);
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -8,6 +8,8 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.security.SecureRandom;
 import java.time.OffsetDateTime;
@@ -19,6 +21,8 @@ import java.util.Optional;
  * API Key 服務
  * <p>
  * 提供 API Key 的生成、驗證、撤銷等功能。
+ * 驗證通過的結果由 {@link ApiKeyCache} 短暫快取，撤銷時立即失效並通知其他實例；
+ * 最後使用時間由 {@link ApiKeyUsageTracker} 在記憶體中合併後批次寫回。
  * </p>
  */
 @Service
@@ -31,12 +35,22 @@ public class ApiKeyService {
 
     private final IdService idService;
     private final ApiKeyRepository apiKeyRepository;
+    private final ApiKeyCache apiKeyCache;
+    private final ApiKeyRevocationChannel revocationChannel;
+    private final ApiKeyUsageTracker usageTracker;
     private final PasswordEncoder passwordEncoder;
     private final SecureRandom secureRandom;
 
-    public ApiKeyService(IdService idService, ApiKeyRepository apiKeyRepository) {
+    public ApiKeyService(IdService idService,
+                         ApiKeyRepository apiKeyRepository,
+                         ApiKeyCache apiKeyCache,
+                         ApiKeyRevocationChannel revocationChannel,
+                         ApiKeyUsageTracker usageTracker) {
         this.idService = idService;
         this.apiKeyRepository = apiKeyRepository;
+        this.apiKeyCache = apiKeyCache;
+        this.revocationChannel = revocationChannel;
+        this.usageTracker = usageTracker;
         this.passwordEncoder = new BCryptPasswordEncoder();
         this.secureRandom = new SecureRandom();
     }
@@ -89,6 +103,9 @@ public class ApiKeyService {
 
     /**
      * 驗證 API Key
+     * <p>
+     * 先查詢快取；未命中時查詢資料庫並比對 BCrypt 雜湊，通過後寫入快取。
+     * </p>
      *
      * @param rawKey 原始金鑰
      * @return 驗證通過的 API Key（若有效）
@@ -98,6 +115,13 @@ public class ApiKeyService {
             return Optional.empty();
         }
 
+        String fingerprint = ApiKeyCache.fingerprint(rawKey);
+        Optional<ApiKey> cached = apiKeyCache.get(fingerprint);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        long generation = apiKeyCache.generation();
+
         // 從前綴查找金鑰
         String keyPrefix = rawKey.length() >= 12 ? rawKey.substring(0, 12) : rawKey;
         Optional<ApiKey> apiKeyOpt = apiKeyRepository.findByKeyPrefix(keyPrefix);
@@ -118,22 +142,38 @@ public class ApiKeyService {
             return Optional.empty();
         }
 
+        apiKeyCache.put(fingerprint, apiKey, generation);
         return Optional.of(apiKey);
     }
 
     /**
      * 更新最後使用時間
+     * <p>
+     * 只記錄在記憶體中，由 {@link ApiKeyUsageTracker} 定期批次寫回資料庫，不佔用請求路徑上的資料庫連線。
+     * </p>
      *
      * @param apiKey 要更新的 API Key
      */
-    @Transactional
     public void updateLastUsed(ApiKey apiKey) {
-        ApiKey updated = apiKey.withLastUsedAt(OffsetDateTime.now());
-        apiKeyRepository.save(updated);
+        usageTracker.record(apiKey.getId());
+    }
+
+    /**
+     * 取得 API Key 的使用統計（本實例啟動後的數據）
+     *
+     * @param keyId 金鑰 ID（TSID 格式）
+     * @return 使用統計（若本實例啟動後使用過）
+     */
+    public Optional<ApiKeyUsageTracker.Usage> getUsage(String keyId) {
+        return usageTracker.getUsage(keyId);
     }
 
     /**
      * 撤銷 API Key
+     * <p>
+     * 立即讓本機快取失效，交易提交後再失效一次（涵蓋提交前仍讀到舊狀態而寫回快取的驗證），
+     * 並發送撤銷通知讓其他實例的快取失效。
+     * </p>
      *
      * @param keyId 金鑰 ID（TSID 格式）
      */
@@ -143,6 +183,16 @@ public class ApiKeyService {
                 .orElseThrow(() -> new IllegalArgumentException("找不到 API Key: " + keyId));
 
         apiKeyRepository.save(apiKey.revoke());
+        apiKeyCache.invalidate(keyId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apiKeyCache.invalidate(keyId);
+                }
+            });
+        }
+        revocationChannel.publish(keyId);
     }
 
     /**
@@ -0,0 +1,205 @@
+package io.github.samzhu.docmcp.security;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * API Key 使用量追蹤
+ * <p>
+ * 認證成功時只在記憶體中記錄使用時間，由排程以一次批次 UPDATE 寫回 {@code api_keys.last_used_at}：
+ * <ul>
+ *   <li>同一金鑰在一個排程間隔內的多次請求合併為一筆更新，避免熱門金鑰造成資料列競爭</li>
+ *   <li>只更新單一欄位且不早於既有值，不遞增樂觀鎖版本，多個實例同時寫入也不會倒退</li>
+ *   <li>寫入失敗時保留待寫入狀態，留待下次排程重試</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 同時記錄每個金鑰的請求總數與最近 60 分鐘的每分鐘請求數。這些統計只存在記憶體中，
+ * 為本實例自啟動以來的數據。資料庫中的最後使用時間最多落後一個排程間隔
+ * （{@code docmcp.security.api-key.usage-flush-interval-ms}，預設 10000）。
+ * </p>
+ */
+@Component
+public class ApiKeyUsageTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiKeyUsageTracker.class);
+
+    static final int HISTOGRAM_MINUTES = 60;
+
+    private static final String SQL_UPDATE_LAST_USED = """
+            UPDATE api_keys SET last_used_at = ?
+            WHERE id = ? AND (last_used_at IS NULL OR last_used_at < ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, KeyUsage> usages = new ConcurrentHashMap<>();
+
+    public ApiKeyUsageTracker(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 記錄一次認證成功的請求
+     *
+     * @param keyId 金鑰 ID
+     */
+    public void record(String keyId) {
+        record(keyId, System.currentTimeMillis());
+    }
+
+    void record(String keyId, long nowMillis) {
+        usages.computeIfAbsent(keyId, id -> new KeyUsage()).record(nowMillis);
+    }
+
+    /**
+     * 將待寫入的最後使用時間以一次批次 UPDATE 寫回資料庫
+     */
+    @Scheduled(fixedDelayString = "${docmcp.security.api-key.usage-flush-interval-ms:10000}",
+            initialDelayString = "${docmcp.security.api-key.usage-flush-interval-ms:10000}")
+    public void flush() {
+        List<String> keyIds = new ArrayList<>();
+        List<Long> lastUsed = new ArrayList<>();
+        usages.forEach((keyId, usage) -> {
+            long pending = usage.pendingLastUsed();
+            if (pending > 0) {
+                keyIds.add(keyId);
+                lastUsed.add(pending);
+            }
+        });
+        if (keyIds.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<Object[]> batchArgs = new ArrayList<>(keyIds.size());
+            for (int i = 0; i < keyIds.size(); i++) {
+                Timestamp timestamp = new Timestamp(lastUsed.get(i));
+                batchArgs.add(new Object[]{timestamp, keyIds.get(i), timestamp});
+            }
+            jdbcTemplate.batchUpdate(SQL_UPDATE_LAST_USED, batchArgs);
+        } catch (Exception e) {
+            // 保留待寫入狀態，下次排程重試
+            log.warn("Failed to flush last used time for {} API keys", keyIds.size(), e);
+            return;
+        }
+
+        for (int i = 0; i < keyIds.size(); i++) {
+            usages.get(keyIds.get(i)).markFlushed(lastUsed.get(i));
+        }
+        log.debug("Flushed last used time for {} API keys", keyIds.size());
+    }
+
+    /**
+     * 關閉前寫回尚未寫入的最後使用時間
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * 取得金鑰的使用統計
+     *
+     * @param keyId 金鑰 ID
+     * @return 使用統計（本實例啟動後未使用過時為 empty）
+     */
+    public Optional<Usage> getUsage(String keyId) {
+        return getUsage(keyId, System.currentTimeMillis());
+    }
+
+    Optional<Usage> getUsage(String keyId, long nowMillis) {
+        KeyUsage usage = usages.get(keyId);
+        if (usage == null) {
+            return Optional.empty();
+        }
+        return Optional.of(usage.snapshot(keyId, nowMillis));
+    }
+
+    /**
+     * 金鑰使用統計
+     *
+     * @param keyId             金鑰 ID
+     * @param totalRequests     本實例啟動後的請求總數
+     * @param lastUsedAt        最後使用時間
+     * @param requestsPerMinute 最近 60 分鐘的每分鐘請求數（由舊到新，最後一個為目前這一分鐘）
+     */
+    public record Usage(
+            String keyId,
+            long totalRequests,
+            OffsetDateTime lastUsedAt,
+            List<Long> requestsPerMinute
+    ) {}
+
+    /**
+     * 單一金鑰的使用狀態
+     * <p>
+     * 請求計數與最後使用時間無鎖更新；每分鐘直方圖以環狀陣列保存，於 this 上同步。
+     * </p>
+     */
+    private static final class KeyUsage {
+
+        private final LongAdder totalRequests = new LongAdder();
+        private final AtomicLong lastUsed = new AtomicLong();
+        private final AtomicLong flushed = new AtomicLong();
+        private final long[] bucketMinutes = new long[HISTOGRAM_MINUTES];
+        private final long[] bucketCounts = new long[HISTOGRAM_MINUTES];
+
+        void record(long nowMillis) {
+            totalRequests.increment();
+            lastUsed.accumulateAndGet(nowMillis, Math::max);
+            long minute = nowMillis / 60_000;
+            int index = (int) (minute % HISTOGRAM_MINUTES);
+            synchronized (this) {
+                if (bucketMinutes[index] < minute) {
+                    bucketMinutes[index] = minute;
+                    bucketCounts[index] = 0;
+                }
+                // 晚到且已超出環狀陣列範圍的請求只計入總數
+                if (bucketMinutes[index] == minute) {
+                    bucketCounts[index]++;
+                }
+            }
+        }
+
+        /**
+         * 尚未寫入資料庫的最後使用時間，沒有時回傳 0
+         */
+        long pendingLastUsed() {
+            long last = lastUsed.get();
+            return last > flushed.get() ? last : 0;
+        }
+
+        void markFlushed(long millis) {
+            flushed.accumulateAndGet(millis, Math::max);
+        }
+
+        Usage snapshot(String keyId, long nowMillis) {
+            long currentMinute = nowMillis / 60_000;
+            List<Long> perMinute = new ArrayList<>(HISTOGRAM_MINUTES);
+            synchronized (this) {
+                for (long minute = currentMinute - HISTOGRAM_MINUTES + 1; minute <= currentMinute; minute++) {
+                    int index = (int) (minute % HISTOGRAM_MINUTES);
+                    perMinute.add(bucketMinutes[index] == minute ? bucketCounts[index] : 0L);
+                }
+            }
+            OffsetDateTime lastUsedAt = OffsetDateTime.ofInstant(Instant.ofEpochMilli(lastUsed.get()), ZoneOffset.UTC);
+            return new Usage(keyId, totalRequests.sum(), lastUsedAt, List.copyOf(perMinute));
+        }
+    }
+}
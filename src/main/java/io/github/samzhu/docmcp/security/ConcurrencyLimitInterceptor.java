@@ -1,47 +1,56 @@
 package io.github.samzhu.docmcp.security;
 
+import io.github.samzhu.docmcp.config.ConcurrencyProperties;
 import io.github.samzhu.docmcp.config.FeatureFlags;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Semaphore;
 
 /**
  * 併發限制攔截器
  * <p>
- * 限制每個 API Key 同時進行的請求數量，保護後端資源。
- * 使用 Semaphore 實現 per-API-key 的併發控制。
+ * 限制每個 API Key 同時進行的請求，保護後端資源。所有匿名請求共用一個限制器。
+ * 使用 {@link AdaptiveConcurrencyLimiter} 實現：
+ * <ul>
+ *   <li>依 MCP 工具（由 {@link McpToolNameFilter} 取得）或 REST API 路徑決定請求權重，
+ *       例如語意搜尋佔用的權重高於列出函式庫</li>
+ *   <li>超過上限時短暫排隊（{@code max-wait}），佇列已滿或逾時才回應 429</li>
+ *   <li>依觀察到的延遲自動調整上限</li>
+ *   <li>閒置的 API Key 限制器定期移除</li>
+ * </ul>
+ * 排隊會佔用請求執行緒，建議搭配 virtual threads（{@code spring.threads.virtual.enabled}）。
  * </p>
  */
 @Component
 public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
 
     private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitInterceptor.class);
-    private static final String SEMAPHORE_ATTR = "concurrency.semaphore";
+    private static final String LIMITER_ATTR = "concurrency.limiter";
+    private static final String WEIGHT_ATTR = "concurrency.weight";
+    private static final String START_ATTR = "concurrency.start";
 
     private final FeatureFlags featureFlags;
-    private final int defaultLimit;
-    private final int anonymousLimit;
-    private final Map<String, Semaphore> semaphores = new ConcurrentHashMap<>();
-    private final Semaphore anonymousSemaphore;
-
-    public ConcurrencyLimitInterceptor(
-            FeatureFlags featureFlags,
-            @Value("${docmcp.security.concurrency.default-limit:10}") int defaultLimit,
-            @Value("${docmcp.security.concurrency.anonymous-limit:5}") int anonymousLimit) {
+    private final ConcurrencyProperties properties;
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private final AdaptiveConcurrencyLimiter anonymousLimiter;
+
+    public ConcurrencyLimitInterceptor(FeatureFlags featureFlags, ConcurrencyProperties properties) {
         this.featureFlags = featureFlags;
-        this.defaultLimit = defaultLimit;
-        this.anonymousLimit = anonymousLimit;
-        this.anonymousSemaphore = new Semaphore(anonymousLimit);
+        this.properties = properties;
+        // 匿名請求的上限只會向下調整
+        this.anonymousLimiter = new AdaptiveConcurrencyLimiter(
+                properties.getAnonymousLimit(), properties.getMinLimit(), properties.getAnonymousLimit(),
+                properties.getMaxQueueSize(), properties.isAdaptive(), System.nanoTime());
     }
 
     @Override
@@ -52,16 +61,26 @@ public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
             return true;  // 功能關閉，直接放行
         }
 
-        Semaphore semaphore = getSemaphore(request);
+        AdaptiveConcurrencyLimiter limiter = getLimiter();
+        int weight = resolveWeight(request);
+
+        // 取得權重，超過上限時短暫排隊
+        int granted;
+        try {
+            granted = limiter.acquire(weight, properties.getMaxWait().toNanos());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            granted = 0;
+        }
 
-        // 嘗試立即取得許可（不等待）
-        if (!semaphore.tryAcquire()) {
+        if (granted == 0) {
             log.warn("Concurrency limit exceeded for path: {}", request.getRequestURI());
 
             response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
             response.setContentType("application/json");
-            response.setHeader("X-Concurrency-Limit", String.valueOf(getLimit(request)));
-            response.setHeader("X-Concurrency-Active", String.valueOf(getLimit(request) - semaphore.availablePermits()));
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setHeader("X-Concurrency-Limit", String.valueOf(limiter.getLimit()));
+            response.setHeader("X-Concurrency-Remaining", String.valueOf(limiter.getAvailable()));
 
             response.getWriter().write("""
                     {"error": "Too many concurrent requests", "message": "Please wait for current requests to complete."}
@@ -70,12 +89,14 @@ public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
             return false;
         }
 
-        // 儲存 semaphore 供 afterCompletion 使用
-        request.setAttribute(SEMAPHORE_ATTR, semaphore);
+        // 儲存限制器供 afterCompletion 使用
+        request.setAttribute(LIMITER_ATTR, limiter);
+        request.setAttribute(WEIGHT_ATTR, granted);
+        request.setAttribute(START_ATTR, System.nanoTime());
 
         // 添加併發資訊 Headers
-        response.setHeader("X-Concurrency-Limit", String.valueOf(getLimit(request)));
-        response.setHeader("X-Concurrency-Remaining", String.valueOf(semaphore.availablePermits()));
+        response.setHeader("X-Concurrency-Limit", String.valueOf(limiter.getLimit()));
+        response.setHeader("X-Concurrency-Remaining", String.valueOf(limiter.getAvailable()));
 
         return true;
     }
@@ -83,47 +104,67 @@ public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
                                  Object handler, Exception ex) {
-        // 釋放許可
-        Semaphore semaphore = (Semaphore) request.getAttribute(SEMAPHORE_ATTR);
-        if (semaphore != null) {
-            semaphore.release();
+        // 釋放權重，並以處理時間調整上限
+        AdaptiveConcurrencyLimiter limiter = (AdaptiveConcurrencyLimiter) request.getAttribute(LIMITER_ATTR);
+        if (limiter != null) {
+            int weight = (Integer) request.getAttribute(WEIGHT_ATTR);
+            long start = (Long) request.getAttribute(START_ATTR);
+            limiter.release(weight, System.nanoTime() - start);
+            request.removeAttribute(LIMITER_ATTR);
         }
     }
 
     /**
-     * 取得對應的 Semaphore
+     * 移除閒置的 API Key 限制器
+     */
+    @Scheduled(fixedDelayString = "${docmcp.security.concurrency.eviction-interval-ms:60000}")
+    public void evictIdleLimiters() {
+        long now = System.nanoTime();
+        long idleTimeout = properties.getIdleTimeout().toNanos();
+        limiters.values().removeIf(limiter -> limiter.isIdle(now, idleTimeout));
+    }
+
+    /**
+     * 目前持有的 API Key 限制器數
      */
-    private Semaphore getSemaphore(HttpServletRequest request) {
+    int getLimiterCount() {
+        return limiters.size();
+    }
+
+    /**
+     * 取得對應的限制器
+     */
+    private AdaptiveConcurrencyLimiter getLimiter() {
         var authentication = SecurityContextHolder.getContext().getAuthentication();
 
         if (authentication == null || !authentication.isAuthenticated()) {
-            return anonymousSemaphore;
+            return anonymousLimiter;
         }
 
-        Object principal = authentication.getPrincipal();
-        if (principal instanceof ApiKeyAuthenticationFilter.ApiKeyPrincipal apiKeyPrincipal) {
-            String key = apiKeyPrincipal.keyPrefix();
-            return semaphores.computeIfAbsent(key, k -> new Semaphore(defaultLimit));
+        if (authentication.getPrincipal() instanceof ApiKeyAuthenticationFilter.ApiKeyPrincipal apiKeyPrincipal) {
+            return limiters.computeIfAbsent(apiKeyPrincipal.keyPrefix(), k -> new AdaptiveConcurrencyLimiter(
+                    properties.getDefaultLimit(), properties.getMinLimit(), properties.getMaxLimit(),
+                    properties.getMaxQueueSize(), properties.isAdaptive(), System.nanoTime()));
         }
 
-        return anonymousSemaphore;
+        return anonymousLimiter;
     }
 
     /**
-     * 取得限制數
+     * 依 MCP 工具或 REST API 路徑決定請求權重
      */
-    private int getLimit(HttpServletRequest request) {
-        var authentication = SecurityContextHolder.getContext().getAuthentication();
-
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return anonymousLimit;
+    int resolveWeight(HttpServletRequest request) {
+        Object toolName = request.getAttribute(McpToolNameFilter.TOOL_NAME_ATTRIBUTE);
+        if (toolName != null) {
+            return Math.max(1, properties.getToolWeights().getOrDefault(toolName.toString(), 1));
         }
 
-        Object principal = authentication.getPrincipal();
-        if (principal instanceof ApiKeyAuthenticationFilter.ApiKeyPrincipal) {
-            return defaultLimit;
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/api/")) {
+            int end = path.indexOf('/', 5);
+            String endpoint = end < 0 ? path.substring(5) : path.substring(5, end);
+            return Math.max(1, properties.getApiWeights().getOrDefault(endpoint, 1));
         }
-
-        return anonymousLimit;
+        return 1;
     }
 }
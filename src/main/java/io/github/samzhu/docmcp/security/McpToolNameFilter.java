@@ -0,0 +1,215 @@
+package io.github.samzhu.docmcp.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * MCP 工具名稱擷取過濾器
+ * <p>
+ * 讀取 MCP JSON-RPC 請求（POST /mcp）的內容，將 {@code tools/call} 的工具名稱
+ * 放入 request attribute {@link #TOOL_NAME_ATTRIBUTE}，供 {@link ConcurrencyLimitInterceptor} 依工具決定權重。
+ * 已讀取的內容以包裝後的 request 重新提供給後續處理。
+ * </p>
+ * <p>
+ * 超過 {@value #MAX_PEEK_BYTES} bytes 的請求不解析（以預設權重計）：Content-Length 超過上限時不讀取；
+ * chunked 請求最多讀取上限 + 1 bytes，超過時將已讀取的前段與剩餘內容接續提供給後續處理。
+ * </p>
+ */
+@Component
+public class McpToolNameFilter extends OncePerRequestFilter {
+
+    public static final String TOOL_NAME_ATTRIBUTE = "docmcp.mcp.toolName";
+
+    static final int MAX_PEEK_BYTES = 256 * 1024;
+
+    private final ObjectMapper objectMapper;
+
+    public McpToolNameFilter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || !request.getRequestURI().startsWith(request.getContextPath() + "/mcp");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                     HttpServletResponse response,
+                                     FilterChain filterChain) throws ServletException, IOException {
+        long contentLength = request.getContentLengthLong();
+        if (contentLength > MAX_PEEK_BYTES) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // chunked 請求的 Content-Length 為 -1，最多讀取 MAX_PEEK_BYTES + 1 bytes 判斷是否超過上限
+        ServletInputStream input = request.getInputStream();
+        byte[] prefix = input.readNBytes(MAX_PEEK_BYTES + 1);
+        if (prefix.length > MAX_PEEK_BYTES) {
+            filterChain.doFilter(new CachedBodyRequest(request, prefix, input), response);
+            return;
+        }
+
+        String toolName = extractToolName(prefix);
+        if (toolName != null) {
+            request.setAttribute(TOOL_NAME_ATTRIBUTE, toolName);
+        }
+        filterChain.doFilter(new CachedBodyRequest(request, prefix, null), response);
+    }
+
+    /**
+     * 從 JSON-RPC 請求取得 tools/call 的工具名稱
+     *
+     * @param body 請求內容
+     * @return 工具名稱（非 tools/call 或無法解析時為 null）
+     */
+    String extractToolName(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode message = objectMapper.readTree(body);
+            if (message == null || !"tools/call".equals(message.path("method").asText())) {
+                return null;
+            }
+            String name = message.path("params").path("name").asText(null);
+            return name == null || name.isBlank() ? null : name;
+        } catch (IOException e) {
+            // 格式錯誤交由 MCP 端點回應
+            return null;
+        }
+    }
+
+    /**
+     * 以已讀取的內容重新提供 request body
+     * <p>
+     * 內容超過上限時先回放已讀取的前段，再接續讀取原始輸入串流的剩餘內容。
+     * </p>
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] prefix;
+        private final boolean complete;
+        private final ServletInputStream inputStream;
+
+        /**
+         * @param request   原始 request
+         * @param prefix    已讀取的內容
+         * @param remainder 尚未讀取的原始輸入串流（內容已完整讀取時為 null）
+         */
+        CachedBodyRequest(HttpServletRequest request, byte[] prefix, ServletInputStream remainder) {
+            super(request);
+            this.prefix = prefix;
+            this.complete = remainder == null;
+            this.inputStream = new ReplayInputStream(prefix, remainder);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return complete ? prefix.length : super.getContentLength();
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return complete ? prefix.length : super.getContentLengthLong();
+        }
+    }
+
+    /**
+     * 先讀取已緩衝的內容，再接續原始串流的輸入串流
+     * <p>
+     * 非阻塞讀取時：內容已完整緩衝則立即通知 {@link ReadListener}（資料皆可讀取）；
+     * 否則將監聽器註冊到原始串流，由容器在剩餘內容可讀取時通知。
+     * </p>
+     */
+    private static final class ReplayInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream buffered;
+        private final ServletInputStream remainder;
+
+        ReplayInputStream(byte[] prefix, ServletInputStream remainder) {
+            this.buffered = new ByteArrayInputStream(prefix);
+            this.remainder = remainder;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return buffered.available() == 0 && (remainder == null || remainder.isFinished());
+        }
+
+        @Override
+        public boolean isReady() {
+            return buffered.available() > 0 || remainder == null || remainder.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            Objects.requireNonNull(readListener, "readListener");
+            if (remainder != null) {
+                remainder.setReadListener(readListener);
+                return;
+            }
+            try {
+                readListener.onDataAvailable();
+                readListener.onAllDataRead();
+            } catch (IOException | RuntimeException e) {
+                readListener.onError(e);
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = buffered.read();
+            return value != -1 || remainder == null ? value : remainder.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            int count = buffered.read(b, off, len);
+            if (count > 0 || remainder == null) {
+                return count;
+            }
+            return remainder.read(b, off, len);
+        }
+
+        @Override
+        public int available() throws IOException {
+            int available = buffered.available();
+            return available > 0 || remainder == null ? available : remainder.available();
+        }
+    }
+}
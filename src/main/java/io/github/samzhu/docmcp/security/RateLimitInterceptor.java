@@ -0,0 +1,80 @@
+package io.github.samzhu.docmcp.security;
+
+import io.github.samzhu.docmcp.config.FeatureFlags;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * 速率限制攔截器
+ * <p>
+ * 依 API Key 的每小時請求上限（{@code api_keys.rate_limit}）限制請求速率，
+ * 判定由 {@link ApiKeyRateLimiter} 在本機完成。匿名請求不受此限制（由併發限制保護）。
+ * </p>
+ * <p>
+ * 回應 Headers：
+ * <ul>
+ *   <li>{@code X-RateLimit-Limit}：每小時請求上限</li>
+ *   <li>{@code X-RateLimit-Remaining}：剩餘可用請求數</li>
+ *   <li>{@code X-RateLimit-Reset}：配額完全補滿所需秒數</li>
+ *   <li>{@code Retry-After}：被拒絕（429）時，下一個請求可用所需秒數</li>
+ * </ul>
+ * </p>
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitInterceptor.class);
+
+    private final FeatureFlags featureFlags;
+    private final ApiKeyRateLimiter rateLimiter;
+
+    public RateLimitInterceptor(FeatureFlags featureFlags, ApiKeyRateLimiter rateLimiter) {
+        this.featureFlags = featureFlags;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+                              Object handler) throws Exception {
+        if (!featureFlags.isRateLimit()) {
+            return true;
+        }
+
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null
+                || !(authentication.getPrincipal() instanceof ApiKeyAuthenticationFilter.ApiKeyPrincipal principal)
+                || principal.rateLimit() == null
+                || principal.rateLimit() <= 0) {
+            return true;
+        }
+
+        ApiKeyRateLimiter.Decision decision = rateLimiter.tryAcquire(principal.id(), principal.rateLimit());
+
+        response.setHeader("X-RateLimit-Limit", String.valueOf(decision.limit()));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(decision.remaining()));
+        response.setHeader("X-RateLimit-Reset", String.valueOf(decision.resetSeconds()));
+
+        if (!decision.allowed()) {
+            log.warn("Rate limit exceeded for API key: {}", principal.keyPrefix());
+
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setContentType("application/json");
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, decision.retryAfterSeconds())));
+
+            response.getWriter().write("""
+                    {"error": "Rate limit exceeded", "message": "Hourly request quota exhausted. Retry after the time given in the Retry-After header."}
+                    """);
+
+            return false;
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,208 @@
+package io.github.samzhu.docmcp.service;
+
+import io.github.samzhu.docmcp.domain.event.SyncCompletedEvent;
+import io.github.samzhu.docmcp.domain.model.DocumentTocEntry;
+import io.github.samzhu.docmcp.mcp.dto.GetDocTocResult.TocEntry;
+import io.github.samzhu.docmcp.repository.DocumentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 文件目錄服務
+ * <p>
+ * 以版本為單位快取預先建立的目錄（依路徑排序、已計算深度），
+ * 依深度限制的切片也從快取產生並保存，重複查詢不再讀取資料庫。
+ * </p>
+ * <p>
+ * 快取策略：
+ * <ul>
+ *   <li>同步完成（{@link SyncCompletedEvent}）後移除該版本的目錄</li>
+ *   <li>超過 maxAge 的目錄在下次查詢時重新建立，涵蓋其他實例完成同步的情況</li>
+ *   <li>超過 maxVersions 時淘汰最久未使用（LRU）的版本</li>
+ * </ul>
+ * </p>
+ */
+@Service
+public class DocTocService {
+
+    private final DocumentRepository documentRepository;
+    private final int maxVersions;
+    private final Duration maxAge;
+
+    // 存取順序的 LinkedHashMap 作為 LRU，所有存取皆以 this 同步
+    private final LinkedHashMap<String, VersionToc> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    // 各版本移除快取時遞增，丟棄該版本移除前開始的載入結果（其他版本的同步不影響）
+    private final ConcurrentHashMap<String, Long> generations = new ConcurrentHashMap<>();
+
+    // 快取命中統計（由 CacheMetrics 輸出）
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public DocTocService(DocumentRepository documentRepository,
+                         @Value("${docmcp.search.toc.cache-max-versions:200}") int maxVersions,
+                         @Value("${docmcp.search.toc.cache-max-age:10m}") Duration maxAge) {
+        this.documentRepository = documentRepository;
+        this.maxVersions = maxVersions;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * 取得版本目錄（優先使用快取）
+     *
+     * @param versionId 版本 ID（TSID 格式）
+     * @return 版本目錄
+     */
+    public VersionToc getToc(String versionId) {
+        VersionToc toc;
+        synchronized (this) {
+            toc = cache.get(versionId);
+        }
+        if (toc != null && toc.getLoadedAt().plus(maxAge).isAfter(Instant.now())) {
+            hits.increment();
+            return toc;
+        }
+        misses.increment();
+
+        long startGeneration = generations.getOrDefault(versionId, 0L);
+        toc = VersionToc.build(documentRepository.findTocEntriesByVersionIdOrderByPathAsc(versionId));
+        synchronized (this) {
+            // 載入期間版本已同步完成時不寫入快取，下次查詢再重新建立
+            if (generations.getOrDefault(versionId, 0L) == startGeneration) {
+                cache.put(versionId, toc);
+                if (cache.size() > maxVersions) {
+                    var eldest = cache.keySet().iterator();
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+        return toc;
+    }
+
+    /**
+     * 同步完成後移除該版本的目錄
+     *
+     * @param event 同步完成事件
+     */
+    @EventListener
+    public void onSyncCompleted(SyncCompletedEvent event) {
+        invalidate(event.versionId());
+    }
+
+    /**
+     * 移除指定版本的目錄
+     *
+     * @param versionId 版本 ID（TSID 格式）
+     */
+    public void invalidate(String versionId) {
+        generations.merge(versionId, 1L, Long::sum);
+        synchronized (this) {
+            cache.remove(versionId);
+        }
+    }
+
+    /**
+     * 版本目錄是否已快取
+     */
+    public synchronized boolean isCached(String versionId) {
+        return cache.containsKey(versionId);
+    }
+
+    /**
+     * 快取命中次數
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * 快取未命中次數（含已過期）
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * 計算路徑深度（路徑分隔符數量）
+     */
+    static int calculateDepth(String path) {
+        if (path == null || path.isBlank()) {
+            return 0;
+        }
+        int depth = 0;
+        for (int i = 0; i < path.length(); i++) {
+            if (path.charAt(i) == '/') {
+                depth++;
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * 預先建立的版本目錄
+     * <p>
+     * 建立後不再變動；依深度限制的切片在第一次使用時產生並保存。
+     * </p>
+     */
+    public static final class VersionToc {
+
+        private final List<TocEntry> entries;
+        private final int maxDepth;
+        private final Instant loadedAt;
+        private final Map<Integer, List<TocEntry>> slices = new ConcurrentHashMap<>();
+
+        private VersionToc(List<TocEntry> entries, int maxDepth, Instant loadedAt) {
+            this.entries = entries;
+            this.maxDepth = maxDepth;
+            this.loadedAt = loadedAt;
+        }
+
+        static VersionToc build(List<DocumentTocEntry> documents) {
+            List<TocEntry> entries = new ArrayList<>(documents.size());
+            int maxDepth = 0;
+            for (DocumentTocEntry doc : documents) {
+                int depth = calculateDepth(doc.path());
+                maxDepth = Math.max(maxDepth, depth);
+                entries.add(new TocEntry(doc.id(), doc.title(), doc.path(), depth, List.of()));
+            }
+            return new VersionToc(List.copyOf(entries), maxDepth, Instant.now());
+        }
+
+        /**
+         * 取得深度不超過指定值的目錄條目（依路徑排序）
+         *
+         * @param depthLimit 最大深度
+         * @return 目錄條目列表（不可修改）
+         */
+        public List<TocEntry> slice(int depthLimit) {
+            if (depthLimit >= maxDepth) {
+                return entries;
+            }
+            return slices.computeIfAbsent(depthLimit, limit -> entries.stream()
+                    .filter(entry -> entry.depth() <= limit)
+                    .toList());
+        }
+
+        /**
+         * 版本的文件總數
+         */
+        public int totalDocs() {
+            return entries.size();
+        }
+
+        public Instant getLoadedAt() {
+            return loadedAt;
+        }
+    }
+}
@@ -10,6 +10,12 @@ import java.util.List;
  * <p>
  * 將長文件分割成適合向量嵌入的小區塊。
  * 使用滑動視窗策略，保持區塊間的上下文重疊。
+ * 有章節結構的文件由 {@link SectionChunker} 依章節分塊，此類別作為沒有結構時的後備。
+ * </p>
+ * <p>
+ * 分割過程只操作原始內容的索引範圍：自然邊界只在視窗尾端的固定範圍內搜尋，
+ * token 數直接在原始內容上計算，每個區塊只在最後建立一次字串，
+ * 因此處理時間與內容長度成正比（不會因為缺少段落邊界而重複掃描整個前綴）。
  * </p>
  */
 @Service
@@ -18,13 +24,24 @@ public class DocumentChunker {
     private static final int DEFAULT_CHUNK_SIZE = 1000;
     private static final int DEFAULT_OVERLAP = 200;
 
+    /**
+     * 自然邊界的搜尋範圍（從視窗尾端往前的字元數）
+     */
+    private static final int BREAK_SEARCH_WINDOW = 200;
+
+    private final TokenCounter tokenCounter;
+
+    public DocumentChunker(TokenCounter tokenCounter) {
+        this.tokenCounter = tokenCounter;
+    }
+
     /**
      * 將文件分割成區塊（使用預設參數）
      *
      * @param content 文件內容
      * @return 區塊結果列表
      */
-    public List<ChunkResult> chunk(String content) {
+    public List<ChunkResult> chunk(CharSequence content) {
         return chunk(content, DEFAULT_CHUNK_SIZE, DEFAULT_OVERLAP);
     }
 
@@ -40,8 +57,8 @@ public class DocumentChunker {
      * @param overlap   重疊大小（字元數）
      * @return 區塊結果列表
      */
-    public List<ChunkResult> chunk(String content, int chunkSize, int overlap) {
-        if (content == null || content.isBlank()) {
+    public List<ChunkResult> chunk(CharSequence content, int chunkSize, int overlap) {
+        if (content == null || isBlank(content)) {
             return List.of();
         }
 
@@ -58,7 +75,7 @@ public class DocumentChunker {
 
         // 如果內容小於區塊大小，直接回傳單一區塊
         if (contentLength <= chunkSize) {
-            chunks.add(new ChunkResult(0, content, estimateTokenCount(content)));
+            chunks.add(new ChunkResult(0, content.toString(), tokenCounter.countTokens(content)));
             return chunks;
         }
 
@@ -73,8 +90,9 @@ public class DocumentChunker {
                 end = findNaturalBreakPoint(content, start, end);
             }
 
-            String chunkContent = content.substring(start, end);
-            chunks.add(new ChunkResult(chunkIndex, chunkContent, estimateTokenCount(chunkContent)));
+            chunks.add(new ChunkResult(chunkIndex,
+                    content.subSequence(start, end).toString(),
+                    tokenCounter.countTokens(content, start, end)));
 
             // 移動起始位置（考慮重疊）
             int step = end - start - overlap;
@@ -83,11 +101,6 @@ public class DocumentChunker {
             }
             start += step;
             chunkIndex++;
-
-            // 防止無限迴圈
-            if (start >= contentLength) {
-                break;
-            }
         }
 
         return chunks;
@@ -96,86 +109,84 @@ public class DocumentChunker {
     /**
      * 在自然邊界處尋找分割點
      * <p>
-     * 優先順序：段落邊界 > 句子邊界 > 單詞邊界 > 原位置
+     * 優先順序：段落邊界 > 句子邊界 > 單詞邊界 > 原位置。
+     * 只從視窗尾端往前掃描一次（最多 {@value #BREAK_SEARCH_WINDOW} 個字元），同時記錄各類邊界。
      * </p>
      */
-    private int findNaturalBreakPoint(String content, int start, int preferredEnd) {
-        int searchStart = Math.max(start, preferredEnd - 200);
+    private int findNaturalBreakPoint(CharSequence content, int start, int preferredEnd) {
+        int length = content.length();
+        int searchStart = Math.max(start, preferredEnd - BREAK_SEARCH_WINDOW);
 
-        // 優先尋找段落邊界（雙換行）
-        int paragraphBreak = content.lastIndexOf("\n\n", preferredEnd);
-        if (paragraphBreak >= searchStart) {
-            return paragraphBreak + 2;
+        int lineBreak = -1;
+        int sentenceEnd = -1;
+        int space = -1;
+
+        // 從 preferredEnd + 1 開始，讓緊接在視窗尾端的雙換行也算作段落邊界
+        for (int i = Math.min(preferredEnd + 1, length - 1); i >= searchStart; i--) {
+            char c = content.charAt(i);
+            if (c == '\n') {
+                // 段落邊界（雙換行）優先順序最高，且往前掃描時第一個找到的位置最靠後
+                if (i - 1 >= searchStart && content.charAt(i - 1) == '\n') {
+                    return i + 1;
+                }
+                if (lineBreak < 0 && i <= preferredEnd) {
+                    lineBreak = i;
+                }
+            } else if (i <= preferredEnd) {
+                if (sentenceEnd < 0 && isSentenceEnd(c)
+                        && i + 1 < length && Character.isWhitespace(content.charAt(i + 1))) {
+                    sentenceEnd = i;
+                } else if (space < 0 && c == ' ') {
+                    space = i;
+                }
+            }
         }
 
         // 尋找單換行
-        int lineBreak = content.lastIndexOf("\n", preferredEnd);
-        if (lineBreak >= searchStart) {
+        if (lineBreak >= 0) {
             return lineBreak + 1;
         }
-
-        // 尋找句子邊界（句號、問號、驚嘆號後跟空格）
-        for (int i = preferredEnd; i >= searchStart; i--) {
-            char c = content.charAt(i);
-            if ((c == '.' || c == '!' || c == '?' || c == '。' || c == '！' || c == '？') &&
-                    i + 1 < content.length() && Character.isWhitespace(content.charAt(i + 1))) {
-                return i + 2;
-            }
+        // 尋找句子邊界（句號、問號、驚嘆號後跟空白）
+        if (sentenceEnd >= 0) {
+            return sentenceEnd + 2;
         }
-
         // 尋找單詞邊界（空格）
-        int spaceBreak = content.lastIndexOf(" ", preferredEnd);
-        if (spaceBreak >= searchStart) {
-            return spaceBreak + 1;
+        if (space >= 0) {
+            return space + 1;
         }
-
         // 找不到好的分割點，使用原位置
         return preferredEnd;
     }
 
-    /**
-     * 估算 token 數量
-     * <p>
-     * 使用簡單的規則估算：
-     * - 英文大約 4 個字元 = 1 token
-     * - 中文大約 1.5 個字元 = 1 token
-     * </p>
-     */
-    private int estimateTokenCount(String text) {
-        if (text == null || text.isEmpty()) {
-            return 0;
-        }
-
-        int englishChars = 0;
-        int chineseChars = 0;
-        int otherChars = 0;
+    private static boolean isSentenceEnd(char c) {
+        return c == '.' || c == '!' || c == '?' || c == '。' || c == '！' || c == '？';
+    }
 
-        for (char c : text.toCharArray()) {
-            if (Character.isLetter(c)) {
-                if (c >= '\u4e00' && c <= '\u9fff') {
-                    chineseChars++;
-                } else {
-                    englishChars++;
-                }
-            } else {
-                otherChars++;
+    private static boolean isBlank(CharSequence content) {
+        for (int i = 0; i < content.length(); i++) {
+            if (!Character.isWhitespace(content.charAt(i))) {
+                return false;
             }
         }
-
-        // 估算 token 數量
-        return (int) (englishChars / 4.0 + chineseChars / 1.5 + otherChars / 4.0);
+        return true;
     }
 
     /**
      * 區塊結果
      *
-     * @param index      區塊索引（從 0 開始）
-     * @param content    區塊內容
-     * @param tokenCount 估算的 token 數量
+     * @param index       區塊索引（從 0 開始）
+     * @param content     區塊內容
+     * @param tokenCount  token 數量（由 {@link TokenCounter} 計算）
+     * @param headingPath 區塊所屬章節的標題路徑（滑動視窗分塊時為空列表）
      */
     public record ChunkResult(
             int index,
             String content,
-            int tokenCount
-    ) {}
+            int tokenCount,
+            List<String> headingPath
+    ) {
+        public ChunkResult(int index, String content, int tokenCount) {
+            this(index, content, tokenCount, List.of());
+        }
+    }
 }
@@ -3,7 +3,7 @@ package io.github.samzhu.docmcp.service;
 import io.github.samzhu.docmcp.domain.exception.DocumentNotFoundException;
 import io.github.samzhu.docmcp.domain.model.CodeExample;
 import io.github.samzhu.docmcp.domain.model.Document;
-import io.github.samzhu.docmcp.domain.model.DocumentChunk;
+import io.github.samzhu.docmcp.domain.model.DocumentChunkContent;
 import io.github.samzhu.docmcp.repository.CodeExampleRepository;
 import io.github.samzhu.docmcp.repository.DocumentChunkRepository;
 import io.github.samzhu.docmcp.repository.DocumentRepository;
@@ -41,6 +41,9 @@ public class DocumentService {
 
     /**
      * 取得文件完整內容
+     * <p>
+     * 區塊以 {@link DocumentChunkContent} 投影載入，不傳輸向量嵌入。
+     * </p>
      *
      * @param documentId 文件 ID（TSID 格式）
      * @return 文件內容，包含文件資訊和區塊
@@ -50,7 +53,7 @@ public class DocumentService {
         Document document = documentRepository.findById(documentId)
                 .orElseThrow(() -> DocumentNotFoundException.byId(documentId));
 
-        List<DocumentChunk> chunks = chunkRepository.findByDocumentIdOrderByChunkIndex(documentId);
+        List<DocumentChunkContent> chunks = chunkRepository.findContentByDocumentId(documentId);
         List<CodeExample> codeExamples = codeExampleRepository.findByDocumentId(documentId);
 
         return new DocumentContent(document, chunks, codeExamples);
@@ -114,12 +117,12 @@ public class DocumentService {
      * 文件內容結果
      *
      * @param document     文件
-     * @param chunks       文件區塊列表
+     * @param chunks       文件區塊內容列表（不含向量）
      * @param codeExamples 程式碼範例列表
      */
     public record DocumentContent(
             Document document,
-            List<DocumentChunk> chunks,
+            List<DocumentChunkContent> chunks,
             List<CodeExample> codeExamples
     ) {}
 }
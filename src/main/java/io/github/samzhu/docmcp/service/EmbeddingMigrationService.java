@@ -0,0 +1,701 @@
+package io.github.samzhu.docmcp.service;
+
+import io.github.samzhu.docmcp.config.EmbeddingProperties;
+import io.github.samzhu.docmcp.domain.enums.EmbeddingMigrationStatus;
+import io.github.samzhu.docmcp.domain.model.EmbeddingMigration;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.DocumentChunkVectorStore;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.EmbeddingProfile;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.VectorIndexManager;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.VectorIndexManager.IndexState;
+import io.github.samzhu.docmcp.repository.EmbeddingMigrationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Embedding 模型遷移服務
+ * <p>
+ * 在不停機、不重新同步的情況下更換 embedding 模型或輸出維度：
+ * <ol>
+ *   <li>BACKFILLING：新增影子欄位 embedding_next（目標維度），背景排程以節流批次重新嵌入所有區塊。
+ *       期間查詢仍使用舊的 embedding 欄位與舊索引</li>
+ *   <li>INDEXING：影子欄位填滿後在背景執行緒以 CREATE INDEX CONCURRENTLY 建立與 embedding 欄位相同種類的索引
+ *       （{@link VectorIndexManager}：完整精度 HNSW 與設定的量化索引；超過 2000 維時只建立量化索引）。
+ *       建立期間實例重新啟動時，排程依索引狀態轉為 READY、重新建立或逾時後標記 FAILED</li>
+ *   <li>READY：補齊索引建立期間新寫入的區塊後，在單一交易中以 RENAME 切換欄位與索引，
+ *       並將影子向量的模型標記 shadowEmbeddingModel 轉為 embeddingModel</li>
+ *   <li>COMPLETED：各實例輪詢到完成的遷移後切換 VectorStore 的查詢模型；
+ *       切換後一段時間內仍修正由舊模型寫入的區塊</li>
+ * </ol>
+ * </p>
+ * <p>
+ * 批次以 FOR UPDATE SKIP LOCKED 在短交易中領取並寫入領取期限（embedding_claimed_until）後立即提交，
+ * 呼叫 embedding API 期間不持有列鎖與連線；寫回時以條件式 UPDATE 比對內容雜湊，
+ * 期間被同步改寫的區塊不會被舊內容的向量覆蓋。狀態轉換使用條件式 UPDATE，多實例部署時可安全並行。
+ * 影子欄位的模型記錄在 metadata 的 shadowEmbeddingModel，切換前 embeddingModel 始終描述 embedding 欄位的向量。
+ * 舊向量保留在 embedding_previous 欄位，超過 previous-retention-hours 或呼叫 {@link #finalizeMigration} 後刪除。
+ * </p>
+ */
+@Service
+public class EmbeddingMigrationService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddingMigrationService.class);
+
+    private static final String ACTIVE_COLUMN = "embedding";
+    private static final String SHADOW_COLUMN = "embedding_next";
+    private static final String ACTIVE_INDEX = VectorIndexManager.ACTIVE_INDEX;
+    private static final String PREVIOUS_INDEX = "idx_document_chunks_embedding_hnsw_previous";
+
+    private static final String SQL_COUNT_EMBEDDED =
+            "SELECT COUNT(*) FROM document_chunks WHERE embedding IS NOT NULL";
+
+    private static final String SQL_COUNT_PENDING =
+            "SELECT COUNT(*) FROM document_chunks WHERE embedding_next IS NULL AND embedding IS NOT NULL";
+
+    // 領取批次（單一語句即為短交易）：鎖定未被領取或領取已逾期的區塊並寫入領取期限，回傳內容與雜湊
+    // 格式參數為待處理條件；參數依序為領取期限（秒）、條件參數、批次大小
+    private static final String SQL_CLAIM_BATCH = """
+            UPDATE document_chunks dc
+            SET embedding_claimed_until = CURRENT_TIMESTAMP + make_interval(secs => ?)
+            FROM (
+                SELECT id FROM document_chunks
+                WHERE %s
+                AND (embedding_claimed_until IS NULL OR embedding_claimed_until < CURRENT_TIMESTAMP)
+                ORDER BY id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            ) claimed
+            WHERE dc.id = claimed.id
+            RETURNING dc.id, dc.content, md5(dc.content) AS content_hash
+            """;
+
+    private static final String SQL_CLAIM_BACKFILL_BATCH = String.format(SQL_CLAIM_BATCH,
+            "embedding_next IS NULL AND embedding IS NOT NULL");
+
+    // 內容在領取後被同步改寫時不更新（雜湊不符），區塊維持待處理並於領取期限後重新領取
+    private static final String SQL_UPDATE_SHADOW = """
+            UPDATE document_chunks
+            SET embedding_next = ?::vector,
+                metadata = jsonb_set(COALESCE(metadata, '{}'::jsonb), '{shadowEmbeddingModel}', to_jsonb(?::text)),
+                embedding_claimed_until = NULL
+            WHERE id = ? AND md5(content) = ?
+            """;
+
+    private static final String SQL_CLAIM_RECONCILE_BATCH = String.format(SQL_CLAIM_BATCH,
+            "embedding IS NOT NULL AND metadata->>'embeddingModel' IS DISTINCT FROM ?");
+
+    private static final String SQL_UPDATE_ACTIVE = """
+            UPDATE document_chunks
+            SET embedding = ?::vector,
+                metadata = jsonb_set(COALESCE(metadata, '{}'::jsonb), '{embeddingModel}', to_jsonb(?::text)),
+                embedding_claimed_until = NULL
+            WHERE id = ? AND md5(content) = ?
+            """;
+
+    // 切換時 embedding 欄位改為影子向量，模型標記隨之轉換
+    private static final String SQL_PROMOTE_SHADOW_MODEL_KEY = """
+            UPDATE document_chunks
+            SET metadata = jsonb_set(metadata - 'shadowEmbeddingModel', '{embeddingModel}',
+                    metadata->'shadowEmbeddingModel')
+            WHERE metadata->>'shadowEmbeddingModel' IS NOT NULL
+            """;
+
+    private static final String SQL_CLEAR_SHADOW_MODEL_KEY = """
+            UPDATE document_chunks
+            SET metadata = metadata - 'shadowEmbeddingModel'
+            WHERE metadata->>'shadowEmbeddingModel' IS NOT NULL
+            """;
+
+    private static final String SQL_PREVIOUS_COLUMN_EXISTS = """
+            SELECT COUNT(*) FROM information_schema.columns
+            WHERE table_name = 'document_chunks' AND column_name = 'embedding_previous'
+            """;
+
+    private static final String SQL_TRANSITION = """
+            UPDATE embedding_migrations
+            SET status = ?, error_message = ?, version = version + 1, updated_at = CURRENT_TIMESTAMP
+            WHERE id = ? AND status = ?
+            """;
+
+    // 重新領取中斷的索引建立：只有超過領取期限未被其他實例更新時才成功，同時重新計算建立期限
+    private static final String SQL_CLAIM_INDEX_BUILD = """
+            UPDATE embedding_migrations
+            SET version = version + 1, updated_at = CURRENT_TIMESTAMP
+            WHERE id = ? AND status = 'INDEXING'
+            AND updated_at < CURRENT_TIMESTAMP - make_interval(secs => ?)
+            """;
+
+    private static final String SQL_ADD_PROGRESS = """
+            UPDATE embedding_migrations
+            SET migrated_chunks = migrated_chunks + ?, version = version + 1, updated_at = CURRENT_TIMESTAMP
+            WHERE id = ?
+            """;
+
+    // 切換後舊欄位上的量化 / 截斷表達式索引（保留完整精度的 previous 索引供回復）
+    private static final String SQL_FIND_PREVIOUS_EXPRESSION_INDEXES = """
+            SELECT indexname FROM pg_indexes
+            WHERE tablename = 'document_chunks'
+            AND indexdef LIKE '%embedding_previous%'
+            AND indexname <> ?
+            """;
+
+    private static final String SQL_COMPLETE = """
+            UPDATE embedding_migrations
+            SET status = 'COMPLETED', completed_at = CURRENT_TIMESTAMP,
+                version = version + 1, updated_at = CURRENT_TIMESTAMP
+            WHERE id = ? AND status = 'READY'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EmbeddingMigrationRepository migrationRepository;
+    private final DocumentChunkVectorStore vectorStore;
+    private final VectorIndexManager vectorIndexManager;
+    private final EmbeddingProperties properties;
+    private final IdService idService;
+    private final RelatedDocsService relatedDocsService;
+    // 影子欄位索引的建立可能長達數十分鐘，不佔用排程執行緒
+    private final ExecutorService indexBuildExecutor;
+    private final AtomicBoolean indexBuildRunning = new AtomicBoolean();
+
+    public EmbeddingMigrationService(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     EmbeddingMigrationRepository migrationRepository,
+                                     DocumentChunkVectorStore vectorStore,
+                                     VectorIndexManager vectorIndexManager,
+                                     EmbeddingProperties properties,
+                                     IdService idService,
+                                     RelatedDocsService relatedDocsService,
+                                     ExecutorService virtualThreadExecutor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.migrationRepository = migrationRepository;
+        this.vectorStore = vectorStore;
+        this.vectorIndexManager = vectorIndexManager;
+        this.properties = properties;
+        this.idService = idService;
+        this.relatedDocsService = relatedDocsService;
+        this.indexBuildExecutor = virtualThreadExecutor;
+    }
+
+    /**
+     * 開始新的模型遷移
+     * <p>
+     * 建立目標維度的影子欄位並記錄遷移，實際的重新嵌入由排程在背景進行。
+     * 同一時間只允許一個進行中的遷移。
+     * </p>
+     *
+     * @param targetModel      目標模型名稱
+     * @param targetDimensions 目標輸出維度
+     * @return 新建立的遷移記錄
+     * @throws IllegalArgumentException 目標設定無效、維度無法建立索引或與目前模型相同
+     * @throws MigrationException       已有進行中的遷移
+     */
+    public EmbeddingMigration startMigration(String targetModel, int targetDimensions) {
+        if (targetDimensions <= 0) {
+            throw new IllegalArgumentException("目標維度必須大於 0");
+        }
+        if (!vectorIndexManager.supportsDimensions(targetDimensions)) {
+            throw new IllegalArgumentException("目標維度 " + targetDimensions + " 超過 vector HNSW 索引的 "
+                    + VectorIndexManager.MAX_VECTOR_INDEX_DIMENSIONS
+                    + " 維上限，需啟用 docmcp.search.vector 的 halfvec / binary 量化或截斷維度");
+        }
+        EmbeddingProfile target = new EmbeddingProfile(targetModel, targetDimensions);
+        EmbeddingProfile source = currentProfile();
+        if (target.equals(source)) {
+            throw new IllegalArgumentException("目標模型與目前使用的模型相同: " + target.key());
+        }
+        if (migrationRepository.findInProgress().isPresent()) {
+            throw new MigrationException("已有進行中的 embedding 遷移，請先完成或取消");
+        }
+
+        prepareShadowColumn(targetDimensions);
+        Integer total = jdbcTemplate.queryForObject(SQL_COUNT_EMBEDDED, Integer.class);
+
+        EmbeddingMigration migration = migrationRepository.save(EmbeddingMigration.create(
+                idService.generateId(), source.model(), source.dimensions(),
+                target.model(), target.dimensions(), total != null ? total : 0));
+
+        log.info("開始 embedding 遷移 {}: {} -> {}，共 {} 個區塊",
+                migration.getId(), source.key(), target.key(), migration.getTotalChunks());
+        return migration;
+    }
+
+    /**
+     * 取消進行中的遷移
+     * <p>
+     * 刪除影子欄位與影子向量的模型標記，查詢持續使用原模型。
+     * </p>
+     *
+     * @param migrationId 遷移 ID
+     * @throws MigrationException 遷移不存在或已結束
+     */
+    public void cancelMigration(String migrationId) {
+        EmbeddingMigration migration = migrationRepository.findById(migrationId)
+                .orElseThrow(() -> new MigrationException("找不到 embedding 遷移: " + migrationId));
+        if (!migration.getStatus().isInProgress()
+                || !transition(migrationId, migration.getStatus(), EmbeddingMigrationStatus.CANCELLED, null)) {
+            throw new MigrationException("遷移已結束，無法取消: " + migrationId);
+        }
+
+        jdbcTemplate.update(SQL_CLEAR_SHADOW_MODEL_KEY);
+        dropShadowColumn();
+        log.info("已取消 embedding 遷移 {}", migrationId);
+    }
+
+    /**
+     * 結束遷移的回復期，刪除切換前保留的舊向量欄位與索引
+     * <p>
+     * 只能針對最近一次完成的遷移執行；未呼叫時會在 previous-retention-hours 後由排程自動刪除。
+     * </p>
+     *
+     * @param migrationId 遷移 ID
+     * @throws MigrationException 遷移不存在、尚未完成或已有較新的遷移
+     */
+    public void finalizeMigration(String migrationId) {
+        EmbeddingMigration latest = migrationRepository.findLatestCompleted()
+                .filter(migration -> migration.getId().equals(migrationId))
+                .orElseThrow(() -> new MigrationException("只能結束最近一次完成的遷移: " + migrationId));
+        if (migrationRepository.findInProgress().isPresent()) {
+            throw new MigrationException("已有進行中的 embedding 遷移，舊欄位將於其開始時刪除");
+        }
+        dropPreviousColumn();
+        log.info("已刪除 embedding 遷移 {} 保留的舊向量欄位", latest.getId());
+    }
+
+    /**
+     * 取得進行中的遷移
+     */
+    public Optional<EmbeddingMigration> getInProgress() {
+        return migrationRepository.findInProgress();
+    }
+
+    /**
+     * 取得遷移記錄
+     *
+     * @param limit 結果數量上限
+     */
+    public List<EmbeddingMigration> listMigrations(int limit) {
+        return migrationRepository.findAllOrderByStartedAtDesc(limit);
+    }
+
+    /**
+     * 啟動完成後套用最近一次完成的遷移，並在背景確認目前維度的向量索引（CONCURRENTLY，不阻擋寫入）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refreshActiveProfile();
+        int dimensions = currentProfile().dimensions();
+        Thread.ofVirtual().name("vector-index-init")
+                .start(() -> vectorIndexManager.ensureIndexes(dimensions));
+    }
+
+    /**
+     * 遷移排程
+     * <p>
+     * 每次執行最多處理 max-batches-per-run 個批次，以此節流 embedding API 呼叫。
+     * 無論是否啟用背景作業，都會同步其他實例完成的切換。
+     * </p>
+     */
+    @Scheduled(fixedDelayString = "${docmcp.embedding.migration.interval-ms:5000}",
+            initialDelayString = "${docmcp.embedding.migration.interval-ms:5000}")
+    public void runMigrationStep() {
+        try {
+            refreshActiveProfile();
+            if (!properties.getMigration().isEnabled()) {
+                return;
+            }
+
+            Optional<EmbeddingMigration> inProgress = migrationRepository.findInProgress();
+            if (inProgress.isPresent()) {
+                advance(inProgress.get());
+            } else {
+                reconcile();
+                dropExpiredPrevious();
+            }
+        } catch (Exception e) {
+            // 暫時性錯誤（如 embedding API 配額）留待下次排程重試
+            log.error("Embedding 遷移排程執行失敗", e);
+        }
+    }
+
+    /**
+     * 依狀態推進遷移
+     */
+    void advance(EmbeddingMigration migration) {
+        EmbeddingProfile target = new EmbeddingProfile(migration.getTargetModel(), migration.getTargetDimensions());
+
+        switch (migration.getStatus()) {
+            case BACKFILLING -> {
+                if (backfill(migration.getId(), target)
+                        && transition(migration.getId(), EmbeddingMigrationStatus.BACKFILLING,
+                        EmbeddingMigrationStatus.INDEXING, null)) {
+                    submitShadowIndexBuild(migration.getId(), target.dimensions());
+                }
+            }
+            case INDEXING -> resumeIndexing(migration, target.dimensions());
+            case READY -> {
+                // 索引建立期間可能有新同步的區塊，先補齊再切換
+                if (backfill(migration.getId(), target) && cutover(migration.getId(), target.dimensions())) {
+                    vectorStore.switchActiveProfile(target);
+                    log.info("Embedding 遷移 {} 完成切換，目前模型: {}", migration.getId(), target.key());
+                    // 影子欄位的索引已隨切換改名，此處只補建缺少的索引
+                    indexBuildExecutor.execute(() -> vectorIndexManager.ensureIndexes(target.dimensions()));
+                    // 切換時已清空舊向量空間的質心，以新模型的向量重新計算（計算完成前查詢即時計算）
+                    indexBuildExecutor.execute(relatedDocsService::refreshAll);
+                }
+            }
+            default -> log.debug("Embedding 遷移 {} 狀態為 {}，等待中", migration.getId(), migration.getStatus());
+        }
+    }
+
+    /**
+     * 確認影子欄位索引的建立進度
+     * <p>
+     * 索引在背景執行緒建立，建立中的實例重新啟動或部署時 CONCURRENTLY 建立會中斷並留下 INVALID 索引，
+     * 遷移會停在 INDEXING 並阻擋之後所有遷移；因此每次排程依影子欄位索引的狀態處理：
+     * <ul>
+     *   <li>全部有效：轉為 READY</li>
+     *   <li>建立中（此實例或其他實例）：等待，超過 index-timeout-minutes 時取消建立並標記為 FAILED</li>
+     *   <li>不存在或 INVALID：超過領取期限未被其他實例更新時重新領取並建立（先刪除 INVALID 索引）</li>
+     * </ul>
+     * </p>
+     */
+    void resumeIndexing(EmbeddingMigration migration, int dimensions) {
+        if (indexBuildRunning.get()) {
+            return;
+        }
+        String migrationId = migration.getId();
+        switch (vectorIndexManager.indexState(SHADOW_COLUMN, dimensions)) {
+            case VALID -> {
+                if (transition(migrationId, EmbeddingMigrationStatus.INDEXING, EmbeddingMigrationStatus.READY, null)) {
+                    log.info("Embedding 遷移 {} 索引已建立完成，等待切換", migrationId);
+                }
+            }
+            case BUILDING -> {
+                int timeoutMinutes = properties.getMigration().getIndexTimeoutMinutes();
+                if (migration.getUpdatedAt() != null
+                        && OffsetDateTime.now().isAfter(migration.getUpdatedAt().plusMinutes(timeoutMinutes))) {
+                    vectorIndexManager.cancelBuilds(SHADOW_COLUMN, dimensions);
+                    transition(migrationId, EmbeddingMigrationStatus.INDEXING, EmbeddingMigrationStatus.FAILED,
+                            "建立索引逾時（超過 " + timeoutMinutes + " 分鐘）");
+                    log.error("Embedding 遷移 {} 建立索引超過 {} 分鐘，已取消", migrationId, timeoutMinutes);
+                }
+            }
+            case MISSING, INVALID -> {
+                if (jdbcTemplate.update(SQL_CLAIM_INDEX_BUILD, migrationId,
+                        properties.getMigration().getClaimTimeoutSeconds()) == 1) {
+                    log.warn("Embedding 遷移 {} 的索引建立已中斷，重新建立", migrationId);
+                    submitShadowIndexBuild(migrationId, dimensions);
+                }
+            }
+        }
+    }
+
+    /**
+     * 重新嵌入影子欄位
+     *
+     * @return 是否已無待處理的區塊
+     */
+    boolean backfill(String migrationId, EmbeddingProfile target) {
+        for (int i = 0; i < properties.getMigration().getMaxBatchesPerRun(); i++) {
+            BatchResult result = reembedBatch(SQL_CLAIM_BACKFILL_BATCH, SQL_UPDATE_SHADOW, target,
+                    properties.getMigration().getBatchSize());
+            if (result.claimed() == 0) {
+                // 其他實例領取中（或寫回時內容已改變）的區塊仍待處理，等領取逾期後再由任一實例重新領取
+                Integer pending = jdbcTemplate.queryForObject(SQL_COUNT_PENDING, Integer.class);
+                return pending == null || pending == 0;
+            }
+            if (result.written() > 0) {
+                jdbcTemplate.update(SQL_ADD_PROGRESS, result.written(), migrationId);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 修正切換後仍由舊模型寫入的區塊
+     * <p>
+     * 只在最近一次切換後的 reconcile-window-minutes 內執行。
+     * </p>
+     */
+    void reconcile() {
+        Optional<EmbeddingMigration> latest = migrationRepository.findLatestCompleted();
+        if (latest.isEmpty() || latest.get().getCompletedAt() == null) {
+            return;
+        }
+        OffsetDateTime windowEnd = latest.get().getCompletedAt()
+                .plusMinutes(properties.getMigration().getReconcileWindowMinutes());
+        if (OffsetDateTime.now().isAfter(windowEnd)) {
+            return;
+        }
+
+        EmbeddingProfile target = new EmbeddingProfile(
+                latest.get().getTargetModel(), latest.get().getTargetDimensions());
+        for (int i = 0; i < properties.getMigration().getMaxBatchesPerRun(); i++) {
+            BatchResult result = reembedBatch(SQL_CLAIM_RECONCILE_BATCH, SQL_UPDATE_ACTIVE, target,
+                    properties.getMigration().getBatchSize(), target.key());
+            if (result.claimed() == 0) {
+                return;
+            }
+            log.info("已修正 {} 個由舊模型寫入的區塊", result.written());
+        }
+    }
+
+    /**
+     * 刪除超過保留時間的舊向量欄位
+     */
+    void dropExpiredPrevious() {
+        int retentionHours = properties.getMigration().getPreviousRetentionHours();
+        if (retentionHours <= 0) {
+            return;
+        }
+        Optional<EmbeddingMigration> latest = migrationRepository.findLatestCompleted();
+        if (latest.isEmpty() || latest.get().getCompletedAt() == null
+                || OffsetDateTime.now().isBefore(latest.get().getCompletedAt().plusHours(retentionHours))) {
+            return;
+        }
+        Integer exists = jdbcTemplate.queryForObject(SQL_PREVIOUS_COLUMN_EXISTS, Integer.class);
+        if (exists != null && exists > 0) {
+            dropPreviousColumn();
+            log.info("Embedding 遷移 {} 的舊向量欄位已超過保留時間 {} 小時，已刪除",
+                    latest.get().getId(), retentionHours);
+        }
+    }
+
+    // ========== 私有輔助方法 ==========
+
+    /**
+     * 領取一批區塊並以目標模型重新嵌入
+     * <p>
+     * 不在交易內執行：領取語句提交後才呼叫 embedding API，寫回時以內容雜湊確認區塊未被改寫。
+     * </p>
+     *
+     * @return 領取與實際寫回的區塊數
+     */
+    private BatchResult reembedBatch(String claimSql, String updateSql, EmbeddingProfile target,
+                                     int batchSize, Object... conditionArgs) {
+        Object[] claimArgs = new Object[conditionArgs.length + 2];
+        claimArgs[0] = properties.getMigration().getClaimTimeoutSeconds();
+        System.arraycopy(conditionArgs, 0, claimArgs, 1, conditionArgs.length);
+        claimArgs[conditionArgs.length + 1] = batchSize;
+
+        List<PendingChunk> chunks = jdbcTemplate.query(claimSql,
+                (rs, rowNum) -> new PendingChunk(rs.getString("id"), rs.getString("content"),
+                        rs.getString("content_hash")),
+                claimArgs);
+        if (chunks.isEmpty()) {
+            return new BatchResult(0, 0);
+        }
+
+        List<float[]> embeddings = vectorStore.embedWith(target,
+                chunks.stream().map(PendingChunk::content).toList());
+
+        List<Object[]> batchArgs = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            PendingChunk chunk = chunks.get(i);
+            // float[] 由 driver 以二進位 float4[] 傳送，再於資料庫端轉型為 vector
+            batchArgs.add(new Object[]{embeddings.get(i), target.key(), chunk.id(), chunk.contentHash()});
+        }
+        int[] counts = jdbcTemplate.batchUpdate(updateSql, batchArgs);
+        int written = 0;
+        if (counts != null) {
+            for (int count : counts) {
+                // 部分 driver 批次執行時回傳 SUCCESS_NO_INFO（-2）
+                written += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+            }
+        }
+        if (written < chunks.size()) {
+            log.debug("{} 個區塊在重新嵌入期間被改寫，留待重新領取", chunks.size() - written);
+        }
+        return new BatchResult(chunks.size(), written);
+    }
+
+    /**
+     * 建立目標維度的影子欄位（同時清除上一次遷移保留的舊欄位）
+     */
+    private void prepareShadowColumn(int dimensions) {
+        dropPreviousColumn();
+        jdbcTemplate.execute("ALTER TABLE document_chunks DROP COLUMN IF EXISTS embedding_next");
+        // 失敗的遷移可能殘留影子模型標記
+        jdbcTemplate.update(SQL_CLEAR_SHADOW_MODEL_KEY);
+        jdbcTemplate.execute("ALTER TABLE document_chunks ADD COLUMN embedding_next vector(" + dimensions + ")");
+    }
+
+    /**
+     * 刪除切換前保留的舊向量欄位（索引以 CONCURRENTLY 先行刪除，避免長時間阻擋查詢）
+     */
+    private void dropPreviousColumn() {
+        jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + PREVIOUS_INDEX);
+        jdbcTemplate.execute("ALTER TABLE document_chunks DROP COLUMN IF EXISTS embedding_previous");
+    }
+
+    private void dropShadowColumn() {
+        jdbcTemplate.execute("ALTER TABLE document_chunks DROP COLUMN IF EXISTS embedding_next");
+    }
+
+    /**
+     * 在背景執行緒建立影子欄位的索引
+     * <p>
+     * 索引種類與 embedding 欄位相同（{@link VectorIndexManager#buildIndexes}），
+     * 使用 CONCURRENTLY 避免阻擋寫入（不可在交易內執行），並先刪除可能因中斷而殘留的無效索引。
+     * 同一實例同時只執行一個建立。
+     * </p>
+     */
+    private void submitShadowIndexBuild(String migrationId, int dimensions) {
+        if (!indexBuildRunning.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            indexBuildExecutor.execute(() -> {
+                try {
+                    buildShadowIndex(migrationId, dimensions);
+                } finally {
+                    indexBuildRunning.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            indexBuildRunning.set(false);
+            throw e;
+        }
+    }
+
+    private void buildShadowIndex(String migrationId, int dimensions) {
+        try {
+            log.info("Embedding 遷移 {} 開始建立影子欄位索引", migrationId);
+            vectorIndexManager.buildIndexes(SHADOW_COLUMN, dimensions);
+            // 其他實例建立中的同名索引會被 IF NOT EXISTS 略過，完成後由排程轉為 READY
+            if (vectorIndexManager.indexState(SHADOW_COLUMN, dimensions) != IndexState.VALID) {
+                log.info("Embedding 遷移 {} 的索引由其他實例建立中", migrationId);
+                return;
+            }
+            transition(migrationId, EmbeddingMigrationStatus.INDEXING, EmbeddingMigrationStatus.READY, null);
+            log.info("Embedding 遷移 {} 索引建立完成，等待切換", migrationId);
+        } catch (Exception e) {
+            log.error("Embedding 遷移 {} 建立索引失敗", migrationId, e);
+            transition(migrationId, EmbeddingMigrationStatus.INDEXING, EmbeddingMigrationStatus.FAILED,
+                    "建立索引失敗: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 原子切換欄位與索引
+     * <p>
+     * 以 ACCESS EXCLUSIVE 鎖定 document_chunks 後確認沒有遺漏的區塊，
+     * 再以 RENAME 交換欄位與索引（僅修改 catalog，不重寫資料），刪除舊欄位上的表達式索引後將影子欄位的索引改為正式名稱。
+     * 同一交易內將 shadowEmbeddingModel 轉為 embeddingModel，模型標記與欄位同時切換。
+     * 同一交易內清空以舊模型計算的文件質心與相關文件。
+     * 設定 lock_timeout 避免長時間阻擋查詢，取得不到鎖時留待下次排程。
+     * </p>
+     *
+     * @return 是否完成切換
+     */
+    private boolean cutover(String migrationId, int dimensions) {
+        Boolean switched = transactionTemplate.execute(status -> {
+            List<String> claimed = jdbcTemplate.queryForList(
+                    "SELECT id FROM embedding_migrations WHERE id = ? AND status = 'READY' FOR UPDATE",
+                    String.class, migrationId);
+            if (claimed.isEmpty()) {
+                return false;
+            }
+
+            jdbcTemplate.execute("SET LOCAL lock_timeout = '5s'");
+            jdbcTemplate.execute("LOCK TABLE document_chunks IN ACCESS EXCLUSIVE MODE");
+
+            Integer pending = jdbcTemplate.queryForObject(SQL_COUNT_PENDING, Integer.class);
+            if (pending != null && pending > 0) {
+                log.debug("Embedding 遷移 {} 仍有 {} 個區塊待處理，延後切換", migrationId, pending);
+                return false;
+            }
+
+            jdbcTemplate.execute("ALTER TABLE document_chunks RENAME COLUMN embedding TO embedding_previous");
+            jdbcTemplate.execute("ALTER TABLE document_chunks RENAME COLUMN embedding_next TO embedding");
+            jdbcTemplate.execute("ALTER INDEX IF EXISTS " + ACTIVE_INDEX + " RENAME TO " + PREVIOUS_INDEX);
+            // 舊欄位的表達式索引名稱可能與新欄位相同（依維度命名），需先刪除才能將影子索引改名
+            for (String index : jdbcTemplate.queryForList(
+                    SQL_FIND_PREVIOUS_EXPRESSION_INDEXES, String.class, PREVIOUS_INDEX)) {
+                jdbcTemplate.execute("DROP INDEX IF EXISTS " + index);
+            }
+            List<String> shadowIndexes = vectorIndexManager.indexNames(SHADOW_COLUMN, dimensions);
+            List<String> activeIndexes = vectorIndexManager.indexNames(ACTIVE_COLUMN, dimensions);
+            for (int i = 0; i < shadowIndexes.size(); i++) {
+                jdbcTemplate.execute("ALTER INDEX " + shadowIndexes.get(i) + " RENAME TO " + activeIndexes.get(i));
+            }
+            jdbcTemplate.update(SQL_PROMOTE_SHADOW_MODEL_KEY);
+            // 文件質心與預先計算的相關文件屬於舊的向量空間，清空後於切換完成時重新計算
+            jdbcTemplate.update("DELETE FROM document_centroids");
+            jdbcTemplate.update("DELETE FROM related_documents");
+            return jdbcTemplate.update(SQL_COMPLETE, migrationId) == 1;
+        });
+        return Boolean.TRUE.equals(switched);
+    }
+
+    /**
+     * 條件式狀態轉換（只有目前狀態符合時才更新）
+     *
+     * @return 是否由此呼叫完成轉換
+     */
+    private boolean transition(String migrationId, EmbeddingMigrationStatus from,
+                               EmbeddingMigrationStatus to, String errorMessage) {
+        return jdbcTemplate.update(SQL_TRANSITION, to.name(), errorMessage, migrationId, from.name()) == 1;
+    }
+
+    /**
+     * 同步最近一次完成的遷移至 VectorStore
+     */
+    private void refreshActiveProfile() {
+        migrationRepository.findLatestCompleted().ifPresent(migration ->
+                vectorStore.switchActiveProfile(
+                        new EmbeddingProfile(migration.getTargetModel(), migration.getTargetDimensions())));
+    }
+
+    /**
+     * 取得目前 embedding 欄位所使用的模型
+     */
+    private EmbeddingProfile currentProfile() {
+        EmbeddingProfile active = vectorStore.getActiveProfile();
+        return active != null
+                ? active
+                : new EmbeddingProfile(properties.getModel(), properties.getDimensions());
+    }
+
+    /**
+     * 待重新嵌入的區塊
+     *
+     * @param contentHash 領取時的內容雜湊（寫回時比對）
+     */
+    private record PendingChunk(String id, String content, String contentHash) {
+    }
+
+    /**
+     * 單一批次的處理結果
+     *
+     * @param claimed 領取的區塊數
+     * @param written 實際寫回的區塊數
+     */
+    private record BatchResult(int claimed, int written) {
+    }
+
+    /**
+     * 遷移例外
+     */
+    public static class MigrationException extends RuntimeException {
+        public MigrationException(String message) {
+            super(message);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.samzhu.docmcp.service;
 
+import io.github.samzhu.docmcp.infrastructure.vectorstore.PgVectorCodec;
 import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.stereotype.Service;
 
@@ -66,14 +67,6 @@ public class EmbeddingService {
         if (embedding == null || embedding.length == 0) {
             throw new IllegalArgumentException("向量不得為空");
         }
-        StringBuilder sb = new StringBuilder("[");
-        for (int i = 0; i < embedding.length; i++) {
-            if (i > 0) {
-                sb.append(",");
-            }
-            sb.append(embedding[i]);
-        }
-        sb.append("]");
-        return sb.toString();
+        return PgVectorCodec.formatText(embedding);
     }
 }
@@ -0,0 +1,34 @@
+package io.github.samzhu.docmcp.service;
+
+/**
+ * 以字元類型估算 token 數的計數器
+ * <p>
+ * 使用簡單的規則估算：
+ * <ul>
+ *   <li>英文字母與其他字元大約 4 個字元 = 1 token</li>
+ *   <li>中文（CJK 統一表意文字）大約 1.5 個字元 = 1 token</li>
+ * </ul>
+ * 不需要模型詞彙表，適合作為沒有對應 tokenizer 時的預設實作。
+ * </p>
+ */
+public class HeuristicTokenCounter implements TokenCounter {
+
+    @Override
+    public int countTokens(CharSequence text, int start, int end) {
+        if (text == null || start >= end) {
+            return 0;
+        }
+
+        int chineseChars = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= '\u4e00' && c <= '\u9fff') {
+                chineseChars++;
+            }
+        }
+        int otherChars = end - start - chineseChars;
+
+        // 英文字母與其他字元的比例相同，合併計算
+        return (int) (otherChars / 4.0 + chineseChars / 1.5);
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.samzhu.docmcp.service;
+
+import io.github.samzhu.docmcp.config.FeatureFlags;
+import io.github.samzhu.docmcp.domain.enums.MigrationRelevance;
+import io.github.samzhu.docmcp.domain.event.SyncCompletedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * 遷移指南索引服務
+ * <p>
+ * 同步完成後將該版本尚未分類的文件依 {@link MigrationRelevance} 分類，
+ * 寫入 documents.migration_relevance（部分索引只涵蓋相關文件）。
+ * 同步時內容變更的文件會以新的資料列寫入，因此只需處理 migration_relevance 為 NULL 的文件。
+ * </p>
+ * <p>
+ * 啟動時在背景補齊此功能上線前已同步的文件。僅在啟用 migration-guides 功能時執行。
+ * </p>
+ */
+@Service
+public class MigrationGuideIndexer {
+
+    private static final Logger log = LoggerFactory.getLogger(MigrationGuideIndexer.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    // 只取內容開頭，分類不需要完整內容
+    private static final String SQL_SELECT_UNCLASSIFIED = """
+            SELECT id, title, path, left(content, %d) AS content_prefix
+            FROM documents
+            WHERE migration_relevance IS NULL
+            %%s
+            ORDER BY id
+            LIMIT ?
+            """.formatted(MigrationRelevance.CONTENT_PREFIX_LENGTH);
+
+    private static final String SQL_UPDATE_RELEVANCE =
+            "UPDATE documents SET migration_relevance = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FeatureFlags featureFlags;
+
+    public MigrationGuideIndexer(JdbcTemplate jdbcTemplate, FeatureFlags featureFlags) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.featureFlags = featureFlags;
+    }
+
+    /**
+     * 同步完成後分類該版本的新文件
+     *
+     * @param event 同步完成事件
+     */
+    @EventListener
+    public void onSyncCompleted(SyncCompletedEvent event) {
+        if (!featureFlags.isMigrationGuides()) {
+            return;
+        }
+        try {
+            classifyVersion(event.versionId());
+        } catch (RuntimeException e) {
+            log.warn("版本 {} 的遷移指南分類失敗: {}", event.versionId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 啟動完成後在背景補齊尚未分類的文件
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!featureFlags.isMigrationGuides()) {
+            return;
+        }
+        Thread.ofVirtual().name("migration-guide-backfill").start(() -> {
+            try {
+                int classified = classifyAll();
+                if (classified > 0) {
+                    log.info("已補齊 {} 份文件的遷移指南分類", classified);
+                }
+            } catch (RuntimeException e) {
+                log.warn("遷移指南分類補齊失敗: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 分類指定版本中尚未分類的文件
+     *
+     * @param versionId 版本 ID（TSID 格式）
+     * @return 分類的文件數
+     */
+    public int classifyVersion(String versionId) {
+        return classify("AND version_id = ?", versionId);
+    }
+
+    /**
+     * 分類所有尚未分類的文件
+     *
+     * @return 分類的文件數
+     */
+    public int classifyAll() {
+        return classify("");
+    }
+
+    private int classify(String filter, Object... filterArgs) {
+        String sql = String.format(SQL_SELECT_UNCLASSIFIED, filter);
+        Object[] args = new Object[filterArgs.length + 1];
+        System.arraycopy(filterArgs, 0, args, 0, filterArgs.length);
+        args[filterArgs.length] = BATCH_SIZE;
+
+        int total = 0;
+        while (true) {
+            List<Object[]> updates = jdbcTemplate.query(sql, (rs, rowNum) -> new Object[]{
+                    MigrationRelevance.classify(
+                            rs.getString("title"), rs.getString("path"), rs.getString("content_prefix")).name(),
+                    rs.getString("id")
+            }, args);
+            if (updates.isEmpty()) {
+                return total;
+            }
+            jdbcTemplate.batchUpdate(SQL_UPDATE_RELEVANCE, updates);
+            total += updates.size();
+            if (updates.size() < BATCH_SIZE) {
+                return total;
+            }
+        }
+    }
+}
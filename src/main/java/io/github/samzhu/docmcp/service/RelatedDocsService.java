@@ -0,0 +1,345 @@
+package io.github.samzhu.docmcp.service;
+
+import io.github.samzhu.docmcp.config.RelatedDocsProperties;
+import io.github.samzhu.docmcp.domain.event.SyncCompletedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * 相關文件服務
+ * <p>
+ * 以文件質心（所有區塊向量的平均值）代表整份文件，預設只在同一版本內搜尋，
+ * 相似度由資料庫計算，標題、路徑與內容片段在同一個查詢中取回。
+ * </p>
+ * <p>
+ * 質心只在寫入流程中計算，查詢不寫入任何資料：
+ * <ul>
+ *   <li>同步：每份文件的區塊寫入後計算該文件的質心，同步完成後補齊版本中缺少的質心</li>
+ *   <li>模型遷移：切換後舊質心屬於舊的向量空間，由遷移作業清空後重新計算所有版本</li>
+ *   <li>啟動：補齊此功能上線前同步的文件</li>
+ * </ul>
+ * 來源文件尚無質心時（例如計算完成前），查詢改以 avg() 即時計算質心，不寫回。
+ * </p>
+ * <p>
+ * 啟用 {@code docmcp.search.related.precompute} 時，同步完成後另外預先計算
+ * 每份文件的相關文件，查詢時直接以主鍵讀取。預先計算為版本內兩兩比對，
+ * 文件數超過 {@code precompute-max-documents} 的版本不預先計算，查詢時即時計算。
+ * </p>
+ */
+@Service
+public class RelatedDocsService {
+
+    private static final Logger log = LoggerFactory.getLogger(RelatedDocsService.class);
+
+    // 內容片段在資料庫端先截斷，避免傳輸完整區塊
+    private static final int SNIPPET_CHARS = 256;
+
+    private static final String SQL_UPSERT_CENTROID = """
+            INSERT INTO document_centroids (document_id, version_id, centroid, chunk_count, updated_at)
+            SELECT d.id, d.version_id, avg(dc.embedding), count(*), CURRENT_TIMESTAMP
+            FROM documents d
+            JOIN document_chunks dc ON dc.document_id = d.id
+            WHERE d.id = ?
+            AND dc.embedding IS NOT NULL
+            GROUP BY d.id, d.version_id
+            ON CONFLICT (document_id) DO UPDATE SET
+                centroid = EXCLUDED.centroid,
+                chunk_count = EXCLUDED.chunk_count,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    // 只補齊缺少的質心，已存在的（同步時已計算）不重算；格式參數為文件範圍條件
+    private static final String SQL_INSERT_MISSING_CENTROIDS = """
+            INSERT INTO document_centroids (document_id, version_id, centroid, chunk_count, updated_at)
+            SELECT d.id, d.version_id, avg(dc.embedding), count(*), CURRENT_TIMESTAMP
+            FROM documents d
+            JOIN document_chunks dc ON dc.document_id = d.id
+            WHERE %s
+            AND dc.embedding IS NOT NULL
+            AND NOT EXISTS (SELECT 1 FROM document_centroids x WHERE x.document_id = d.id)
+            GROUP BY d.id, d.version_id
+            ON CONFLICT (document_id) DO NOTHING
+            """;
+
+    private static final String SQL_FIND_VERSIONS_WITH_DOCUMENTS =
+            "SELECT DISTINCT version_id FROM documents";
+
+    private static final String SQL_HAS_CENTROID =
+            "SELECT EXISTS (SELECT 1 FROM document_centroids WHERE document_id = ?)";
+
+    private static final String SQL_COUNT_VERSION_CENTROIDS =
+            "SELECT COUNT(*) FROM document_centroids WHERE version_id = ?";
+
+    private static final String SQL_DELETE_VERSION_RELATED = """
+            DELETE FROM related_documents
+            WHERE document_id IN (SELECT id FROM documents WHERE version_id = ?)
+            """;
+
+    // 每份文件以 LATERAL 子查詢取同版本前 N 名（版本內精確掃描，不依賴向量索引，文件數由 precompute-max-documents 限制）
+    private static final String SQL_PRECOMPUTE_RELATED = """
+            INSERT INTO related_documents (document_id, related_document_id, rank, similarity)
+            SELECT s.document_id, r.document_id, r.rank, r.similarity
+            FROM document_centroids s
+            CROSS JOIN LATERAL (
+                SELECT c.document_id,
+                       1 - (c.centroid <=> s.centroid) AS similarity,
+                       row_number() OVER (ORDER BY c.centroid <=> s.centroid) AS rank
+                FROM document_centroids c
+                WHERE c.version_id = s.version_id
+                AND c.document_id <> s.document_id
+                ORDER BY c.centroid <=> s.centroid
+                LIMIT ?
+            ) r
+            WHERE s.version_id = ?
+            """;
+
+    private static final String SQL_FIND_PRECOMPUTED = """
+            SELECT d.id, d.title, d.path, rd.similarity, left(fc.content, %d) AS snippet
+            FROM related_documents rd
+            JOIN documents d ON d.id = rd.related_document_id
+            LEFT JOIN LATERAL (
+                SELECT content FROM document_chunks
+                WHERE document_id = d.id
+                ORDER BY chunk_index
+                LIMIT 1
+            ) fc ON TRUE
+            WHERE rd.document_id = ?
+            ORDER BY rd.rank
+            LIMIT ?
+            """.formatted(SNIPPET_CHARS);
+
+    // 內層子查詢先排序取前 N 名，外層才 JOIN 文件與內容片段
+    // 格式參數為候選範圍條件（同版本或同函式庫）
+    private static final String SQL_FIND_BY_CENTROID = """
+            SELECT d.id, d.title, d.path, r.similarity, left(fc.content, %d) AS snippet
+            FROM (
+                SELECT c.document_id, 1 - (c.centroid <=> s.centroid) AS similarity
+                FROM document_centroids s
+                JOIN document_centroids c ON c.document_id <> s.document_id
+                WHERE s.document_id = ?
+                AND %%s
+                ORDER BY c.centroid <=> s.centroid
+                LIMIT ?
+            ) r
+            JOIN documents d ON d.id = r.document_id
+            LEFT JOIN LATERAL (
+                SELECT content FROM document_chunks
+                WHERE document_id = d.id
+                ORDER BY chunk_index
+                LIMIT 1
+            ) fc ON TRUE
+            ORDER BY r.similarity DESC
+            """.formatted(SNIPPET_CHARS);
+
+    // 來源文件尚無質心時以 avg() 即時計算來源與候選文件的質心（唯讀，不寫回）
+    // 格式參數為候選範圍條件（同版本或同函式庫，以來源版本 ID 為參數）
+    private static final String SQL_FIND_BY_AVERAGE = """
+            SELECT d.id, d.title, d.path, r.similarity, left(fc.content, %d) AS snippet
+            FROM (
+                SELECT c.document_id, 1 - (c.centroid <=> s.centroid) AS similarity
+                FROM (
+                    SELECT avg(embedding) AS centroid
+                    FROM document_chunks
+                    WHERE document_id = ?
+                    AND embedding IS NOT NULL
+                ) s
+                JOIN (
+                    SELECT dc.document_id, avg(dc.embedding) AS centroid
+                    FROM document_chunks dc
+                    JOIN documents cd ON cd.id = dc.document_id
+                    WHERE dc.document_id <> ?
+                    AND dc.embedding IS NOT NULL
+                    AND %%s
+                    GROUP BY dc.document_id
+                ) c ON s.centroid IS NOT NULL
+                ORDER BY c.centroid <=> s.centroid
+                LIMIT ?
+            ) r
+            JOIN documents d ON d.id = r.document_id
+            LEFT JOIN LATERAL (
+                SELECT content FROM document_chunks
+                WHERE document_id = d.id
+                ORDER BY chunk_index
+                LIMIT 1
+            ) fc ON TRUE
+            ORDER BY r.similarity DESC
+            """.formatted(SNIPPET_CHARS);
+
+    private static final String SAME_VERSION_SCOPE = "c.version_id = s.version_id";
+
+    private static final String SAME_LIBRARY_SCOPE = """
+            c.version_id IN (
+                SELECT lv.id FROM library_versions lv
+                WHERE lv.library_id = (SELECT library_id FROM library_versions WHERE id = s.version_id)
+            )""";
+
+    private static final String AVERAGE_SAME_VERSION_SCOPE = "cd.version_id = ?";
+
+    private static final String AVERAGE_SAME_LIBRARY_SCOPE = """
+            cd.version_id IN (
+                SELECT lv.id FROM library_versions lv
+                WHERE lv.library_id = (SELECT library_id FROM library_versions WHERE id = ?)
+            )""";
+
+    private static final RowMapper<RelatedDocument> ROW_MAPPER = (rs, rowNum) -> new RelatedDocument(
+            rs.getString("id"),
+            rs.getString("title"),
+            rs.getString("path"),
+            rs.getDouble("similarity"),
+            rs.getString("snippet")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RelatedDocsProperties properties;
+
+    public RelatedDocsService(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              RelatedDocsProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    /**
+     * 查找與指定文件相關的其他文件
+     *
+     * @param documentId      來源文件 ID（TSID 格式）
+     * @param versionId       來源文件所屬版本 ID（TSID 格式）
+     * @param limit           最大回傳數量
+     * @param sameVersionOnly 是否只搜尋同一版本（false 時搜尋同函式庫的所有版本）
+     * @return 相關文件列表（依相似度由高至低）
+     */
+    public List<RelatedDocument> findRelated(String documentId, String versionId,
+                                             int limit, boolean sameVersionOnly) {
+        if (sameVersionOnly && properties.isPrecompute() && limit <= properties.getPrecomputeLimit()) {
+            List<RelatedDocument> precomputed = jdbcTemplate.query(
+                    SQL_FIND_PRECOMPUTED, ROW_MAPPER, documentId, limit);
+            if (!precomputed.isEmpty()) {
+                return precomputed;
+            }
+        }
+
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(SQL_HAS_CENTROID, Boolean.class, documentId))) {
+            String sql = String.format(SQL_FIND_BY_CENTROID,
+                    sameVersionOnly ? SAME_VERSION_SCOPE : SAME_LIBRARY_SCOPE);
+            return jdbcTemplate.query(sql, ROW_MAPPER, documentId, limit);
+        }
+
+        String sql = String.format(SQL_FIND_BY_AVERAGE,
+                sameVersionOnly ? AVERAGE_SAME_VERSION_SCOPE : AVERAGE_SAME_LIBRARY_SCOPE);
+        return jdbcTemplate.query(sql, ROW_MAPPER, documentId, documentId, versionId, limit);
+    }
+
+    /**
+     * 計算單一文件的質心（同步寫入文件區塊後呼叫）
+     *
+     * @param documentId 文件 ID（TSID 格式）
+     */
+    public void computeCentroid(String documentId) {
+        jdbcTemplate.update(SQL_UPSERT_CENTROID, documentId);
+    }
+
+    /**
+     * 同步完成後補齊該版本缺少的文件質心（及預先計算的相關文件）
+     * <p>
+     * 同步已在背景執行緒中進行，此處直接執行；失敗只記錄警告，查詢時改為即時計算。
+     * </p>
+     *
+     * @param event 同步完成事件
+     */
+    @EventListener
+    public void onSyncCompleted(SyncCompletedEvent event) {
+        try {
+            refreshVersion(event.versionId());
+        } catch (RuntimeException e) {
+            log.warn("版本 {} 的相關文件計算失敗: {}", event.versionId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 啟動完成後在背景補齊缺少的文件質心
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread.ofVirtual().name("document-centroid-backfill").start(() -> {
+            try {
+                int centroids = jdbcTemplate.update(String.format(SQL_INSERT_MISSING_CENTROIDS, "TRUE"));
+                if (centroids > 0) {
+                    log.info("已補齊 {} 份文件質心", centroids);
+                }
+            } catch (RuntimeException e) {
+                log.warn("文件質心補齊失敗: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 補齊指定版本缺少的文件質心，啟用預先計算時一併更新相關文件
+     *
+     * @param versionId 版本 ID（TSID 格式）
+     */
+    public void refreshVersion(String versionId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            int centroids = jdbcTemplate.update(
+                    String.format(SQL_INSERT_MISSING_CENTROIDS, "d.version_id = ?"), versionId);
+
+            if (properties.isPrecompute()) {
+                jdbcTemplate.update(SQL_DELETE_VERSION_RELATED, versionId);
+                Long documents = jdbcTemplate.queryForObject(SQL_COUNT_VERSION_CENTROIDS, Long.class, versionId);
+                if (documents != null && documents > properties.getPrecomputeMaxDocuments()) {
+                    log.info("版本 {} 補齊 {} 份文件質心；共 {} 份文件超過預先計算上限 {}，查詢時即時計算",
+                            versionId, centroids, documents, properties.getPrecomputeMaxDocuments());
+                    return;
+                }
+                int related = jdbcTemplate.update(SQL_PRECOMPUTE_RELATED,
+                        properties.getPrecomputeLimit(), versionId);
+                log.info("版本 {} 補齊 {} 份文件質心、計算 {} 筆相關文件", versionId, centroids, related);
+            } else {
+                log.info("版本 {} 補齊 {} 份文件質心", versionId, centroids);
+            }
+        });
+    }
+
+    /**
+     * 重新計算所有版本的文件質心與相關文件（embedding 模型切換後呼叫）
+     * <p>
+     * 各版本分別在自己的交易中計算，單一版本失敗不影響其他版本。
+     * </p>
+     */
+    public void refreshAll() {
+        for (String versionId : jdbcTemplate.queryForList(SQL_FIND_VERSIONS_WITH_DOCUMENTS, String.class)) {
+            try {
+                refreshVersion(versionId);
+            } catch (RuntimeException e) {
+                log.warn("版本 {} 的相關文件計算失敗: {}", versionId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 相關文件
+     *
+     * @param documentId 文件 ID（TSID 格式）
+     * @param title      文件標題
+     * @param path       文件路徑
+     * @param similarity 文件質心的餘弦相似度（-1 至 1）
+     * @param snippet    文件第一個區塊的開頭（可能為 null）
+     */
+    public record RelatedDocument(
+            String documentId,
+            String title,
+            String path,
+            double similarity,
+            String snippet
+    ) {}
+}
@@ -0,0 +1,118 @@
+package io.github.samzhu.docmcp.service;
+
+import io.github.samzhu.docmcp.mcp.dto.SearchResultItem;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RRF（Reciprocal Rank Fusion）搜尋結果融合
+ * <p>
+ * 混合搜尋以此融合全文搜尋與語意搜尋結果：每個結果依名次計算 1 / (K + rank)，
+ * 再依 alpha 加權合併兩種搜尋的分數。只依賴輸入的結果列表，不需要資料庫或 embedding 模型。
+ * </p>
+ */
+public final class RrfFusion {
+
+    /**
+     * RRF 常數 K，防止排名第一的結果權重過大
+     * 參考：spring-documentation-mcp-server 使用 K=60
+     */
+    private static final int RRF_K = 60;
+
+    private RrfFusion() {
+    }
+
+    /**
+     * 以 RRF 分數融合兩種搜尋結果
+     *
+     * @param keywordResults  關鍵字搜尋結果（已排序）
+     * @param semanticResults 語意搜尋結果（已排序）
+     * @param alpha           關鍵字搜尋權重
+     * @param limit           回傳數量上限
+     * @return 融合後的搜尋結果列表（依 RRF 分數排序，分數正規化為 0-1）
+     */
+    public static List<SearchResultItem> fuse(List<SearchResultItem> keywordResults,
+                                              List<SearchResultItem> semanticResults,
+                                              double alpha, int limit) {
+        Map<String, Double> rrfScores = calculateScores(keywordResults, semanticResults, alpha);
+
+        // 建立結果 ID 到 SearchResultItem 的對應（優先使用語意搜尋結果，因為有 chunk 資訊）
+        Map<String, SearchResultItem> resultMap = new LinkedHashMap<>();
+        for (SearchResultItem item : semanticResults) {
+            resultMap.put(getResultKey(item), item);
+        }
+        for (SearchResultItem item : keywordResults) {
+            resultMap.putIfAbsent(getResultKey(item), item);
+        }
+
+        // 依 RRF 分數排序並返回
+        return rrfScores.entrySet().stream()
+                .filter(entry -> resultMap.containsKey(entry.getKey()))
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                .limit(limit)
+                .map(entry -> {
+                    SearchResultItem original = resultMap.get(entry.getKey());
+                    // 使用 RRF 分數替換原始分數（轉換為 0-1 範圍的正規化分數）
+                    double normalizedScore = normalizeRRFScore(entry.getValue());
+                    return original.withScore(normalizedScore);
+                })
+                .toList();
+    }
+
+    /**
+     * 計算 RRF（倒數排名融合）分數
+     * <p>
+     * RRF 公式：score = Σ (1 / (K + rank))
+     * 融合公式：final_score = alpha × keyword_rrf + (1 - alpha) × semantic_rrf
+     * </p>
+     *
+     * @param keywordResults  關鍵字搜尋結果（已排序）
+     * @param semanticResults 語意搜尋結果（已排序）
+     * @param alpha           關鍵字搜尋權重
+     * @return 結果 ID 到 RRF 分數的對應
+     */
+    public static Map<String, Double> calculateScores(List<SearchResultItem> keywordResults,
+                                                      List<SearchResultItem> semanticResults,
+                                                      double alpha) {
+        Map<String, Double> scores = new HashMap<>();
+
+        // 計算關鍵字搜尋的 RRF 分數
+        for (int i = 0; i < keywordResults.size(); i++) {
+            String key = getResultKey(keywordResults.get(i));
+            double rrfScore = alpha * (1.0 / (RRF_K + i + 1));
+            scores.merge(key, rrfScore, Double::sum);
+        }
+
+        // 計算語意搜尋的 RRF 分數
+        for (int i = 0; i < semanticResults.size(); i++) {
+            String key = getResultKey(semanticResults.get(i));
+            double rrfScore = (1 - alpha) * (1.0 / (RRF_K + i + 1));
+            scores.merge(key, rrfScore, Double::sum);
+        }
+
+        return scores;
+    }
+
+    /**
+     * 取得搜尋結果的唯一識別鍵
+     * 優先使用 chunkId（語意搜尋），若無則使用 documentId（全文搜尋）
+     */
+    private static String getResultKey(SearchResultItem item) {
+        if (item.chunkId() != null) {
+            return "chunk:" + item.chunkId();
+        }
+        return "doc:" + item.documentId();
+    }
+
+    /**
+     * 將 RRF 分數正規化為 0-1 範圍
+     * RRF 分數最大值約為 2/(K+1)（當同一結果在兩種搜尋都排第一時）
+     */
+    private static double normalizeRRFScore(double rrfScore) {
+        double maxPossibleScore = 2.0 / (RRF_K + 1);
+        return Math.min(1.0, rrfScore / maxPossibleScore);
+    }
+}
@@ -1,6 +1,8 @@
 package io.github.samzhu.docmcp.service;
 
 import io.github.samzhu.docmcp.domain.model.Document;
+import io.github.samzhu.docmcp.domain.model.DocumentSummary;
+import io.github.samzhu.docmcp.infrastructure.metrics.SearchMetrics;
 import io.github.samzhu.docmcp.mcp.dto.SearchResultItem;
 import io.github.samzhu.docmcp.repository.DocumentRepository;
 import io.github.samzhu.docmcp.repository.LibraryVersionRepository;
@@ -12,13 +14,10 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 import static io.github.samzhu.docmcp.infrastructure.vectorstore.DocumentChunkVectorStore.*;
 
@@ -30,6 +29,10 @@ import static io.github.samzhu.docmcp.infrastructure.vectorstore.DocumentChunkVe
  * 語意搜尋使用 pgvector 的向量相似度計算。
  * 混合搜尋使用 RRF（Reciprocal Rank Fusion）演算法融合兩種搜尋結果。
  * </p>
+ * <p>
+ * 各階段耗時與結果數量以函式庫標記記錄於 {@link SearchMetrics}；
+ * 混合搜尋內部的兩種搜尋只記錄階段耗時，結果數量以融合後的結果計。
+ * </p>
  */
 @Service
 @Transactional(readOnly = true)
@@ -37,15 +40,10 @@ public class SearchService {
 
     private static final Logger log = LoggerFactory.getLogger(SearchService.class);
 
-    /**
-     * RRF 常數 K，防止排名第一的結果權重過大
-     * 參考：spring-documentation-mcp-server 使用 K=60
-     */
-    private static final int RRF_K = 60;
-
     private final DocumentRepository documentRepository;
     private final LibraryVersionRepository versionRepository;
     private final VectorStore vectorStore;
+    private final SearchMetrics metrics;
 
     /**
      * 混合搜尋的 alpha 參數，控制關鍵字搜尋與語意搜尋的權重比例
@@ -63,10 +61,12 @@ public class SearchService {
 
     public SearchService(DocumentRepository documentRepository,
                          LibraryVersionRepository versionRepository,
-                         VectorStore vectorStore) {
+                         VectorStore vectorStore,
+                         SearchMetrics metrics) {
         this.documentRepository = documentRepository;
         this.versionRepository = versionRepository;
         this.vectorStore = vectorStore;
+        this.metrics = metrics;
     }
 
     /**
@@ -84,6 +84,17 @@ public class SearchService {
      */
     public List<SearchResultItem> fullTextSearch(String libraryId, String version,
                                                   String query, int limit) {
+        List<SearchResultItem> results = metrics.withLibrary(libraryId,
+                () -> keywordSearch(libraryId, version, query, limit));
+        metrics.recordResults(SearchMetrics.MODE_FULLTEXT, libraryId, results.size());
+        return results;
+    }
+
+    /**
+     * 全文檢索（不記錄結果數量）
+     */
+    private List<SearchResultItem> keywordSearch(String libraryId, String version,
+                                                 String query, int limit) {
         if (query == null || query.isBlank()) {
             return List.of();
         }
@@ -95,7 +106,8 @@ public class SearchService {
         }
 
         // 執行全文搜尋
-        List<Document> documents = documentRepository.fullTextSearch(versionId, query, limit);
+        List<Document> documents = metrics.recordStage(SearchMetrics.STAGE_KEYWORD_SQL,
+                () -> documentRepository.fullTextSearch(versionId, query, limit));
 
         // 轉換為搜尋結果
         return documents.stream()
@@ -125,6 +137,17 @@ public class SearchService {
      */
     public List<SearchResultItem> semanticSearch(String libraryId, String version,
                                                   String query, int limit, double threshold) {
+        List<SearchResultItem> results = metrics.withLibrary(libraryId,
+                () -> vectorSearch(libraryId, version, query, limit, threshold));
+        metrics.recordResults(SearchMetrics.MODE_SEMANTIC, libraryId, results.size());
+        return results;
+    }
+
+    /**
+     * 語意搜尋（不記錄結果數量）
+     */
+    private List<SearchResultItem> vectorSearch(String libraryId, String version,
+                                                String query, int limit, double threshold) {
         if (query == null || query.isBlank()) {
             return List.of();
         }
@@ -159,10 +182,15 @@ public class SearchService {
                 .filter(id -> id != null)
                 .distinct()
                 .toList();
+        // 結果皆缺少文件 ID 時不執行 IN () 查詢（空列表會產生無效的 SQL）
+        if (documentIds.isEmpty()) {
+            return List.of();
+        }
 
-        Map<String, Document> documentMap = StreamSupport.stream(
-                        documentRepository.findAllById(documentIds).spliterator(), false)
-                .collect(Collectors.toMap(Document::getId, Function.identity()));
+        // 只需標題與路徑，以摘要投影查詢避免載入完整文件內容
+        Map<String, DocumentSummary> documentMap = metrics.recordStage(SearchMetrics.STAGE_HYDRATION,
+                        () -> documentRepository.findSummariesByIdIn(documentIds)).stream()
+                .collect(Collectors.toMap(DocumentSummary::id, Function.identity()));
 
         // 轉換為搜尋結果
         return results.stream()
@@ -175,7 +203,7 @@ public class SearchService {
      * 將 Spring AI Document 轉換為 SearchResultItem
      */
     private SearchResultItem toSearchResultItem(org.springframework.ai.document.Document doc,
-                                                 Map<String, Document> documentMap) {
+                                                 Map<String, DocumentSummary> documentMap) {
         Map<String, Object> metadata = doc.getMetadata();
 
         // 取得 document ID
@@ -185,7 +213,7 @@ public class SearchService {
         }
 
         // 取得對應的文件資訊
-        Document dbDoc = documentMap.get(documentId);
+        DocumentSummary dbDoc = documentMap.get(documentId);
         if (dbDoc == null) {
             return null;
         }
@@ -196,10 +224,10 @@ public class SearchService {
         double score = getMetadataDouble(metadata, "score", 0.0);
 
         return SearchResultItem.fromChunk(
-                dbDoc.getId(),
+                dbDoc.id(),
                 chunkId,
-                dbDoc.getTitle(),
-                dbDoc.getPath(),
+                dbDoc.title(),
+                dbDoc.path(),
                 doc.getText(),
                 score,
                 chunkIndex
@@ -315,6 +343,18 @@ public class SearchService {
     public List<SearchResultItem> hybridSearch(String libraryId, String version,
                                                 String query, int limit,
                                                 double alpha, double minSimilarity) {
+        List<SearchResultItem> results = metrics.withLibrary(libraryId,
+                () -> fusedSearch(libraryId, version, query, limit, alpha, minSimilarity));
+        metrics.recordResults(SearchMetrics.MODE_HYBRID, libraryId, results.size());
+        return results;
+    }
+
+    /**
+     * 混合搜尋（不記錄結果數量）
+     */
+    private List<SearchResultItem> fusedSearch(String libraryId, String version,
+                                               String query, int limit,
+                                               double alpha, double minSimilarity) {
         if (query == null || query.isBlank()) {
             return List.of();
         }
@@ -325,8 +365,8 @@ public class SearchService {
         int fetchLimit = limit * 2;
 
         // 並行執行兩種搜尋
-        List<SearchResultItem> keywordResults = fullTextSearch(libraryId, version, query, fetchLimit);
-        List<SearchResultItem> semanticResults = semanticSearch(libraryId, version, query, fetchLimit, minSimilarity);
+        List<SearchResultItem> keywordResults = keywordSearch(libraryId, version, query, fetchLimit);
+        List<SearchResultItem> semanticResults = vectorSearch(libraryId, version, query, fetchLimit, minSimilarity);
 
         log.debug("關鍵字搜尋結果: {} 筆, 語意搜尋結果: {} 筆", keywordResults.size(), semanticResults.size());
 
@@ -342,86 +382,11 @@ public class SearchService {
         }
 
         // 計算 RRF 分數並融合
-        Map<String, Double> rrfScores = calculateRRFScores(keywordResults, semanticResults, alpha);
-
-        // 建立結果 ID 到 SearchResultItem 的對應（優先使用語意搜尋結果，因為有 chunk 資訊）
-        Map<String, SearchResultItem> resultMap = new LinkedHashMap<>();
-        for (SearchResultItem item : semanticResults) {
-            resultMap.put(getResultKey(item), item);
-        }
-        for (SearchResultItem item : keywordResults) {
-            resultMap.putIfAbsent(getResultKey(item), item);
-        }
-
-        // 依 RRF 分數排序並返回
-        List<SearchResultItem> fusedResults = rrfScores.entrySet().stream()
-                .filter(entry -> resultMap.containsKey(entry.getKey()))
-                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
-                .limit(limit)
-                .map(entry -> {
-                    SearchResultItem original = resultMap.get(entry.getKey());
-                    // 使用 RRF 分數替換原始分數（轉換為 0-1 範圍的正規化分數）
-                    double normalizedScore = normalizeRRFScore(entry.getValue());
-                    return original.withScore(normalizedScore);
-                })
-                .toList();
+        List<SearchResultItem> fusedResults = metrics.recordStage(SearchMetrics.STAGE_FUSION,
+                () -> RrfFusion.fuse(keywordResults, semanticResults, alpha, limit));
 
         log.debug("混合搜尋融合後結果: {} 筆", fusedResults.size());
 
         return fusedResults;
     }
-
-    /**
-     * 計算 RRF（倒數排名融合）分數
-     * <p>
-     * RRF 公式：score = Σ (1 / (K + rank))
-     * 融合公式：final_score = alpha × keyword_rrf + (1 - alpha) × semantic_rrf
-     * </p>
-     *
-     * @param keywordResults  關鍵字搜尋結果（已排序）
-     * @param semanticResults 語意搜尋結果（已排序）
-     * @param alpha           關鍵字搜尋權重
-     * @return 結果 ID 到 RRF 分數的對應
-     */
-    private Map<String, Double> calculateRRFScores(List<SearchResultItem> keywordResults,
-                                                    List<SearchResultItem> semanticResults,
-                                                    double alpha) {
-        Map<String, Double> scores = new HashMap<>();
-
-        // 計算關鍵字搜尋的 RRF 分數
-        for (int i = 0; i < keywordResults.size(); i++) {
-            String key = getResultKey(keywordResults.get(i));
-            double rrfScore = alpha * (1.0 / (RRF_K + i + 1));
-            scores.merge(key, rrfScore, Double::sum);
-        }
-
-        // 計算語意搜尋的 RRF 分數
-        for (int i = 0; i < semanticResults.size(); i++) {
-            String key = getResultKey(semanticResults.get(i));
-            double rrfScore = (1 - alpha) * (1.0 / (RRF_K + i + 1));
-            scores.merge(key, rrfScore, Double::sum);
-        }
-
-        return scores;
-    }
-
-    /**
-     * 取得搜尋結果的唯一識別鍵
-     * 優先使用 chunkId（語意搜尋），若無則使用 documentId（全文搜尋）
-     */
-    private String getResultKey(SearchResultItem item) {
-        if (item.chunkId() != null) {
-            return "chunk:" + item.chunkId();
-        }
-        return "doc:" + item.documentId();
-    }
-
-    /**
-     * 將 RRF 分數正規化為 0-1 範圍
-     * RRF 分數最大值約為 2/(K+1)（當同一結果在兩種搜尋都排第一時）
-     */
-    private double normalizeRRFScore(double rrfScore) {
-        double maxPossibleScore = 2.0 / (RRF_K + 1);
-        return Math.min(1.0, rrfScore / maxPossibleScore);
-    }
 }
@@ -0,0 +1,166 @@
+package io.github.samzhu.docmcp.service;
+
+import io.github.samzhu.docmcp.config.ChunkingProperties.ChunkSizing;
+import io.github.samzhu.docmcp.infrastructure.parser.ParsedDocument;
+import io.github.samzhu.docmcp.service.DocumentChunker.ChunkResult;
+import org.springframework.stereotype.Service;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 章節分塊服務
+ * <p>
+ * 依解析器提供的章節結構（{@link ParsedDocument#sections()}）分塊：
+ * <ul>
+ *   <li>區塊只在章節或內容區塊（段落、列表、程式碼區塊）的邊界切分，不使用重疊</li>
+ *   <li>同一章節的內容區塊在 token 上限內合併；低於下限的章節與下一章節合併</li>
+ *   <li>程式碼區塊與表格不拆分，超過上限時單獨成為一個區塊</li>
+ *   <li>超過上限的一般區塊依行切分，單行仍超過時才依字元切分</li>
+ *   <li>每個區塊記錄所屬章節的標題路徑（合併多個章節時為共同的上層路徑）</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 解析器無法提供章節結構（如解析失敗）或停用章節分塊時，改用 {@link DocumentChunker} 的滑動視窗。
+ * </p>
+ */
+@Service
+public class SectionChunker {
+
+    private static final String BLOCK_SEPARATOR = "\n\n";
+
+    private final DocumentChunker documentChunker;
+    private final TokenCounter tokenCounter;
+
+    public SectionChunker(DocumentChunker documentChunker, TokenCounter tokenCounter) {
+        this.documentChunker = documentChunker;
+        this.tokenCounter = tokenCounter;
+    }
+
+    /**
+     * 將解析後的文件分割成區塊
+     *
+     * @param parsed 解析後的文件
+     * @param sizing 分塊大小
+     * @return 區塊結果列表
+     */
+    public List<ChunkResult> chunk(ParsedDocument parsed, ChunkSizing sizing) {
+        if (!sizing.sectionAware() || parsed.sections() == null || parsed.sections().isEmpty()) {
+            return documentChunker.chunk(parsed.content());
+        }
+
+        int maxTokens = sizing.maxTokens();
+        Accumulator accumulator = new Accumulator(maxTokens);
+        for (ParsedDocument.Section section : parsed.sections()) {
+            // 章節邊界是優先的切分點，但過小的區塊留待與下一章節合併
+            if (accumulator.tokens >= sizing.minTokens()) {
+                accumulator.flush();
+            }
+            for (ParsedDocument.ContentBlock block : section.blocks()) {
+                String text = block.text();
+                int tokens = tokenCounter.countTokens(text);
+                if (tokens <= maxTokens || block.atomic()) {
+                    accumulator.add(text, 0, text.length(), tokens, section.headingPath());
+                } else {
+                    splitOversized(text, maxTokens, section.headingPath(), accumulator);
+                }
+            }
+        }
+        accumulator.flush();
+        return accumulator.chunks;
+    }
+
+    /**
+     * 依行切分超過上限的一般區塊，單行超過上限時依字元切分
+     * <p>
+     * 連續的行在原始文字中相鄰，因此只記錄範圍，直接附加到累積器而不建立中間字串。
+     * </p>
+     */
+    private void splitOversized(String text, int maxTokens, List<String> headingPath, Accumulator accumulator) {
+        int length = text.length();
+        int pieceStart = 0;
+        int pieceTokens = 0;
+        int lineStart = 0;
+
+        while (lineStart < length) {
+            int newline = text.indexOf('\n', lineStart);
+            int lineEnd = newline >= 0 ? newline : length;
+            int lineTokens = tokenCounter.countTokens(text, lineStart, lineEnd);
+
+            if (pieceStart < lineStart && pieceTokens + lineTokens > maxTokens) {
+                // 不包含片段結尾的換行
+                accumulator.add(text, pieceStart, lineStart - 1, pieceTokens, headingPath);
+                pieceStart = lineStart;
+                pieceTokens = 0;
+            }
+            if (lineTokens > maxTokens) {
+                int chunkChars = Math.max(1, (int) ((long) (lineEnd - lineStart) * maxTokens / lineTokens));
+                for (ChunkResult chunk : documentChunker.chunk(CharBuffer.wrap(text, lineStart, lineEnd), chunkChars, 0)) {
+                    accumulator.add(chunk.content(), 0, chunk.content().length(), chunk.tokenCount(), headingPath);
+                }
+                pieceStart = lineEnd + 1;
+            } else {
+                pieceTokens += lineTokens;
+            }
+            lineStart = lineEnd + 1;
+        }
+        if (pieceStart < length) {
+            accumulator.add(text, pieceStart, length, pieceTokens, headingPath);
+        }
+    }
+
+    /**
+     * 累積內容區塊直到達到 token 上限
+     */
+    private final class Accumulator {
+
+        private final int maxTokens;
+        private final List<ChunkResult> chunks = new ArrayList<>();
+        private final StringBuilder content = new StringBuilder();
+        private List<String> headingPath = List.of();
+        private int tokens;
+
+        private Accumulator(int maxTokens) {
+            this.maxTokens = maxTokens;
+        }
+
+        void add(CharSequence text, int start, int end, int textTokens, List<String> textHeadingPath) {
+            if (!content.isEmpty() && tokens + textTokens > maxTokens) {
+                flush();
+            }
+            if (content.isEmpty()) {
+                headingPath = textHeadingPath;
+            } else {
+                headingPath = commonPrefix(headingPath, textHeadingPath);
+                content.append(BLOCK_SEPARATOR);
+            }
+            content.append(text, start, end);
+            tokens += textTokens;
+
+            // 超過上限的不可分割區塊單獨成為一個區塊
+            if (tokens > maxTokens) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (content.isEmpty()) {
+                return;
+            }
+            int textTokens = tokenCounter.countTokens(content);
+            chunks.add(new ChunkResult(chunks.size(), content.toString(), textTokens, headingPath));
+            content.setLength(0);
+            headingPath = List.of();
+            tokens = 0;
+        }
+
+        private List<String> commonPrefix(List<String> a, List<String> b) {
+            int length = 0;
+            while (length < a.size() && length < b.size() && a.get(length).equals(b.get(length))) {
+                length++;
+            }
+            return length == a.size() ? a : List.copyOf(a.subList(0, length));
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package io.github.samzhu.docmcp.service;
+
+import io.github.samzhu.docmcp.infrastructure.vectorstore.EmbeddingObservation;
+
+import java.time.Clock;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 單次同步的進度與統計
+ * <p>
+ * 同步過程中累計各階段耗時、下載大小、檔案處理數量與 embedding 呼叫，
+ * 並轉為 {@code sync_history.metadata} 儲存，執行中定期寫入以提供即時進度：
+ * <ul>
+ *   <li>{@code stageMillis}：fetch、extract、parse、chunk、embed、persist 各階段累計耗時</li>
+ *   <li>{@code filesProcessed} / {@code filesSkipped} / {@code filesFailed}：已處理、內容未變更略過、失敗的檔案數</li>
+ *   <li>{@code embeddingCalls} / {@code embeddingTexts} / {@code embeddingTokens}：embedding 呼叫次數、文字數與估算 token 數</li>
+ *   <li>{@code filesPerSecond} / {@code etaSeconds}：處理速率與預估剩餘時間</li>
+ * </ul>
+ * </p>
+ * <p>
+ * embedding 在寫入向量時一併進行，因此包含 embedding 的階段會扣除期間的 embedding 耗時，
+ * 各階段耗時不重複計算。
+ * </p>
+ */
+public class SyncProgress implements EmbeddingObservation.Listener {
+
+    /**
+     * 同步階段
+     */
+    public enum Stage {
+        FETCH, EXTRACT, PARSE, CHUNK, EMBED, PERSIST;
+
+        /**
+         * metadata 中使用的名稱
+         */
+        public String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final Clock clock;
+    private final Map<Stage, Long> stageNanos = new EnumMap<>(Stage.class);
+
+    private String strategy;
+    private int filesTotal;
+    private long startedAtMillis;
+    private long lastReportedMillis;
+    private long bytesDownloaded;
+    private int filesProcessed;
+    private int filesSkipped;
+    private int filesFailed;
+    private int embeddingCalls;
+    private long embeddingTexts;
+    private long embeddingTokens;
+
+    public SyncProgress() {
+        this(Clock.systemUTC());
+    }
+
+    SyncProgress(Clock clock) {
+        this.clock = clock;
+        this.startedAtMillis = clock.millis();
+        this.lastReportedMillis = startedAtMillis;
+        for (Stage stage : Stage.values()) {
+            stageNanos.put(stage, 0L);
+        }
+    }
+
+    /**
+     * 取得檔案列表後開始計算處理速率
+     *
+     * @param strategy   取得內容的方式（GitHub 策略名稱或 Local）
+     * @param filesTotal 待處理的檔案總數
+     */
+    public synchronized void start(String strategy, int filesTotal) {
+        this.strategy = strategy;
+        this.filesTotal = filesTotal;
+        this.startedAtMillis = clock.millis();
+        this.lastReportedMillis = startedAtMillis;
+    }
+
+    /**
+     * 距上次回報已超過間隔時回傳 true 並重新計時
+     *
+     * @param intervalMillis 回報間隔（毫秒）
+     * @return 是否應回報進度
+     */
+    public synchronized boolean isReportDue(long intervalMillis) {
+        long now = clock.millis();
+        if (now - lastReportedMillis < intervalMillis) {
+            return false;
+        }
+        lastReportedMillis = now;
+        return true;
+    }
+
+    /**
+     * 記錄階段耗時
+     *
+     * @param stage  階段
+     * @param action 階段動作
+     * @return 動作的結果
+     */
+    public <T> T time(Stage stage, Supplier<T> action) {
+        long embedBefore = stageNanos(Stage.EMBED);
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            if (stage != Stage.EMBED) {
+                elapsed -= stageNanos(Stage.EMBED) - embedBefore;
+            }
+            addStageNanos(stage, Math.max(0, elapsed));
+        }
+    }
+
+    /**
+     * 記錄無回傳值的階段耗時
+     *
+     * @param stage  階段
+     * @param action 階段動作
+     */
+    public void run(Stage stage, Runnable action) {
+        time(stage, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * 直接累加階段耗時（由其他元件量測的階段，如 Archive 解壓）
+     */
+    public synchronized void addStageMillis(Stage stage, long millis) {
+        stageNanos.merge(stage, millis * 1_000_000, Long::sum);
+    }
+
+    public synchronized void addBytes(long bytes) {
+        bytesDownloaded += bytes;
+    }
+
+    public synchronized void addEmbeddingTokens(long tokens) {
+        embeddingTokens += tokens;
+    }
+
+    public synchronized void fileProcessed() {
+        filesProcessed++;
+    }
+
+    public synchronized void fileSkipped() {
+        filesSkipped++;
+    }
+
+    public synchronized void fileFailed() {
+        filesFailed++;
+    }
+
+    @Override
+    public void onEmbedding(String operation, int texts, long nanos) {
+        synchronized (this) {
+            embeddingCalls++;
+            embeddingTexts += texts;
+        }
+        addStageNanos(Stage.EMBED, nanos);
+    }
+
+    /**
+     * 已完成（含略過與失敗）的檔案數
+     */
+    public synchronized int getFilesDone() {
+        return filesProcessed + filesSkipped + filesFailed;
+    }
+
+    /**
+     * 轉為同步歷史的 metadata
+     *
+     * @return metadata（保留插入順序）
+     */
+    public synchronized Map<String, Object> toMetadata() {
+        long elapsedMillis = Math.max(0, clock.millis() - startedAtMillis);
+        int filesDone = getFilesDone();
+        double filesPerSecond = elapsedMillis > 0 ? filesDone * 1000.0 / elapsedMillis : 0;
+
+        Map<String, Object> stages = new LinkedHashMap<>();
+        for (Stage stage : Stage.values()) {
+            stages.put(stage.key(), stageNanos.get(stage) / 1_000_000);
+        }
+
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        if (strategy != null) {
+            metadata.put("strategy", strategy);
+        }
+        metadata.put("filesTotal", filesTotal);
+        metadata.put("filesProcessed", filesProcessed);
+        metadata.put("filesSkipped", filesSkipped);
+        metadata.put("filesFailed", filesFailed);
+        metadata.put("bytesDownloaded", bytesDownloaded);
+        metadata.put("stageMillis", stages);
+        metadata.put("embeddingCalls", embeddingCalls);
+        metadata.put("embeddingTexts", embeddingTexts);
+        metadata.put("embeddingTokens", embeddingTokens);
+        metadata.put("elapsedSeconds", elapsedMillis / 1000);
+        metadata.put("filesPerSecond", Math.round(filesPerSecond * 100) / 100.0);
+        if (filesPerSecond > 0) {
+            metadata.put("etaSeconds", Math.round(Math.max(0, filesTotal - filesDone) / filesPerSecond));
+        }
+        return metadata;
+    }
+
+    private synchronized long stageNanos(Stage stage) {
+        return stageNanos.get(stage);
+    }
+
+    private synchronized void addStageNanos(Stage stage, long nanos) {
+        stageNanos.merge(stage, nanos, Long::sum);
+    }
+}
@@ -1,6 +1,9 @@
 package io.github.samzhu.docmcp.service;
 
+import io.github.samzhu.docmcp.config.ChunkingProperties;
+import io.github.samzhu.docmcp.config.ChunkingProperties.ChunkSizing;
 import io.github.samzhu.docmcp.domain.enums.SyncStatus;
+import io.github.samzhu.docmcp.domain.event.SyncCompletedEvent;
 import io.github.samzhu.docmcp.domain.model.CodeExample;
 import io.github.samzhu.docmcp.domain.model.Document;
 import io.github.samzhu.docmcp.domain.model.SyncHistory;
@@ -11,13 +14,19 @@ import io.github.samzhu.docmcp.infrastructure.local.LocalFileClient;
 import io.github.samzhu.docmcp.infrastructure.parser.DocumentParser;
 import io.github.samzhu.docmcp.infrastructure.parser.ParsedDocument;
 import io.github.samzhu.docmcp.infrastructure.vectorstore.DocumentChunkConverter;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.EmbeddingObservation;
 import io.github.samzhu.docmcp.repository.CodeExampleRepository;
 import io.github.samzhu.docmcp.repository.DocumentChunkRepository;
 import io.github.samzhu.docmcp.repository.DocumentRepository;
+import io.github.samzhu.docmcp.repository.LibraryRepository;
 import io.github.samzhu.docmcp.repository.SyncHistoryRepository;
+import io.github.samzhu.docmcp.service.SyncProgress.Stage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,7 +38,6 @@ import java.security.MessageDigest;
 import java.time.OffsetDateTime;
 import java.util.HexFormat;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
@@ -39,46 +47,87 @@ import java.util.concurrent.CompletableFuture;
  * 負責從來源（GitHub、本地檔案）同步文件到資料庫。
  * 包含解析、分塊、嵌入向量生成。
  * </p>
+ * <p>
+ * 內容取得與解析器只在同步時使用，以 {@link Lazy} 注入延遲到第一次同步才建立，
+ * 不增加只提供查詢的實例的啟動時間。
+ * </p>
+ * <p>
+ * 同步過程以 {@link SyncProgress} 記錄各階段耗時、下載大小與 embedding 呼叫，
+ * 每隔 {@code docmcp.sync.progress-interval-ms} 寫入同步歷史的 metadata，
+ * 讓 {@code get_sync_status} 工具與同步詳情頁在執行中即可看到處理速率與預估剩餘時間。
+ * </p>
  */
 @Service
 public class SyncService {
 
     private static final Logger log = LoggerFactory.getLogger(SyncService.class);
 
+    /**
+     * 內容正規化版本
+     * <p>
+     * 文件儲存的是解析器正規化後的內容（例如 HTML 轉為 Markdown），但是否變更是以原始內容判斷。
+     * 此版本併入內容雜湊，解析或正規化規則改變時遞增，讓既有文件在下次同步時重新處理一次，
+     * 不會因原始內容未變而保留舊格式的內容與分塊。
+     * </p>
+     * <ul>
+     *   <li>1：儲存原始內容</li>
+     *   <li>2：儲存解析後的正規化內容（HTML 轉為 Markdown）</li>
+     * </ul>
+     */
+    static final int CONTENT_NORMALIZATION_VERSION = 2;
+
     private final IdService idService;
     private final GitHubContentFetcher gitHubContentFetcher;
     private final LocalFileClient localFileClient;
     private final List<DocumentParser> parsers;
-    private final DocumentChunker chunker;
+    private final SectionChunker chunker;
+    private final ChunkingProperties chunkingProperties;
+    private final LibraryRepository libraryRepository;
     private final VectorStore vectorStore;
     private final DocumentChunkConverter chunkConverter;
     private final DocumentRepository documentRepository;
     private final DocumentChunkRepository chunkRepository;
     private final CodeExampleRepository codeExampleRepository;
     private final SyncHistoryRepository syncHistoryRepository;
+    private final RelatedDocsService relatedDocsService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 執行中寫入進度的間隔（毫秒）
+     */
+    @Value("${docmcp.sync.progress-interval-ms:2000}")
+    private long progressIntervalMs;
 
     public SyncService(IdService idService,
-                       GitHubContentFetcher gitHubContentFetcher,
-                       LocalFileClient localFileClient,
-                       List<DocumentParser> parsers,
-                       DocumentChunker chunker,
+                       @Lazy GitHubContentFetcher gitHubContentFetcher,
+                       @Lazy LocalFileClient localFileClient,
+                       @Lazy List<DocumentParser> parsers,
+                       SectionChunker chunker,
+                       ChunkingProperties chunkingProperties,
+                       LibraryRepository libraryRepository,
                        VectorStore vectorStore,
                        DocumentChunkConverter chunkConverter,
                        DocumentRepository documentRepository,
                        DocumentChunkRepository chunkRepository,
                        CodeExampleRepository codeExampleRepository,
-                       SyncHistoryRepository syncHistoryRepository) {
+                       SyncHistoryRepository syncHistoryRepository,
+                       RelatedDocsService relatedDocsService,
+                       ApplicationEventPublisher eventPublisher) {
         this.idService = idService;
         this.gitHubContentFetcher = gitHubContentFetcher;
         this.localFileClient = localFileClient;
         this.parsers = parsers;
         this.chunker = chunker;
+        this.chunkingProperties = chunkingProperties;
+        this.libraryRepository = libraryRepository;
         this.vectorStore = vectorStore;
         this.chunkConverter = chunkConverter;
         this.documentRepository = documentRepository;
         this.chunkRepository = chunkRepository;
         this.codeExampleRepository = codeExampleRepository;
         this.syncHistoryRepository = syncHistoryRepository;
+        this.relatedDocsService = relatedDocsService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -105,35 +154,50 @@ public class SyncService {
 
         // 建立同步記錄
         SyncHistory syncHistory = createSyncHistory(versionId);
+        SyncProgress progress = new SyncProgress();
 
         try {
             // 更新狀態為執行中
             syncHistory = updateSyncStatus(syncHistory, SyncStatus.RUNNING, null);
 
             // 使用策略模式取得所有文件（自動選擇最佳策略）
+            long fetchStart = System.currentTimeMillis();
             FetchResult fetchResult = gitHubContentFetcher.fetch(owner, repo, docsPath, ref);
-            List<GitHubFile> files = fetchResult.files();
+            List<GitHubFile> files = fetchResult.files().stream()
+                    .filter(file -> file.isFile() && isSupportedFile(file.path()))
+                    .toList();
             log.info("Found {} files to sync using strategy: {}", files.size(), fetchResult.strategyUsed());
 
+            // Archive 策略的解壓耗時包含在 fetch() 內，另計於 extract 階段
+            long fetchMillis = System.currentTimeMillis() - fetchStart;
+            progress.addStageMillis(Stage.FETCH, Math.max(0, fetchMillis - fetchResult.extractMillis()));
+            progress.addStageMillis(Stage.EXTRACT, fetchResult.extractMillis());
+            progress.addBytes(fetchResult.bytesDownloaded());
+            progress.start(fetchResult.strategyUsed(), files.size());
+
             int documentsProcessed = 0;
             int chunksCreated = 0;
+            ChunkSizing sizing = resolveChunkSizing(versionId);
 
             // 處理每個文件
             for (GitHubFile file : files) {
-                if (file.isFile() && isSupportedFile(file.path())) {
-                    try {
-                        SyncResult result = processFile(versionId, owner, repo, file, ref, fetchResult);
-                        documentsProcessed++;
-                        chunksCreated += result.chunksCreated();
-                    } catch (Exception e) {
-                        log.error("Failed to process file: {}", file.path(), e);
-                    }
+                try {
+                    SyncResult result = EmbeddingObservation.observe(progress,
+                            () -> processFile(versionId, owner, repo, file, ref, fetchResult, sizing, progress));
+                    documentsProcessed++;
+                    chunksCreated += result.chunksCreated();
+                } catch (Exception e) {
+                    progress.fileFailed();
+                    log.error("Failed to process file: {}", file.path(), e);
                 }
+                syncHistory = reportProgress(syncHistory, progress, documentsProcessed, chunksCreated);
             }
 
             // 更新狀態為成功
             syncHistory = completeSyncHistory(syncHistory, SyncStatus.SUCCESS,
-                    documentsProcessed, chunksCreated, null);
+                    documentsProcessed, chunksCreated, null, progress);
+            eventPublisher.publishEvent(new SyncCompletedEvent(
+                    versionId, syncHistory.getId(), documentsProcessed, chunksCreated));
 
             log.info("GitHub sync completed for version: {}. Processed {} documents, created {} chunks (strategy: {})",
                     versionId, documentsProcessed, chunksCreated, fetchResult.strategyUsed());
@@ -144,7 +208,7 @@ public class SyncService {
             log.error("GitHub sync failed for version: {}", versionId, e);
 
             // 更新狀態為失敗
-            syncHistory = completeSyncHistory(syncHistory, SyncStatus.FAILED, 0, 0, e.getMessage());
+            syncHistory = completeSyncHistory(syncHistory, SyncStatus.FAILED, 0, 0, e.getMessage(), progress);
 
             return CompletableFuture.completedFuture(syncHistory);
         }
@@ -205,36 +269,46 @@ public class SyncService {
 
         // 建立同步記錄
         SyncHistory syncHistory = createSyncHistory(versionId);
+        SyncProgress progress = new SyncProgress();
 
         try {
             // 更新狀態為執行中
             syncHistory = updateSyncStatus(syncHistory, SyncStatus.RUNNING, null);
 
             // 讀取本地文件
-            List<LocalFileClient.FileContent> files = localFileClient.readDirectory(localPath, pattern);
+            long readStart = System.currentTimeMillis();
+            List<LocalFileClient.FileContent> files = localFileClient.readDirectory(localPath, pattern).stream()
+                    .filter(file -> isSupportedFile(file.path()))
+                    .toList();
+            progress.addStageMillis(Stage.FETCH, System.currentTimeMillis() - readStart);
             log.info("Found {} files to sync from local", files.size());
+            progress.start("Local", files.size());
 
             int documentsProcessed = 0;
             int chunksCreated = 0;
+            ChunkSizing sizing = resolveChunkSizing(versionId);
 
             // 處理每個文件
             for (LocalFileClient.FileContent file : files) {
-                if (isSupportedFile(file.path())) {
-                    try {
-                        SyncResult result = processLocalFile(versionId, file);
-                        if (result.processed()) {
-                            documentsProcessed++;
-                            chunksCreated += result.chunksCreated();
-                        }
-                    } catch (Exception e) {
-                        log.error("Failed to process local file: {}", file.path(), e);
+                try {
+                    SyncResult result = EmbeddingObservation.observe(progress,
+                            () -> processLocalFile(versionId, file, sizing, progress));
+                    if (result.processed()) {
+                        documentsProcessed++;
+                        chunksCreated += result.chunksCreated();
                     }
+                } catch (Exception e) {
+                    progress.fileFailed();
+                    log.error("Failed to process local file: {}", file.path(), e);
                 }
+                syncHistory = reportProgress(syncHistory, progress, documentsProcessed, chunksCreated);
             }
 
             // 更新狀態為成功
             syncHistory = completeSyncHistory(syncHistory, SyncStatus.SUCCESS,
-                    documentsProcessed, chunksCreated, null);
+                    documentsProcessed, chunksCreated, null, progress);
+            eventPublisher.publishEvent(new SyncCompletedEvent(
+                    versionId, syncHistory.getId(), documentsProcessed, chunksCreated));
 
             log.info("Local sync completed for version: {}. Processed {} documents, created {} chunks",
                     versionId, documentsProcessed, chunksCreated);
@@ -243,12 +317,12 @@ public class SyncService {
 
         } catch (IOException e) {
             log.error("Local sync failed for version: {} - IO error", versionId, e);
-            syncHistory = completeSyncHistory(syncHistory, SyncStatus.FAILED, 0, 0, e.getMessage());
+            syncHistory = completeSyncHistory(syncHistory, SyncStatus.FAILED, 0, 0, e.getMessage(), progress);
             return CompletableFuture.completedFuture(syncHistory);
 
         } catch (Exception e) {
             log.error("Local sync failed for version: {}", versionId, e);
-            syncHistory = completeSyncHistory(syncHistory, SyncStatus.FAILED, 0, 0, e.getMessage());
+            syncHistory = completeSyncHistory(syncHistory, SyncStatus.FAILED, 0, 0, e.getMessage(), progress);
             return CompletableFuture.completedFuture(syncHistory);
         }
     }
@@ -257,17 +331,19 @@ public class SyncService {
      * 處理本地文件
      */
     @Transactional
-    protected SyncResult processLocalFile(String versionId, LocalFileClient.FileContent file) {
+    protected SyncResult processLocalFile(String versionId, LocalFileClient.FileContent file, ChunkSizing sizing,
+                                          SyncProgress progress) {
         String content = file.content();
         String path = file.path();
 
-        // 計算內容雜湊
-        String contentHash = calculateHash(content);
+        // 計算內容雜湊（含正規化版本）
+        String contentHash = calculateContentHash(content);
 
         // 檢查是否已存在且內容相同
         Optional<Document> existingDoc = documentRepository.findByVersionIdAndPath(versionId, path);
         if (existingDoc.isPresent() && contentHash.equals(existingDoc.get().getContentHash())) {
             log.debug("Skipping unchanged local file: {}", path);
+            progress.fileSkipped();
             return new SyncResult(0, false);
         }
 
@@ -275,35 +351,37 @@ public class SyncService {
         DocumentParser parser = findParser(path);
         if (parser == null) {
             log.warn("No parser found for local file: {}", path);
+            progress.fileSkipped();
             return new SyncResult(0, false);
         }
 
-        // 解析文件
-        ParsedDocument parsed = parser.parse(content, path);
-
-        // 刪除舊資料（如果存在）
-        if (existingDoc.isPresent()) {
-            String docId = existingDoc.get().getId();
-            codeExampleRepository.findByDocumentId(docId)
-                    .forEach(ex -> codeExampleRepository.delete(ex));
-            chunkRepository.findByDocumentIdOrderByChunkIndex(docId)
-                    .forEach(chunk -> chunkRepository.delete(chunk));
-            documentRepository.delete(existingDoc.get());
-        }
+        // 解析文件（停用章節分塊時不需要章節結構，解析器可使用較快的方式）
+        ParsedDocument parsed = progress.time(Stage.PARSE, () -> sizing.sectionAware()
+                ? parser.parse(content, path)
+                : parser.parseWithoutSections(content, path));
 
         // 使用 IdService 生成新文件 ID
         String documentId = idService.generateId();
 
-        // 儲存文件
-        Document document = Document.create(documentId, versionId, parsed.title(), path,
-                content, contentHash, parser.getDocType());
-        document = documentRepository.save(document);
+        progress.run(Stage.PERSIST, () -> {
+            // 刪除舊資料（如果存在）
+            if (existingDoc.isPresent()) {
+                String docId = existingDoc.get().getId();
+                codeExampleRepository.findByDocumentId(docId)
+                        .forEach(ex -> codeExampleRepository.delete(ex));
+                chunkRepository.deleteByDocumentId(docId);
+                documentRepository.delete(existingDoc.get());
+            }
 
-        // 分塊並使用 VectorStore 批次建立嵌入
-        List<DocumentChunker.ChunkResult> chunks = chunker.chunk(content);
+            // 儲存解析後的正規化內容（HTML 已轉為 Markdown），雜湊以原始內容與正規化版本計算以判斷是否變更
+            Document document = Document.create(documentId, versionId, parsed.title(), path,
+                    parsed.content(), contentHash, parser.getDocType());
+            documentRepository.save(document);
+        });
 
-        // 建立 Spring AI Document 列表，由 VectorStore 自動生成 embedding
-        List<org.springframework.ai.document.Document> aiDocs = chunks.stream()
+        // 依章節分塊，建立 Spring AI Document 列表，由 VectorStore 自動生成 embedding
+        List<DocumentChunker.ChunkResult> chunks = progress.time(Stage.CHUNK, () -> chunker.chunk(parsed, sizing));
+        List<org.springframework.ai.document.Document> aiDocs = progress.time(Stage.CHUNK, () -> chunks.stream()
                 .map(chunkResult -> chunkConverter.createNewChunkDocument(
                         versionId,
                         documentId,
@@ -311,21 +389,29 @@ public class SyncService {
                         chunkResult.content(),
                         chunkResult.tokenCount(),
                         parsed.title(),
-                        path
+                        path,
+                        chunkResult.headingPath()
                 ))
-                .toList();
+                .toList());
+        progress.addEmbeddingTokens(chunks.stream().mapToLong(DocumentChunker.ChunkResult::tokenCount).sum());
+
+        // 使用 VectorStore.add() 批次儲存（自動 embed，embedding 耗時另計於 embed 階段）
+        progress.run(Stage.PERSIST, () -> vectorStore.add(aiDocs));
 
-        // 使用 VectorStore.add() 批次儲存（自動 embed）
-        vectorStore.add(aiDocs);
+        // 區塊寫入後計算文件質心（get_related_docs 使用）
+        progress.run(Stage.PERSIST, () -> relatedDocsService.computeCentroid(documentId));
 
         // 儲存程式碼範例
-        for (ParsedDocument.CodeBlock codeBlock : parsed.codeBlocks()) {
-            String codeExampleId = idService.generateId();
-            CodeExample example = CodeExample.create(codeExampleId, documentId, codeBlock.language(),
-                    codeBlock.code(), codeBlock.description());
-            codeExampleRepository.save(example);
-        }
+        progress.run(Stage.PERSIST, () -> {
+            for (ParsedDocument.CodeBlock codeBlock : parsed.codeBlocks()) {
+                String codeExampleId = idService.generateId();
+                CodeExample example = CodeExample.create(codeExampleId, documentId, codeBlock.language(),
+                        codeBlock.code(), codeBlock.description());
+                codeExampleRepository.save(example);
+            }
+        });
 
+        progress.fileProcessed();
         return new SyncResult(chunks.size(), true);
     }
 
@@ -338,21 +424,29 @@ public class SyncService {
      * @param file        檔案資訊
      * @param ref         Git 參考
      * @param fetchResult 取得結果（可能包含預載入的內容）
+     * @param sizing      分塊大小
+     * @param progress    同步進度
      * @return 同步結果
      */
     @Transactional
     protected SyncResult processFile(String versionId, String owner, String repo,
-                                      GitHubFile file, String ref, FetchResult fetchResult) {
+                                      GitHubFile file, String ref, FetchResult fetchResult,
+                                      ChunkSizing sizing, SyncProgress progress) {
         // 取得文件內容（優先使用預載入內容，否則從 raw URL 下載）
-        String content = gitHubContentFetcher.getFileContent(fetchResult, owner, repo, file.path(), ref);
+        String content = progress.time(Stage.FETCH,
+                () -> gitHubContentFetcher.getFileContent(fetchResult, owner, repo, file.path(), ref));
+        if (!fetchResult.hasContent(file.path())) {
+            progress.addBytes(content.getBytes(StandardCharsets.UTF_8).length);
+        }
 
-        // 計算內容雜湊
-        String contentHash = calculateHash(content);
+        // 計算內容雜湊（含正規化版本）
+        String contentHash = calculateContentHash(content);
 
         // 檢查是否已存在且內容相同
         Optional<Document> existingDoc = documentRepository.findByVersionIdAndPath(versionId, file.path());
         if (existingDoc.isPresent() && contentHash.equals(existingDoc.get().getContentHash())) {
             log.debug("Skipping unchanged file: {}", file.path());
+            progress.fileSkipped();
             return new SyncResult(0, false);
         }
 
@@ -360,35 +454,37 @@ public class SyncService {
         DocumentParser parser = findParser(file.path());
         if (parser == null) {
             log.warn("No parser found for file: {}", file.path());
+            progress.fileSkipped();
             return new SyncResult(0, false);
         }
 
-        // 解析文件
-        ParsedDocument parsed = parser.parse(content, file.path());
-
-        // 刪除舊資料（如果存在）
-        if (existingDoc.isPresent()) {
-            String docId = existingDoc.get().getId();
-            codeExampleRepository.findByDocumentId(docId)
-                    .forEach(ex -> codeExampleRepository.delete(ex));
-            chunkRepository.findByDocumentIdOrderByChunkIndex(docId)
-                    .forEach(chunk -> chunkRepository.delete(chunk));
-            documentRepository.delete(existingDoc.get());
-        }
+        // 解析文件（停用章節分塊時不需要章節結構，解析器可使用較快的方式）
+        ParsedDocument parsed = progress.time(Stage.PARSE, () -> sizing.sectionAware()
+                ? parser.parse(content, file.path())
+                : parser.parseWithoutSections(content, file.path()));
 
         // 使用 IdService 生成新文件 ID
         String documentId = idService.generateId();
 
-        // 儲存文件
-        Document document = Document.create(documentId, versionId, parsed.title(), file.path(),
-                content, contentHash, parser.getDocType());
-        document = documentRepository.save(document);
+        progress.run(Stage.PERSIST, () -> {
+            // 刪除舊資料（如果存在）
+            if (existingDoc.isPresent()) {
+                String docId = existingDoc.get().getId();
+                codeExampleRepository.findByDocumentId(docId)
+                        .forEach(ex -> codeExampleRepository.delete(ex));
+                chunkRepository.deleteByDocumentId(docId);
+                documentRepository.delete(existingDoc.get());
+            }
 
-        // 分塊並使用 VectorStore 批次建立嵌入
-        List<DocumentChunker.ChunkResult> chunks = chunker.chunk(content);
+            // 儲存解析後的正規化內容（HTML 已轉為 Markdown），雜湊以原始內容與正規化版本計算以判斷是否變更
+            Document document = Document.create(documentId, versionId, parsed.title(), file.path(),
+                    parsed.content(), contentHash, parser.getDocType());
+            documentRepository.save(document);
+        });
 
-        // 建立 Spring AI Document 列表，由 VectorStore 自動生成 embedding
-        List<org.springframework.ai.document.Document> aiDocs = chunks.stream()
+        // 依章節分塊，建立 Spring AI Document 列表，由 VectorStore 自動生成 embedding
+        List<DocumentChunker.ChunkResult> chunks = progress.time(Stage.CHUNK, () -> chunker.chunk(parsed, sizing));
+        List<org.springframework.ai.document.Document> aiDocs = progress.time(Stage.CHUNK, () -> chunks.stream()
                 .map(chunkResult -> chunkConverter.createNewChunkDocument(
                         versionId,
                         documentId,
@@ -396,24 +492,40 @@ public class SyncService {
                         chunkResult.content(),
                         chunkResult.tokenCount(),
                         parsed.title(),
-                        file.path()
+                        file.path(),
+                        chunkResult.headingPath()
                 ))
-                .toList();
+                .toList());
+        progress.addEmbeddingTokens(chunks.stream().mapToLong(DocumentChunker.ChunkResult::tokenCount).sum());
+
+        // 使用 VectorStore.add() 批次儲存（自動 embed，embedding 耗時另計於 embed 階段）
+        progress.run(Stage.PERSIST, () -> vectorStore.add(aiDocs));
 
-        // 使用 VectorStore.add() 批次儲存（自動 embed）
-        vectorStore.add(aiDocs);
+        // 區塊寫入後計算文件質心（get_related_docs 使用）
+        progress.run(Stage.PERSIST, () -> relatedDocsService.computeCentroid(documentId));
 
         // 儲存程式碼範例
-        for (ParsedDocument.CodeBlock codeBlock : parsed.codeBlocks()) {
-            String codeExampleId = idService.generateId();
-            CodeExample example = CodeExample.create(codeExampleId, documentId, codeBlock.language(),
-                    codeBlock.code(), codeBlock.description());
-            codeExampleRepository.save(example);
-        }
+        progress.run(Stage.PERSIST, () -> {
+            for (ParsedDocument.CodeBlock codeBlock : parsed.codeBlocks()) {
+                String codeExampleId = idService.generateId();
+                CodeExample example = CodeExample.create(codeExampleId, documentId, codeBlock.language(),
+                        codeBlock.code(), codeBlock.description());
+                codeExampleRepository.save(example);
+            }
+        });
 
+        progress.fileProcessed();
         return new SyncResult(chunks.size(), true);
     }
 
+    /**
+     * 取得版本所屬函式庫的分塊大小
+     */
+    private ChunkSizing resolveChunkSizing(String versionId) {
+        String libraryName = libraryRepository.findNameByVersionId(versionId).orElse(null);
+        return chunkingProperties.sizingFor(libraryName);
+    }
+
     private boolean isSupportedFile(String path) {
         return parsers.stream().anyMatch(p -> p.supports(path));
     }
@@ -425,7 +537,17 @@ public class SyncService {
                 .orElse(null);
     }
 
-    private String calculateHash(String content) {
+    /**
+     * 計算文件內容雜湊
+     * <p>
+     * 以正規化版本與原始內容計算，正規化規則改變後舊雜湊不再相符，文件會重新處理。
+     * </p>
+     */
+    static String calculateContentHash(String content) {
+        return calculateHash("v" + CONTENT_NORMALIZATION_VERSION + "\n" + content);
+    }
+
+    private static String calculateHash(String content) {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
             byte[] hash = digest.digest(content.getBytes(StandardCharsets.UTF_8));
@@ -477,16 +599,50 @@ public class SyncService {
         return syncHistoryRepository.save(updated);
     }
 
+    /**
+     * 寫入執行中的同步進度
+     * <p>
+     * 距上次寫入未達 {@code progressIntervalMs} 時不寫入；寫入失敗只記錄警告，不中斷同步。
+     * </p>
+     */
+    private SyncHistory reportProgress(SyncHistory history, SyncProgress progress,
+                                       int documentsProcessed, int chunksCreated) {
+        if (!progress.isReportDue(progressIntervalMs)) {
+            return history;
+        }
+        try {
+            SyncHistory updated = new SyncHistory(
+                    history.getId(),
+                    history.getVersionId(),
+                    SyncStatus.RUNNING,
+                    history.getStartedAt(),
+                    null,
+                    documentsProcessed,
+                    chunksCreated,
+                    null,
+                    progress.toMetadata(),
+                    history.getVersion(),  // 保留 version 以進行樂觀鎖定
+                    history.getCreatedAt(),
+                    history.getUpdatedAt()
+            );
+            return syncHistoryRepository.save(updated);
+        } catch (Exception e) {
+            log.warn("Failed to report sync progress for {}: {}", history.getId(), e.getMessage());
+            return history;
+        }
+    }
+
     /**
      * 完成同步歷史記錄
      * <p>
-     * 使用 public constructor 創建實體，保留 version 以進行樂觀鎖定
+     * 使用 public constructor 創建實體，保留 version 以進行樂觀鎖定。
+     * 失敗時也保留已累計的統計，方便判斷停在哪個階段。
      * </p>
      */
     @Transactional
     protected SyncHistory completeSyncHistory(SyncHistory history, SyncStatus status,
                                                int documentsProcessed, int chunksCreated,
-                                               String errorMessage) {
+                                               String errorMessage, SyncProgress progress) {
         SyncHistory updated = new SyncHistory(
                 history.getId(),
                 history.getVersionId(),
@@ -496,7 +652,7 @@ public class SyncService {
                 documentsProcessed,
                 chunksCreated,
                 errorMessage,
-                Map.of(),
+                progress.toMetadata(),
                 history.getVersion(),  // 保留 version 以進行樂觀鎖定
                 history.getCreatedAt(),
                 history.getUpdatedAt()
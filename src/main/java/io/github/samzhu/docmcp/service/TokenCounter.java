@@ -0,0 +1,35 @@
+package io.github.samzhu.docmcp.service;
+
+/**
+ * Token 計數器
+ * <p>
+ * 分塊時用來計算區塊的 token 數。預設為 {@link HeuristicTokenCounter}；
+ * 若 embedding 模型有可用的 tokenizer，可註冊自訂的 {@code TokenCounter} Bean 取代預設實作，
+ * 讓分塊大小與 metadata.tokenCount 對應模型實際的 token 數。
+ * </p>
+ * <p>
+ * 實作只讀取指定範圍的字元，呼叫端不需為了計數建立子字串。
+ * </p>
+ */
+public interface TokenCounter {
+
+    /**
+     * 計算指定範圍的 token 數
+     *
+     * @param text  文字
+     * @param start 起始位置（包含）
+     * @param end   結束位置（不包含）
+     * @return token 數
+     */
+    int countTokens(CharSequence text, int start, int end);
+
+    /**
+     * 計算整段文字的 token 數
+     *
+     * @param text 文字（可為 null）
+     * @return token 數
+     */
+    default int countTokens(CharSequence text) {
+        return text == null ? 0 : countTokens(text, 0, text.length());
+    }
+}
@@ -53,7 +53,7 @@ public class DocumentController {
 
         var version = libraryService.getVersionById(versionId);
         var library = libraryService.getLibraryById(version.getLibraryId());
-        var documents = documentRepository.findByVersionIdOrderByPathAsc(versionId);
+        var documents = documentRepository.findSummariesByVersionIdOrderByPathAsc(versionId);
 
         model.addAttribute("pageTitle", "Documents - " + library.getDisplayName() + " " + version.getVersion());
         model.addAttribute("currentPage", "documents");
@@ -50,6 +50,7 @@ public class SettingsController {
         model.addAttribute("migrationGuidesEnabled", featureFlags.isMigrationGuides());
         model.addAttribute("syncSchedulingEnabled", featureFlags.isSyncScheduling());
         model.addAttribute("concurrencyLimitEnabled", featureFlags.isConcurrencyLimit());
+        model.addAttribute("rateLimitEnabled", featureFlags.isRateLimit());
 
         // 同步設定
         model.addAttribute("syncCron", syncCron);
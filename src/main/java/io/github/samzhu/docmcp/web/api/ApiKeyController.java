@@ -3,6 +3,7 @@ package io.github.samzhu.docmcp.web.api;
 import io.github.samzhu.docmcp.security.ApiKeyAuthenticationFilter;
 import io.github.samzhu.docmcp.security.ApiKeyService;
 import io.github.samzhu.docmcp.web.dto.ApiKeyDto;
+import io.github.samzhu.docmcp.web.dto.ApiKeyUsageDto;
 import io.github.samzhu.docmcp.web.dto.CreateApiKeyRequest;
 import io.github.samzhu.docmcp.web.dto.GeneratedApiKeyDto;
 import jakarta.validation.Valid;
@@ -22,7 +23,7 @@ import java.util.List;
 /**
  * API Key 管理 REST API
  * <p>
- * 提供 API Key 的建立、列表、撤銷功能。
+ * 提供 API Key 的建立、列表、撤銷與使用統計功能。
  * 所有端點需要已認證的 API Key。
  * </p>
  */
@@ -87,6 +88,20 @@ public class ApiKeyController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * 取得 API Key 的使用統計
+     *
+     * @param id 金鑰 ID（TSID 格式）
+     * @return 使用統計（本實例啟動後未使用過時回傳 404）
+     */
+    @GetMapping("/{id}/usage")
+    public ResponseEntity<ApiKeyUsageDto> getUsage(@PathVariable String id) {
+        return apiKeyService.getUsage(id)
+                .map(ApiKeyUsageDto::from)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     /**
      * 撤銷 API Key
      *
@@ -0,0 +1,96 @@
+package io.github.samzhu.docmcp.web.api;
+
+import io.github.samzhu.docmcp.service.EmbeddingMigrationService;
+import io.github.samzhu.docmcp.web.dto.EmbeddingMigrationDto;
+import io.github.samzhu.docmcp.web.dto.StartEmbeddingMigrationRequest;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Embedding 模型遷移 REST API
+ * <p>
+ * 提供模型遷移的啟動、取消、結束回復期與進度查詢功能。
+ * </p>
+ */
+@RestController
+@RequestMapping("/api/embedding/migrations")
+public class EmbeddingMigrationController {
+
+    private final EmbeddingMigrationService migrationService;
+
+    public EmbeddingMigrationController(EmbeddingMigrationService migrationService) {
+        this.migrationService = migrationService;
+    }
+
+    /**
+     * 開始新的模型遷移
+     *
+     * @param request 目標模型設定
+     * @return 新建立的遷移記錄
+     */
+    @PostMapping
+    public ResponseEntity<EmbeddingMigrationDto> startMigration(
+            @RequestBody @Valid StartEmbeddingMigrationRequest request) {
+        var migration = migrationService.startMigration(request.targetModel(), request.targetDimensions());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(EmbeddingMigrationDto.from(migration));
+    }
+
+    /**
+     * 取得遷移記錄
+     *
+     * @param limit 結果數量上限（預設 10）
+     * @return 遷移記錄列表
+     */
+    @GetMapping
+    public List<EmbeddingMigrationDto> listMigrations(@RequestParam(defaultValue = "10") int limit) {
+        return migrationService.listMigrations(limit).stream()
+                .map(EmbeddingMigrationDto::from)
+                .toList();
+    }
+
+    /**
+     * 取得進行中的遷移
+     *
+     * @return 進行中的遷移，若無則回傳 404
+     */
+    @GetMapping("/active")
+    public ResponseEntity<EmbeddingMigrationDto> getActiveMigration() {
+        return migrationService.getInProgress()
+                .map(EmbeddingMigrationDto::from)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 取消進行中的遷移
+     *
+     * @param id 遷移 ID（TSID 格式）
+     */
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<Void> cancelMigration(@PathVariable String id) {
+        migrationService.cancelMigration(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * 結束遷移的回復期，刪除切換前保留的舊向量欄位
+     *
+     * @param id 遷移 ID（TSID 格式，需為最近一次完成的遷移）
+     */
+    @PostMapping("/{id}/finalize")
+    public ResponseEntity<Void> finalizeMigration(@PathVariable String id) {
+        migrationService.finalizeMigration(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -2,6 +2,7 @@ package io.github.samzhu.docmcp.web.api;
 
 import io.github.samzhu.docmcp.domain.exception.DocumentNotFoundException;
 import io.github.samzhu.docmcp.domain.exception.LibraryNotFoundException;
+import io.github.samzhu.docmcp.service.EmbeddingMigrationService;
 import io.github.samzhu.docmcp.service.SyncService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -63,6 +64,18 @@ public class GlobalExceptionHandler {
         return problem;
     }
 
+    /**
+     * 處理 embedding 遷移例外
+     */
+    @ExceptionHandler(EmbeddingMigrationService.MigrationException.class)
+    public ProblemDetail handleMigrationException(EmbeddingMigrationService.MigrationException ex) {
+        log.warn("Embedding migration error: {}", ex.getMessage());
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
+        problem.setTitle("Embedding Migration Error");
+        problem.setType(URI.create("https://docmcp.io/errors/embedding-migration-error"));
+        return problem;
+    }
+
     /**
      * 處理驗證例外
      */
@@ -0,0 +1,36 @@
+package io.github.samzhu.docmcp.web.dto;
+
+import io.github.samzhu.docmcp.security.ApiKeyUsageTracker;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * API Key 使用統計資料傳輸物件
+ * <p>
+ * 為回應請求的實例自啟動以來的統計，多實例部署時各實例分別計算。
+ * </p>
+ *
+ * @param id                金鑰 ID
+ * @param totalRequests     請求總數
+ * @param lastUsedAt        最後使用時間
+ * @param requestsPerMinute 最近 60 分鐘的每分鐘請求數（由舊到新）
+ */
+public record ApiKeyUsageDto(
+        String id,
+        long totalRequests,
+        OffsetDateTime lastUsedAt,
+        List<Long> requestsPerMinute
+) {
+    /**
+     * 從使用統計轉換
+     */
+    public static ApiKeyUsageDto from(ApiKeyUsageTracker.Usage usage) {
+        return new ApiKeyUsageDto(
+                usage.keyId(),
+                usage.totalRequests(),
+                usage.lastUsedAt(),
+                usage.requestsPerMinute()
+        );
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.samzhu.docmcp.web.dto;
+
+import io.github.samzhu.docmcp.domain.enums.EmbeddingMigrationStatus;
+import io.github.samzhu.docmcp.domain.model.EmbeddingMigration;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Embedding 模型遷移資料傳輸物件
+ *
+ * @param id               遷移 ID（TSID 格式）
+ * @param sourceModel      來源模型名稱
+ * @param sourceDimensions 來源向量維度
+ * @param targetModel      目標模型名稱
+ * @param targetDimensions 目標向量維度
+ * @param status           遷移狀態
+ * @param totalChunks      需要重新嵌入的區塊總數
+ * @param migratedChunks   已重新嵌入的區塊數
+ * @param progressPercent  進度百分比
+ * @param errorMessage     錯誤訊息
+ * @param startedAt        開始時間
+ * @param completedAt      完成時間
+ */
+public record EmbeddingMigrationDto(
+        String id,
+        String sourceModel,
+        Integer sourceDimensions,
+        String targetModel,
+        Integer targetDimensions,
+        EmbeddingMigrationStatus status,
+        Integer totalChunks,
+        Integer migratedChunks,
+        int progressPercent,
+        String errorMessage,
+        OffsetDateTime startedAt,
+        OffsetDateTime completedAt
+) {
+    /**
+     * 從 EmbeddingMigration 實體轉換
+     */
+    public static EmbeddingMigrationDto from(EmbeddingMigration migration) {
+        return new EmbeddingMigrationDto(
+                migration.getId(),
+                migration.getSourceModel(),
+                migration.getSourceDimensions(),
+                migration.getTargetModel(),
+                migration.getTargetDimensions(),
+                migration.getStatus(),
+                migration.getTotalChunks(),
+                migration.getMigratedChunks(),
+                migration.getProgressPercent(),
+                migration.getErrorMessage(),
+                migration.getStartedAt(),
+                migration.getCompletedAt()
+        );
+    }
+}
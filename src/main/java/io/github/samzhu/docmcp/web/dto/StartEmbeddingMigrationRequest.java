@@ -0,0 +1,20 @@
+package io.github.samzhu.docmcp.web.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * 開始 embedding 模型遷移請求
+ *
+ * @param targetModel      目標模型名稱
+ * @param targetDimensions 目標輸出維度
+ */
+public record StartEmbeddingMigrationRequest(
+        @NotBlank(message = "目標模型不可為空")
+        String targetModel,
+
+        @Min(value = 1, message = "目標維度必須大於 0")
+        @Max(value = 2000, message = "目標維度不可超過 2000（HNSW 索引限制）")
+        int targetDimensions
+) {}
@@ -54,14 +54,19 @@ CREATE TABLE IF NOT EXISTS documents (
     doc_type VARCHAR(50),
     metadata JSONB DEFAULT '{}',
     search_vector TSVECTOR,
+    migration_relevance VARCHAR(20),
     version BIGINT DEFAULT 0,
     created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
     UNIQUE(version_id, path)
 );
 
+-- 既有資料庫補上遷移相關性欄位
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS migration_relevance VARCHAR(20);
+
 COMMENT ON TABLE documents IS '儲存文件內容和元資料';
 COMMENT ON COLUMN documents.search_vector IS '全文檢索向量';
+COMMENT ON COLUMN documents.migration_relevance IS '遷移相關性（同步後分類）: MIGRATION, UPGRADE, BREAKING_CHANGES, RELEASE_NOTES, NONE；NULL 表示尚未分類';
 
 -- 建立 document_chunks 表（文件區塊表，含向量嵌入）
 CREATE TABLE IF NOT EXISTS document_chunks (
@@ -72,14 +77,19 @@ CREATE TABLE IF NOT EXISTS document_chunks (
     embedding vector(768),
     token_count INTEGER,
     metadata JSONB DEFAULT '{}',
+    embedding_claimed_until TIMESTAMP WITH TIME ZONE,
     version BIGINT DEFAULT 0,
     created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
     UNIQUE(document_id, chunk_index)
 );
 
+-- 既有資料庫補上重新嵌入的領取期限欄位
+ALTER TABLE document_chunks ADD COLUMN IF NOT EXISTS embedding_claimed_until TIMESTAMP WITH TIME ZONE;
+
 COMMENT ON TABLE document_chunks IS '儲存分塊的文件內容與向量嵌入';
-COMMENT ON COLUMN document_chunks.embedding IS '768 維度向量，用於語意搜尋 (text-embedding-004)';
+COMMENT ON COLUMN document_chunks.embedding IS '語意搜尋向量，維度與模型記錄於最近一次完成的 embedding_migrations（無遷移時為設定的預設模型）';
+COMMENT ON COLUMN document_chunks.embedding_claimed_until IS 'embedding 遷移批次的領取期限，期限內其他實例不會重複領取';
 
 -- 建立 code_examples 表（程式碼範例表）
 CREATE TABLE IF NOT EXISTS code_examples (
@@ -138,6 +148,60 @@ COMMENT ON COLUMN api_keys.key_hash IS 'BCrypt 雜湊後的金鑰';
 COMMENT ON COLUMN api_keys.key_prefix IS '金鑰前綴，用於識別（如 dmcp_xxxx）';
 COMMENT ON COLUMN api_keys.status IS '金鑰狀態: ACTIVE, REVOKED, EXPIRED';
 
+-- 建立 api_key_rate_limits 表（跨實例共用的 API Key token bucket）
+CREATE TABLE IF NOT EXISTS api_key_rate_limits (
+    key_id VARCHAR(13) PRIMARY KEY REFERENCES api_keys(id) ON DELETE CASCADE,
+    tokens DOUBLE PRECISION NOT NULL,
+    refilled_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+COMMENT ON TABLE api_key_rate_limits IS '各實例定期同步的速率限制 token bucket（api_keys.rate_limit）';
+COMMENT ON COLUMN api_key_rate_limits.tokens IS '上次同步時的剩餘請求數，超用時可為負值';
+
+-- 建立 embedding_migrations 表（Embedding 模型遷移記錄表）
+CREATE TABLE IF NOT EXISTS embedding_migrations (
+    id VARCHAR(13) PRIMARY KEY,
+    source_model VARCHAR(100) NOT NULL,
+    source_dimensions INTEGER NOT NULL,
+    target_model VARCHAR(100) NOT NULL,
+    target_dimensions INTEGER NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    total_chunks INTEGER DEFAULT 0,
+    migrated_chunks INTEGER DEFAULT 0,
+    error_message TEXT,
+    started_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    completed_at TIMESTAMP WITH TIME ZONE,
+    version BIGINT DEFAULT 0,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE embedding_migrations IS '追蹤 embedding 模型遷移（背景重新嵌入與切換）';
+COMMENT ON COLUMN embedding_migrations.status IS '遷移狀態: BACKFILLING, INDEXING, READY, COMPLETED, FAILED, CANCELLED';
+
+-- 建立 document_centroids 表（文件質心向量，get_related_docs 使用）
+-- 向量欄位不指定維度，embedding 模型切換時由遷移流程清空後重新計算
+CREATE TABLE IF NOT EXISTS document_centroids (
+    document_id VARCHAR(13) PRIMARY KEY REFERENCES documents(id) ON DELETE CASCADE,
+    version_id VARCHAR(13) NOT NULL REFERENCES library_versions(id) ON DELETE CASCADE,
+    centroid vector NOT NULL,
+    chunk_count INTEGER NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE document_centroids IS '文件所有區塊向量的平均值，代表整份文件的語意';
+
+-- 建立 related_documents 表（預先計算的相關文件，可選）
+CREATE TABLE IF NOT EXISTS related_documents (
+    document_id VARCHAR(13) NOT NULL REFERENCES documents(id) ON DELETE CASCADE,
+    related_document_id VARCHAR(13) NOT NULL REFERENCES documents(id) ON DELETE CASCADE,
+    rank INTEGER NOT NULL,
+    similarity DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (document_id, related_document_id)
+);
+
+COMMENT ON TABLE related_documents IS '同步完成後預先計算的同版本相關文件（docmcp.search.related.precompute）';
+
 -- 建立索引以優化查詢效能
 
 -- Libraries 索引
@@ -155,6 +219,7 @@ CREATE INDEX IF NOT EXISTS idx_library_versions_status ON library_versions(statu
 CREATE INDEX IF NOT EXISTS idx_documents_version_id ON documents(version_id);
 CREATE INDEX IF NOT EXISTS idx_documents_doc_type ON documents(doc_type);
 CREATE INDEX IF NOT EXISTS idx_documents_search_vector ON documents USING GIN(search_vector);
+CREATE INDEX IF NOT EXISTS idx_documents_migration_relevance ON documents(version_id) WHERE migration_relevance <> 'NONE';
 
 -- Document chunks 索引
 CREATE INDEX IF NOT EXISTS idx_document_chunks_document_id ON document_chunks(document_id);
@@ -163,6 +228,13 @@ CREATE INDEX IF NOT EXISTS idx_document_chunks_document_id ON document_chunks(do
 CREATE INDEX IF NOT EXISTS idx_document_chunks_metadata ON document_chunks USING GIN(metadata);
 CREATE INDEX IF NOT EXISTS idx_document_chunks_version_id ON document_chunks ((metadata->>'versionId'));
 
+-- Document chunks 向量索引（HNSW）不在此建立：非 CONCURRENTLY 的建立會在既有資料上長時間鎖定寫入，
+-- 改由 VectorIndexManager 於啟動後以 CREATE INDEX CONCURRENTLY 建立（模型遷移切換時以 RENAME 方式替換）
+
+-- Related documents 索引
+CREATE INDEX IF NOT EXISTS idx_document_centroids_version_id ON document_centroids(version_id);
+CREATE INDEX IF NOT EXISTS idx_related_documents_rank ON related_documents(document_id, rank);
+
 -- Code examples 索引
 CREATE INDEX IF NOT EXISTS idx_code_examples_document_id ON code_examples(document_id);
 CREATE INDEX IF NOT EXISTS idx_code_examples_language ON code_examples(language);
@@ -175,6 +247,9 @@ CREATE INDEX IF NOT EXISTS idx_sync_history_status ON sync_history(status);
 CREATE INDEX IF NOT EXISTS idx_api_keys_key_prefix ON api_keys(key_prefix);
 CREATE INDEX IF NOT EXISTS idx_api_keys_status ON api_keys(status);
 
+-- Embedding migrations 索引
+CREATE INDEX IF NOT EXISTS idx_embedding_migrations_status ON embedding_migrations(status);
+
 -- 注意：tsvector 觸發器需要在資料庫層面另外設定
 -- 因為 Spring SQL 初始化不支援 PostgreSQL 的 $$ 引用語法
 -- 可透過 psql 手動執行以下 SQL：
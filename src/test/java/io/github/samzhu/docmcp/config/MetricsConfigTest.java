@@ -0,0 +1,61 @@
+package io.github.samzhu.docmcp.config;
+
+import io.github.samzhu.docmcp.infrastructure.metrics.LibraryTagResolver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MetricsConfig 單元測試
+ */
+@DisplayName("MetricsConfig")
+class MetricsConfigTest {
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        registry.config().meterFilter(MetricsConfig.libraryTagLimit(2));
+    }
+
+    private void increment(String name, String library) {
+        Counter.builder(name).tag("library", library).register(registry).increment();
+    }
+
+    @Test
+    @DisplayName("should fold library tags beyond the limit into other instead of dropping them")
+    void shouldFoldOverflowIntoOther() {
+        // Act
+        increment("docmcp.search.calls", "LIB1");
+        increment("docmcp.search.calls", "LIB2");
+        increment("docmcp.search.calls", "LIB3");
+        increment("docmcp.search.calls", "LIB4");
+
+        // Assert
+        assertThat(registry.get("docmcp.search.calls").tag("library", "LIB1").counter().count()).isEqualTo(1);
+        assertThat(registry.get("docmcp.search.calls").tag("library", "LIB2").counter().count()).isEqualTo(1);
+        assertThat(registry.get("docmcp.search.calls").tag("library", LibraryTagResolver.OTHER)
+                .counter().count()).isEqualTo(2);
+        assertThat(registry.find("docmcp.search.calls").tag("library", "LIB3").counter()).isNull();
+    }
+
+    @Test
+    @DisplayName("should not count none and other toward the limit or touch other meters")
+    void shouldKeepReservedValuesAndOtherMeters() {
+        // Act
+        increment("docmcp.search.calls", "none");
+        increment("docmcp.search.calls", LibraryTagResolver.OTHER);
+        increment("docmcp.search.calls", "LIB1");
+        increment("docmcp.search.calls", "LIB2");
+        increment("http.client.calls", "LIB3");
+
+        // Assert
+        assertThat(registry.get("docmcp.search.calls").tag("library", "LIB2").counter().count()).isEqualTo(1);
+        assertThat(registry.get("http.client.calls").tag("library", "LIB3").counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.samzhu.docmcp.domain.enums;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MigrationRelevance 分類單元測試
+ */
+@DisplayName("MigrationRelevance")
+class MigrationRelevanceTest {
+
+    @Test
+    @DisplayName("should classify migration guide by title")
+    void shouldClassifyByTitle() {
+        assertThat(MigrationRelevance.classify(
+                "Migration Guide from 3.0 to 3.5", "docs/guide.md", "This guide helps you..."))
+                .isEqualTo(MigrationRelevance.MIGRATION);
+    }
+
+    @Test
+    @DisplayName("should classify upgrade guide by path")
+    void shouldClassifyByPath() {
+        assertThat(MigrationRelevance.classify(
+                "Version 3.5 Guide", "docs/upgrading-to-3.5.md", "Steps to follow..."))
+                .isEqualTo(MigrationRelevance.UPGRADE);
+    }
+
+    @Test
+    @DisplayName("should classify breaking changes by content")
+    void shouldClassifyByContent() {
+        assertThat(MigrationRelevance.classify(
+                "Version 3.5 Notes", "docs/notes.md", "## Breaking Changes\n\nThe following APIs have been removed..."))
+                .isEqualTo(MigrationRelevance.BREAKING_CHANGES);
+    }
+
+    @Test
+    @DisplayName("should classify changelog as release notes")
+    void shouldClassifyChangelogAsReleaseNotes() {
+        assertThat(MigrationRelevance.classify(
+                "Changelog", "CHANGELOG.md", "## [3.5.0] - 2024-01-15\n### Added\n- New feature..."))
+                .isEqualTo(MigrationRelevance.RELEASE_NOTES);
+    }
+
+    @Test
+    @DisplayName("should prefer title and path keywords over content keywords")
+    void shouldPreferTitleAndPathOverContent() {
+        assertThat(MigrationRelevance.classify(
+                "Changelog", "CHANGELOG.md", "How to migrate your configuration..."))
+                .isEqualTo(MigrationRelevance.RELEASE_NOTES);
+    }
+
+    @Test
+    @DisplayName("should only inspect the beginning of the content")
+    void shouldOnlyInspectContentPrefix() {
+        String content = "x".repeat(MigrationRelevance.CONTENT_PREFIX_LENGTH) + " migration";
+
+        assertThat(MigrationRelevance.classify("Notes", "docs/notes.md", content))
+                .isEqualTo(MigrationRelevance.NONE);
+    }
+
+    @Test
+    @DisplayName("should return NONE for unrelated documents")
+    void shouldReturnNoneForUnrelatedDocuments() {
+        assertThat(MigrationRelevance.classify(
+                "Getting Started", "docs/getting-started.md", "Welcome to our library!"))
+                .isEqualTo(MigrationRelevance.NONE);
+        assertThat(MigrationRelevance.classify("Getting Started", "docs/index.md", null))
+                .isEqualTo(MigrationRelevance.NONE);
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.samzhu.docmcp.domain.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * VersionComparator 單元測試
+ */
+@DisplayName("VersionComparator")
+class VersionComparatorTest {
+
+    private final VersionComparator comparator = VersionComparator.INSTANCE;
+
+    @Test
+    @DisplayName("should compare numeric segments numerically")
+    void shouldCompareNumericSegmentsNumerically() {
+        assertThat(comparator.compare("3.10.0", "3.9.0")).isPositive();
+        assertThat(comparator.compare("2.0.0", "10.0.0")).isNegative();
+        assertThat(comparator.compare("1.2.3", "1.2.3")).isZero();
+    }
+
+    @Test
+    @DisplayName("should treat missing trailing zeros and release qualifiers as equal")
+    void shouldTreatMissingZerosAndReleaseQualifiersAsEqual() {
+        assertThat(comparator.compare("3.0", "3.0.0")).isZero();
+        assertThat(comparator.compare("v3.0.0", "3.0.0")).isZero();
+        assertThat(comparator.compare("5.3.0.RELEASE", "5.3.0")).isZero();
+        assertThat(comparator.compare("1.01", "1.1")).isZero();
+    }
+
+    @Test
+    @DisplayName("should order pre-releases before the final release")
+    void shouldOrderPreReleasesBeforeFinalRelease() {
+        List<String> versions = new ArrayList<>(List.of(
+                "3.5.0", "3.5.0-RC1", "3.5.0-M2", "3.5.0-M1", "3.4.2", "3.5.1", "3.5.0-SNAPSHOT"));
+
+        versions.sort(comparator);
+
+        assertThat(versions).containsExactly(
+                "3.4.2", "3.5.0-M1", "3.5.0-M2", "3.5.0-RC1", "3.5.0-SNAPSHOT", "3.5.0", "3.5.1");
+    }
+
+    @Test
+    @DisplayName("should order alpha and beta qualifiers")
+    void shouldOrderAlphaAndBetaQualifiers() {
+        assertThat(comparator.compare("1.0.0-alpha.1", "1.0.0-beta.1")).isNegative();
+        assertThat(comparator.compare("1.0.0-beta.2", "1.0.0-beta.10")).isNegative();
+        assertThat(comparator.compare("1.0.0-rc.1", "1.0.1")).isNegative();
+    }
+
+    @Test
+    @DisplayName("should tokenize at separators and digit-letter boundaries")
+    void shouldTokenizeAtSeparatorsAndBoundaries() {
+        assertThat(VersionComparator.tokenize("v3.5.0-M1")).containsExactly("3", "5", "0", "m", "1");
+        assertThat(VersionComparator.tokenize("5.3.0.RELEASE")).containsExactly("5", "3", "0");
+    }
+}
@@ -29,12 +29,12 @@ class GitHubClientTest {
         // Remove trailing slash
         baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
 
-        RestClient restClient = RestClient.builder()
-                .baseUrl(baseUrl)
-                .build();
+        // API 與 raw 內容皆指向 MockWebServer
+        GitHubFetchProperties properties = new GitHubFetchProperties();
+        properties.setApiBaseUrl(baseUrl);
+        properties.setRawBaseUrl(baseUrl + "/raw");
 
-        // Create a GitHubClient with modified base URLs for testing
-        gitHubClient = new TestableGitHubClient(restClient, new ObjectMapper(), "", baseUrl);
+        gitHubClient = new GitHubClient(RestClient.builder(), new ObjectMapper(), properties, "");
     }
 
     @AfterEach
@@ -44,7 +44,7 @@ class GitHubClientTest {
 
     @Test
     @DisplayName("should list files from repository")
-    void shouldListFilesFromRepository() {
+    void shouldListFilesFromRepository() throws InterruptedException {
         // Arrange
         String responseJson = """
                 [
@@ -65,11 +65,12 @@ class GitHubClientTest {
         assertThat(files.get(0).isFile()).isTrue();
         assertThat(files.get(1).name()).isEqualTo("guide");
         assertThat(files.get(1).isDirectory()).isTrue();
+        assertThat(mockWebServer.takeRequest().getPath()).isEqualTo("/repos/owner/repo/contents/docs?ref=main");
     }
 
     @Test
-    @DisplayName("should get file content")
-    void shouldGetFileContent() {
+    @DisplayName("should get file content from the configured raw base URL")
+    void shouldGetFileContent() throws InterruptedException {
         // Arrange
         String fileContent = "# Hello World\n\nThis is a test document.";
         mockWebServer.enqueue(new MockResponse()
@@ -81,11 +82,12 @@ class GitHubClientTest {
 
         // Assert
         assertThat(content).isEqualTo(fileContent);
+        assertThat(mockWebServer.takeRequest().getPath()).isEqualTo("/raw/owner/repo/main/docs/README.md");
     }
 
     @Test
     @DisplayName("should list releases")
-    void shouldListReleases() {
+    void shouldListReleases() throws InterruptedException {
         // Arrange
         String responseJson = """
                 [
@@ -114,6 +116,7 @@ class GitHubClientTest {
         assertThat(releases.get(0).tagName()).isEqualTo("v1.0.0");
         assertThat(releases.get(0).name()).isEqualTo("Release 1.0.0");
         assertThat(releases.get(0).draft()).isFalse();
+        assertThat(mockWebServer.takeRequest().getPath()).isEqualTo("/repos/owner/repo/releases");
     }
 
     @Test
@@ -128,121 +131,4 @@ class GitHubClientTest {
         assertThatThrownBy(() -> gitHubClient.listFiles("owner", "repo", "nonexistent", "main"))
                 .isInstanceOf(GitHubClient.GitHubApiException.class);
     }
-
-    /**
-     * 可測試的 GitHubClient（使用自訂的基礎 URL）
-     */
-    private static class TestableGitHubClient extends GitHubClient {
-        private final RestClient testRestClient;
-        private final String baseUrl;
-
-        public TestableGitHubClient(RestClient restClient, ObjectMapper objectMapper,
-                                     String token, String baseUrl) {
-            super(RestClient.builder(), objectMapper, token);
-            this.testRestClient = restClient;
-            this.baseUrl = baseUrl;
-        }
-
-        @Override
-        public java.util.List<GitHubFile> listFiles(String owner, String repo, String path, String ref) {
-            String url = String.format("%s/repos/%s/%s/contents/%s?ref=%s",
-                    baseUrl, owner, repo, path, ref);
-
-            try {
-                String response = testRestClient.get()
-                        .uri(url)
-                        .retrieve()
-                        .body(String.class);
-                return parseFilesJson(response);
-            } catch (Exception e) {
-                throw new GitHubApiException("Failed to list files: " + e.getMessage(), e);
-            }
-        }
-
-        @Override
-        public String getFileContent(String owner, String repo, String path, String ref) {
-            String url = String.format("%s/%s/%s/%s/%s",
-                    baseUrl, owner, repo, ref, path);
-
-            try {
-                return testRestClient.get()
-                        .uri(url)
-                        .retrieve()
-                        .body(String.class);
-            } catch (Exception e) {
-                throw new GitHubApiException("Failed to get file content: " + e.getMessage(), e);
-            }
-        }
-
-        @Override
-        public java.util.List<GitHubRelease> listReleases(String owner, String repo) {
-            String url = String.format("%s/repos/%s/%s/releases", baseUrl, owner, repo);
-
-            try {
-                String response = testRestClient.get()
-                        .uri(url)
-                        .retrieve()
-                        .body(String.class);
-                return parseReleasesJson(response);
-            } catch (Exception e) {
-                throw new GitHubApiException("Failed to list releases: " + e.getMessage(), e);
-            }
-        }
-
-        private java.util.List<GitHubFile> parseFilesJson(String json) {
-            try {
-                com.fasterxml.jackson.databind.JsonNode root = new ObjectMapper().readTree(json);
-                java.util.List<GitHubFile> files = new java.util.ArrayList<>();
-
-                if (root.isArray()) {
-                    for (com.fasterxml.jackson.databind.JsonNode node : root) {
-                        files.add(new GitHubFile(
-                                node.path("name").asText(),
-                                node.path("path").asText(),
-                                node.path("sha").asText(),
-                                node.path("size").asLong(),
-                                node.path("type").asText(),
-                                node.path("download_url").asText(null)
-                        ));
-                    }
-                }
-
-                return files;
-            } catch (Exception e) {
-                throw new GitHubApiException("Failed to parse file list: " + e.getMessage(), e);
-            }
-        }
-
-        private java.util.List<GitHubRelease> parseReleasesJson(String json) {
-            try {
-                com.fasterxml.jackson.databind.JsonNode root = new ObjectMapper().readTree(json);
-                java.util.List<GitHubRelease> releases = new java.util.ArrayList<>();
-
-                if (root.isArray()) {
-                    for (com.fasterxml.jackson.databind.JsonNode node : root) {
-                        String publishedAtStr = node.path("published_at").asText(null);
-                        java.time.OffsetDateTime publishedAt = publishedAtStr != null
-                                ? java.time.OffsetDateTime.parse(publishedAtStr)
-                                : null;
-
-                        releases.add(new GitHubRelease(
-                                node.path("id").asLong(),
-                                node.path("tag_name").asText(),
-                                node.path("name").asText(),
-                                node.path("body").asText(null),
-                                node.path("draft").asBoolean(),
-                                node.path("prerelease").asBoolean(),
-                                publishedAt,
-                                node.path("tarball_url").asText(null),
-                                node.path("zipball_url").asText(null)
-                        ));
-                    }
-                }
-
-                return releases;
-            } catch (Exception e) {
-                throw new GitHubApiException("Failed to parse release list: " + e.getMessage(), e);
-            }
-        }
-    }
 }
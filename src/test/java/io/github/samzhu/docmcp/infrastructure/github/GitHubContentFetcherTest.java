@@ -52,6 +52,7 @@ class GitHubContentFetcherTest {
         GitHubContentFetcher fetcher = new GitHubContentFetcher(
                 List.of(strategy3, strategy1, strategy2), // 故意打亂順序
                 RestClient.builder(),
+                new GitHubFetchProperties(),
                 ""
         );
 
@@ -75,6 +76,7 @@ class GitHubContentFetcherTest {
         GitHubContentFetcher fetcher = new GitHubContentFetcher(
                 List.of(strategy1, strategy2),
                 RestClient.builder(),
+                new GitHubFetchProperties(),
                 ""
         );
 
@@ -98,6 +100,7 @@ class GitHubContentFetcherTest {
         GitHubContentFetcher fetcher = new GitHubContentFetcher(
                 List.of(strategy1, strategy2),
                 RestClient.builder(),
+                new GitHubFetchProperties(),
                 ""
         );
 
@@ -114,12 +117,13 @@ class GitHubContentFetcherTest {
     @DisplayName("應優先使用預載入內容")
     void shouldUsePreloadedContent() {
         // Arrange
-        RestClient restClient = RestClient.builder().baseUrl(baseUrl).build();
-        GitHubContentFetcher fetcher = new TestableGitHubContentFetcher(
+        GitHubFetchProperties properties = new GitHubFetchProperties();
+        properties.setRawBaseUrl(baseUrl);
+        GitHubContentFetcher fetcher = new GitHubContentFetcher(
                 List.of(),
-                restClient,
-                "",
-                baseUrl
+                RestClient.builder(),
+                properties,
+                ""
         );
 
         Map<String, String> preloadedContents = Map.of("docs/test.md", "# Preloaded Content");
@@ -138,19 +142,20 @@ class GitHubContentFetcherTest {
 
     @Test
     @DisplayName("當沒有預載入內容時應從 raw URL 下載")
-    void shouldDownloadFromRawUrlWhenNoPreloadedContent() {
+    void shouldDownloadFromRawUrlWhenNoPreloadedContent() throws InterruptedException {
         // Arrange
         String expectedContent = "# Downloaded Content";
         mockWebServer.enqueue(new MockResponse()
                 .setBody(expectedContent)
                 .setHeader("Content-Type", "text/plain"));
 
-        RestClient restClient = RestClient.builder().baseUrl(baseUrl).build();
-        GitHubContentFetcher fetcher = new TestableGitHubContentFetcher(
+        GitHubFetchProperties properties = new GitHubFetchProperties();
+        properties.setRawBaseUrl(baseUrl);
+        GitHubContentFetcher fetcher = new GitHubContentFetcher(
                 List.of(),
-                restClient,
-                "",
-                baseUrl
+                RestClient.builder(),
+                properties,
+                ""
         );
 
         FetchResult fetchResult = FetchResult.of(
@@ -163,6 +168,7 @@ class GitHubContentFetcherTest {
 
         // Assert
         assertThat(content).isEqualTo(expectedContent);
+        assertThat(mockWebServer.takeRequest().getPath()).isEqualTo("/owner/repo/main/docs/test.md");
     }
 
     @Test
@@ -176,6 +182,7 @@ class GitHubContentFetcherTest {
         GitHubContentFetcher fetcher = new GitHubContentFetcher(
                 List.of(strategy2, strategy3, strategy1), // 故意打亂順序
                 RestClient.builder(),
+                new GitHubFetchProperties(),
                 ""
         );
 
@@ -232,34 +239,4 @@ class GitHubContentFetcherTest {
             return called;
         }
     }
-
-    /**
-     * 可測試的 GitHubContentFetcher
-     */
-    private static class TestableGitHubContentFetcher extends GitHubContentFetcher {
-        private final RestClient testRestClient;
-        private final String baseUrl;
-
-        public TestableGitHubContentFetcher(List<GitHubFetchStrategy> strategies,
-                                             RestClient restClient, String githubToken, String baseUrl) {
-            super(strategies, RestClient.builder(), githubToken);
-            this.testRestClient = restClient;
-            this.baseUrl = baseUrl;
-        }
-
-        @Override
-        public String downloadRawContent(String owner, String repo, String path, String ref) {
-            String url = String.format("%s/%s/%s/%s/%s",
-                    baseUrl, owner, repo, ref, path);
-
-            try {
-                return testRestClient.get()
-                        .uri(url)
-                        .retrieve()
-                        .body(String.class);
-            } catch (Exception e) {
-                throw new GitHubFetchException("下載檔案失敗: " + path, e);
-            }
-        }
-    }
 }
@@ -5,11 +5,15 @@ import io.github.samzhu.docmcp.infrastructure.github.GitHubFetchProperties;
 import io.github.samzhu.docmcp.infrastructure.github.GitHubFile;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
 import org.junit.jupiter.api.*;
 import org.springframework.web.client.RestClient;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 import java.util.zip.GZIPOutputStream;
 
@@ -47,14 +51,12 @@ class GitHubFetchStrategyTest {
         @BeforeEach
         void setUp() {
             GitHubFetchProperties properties = createDefaultProperties();
-            RestClient restClient = RestClient.builder().baseUrl(baseUrl).build();
 
-            strategy = new TestableGitTreeFetchStrategy(
-                    restClient,
+            strategy = new GitTreeFetchStrategy(
+                    RestClient.builder(),
                     new ObjectMapper(),
                     properties,
-                    "",
-                    baseUrl
+                    ""
             );
         }
 
@@ -130,14 +132,12 @@ class GitHubFetchStrategyTest {
         @BeforeEach
         void setUp() {
             GitHubFetchProperties properties = createDefaultProperties();
-            RestClient restClient = RestClient.builder().baseUrl(baseUrl).build();
 
-            strategy = new TestableContentsApiFetchStrategy(
-                    restClient,
+            strategy = new ContentsApiFetchStrategy(
+                    RestClient.builder(),
                     new ObjectMapper(),
                     properties,
-                    "",
-                    baseUrl
+                    ""
             );
         }
 
@@ -248,6 +248,29 @@ class GitHubFetchStrategyTest {
         void shouldHaveCorrectPriority() {
             assertThat(strategy.getPriority()).isEqualTo(1);
         }
+
+        @Test
+        @DisplayName("應從 codeload 基底 URL 下載並解壓目標路徑下的檔案")
+        void shouldDownloadAndExtractTarball() throws IOException, InterruptedException {
+            // Arrange - tarball 根目錄為 {repo}-{不含 v 的 tag}
+            byte[] tarball = tarball(
+                    "repo-1.0.0/docs/guide.md", "# Guide",
+                    "repo-1.0.0/src/Main.java", "class Main {}");
+            mockWebServer.enqueue(new MockResponse()
+                    .setBody(new Buffer().write(tarball))
+                    .setHeader("Content-Type", "application/x-gzip"));
+
+            // Act
+            Optional<FetchResult> result = strategy.fetch("owner", "repo", "docs", "v1.0.0");
+
+            // Assert
+            assertThat(mockWebServer.takeRequest().getPath()).isEqualTo("/owner/repo/tar.gz/refs/tags/v1.0.0");
+            assertThat(result).isPresent();
+            FetchResult fetchResult = result.get();
+            assertThat(fetchResult.files()).extracting(GitHubFile::path).containsExactly("docs/guide.md");
+            assertThat(fetchResult.getContent("docs/guide.md")).isEqualTo("# Guide");
+            assertThat(fetchResult.bytesDownloaded()).isEqualTo(tarball.length);
+        }
     }
 
     @Nested
@@ -290,12 +313,35 @@ class GitHubFetchStrategyTest {
         }
     }
 
+    /**
+     * 建立 gzip 壓縮的 tarball（參數依序為路徑、內容）
+     */
+    private static byte[] tarball(String... pathsAndContents) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(new GZIPOutputStream(bytes))) {
+            for (int i = 0; i < pathsAndContents.length; i += 2) {
+                byte[] content = pathsAndContents[i + 1].getBytes(StandardCharsets.UTF_8);
+                TarArchiveEntry entry = new TarArchiveEntry(pathsAndContents[i]);
+                entry.setSize(content.length);
+                tar.putArchiveEntry(entry);
+                tar.write(content);
+                tar.closeArchiveEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
     /**
      * 建立預設的 GitHubFetchProperties
      */
     private GitHubFetchProperties createDefaultProperties() {
         GitHubFetchProperties properties = new GitHubFetchProperties();
 
+        // 所有 GitHub 端點指向 MockWebServer
+        properties.setApiBaseUrl(baseUrl);
+        properties.setRawBaseUrl(baseUrl);
+        properties.setCodeloadBaseUrl(baseUrl);
+
         // Archive 配置
         GitHubFetchProperties.StrategyConfig archiveConfig = new GitHubFetchProperties.StrategyConfig();
         archiveConfig.setEnabled(true);
@@ -324,157 +370,4 @@ class GitHubFetchStrategyTest {
 
         return properties;
     }
-
-    /**
-     * 可測試的 GitTreeFetchStrategy
-     */
-    private static class TestableGitTreeFetchStrategy extends GitTreeFetchStrategy {
-        private final RestClient testRestClient;
-        private final String baseUrl;
-
-        public TestableGitTreeFetchStrategy(RestClient restClient, ObjectMapper objectMapper,
-                                             GitHubFetchProperties properties, String githubToken, String baseUrl) {
-            super(RestClient.builder(), objectMapper, properties, githubToken);
-            this.testRestClient = restClient;
-            this.baseUrl = baseUrl;
-        }
-
-        @Override
-        public Optional<FetchResult> fetch(String owner, String repo, String path, String ref) {
-            String url = String.format("%s/repos/%s/%s/git/trees/%s?recursive=1",
-                    baseUrl, owner, repo, ref);
-
-            try {
-                String response = testRestClient.get()
-                        .uri(url)
-                        .retrieve()
-                        .body(String.class);
-                // 使用父類別的解析邏輯
-                return parseAndFilterResult(response, path);
-            } catch (Exception e) {
-                return Optional.empty();
-            }
-        }
-
-        private Optional<FetchResult> parseAndFilterResult(String json, String targetPath) {
-            try {
-                com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-                com.fasterxml.jackson.databind.JsonNode root = mapper.readTree(json);
-
-                if (root.path("truncated").asBoolean(false)) {
-                    return Optional.empty();
-                }
-
-                java.util.List<GitHubFile> files = new java.util.ArrayList<>();
-                String pathPrefix = targetPath.isEmpty() ? "" : targetPath + "/";
-
-                for (com.fasterxml.jackson.databind.JsonNode node : root.path("tree")) {
-                    String nodePath = node.path("path").asText();
-                    String type = node.path("type").asText();
-
-                    // 只處理檔案，且在目標路徑下
-                    if ("blob".equals(type) && (targetPath.isEmpty() || nodePath.startsWith(pathPrefix))) {
-                        String lowerPath = nodePath.toLowerCase();
-                        if (lowerPath.endsWith(".md") || lowerPath.endsWith(".markdown") ||
-                            lowerPath.endsWith(".adoc") || lowerPath.endsWith(".asciidoc") ||
-                            lowerPath.endsWith(".html") || lowerPath.endsWith(".htm") ||
-                            lowerPath.endsWith(".txt") || lowerPath.endsWith(".rst")) {
-                            files.add(new GitHubFile(
-                                    nodePath.substring(nodePath.lastIndexOf('/') + 1),
-                                    nodePath,
-                                    node.path("sha").asText(),
-                                    node.path("size").asLong(0),
-                                    "file",
-                                    null
-                            ));
-                        }
-                    }
-                }
-
-                if (files.isEmpty()) {
-                    return Optional.empty();
-                }
-
-                return Optional.of(FetchResult.of(files, getName()));
-            } catch (Exception e) {
-                return Optional.empty();
-            }
-        }
-    }
-
-    /**
-     * 可測試的 ContentsApiFetchStrategy
-     */
-    private static class TestableContentsApiFetchStrategy extends ContentsApiFetchStrategy {
-        private final RestClient testRestClient;
-        private final String baseUrl;
-
-        public TestableContentsApiFetchStrategy(RestClient restClient, ObjectMapper objectMapper,
-                                                 GitHubFetchProperties properties, String githubToken, String baseUrl) {
-            super(RestClient.builder(), objectMapper, properties, githubToken);
-            this.testRestClient = restClient;
-            this.baseUrl = baseUrl;
-        }
-
-        @Override
-        public Optional<FetchResult> fetch(String owner, String repo, String path, String ref) {
-            java.util.List<GitHubFile> allFiles = new java.util.ArrayList<>();
-            try {
-                listFilesRecursively(owner, repo, path, ref, allFiles);
-                if (allFiles.isEmpty()) {
-                    return Optional.empty();
-                }
-                return Optional.of(FetchResult.of(allFiles, getName()));
-            } catch (Exception e) {
-                return Optional.empty();
-            }
-        }
-
-        private void listFilesRecursively(String owner, String repo, String path, String ref,
-                                          java.util.List<GitHubFile> result) {
-            String url = String.format("%s/repos/%s/%s/contents/%s?ref=%s",
-                    baseUrl, owner, repo, path, ref);
-
-            try {
-                String response = testRestClient.get()
-                        .uri(url)
-                        .retrieve()
-                        .body(String.class);
-
-                com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-                com.fasterxml.jackson.databind.JsonNode root = mapper.readTree(response);
-
-                if (root.isArray()) {
-                    for (com.fasterxml.jackson.databind.JsonNode node : root) {
-                        String type = node.path("type").asText();
-                        String filePath = node.path("path").asText();
-
-                        if ("file".equals(type) && isSupportedFile(filePath)) {
-                            result.add(new GitHubFile(
-                                    node.path("name").asText(),
-                                    filePath,
-                                    node.path("sha").asText(),
-                                    node.path("size").asLong(),
-                                    type,
-                                    node.path("download_url").asText(null)
-                            ));
-                        } else if ("dir".equals(type)) {
-                            listFilesRecursively(owner, repo, filePath, ref, result);
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                // 忽略錯誤
-            }
-        }
-
-        private boolean isSupportedFile(String path) {
-            String lowerPath = path.toLowerCase();
-            return lowerPath.endsWith(".md") || lowerPath.endsWith(".markdown") ||
-                   lowerPath.endsWith(".adoc") || lowerPath.endsWith(".asciidoc") ||
-                   lowerPath.endsWith(".html") || lowerPath.endsWith(".htm") ||
-                   lowerPath.endsWith(".txt") || lowerPath.endsWith(".rst");
-        }
-    }
-
 }
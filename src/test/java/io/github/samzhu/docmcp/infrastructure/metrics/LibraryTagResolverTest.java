@@ -0,0 +1,69 @@
+package io.github.samzhu.docmcp.infrastructure.metrics;
+
+import io.github.samzhu.docmcp.domain.enums.SourceType;
+import io.github.samzhu.docmcp.domain.model.Library;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * LibraryTagResolver 單元測試
+ */
+@DisplayName("LibraryTagResolver")
+class LibraryTagResolverTest {
+
+    private static final Library SPRING_BOOT = Library.create(
+            "0ABC123DEF456", "spring-boot", "Spring Boot", null, SourceType.GITHUB, null, null, null);
+
+    @Test
+    @DisplayName("should resolve registered libraries by id or name and unknown values to other")
+    void shouldResolveRegisteredLibraries() {
+        // Arrange
+        LibraryTagResolver resolver = new LibraryTagResolver(() -> List.of(SPRING_BOOT));
+
+        // Act & Assert
+        assertThat(resolver.resolve("0ABC123DEF456")).isEqualTo("0ABC123DEF456");
+        assertThat(resolver.resolve("spring-boot")).isEqualTo("0ABC123DEF456");
+        assertThat(resolver.resolve("anything")).isEqualTo(LibraryTagResolver.OTHER);
+        assertThat(resolver.resolve(" ")).isEqualTo(SearchMetrics.NO_LIBRARY);
+    }
+
+    @Test
+    @DisplayName("should not block other callers while one caller reloads")
+    void shouldNotBlockOtherCallersWhileReloading() throws Exception {
+        // Arrange - 第一次載入停在函式庫來源內
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        LibraryTagResolver resolver = new LibraryTagResolver(() -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return List.of(SPRING_BOOT);
+        });
+        CompletableFuture<String> reloader = CompletableFuture.supplyAsync(() -> resolver.resolve("spring-boot"));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Act - 載入期間的呼叫沿用既有（尚未載入）的清單，不等待
+        String duringReload = CompletableFuture.supplyAsync(() -> resolver.resolve("spring-boot"))
+                .get(1, TimeUnit.SECONDS);
+        release.countDown();
+
+        // Assert
+        assertThat(duringReload).isEqualTo(LibraryTagResolver.OTHER);
+        assertThat(reloader.get(5, TimeUnit.SECONDS)).isEqualTo("0ABC123DEF456");
+        assertThat(resolver.resolve("spring-boot")).isEqualTo("0ABC123DEF456");
+        assertThat(loads).hasValue(1);
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.samzhu.docmcp.infrastructure.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.samzhu.docmcp.domain.enums.SourceType;
+import io.github.samzhu.docmcp.domain.model.Library;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * TimedToolCallback 單元測試
+ */
+@DisplayName("TimedToolCallback")
+class TimedToolCallbackTest {
+
+    private SimpleMeterRegistry registry;
+    private ToolCallback delegate;
+    private TimedToolCallback callback;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        delegate = mock(ToolCallback.class);
+        ToolDefinition definition = mock(ToolDefinition.class);
+        when(definition.name()).thenReturn("search_docs");
+        when(delegate.getToolDefinition()).thenReturn(definition);
+        LibraryTagResolver libraryTags = new LibraryTagResolver(() -> List.of(Library.create(
+                "0ABC123DEF456", "spring-boot", "Spring Boot", null, SourceType.GITHUB, null, null, null)));
+        callback = new TimedToolCallback(delegate, registry, new ObjectMapper(), libraryTags);
+    }
+
+    @Test
+    @DisplayName("should time successful calls by tool and count them by library")
+    void shouldTimeSuccessfulCalls() {
+        // Arrange
+        String input = """
+                {"libraryId": "0ABC123DEF456", "query": "bean"}
+                """;
+        when(delegate.call(input)).thenReturn("[]");
+
+        // Act
+        String result = callback.call(input);
+
+        // Assert
+        assertThat(result).isEqualTo("[]");
+        assertThat(registry.get("docmcp.mcp.tool")
+                .tags("tool", "search_docs", "outcome", "success")
+                .timer().count()).isEqualTo(1);
+        assertThat(registry.get("docmcp.mcp.tool.calls")
+                .tags("tool", "search_docs", "outcome", "success", "library", "0ABC123DEF456")
+                .counter().count()).isEqualTo(1);
+        // 輸出直方圖的計時器不以函式庫標記
+        assertThat(registry.get("docmcp.mcp.tool").timer().getId().getTag("library")).isNull();
+    }
+
+    @Test
+    @DisplayName("should record failed calls with error outcome and rethrow")
+    void shouldRecordFailedCalls() {
+        // Arrange
+        when(delegate.call("{}")).thenThrow(new IllegalStateException("boom"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> callback.call("{}")).isInstanceOf(IllegalStateException.class);
+        assertThat(registry.get("docmcp.mcp.tool")
+                .tags("tool", "search_docs", "outcome", "error")
+                .timer().count()).isEqualTo(1);
+        assertThat(registry.get("docmcp.mcp.tool.calls")
+                .tags("tool", "search_docs", "outcome", "error", "library", "none")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should resolve library from libraryName to its id and ignore malformed input")
+    void shouldResolveLibrary() {
+        // Act & Assert
+        assertThat(callback.resolveLibrary("{\"libraryName\": \"spring-boot\"}")).isEqualTo("0ABC123DEF456");
+        assertThat(callback.resolveLibrary("{\"library\": \"\"}")).isEqualTo("none");
+        assertThat(callback.resolveLibrary("not json")).isEqualTo("none");
+        assertThat(callback.resolveLibrary(null)).isEqualTo("none");
+    }
+
+    @Test
+    @DisplayName("should tag libraries that are not registered as other")
+    void shouldTagUnknownLibraryAsOther() {
+        // Arrange - 用戶端任意輸入的函式庫名稱
+        when(delegate.call("{\"libraryName\": \"no-such-lib-42\"}")).thenReturn("[]");
+
+        // Act
+        callback.call("{\"libraryName\": \"no-such-lib-42\"}");
+
+        // Assert
+        assertThat(registry.get("docmcp.mcp.tool.calls")
+                .tags("tool", "search_docs", "outcome", "success", "library", LibraryTagResolver.OTHER)
+                .counter().count()).isEqualTo(1);
+        assertThat(registry.find("docmcp.mcp.tool.calls").tag("library", "no-such-lib-42").counter()).isNull();
+    }
+}
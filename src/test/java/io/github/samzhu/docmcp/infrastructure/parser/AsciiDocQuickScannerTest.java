@@ -0,0 +1,192 @@
+package io.github.samzhu.docmcp.infrastructure.parser;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * AsciiDocQuickScanner 單元測試
+ */
+@DisplayName("AsciiDocQuickScanner")
+class AsciiDocQuickScannerTest {
+
+    @Test
+    @DisplayName("should extract document title and listing blocks with language and title")
+    void shouldExtractTitleAndListings() {
+        // Arrange
+        String content = """
+                // license header
+                = Getting Started
+                :toc:
+
+                Intro paragraph.
+
+                .Build the project
+                [source,bash]
+                ----
+                ./gradlew build
+                ----
+
+                ----
+                plain listing
+                ----
+                """;
+
+        // Act
+        AsciiDocQuickScanner.Result result = AsciiDocQuickScanner.scan(content);
+
+        // Assert
+        assertThat(result.complete()).isTrue();
+        assertThat(result.title()).isEqualTo("Getting Started");
+        assertThat(result.codeBlocks()).hasSize(2);
+        assertThat(result.codeBlocks().get(0).language()).isEqualTo("bash");
+        assertThat(result.codeBlocks().get(0).code()).isEqualTo("./gradlew build");
+        assertThat(result.codeBlocks().get(0).description()).isEqualTo("Build the project");
+        assertThat(result.codeBlocks().get(1).language()).isEqualTo("text");
+    }
+
+    @Test
+    @DisplayName("should apply source-language attribute and handle source paragraphs and fences")
+    void shouldHandleSourceParagraphsAndFences() {
+        // Arrange
+        String content = """
+                = Guide
+                :source-language: java
+
+                [source]
+                var x = 1;
+
+                ```kotlin
+                val y = 2
+                ```
+                """;
+
+        // Act
+        AsciiDocQuickScanner.Result result = AsciiDocQuickScanner.scan(content);
+
+        // Assert
+        assertThat(result.codeBlocks()).extracting(ParsedDocument.CodeBlock::language)
+                .containsExactly("java", "kotlin");
+        assertThat(result.codeBlocks()).extracting(ParsedDocument.CodeBlock::code)
+                .containsExactly("var x = 1;", "val y = 2");
+    }
+
+    @Test
+    @DisplayName("should skip comment and literal blocks")
+    void shouldSkipVerbatimBlocks() {
+        // Arrange
+        String content = """
+                = Guide
+
+                ////
+                ----
+                commented out
+                ----
+                ////
+
+                ....
+                ----
+                literal text
+                ....
+                """;
+
+        // Act
+        AsciiDocQuickScanner.Result result = AsciiDocQuickScanner.scan(content);
+
+        // Assert
+        assertThat(result.complete()).isTrue();
+        assertThat(result.codeBlocks()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should report incomplete scan for conditionals and attribute references in title")
+    void shouldReportIncompleteScan() {
+        // Act & Assert
+        assertThat(AsciiDocQuickScanner.scan("= {project-name} Guide\n\nText.\n").complete()).isFalse();
+        assertThat(AsciiDocQuickScanner.scan("= Guide\n\nifdef::env-github[]\nText.\nendif::[]\n").complete())
+                .isFalse();
+    }
+
+    @Test
+    @DisplayName("should find title after a leading anchor line")
+    void shouldFindTitleAfterLeadingAnchor() {
+        // Act
+        AsciiDocQuickScanner.Result result = AsciiDocQuickScanner.scan("[[top]]\n= Getting Started\n\nText.\n");
+
+        // Assert
+        assertThat(result.complete()).isTrue();
+        assertThat(result.title()).isEqualTo("Getting Started");
+    }
+
+    @Test
+    @DisplayName("should find title after attribute entries, comments and block attributes")
+    void shouldFindTitleAfterAttributeEntries() {
+        // Arrange
+        String content = """
+                :toc: left
+                :source-language: java
+                // generated file
+                ////
+                license header
+                ////
+                [.lead]
+                = Reference Guide
+
+                [source]
+                var x = 1;
+                """;
+
+        // Act
+        AsciiDocQuickScanner.Result result = AsciiDocQuickScanner.scan(content);
+
+        // Assert
+        assertThat(result.complete()).isTrue();
+        assertThat(result.title()).isEqualTo("Reference Guide");
+        assertThat(result.codeBlocks()).extracting(ParsedDocument.CodeBlock::language).containsExactly("java");
+    }
+
+    @Test
+    @DisplayName("should keep block attributes of a leading listing when document has no header")
+    void shouldKeepLeadingBlockAttributesWithoutHeader() {
+        // Act
+        AsciiDocQuickScanner.Result result = AsciiDocQuickScanner.scan("[source,java]\n----\nint x;\n----\n");
+
+        // Assert
+        assertThat(result.title()).isNull();
+        assertThat(result.codeBlocks()).extracting(ParsedDocument.CodeBlock::language).containsExactly("java");
+    }
+
+    @Test
+    @DisplayName("should apply doctitle substitutions for special characters and inline formatting")
+    void shouldApplyDoctitleSubstitutions() {
+        // Act
+        AsciiDocQuickScanner.Result result =
+                AsciiDocQuickScanner.scan("= Spring & `Boot` *Config* _Guide_ for snake_case\n");
+
+        // Assert - 與 Asciidoctor Document#getDoctitle 相同
+        assertThat(result.complete()).isTrue();
+        assertThat(result.title())
+                .isEqualTo("Spring &amp; <code>Boot</code> <strong>Config</strong> <em>Guide</em> for snake_case");
+    }
+
+    @Test
+    @DisplayName("should report incomplete scan for titles needing other substitutions")
+    void shouldReportIncompleteScanForComplexTitles() {
+        // Act & Assert
+        assertThat(AsciiDocQuickScanner.scan("= Spring Boot -- Reference\n").complete()).isFalse();
+        assertThat(AsciiDocQuickScanner.scan("= Using link:https://spring.io[Spring]\n").complete()).isFalse();
+        assertThat(AsciiDocQuickScanner.scan("= What's New\n").complete()).isFalse();
+        assertThat(AsciiDocQuickScanner.scan(":doctitle: Custom\n\nText.\n").complete()).isFalse();
+    }
+
+    @Test
+    @DisplayName("should return null title when document has no header")
+    void shouldReturnNullTitleWithoutHeader() {
+        // Act
+        AsciiDocQuickScanner.Result result = AsciiDocQuickScanner.scan("Just a paragraph.\n\n= Not a header\n");
+
+        // Assert
+        assertThat(result.title()).isNull();
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.samzhu.docmcp.infrastructure.parser;
+
+import org.asciidoctor.Asciidoctor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * AsciidoctorPool 單元測試
+ */
+@DisplayName("AsciidoctorPool")
+class AsciidoctorPoolTest {
+
+    /**
+     * 以 mock 取代 JRuby 執行環境，並記錄建立次數
+     */
+    private static class CountingPool extends AsciidoctorPool {
+        final AtomicInteger creations = new AtomicInteger();
+
+        CountingPool(int poolSize) {
+            super(poolSize);
+        }
+
+        @Override
+        protected Asciidoctor createAsciidoctor() {
+            creations.incrementAndGet();
+            return mock(Asciidoctor.class);
+        }
+    }
+
+    @Test
+    @DisplayName("should not create a runtime until first use")
+    void shouldCreateLazily() {
+        // Arrange
+        CountingPool pool = new CountingPool(2);
+
+        // Assert
+        assertThat(pool.creations).hasValue(0);
+        assertThat(pool.getCreatedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("should reuse an idle runtime for sequential calls")
+    void shouldReuseIdleRuntime() {
+        // Arrange
+        CountingPool pool = new CountingPool(2);
+
+        // Act
+        Asciidoctor first = pool.execute(asciidoctor -> asciidoctor);
+        Asciidoctor second = pool.execute(asciidoctor -> asciidoctor);
+
+        // Assert
+        assertThat(second).isSameAs(first);
+        assertThat(pool.creations).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("should never create more runtimes than the pool size under concurrency")
+    void shouldRespectPoolSize() throws Exception {
+        // Arrange
+        CountingPool pool = new CountingPool(2);
+        Set<Asciidoctor> used = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+
+        // Act
+        try {
+            Future<?>[] futures = new Future<?>[6];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = executor.submit(() -> {
+                    start.await();
+                    return pool.execute(asciidoctor -> {
+                        used.add(asciidoctor);
+                        try {
+                            Thread.sleep(20);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return asciidoctor;
+                    });
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertThat(pool.creations.get()).isBetween(1, 2);
+        assertThat(used).hasSizeLessThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should close created runtimes on shutdown")
+    void shouldCloseRuntimes() throws Exception {
+        // Arrange
+        CountingPool pool = new CountingPool(1);
+        Asciidoctor runtime = pool.execute(asciidoctor -> asciidoctor);
+
+        // Act
+        pool.close();
+
+        // Assert
+        verify(runtime).close();
+    }
+}
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -164,4 +166,36 @@ class HtmlParserTest {
     void shouldReturnCorrectDocType() {
         assertThat(parser.getDocType()).isEqualTo("html");
     }
+
+    @Test
+    @DisplayName("should use converted markdown as body and build sections from it")
+    void shouldBuildSectionsFromConvertedMarkdown() {
+        // Arrange
+        String content = """
+                <html>
+                <head><title>Guide</title></head>
+                <body>
+                    <main>
+                        <h1>Guide</h1>
+                        <p>Welcome to the <b>guide</b>.</p>
+                        <h2>Install</h2>
+                        <p>Run the installer.</p>
+                        <pre><code class="language-bash">./install.sh</code></pre>
+                    </main>
+                </body>
+                </html>
+                """;
+
+        // Act
+        ParsedDocument result = parser.parse(content, "guide.html");
+
+        // Assert
+        assertThat(result.content()).doesNotContain("<p>", "<main>", "<code");
+        assertThat(result.sections()).extracting(ParsedDocument.Section::headingPath)
+                .containsExactly(List.of("Guide"), List.of("Guide", "Install"));
+        assertThat(result.sections().get(1).blocks()).extracting(ParsedDocument.ContentBlock::atomic)
+                .contains(true);
+        assertThat(result.codeBlocks()).singleElement()
+                .satisfies(block -> assertThat(block.language()).isEqualTo("bash"));
+    }
 }
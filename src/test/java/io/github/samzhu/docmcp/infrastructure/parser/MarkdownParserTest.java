@@ -4,6 +4,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -159,4 +161,92 @@ class MarkdownParserTest {
         assertThat(result.metadata()).containsEntry("format", "markdown");
         assertThat(result.metadata()).containsEntry("codeBlockCount", 1);
     }
+
+    @Test
+    @DisplayName("should split sections by heading with heading path and atomic code blocks")
+    void shouldExtractSections() {
+        // Arrange
+        String content = """
+                Preface text.
+
+                # Guide
+
+                ## Install
+
+                Run this:
+
+                ```bash
+                ./install.sh
+                ```
+
+                ### Linux
+
+                Use the package manager.
+
+                ## Configure
+
+                Edit the file.
+                """;
+
+        // Act
+        ParsedDocument result = parser.parse(content, "guide.md");
+
+        // Assert
+        assertThat(result.sections()).extracting(ParsedDocument.Section::headingPath).containsExactly(
+                List.of(),
+                List.of("Guide"),
+                List.of("Guide", "Install"),
+                List.of("Guide", "Install", "Linux"),
+                List.of("Guide", "Configure"));
+        ParsedDocument.Section install = result.sections().get(2);
+        assertThat(install.blocks()).extracting(ParsedDocument.ContentBlock::text)
+                .containsExactly("## Install", "Run this:", "```bash\n./install.sh\n```");
+        assertThat(install.blocks()).extracting(ParsedDocument.ContentBlock::atomic)
+                .containsExactly(false, false, true);
+    }
+
+    @Test
+    @DisplayName("should normalize line endings and BOM in body and sections")
+    void shouldNormalizeLineEndings() {
+        // Arrange
+        String content = "\uFEFF# Guide\r\n\r\nFirst line.\r\nSecond line.\r\n";
+
+        // Act
+        ParsedDocument result = parser.parse(content, "guide.md");
+
+        // Assert
+        assertThat(result.title()).isEqualTo("Guide");
+        assertThat(result.content()).isEqualTo("# Guide\n\nFirst line.\nSecond line.\n");
+        assertThat(result.sections()).singleElement()
+                .satisfies(section -> assertThat(section.blocks()).extracting(ParsedDocument.ContentBlock::text)
+                        .containsExactly("# Guide", "First line.\nSecond line."));
+    }
+
+    @Test
+    @DisplayName("should extract nested code blocks in the same pass as sections")
+    void shouldExtractNestedCodeBlocks() {
+        // Arrange
+        String content = """
+                # Steps
+
+                1. Install:
+
+                   ```bash
+                   ./install.sh
+                   ```
+
+                > ```java
+                > var x = 1;
+                > ```
+                """;
+
+        // Act
+        ParsedDocument result = parser.parse(content, "steps.md");
+
+        // Assert
+        assertThat(result.codeBlocks()).extracting(ParsedDocument.CodeBlock::language)
+                .containsExactly("bash", "java");
+        assertThat(result.sections()).singleElement()
+                .satisfies(section -> assertThat(section.blocks()).hasSize(3));
+    }
 }
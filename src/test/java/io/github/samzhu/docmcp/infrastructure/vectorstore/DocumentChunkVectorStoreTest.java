@@ -2,18 +2,24 @@ package io.github.samzhu.docmcp.infrastructure.vectorstore;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.f4b6a3.tsid.TsidCreator;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.memory.InMemoryVectorIndexRegistry;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.memory.ScoredChunk;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.filter.Filter;
 import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
@@ -21,13 +27,18 @@ import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 
+import java.sql.PreparedStatement;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -167,7 +178,7 @@ class DocumentChunkVectorStoreTest {
             when(embeddingModel.embed(query)).thenReturn(queryEmbedding);
 
             // Mock 資料庫查詢結果（返回空列表，因為我們只測試流程）
-            when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), any(), any(), any()))
+            when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), any(), any()))
                     .thenReturn(List.of());
 
             // When - 執行搜尋
@@ -175,7 +186,7 @@ class DocumentChunkVectorStoreTest {
 
             // Then - 驗證 embedding 生成和資料庫查詢被呼叫
             verify(embeddingModel, times(1)).embed(query);
-            verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), any(), any(), any(), any());
+            verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), any(), any(), any());
             assertThat(results).isNotNull();
         }
 
@@ -239,7 +250,7 @@ class DocumentChunkVectorStoreTest {
             when(embeddingModel.embed(query)).thenReturn(queryEmbedding);
 
             // Mock 資料庫查詢結果
-            when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), any(), any(), any()))
+            when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), any(), any()))
                     .thenReturn(List.of());
 
             // When - 執行搜尋
@@ -247,13 +258,54 @@ class DocumentChunkVectorStoreTest {
 
             // Then - 驗證查詢包含 filter 條件
             ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
-            verify(jdbcTemplate, times(1)).query(sqlCaptor.capture(), any(RowMapper.class), any(), any(), any(), any());
+            verify(jdbcTemplate, times(1)).query(sqlCaptor.capture(), any(RowMapper.class), any(), any(), any());
 
             // SQL 應該包含 JSONPath 過濾條件
             String executedSql = sqlCaptor.getValue();
             assertThat(executedSql).contains("metadata::jsonb @@");
             assertThat(results).isNotNull();
         }
+
+        @Test
+        @DisplayName("搜尋前在交易內啟用 iterative scan，版本過濾後仍能湊滿 topK")
+        void shouldEnableIterativeScan_beforeFilteredSearch() {
+            // Given
+            when(embeddingModel.embed("query")).thenReturn(new float[DIMENSIONS]);
+
+            // When
+            vectorStore.similaritySearch(SearchRequest.builder().query("query").topK(5).build());
+
+            // Then - ef_search 不低於預設下限 100，距離閾值在 MATERIALIZED CTE 外層套用
+            ArgumentCaptor<String> configCaptor = ArgumentCaptor.forClass(String.class);
+            verify(jdbcTemplate).queryForObject(configCaptor.capture(), eq(Long.class),
+                    eq("hnsw.ef_search"), eq("100"),
+                    eq("hnsw.iterative_scan"), eq("relaxed_order"),
+                    eq("hnsw.max_scan_tuples"), eq("20000"));
+            assertThat(configCaptor.getValue()).contains("set_config(s.name, s.value, true)");
+
+            ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+            verify(jdbcTemplate).query(sqlCaptor.capture(), any(RowMapper.class), any(), eq(5), any());
+            assertThat(sqlCaptor.getValue())
+                    .contains("AS MATERIALIZED")
+                    .contains("WHERE distance < ?");
+        }
+
+        @Test
+        @DisplayName("iterative scan 設為 OFF 時只設定 ef_search")
+        void shouldOnlySetEfSearch_whenIterativeScanOff() {
+            // Given
+            vectorStore = DocumentChunkVectorStore.builder(jdbcTemplate, embeddingModel, objectMapper)
+                    .dimensions(DIMENSIONS)
+                    .hnswScanOptions(new HnswScanOptions(HnswScanOptions.IterativeScan.OFF, 40, 20_000))
+                    .build();
+            when(embeddingModel.embed("query")).thenReturn(new float[DIMENSIONS]);
+
+            // When
+            vectorStore.similaritySearch(SearchRequest.builder().query("query").topK(50).build());
+
+            // Then - ef_search 至少為 LIMIT
+            verify(jdbcTemplate).queryForObject(anyString(), eq(Long.class), eq("hnsw.ef_search"), eq("50"));
+        }
     }
 
     // ==================== delete(List<String>) 方法測試 ====================
@@ -342,6 +394,307 @@ class DocumentChunkVectorStoreTest {
         }
     }
 
+    // ==================== Embedding 模型切換測試 ====================
+
+    @Nested
+    @DisplayName("switchActiveProfile() 方法")
+    class SwitchActiveProfileTests {
+
+        private final EmbeddingProfile defaultProfile = new EmbeddingProfile("gemini-embedding-001", DIMENSIONS);
+        private final EmbeddingProfile targetProfile = new EmbeddingProfile("gemini-embedding-002", 1536);
+
+        @BeforeEach
+        void setUpProfile() {
+            vectorStore = DocumentChunkVectorStore.builder(jdbcTemplate, embeddingModel, objectMapper)
+                    .dimensions(DIMENSIONS)
+                    .defaultProfile(defaultProfile)
+                    .build();
+        }
+
+        @Test
+        @DisplayName("預設模型使用模型預設值生成查詢向量")
+        void shouldUseModelDefaults_whenProfileIsDefault() {
+            // Given
+            when(embeddingModel.embed("query")).thenReturn(new float[DIMENSIONS]);
+
+            // When
+            vectorStore.similaritySearch(SearchRequest.builder().query("query").build());
+
+            // Then
+            verify(embeddingModel, times(1)).embed("query");
+            verify(embeddingModel, never()).call(any(EmbeddingRequest.class));
+        }
+
+        @Test
+        @DisplayName("切換後以新模型的執行期選項生成查詢向量")
+        void shouldEmbedWithTargetOptions_afterSwitch() {
+            // Given
+            when(embeddingModel.call(any(EmbeddingRequest.class))).thenReturn(
+                    new EmbeddingResponse(List.of(new Embedding(new float[1536], 0))));
+
+            // When
+            vectorStore.switchActiveProfile(targetProfile);
+            vectorStore.similaritySearch(SearchRequest.builder().query("query").build());
+
+            // Then
+            ArgumentCaptor<EmbeddingRequest> requestCaptor = ArgumentCaptor.forClass(EmbeddingRequest.class);
+            verify(embeddingModel).call(requestCaptor.capture());
+            assertThat(requestCaptor.getValue().getOptions().getModel()).isEqualTo("gemini-embedding-002");
+            assertThat(requestCaptor.getValue().getOptions().getDimensions()).isEqualTo(1536);
+            assertThat(vectorStore.getActiveProfile()).isEqualTo(targetProfile);
+        }
+
+        @Test
+        @DisplayName("寫入時在 metadata 記錄產生向量的模型")
+        @SuppressWarnings("unchecked")
+        void shouldRecordEmbeddingModelInMetadata() throws Exception {
+            // Given
+            Document document = Document.builder().id(randomId()).text("內容").build();
+            when(embeddingModel.embed(List.of("內容"))).thenReturn(List.of(new float[DIMENSIONS]));
+            when(objectMapper.writeValueAsString(any(Map.class))).thenReturn("{}");
+
+            // When
+            vectorStore.add(List.of(document));
+
+            // Then - 執行 BatchPreparedStatementSetter 以觸發 metadata 序列化
+            ArgumentCaptor<BatchPreparedStatementSetter> setterCaptor =
+                    ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+            verify(jdbcTemplate).batchUpdate(anyString(), setterCaptor.capture());
+            setterCaptor.getValue().setValues(mock(PreparedStatement.class), 0);
+
+            ArgumentCaptor<Map<String, Object>> metadataCaptor = ArgumentCaptor.forClass(Map.class);
+            verify(objectMapper).writeValueAsString(metadataCaptor.capture());
+            assertThat(metadataCaptor.getValue())
+                    .containsEntry(DocumentChunkVectorStore.METADATA_EMBEDDING_MODEL, "gemini-embedding-001@768");
+        }
+
+        @Test
+        @DisplayName("其他實例已切換維度時，舊模型的寫入改以新模型重新嵌入")
+        @SuppressWarnings("unchecked")
+        void shouldReembedWithCommittedProfile_whenCutoverHappenedElsewhere() throws Exception {
+            // Given - 此實例仍使用 768 維的舊模型，資料庫已完成切換至 1536 維
+            Document document = Document.builder().id(randomId()).text("內容").build();
+            when(embeddingModel.embed(List.of("內容"))).thenReturn(List.of(new float[DIMENSIONS]));
+            when(embeddingModel.call(any(EmbeddingRequest.class))).thenReturn(
+                    new EmbeddingResponse(List.of(new Embedding(new float[1536], 0))));
+            when(jdbcTemplate.query(contains("embedding_migrations"), any(RowMapper.class)))
+                    .thenReturn(List.of(targetProfile));
+            when(objectMapper.writeValueAsString(any(Map.class))).thenReturn("{}");
+
+            // When
+            vectorStore.add(List.of(document));
+
+            // Then - 先取得與切換互斥的鎖，再以新模型重新嵌入後寫入
+            InOrder order = inOrder(jdbcTemplate);
+            order.verify(jdbcTemplate).execute("LOCK TABLE document_chunks IN ROW EXCLUSIVE MODE");
+            order.verify(jdbcTemplate).query(contains("embedding_migrations"), any(RowMapper.class));
+            ArgumentCaptor<BatchPreparedStatementSetter> setterCaptor =
+                    ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+            order.verify(jdbcTemplate).batchUpdate(anyString(), setterCaptor.capture());
+            setterCaptor.getValue().setValues(mock(PreparedStatement.class), 0);
+
+            ArgumentCaptor<EmbeddingRequest> requestCaptor = ArgumentCaptor.forClass(EmbeddingRequest.class);
+            verify(embeddingModel).call(requestCaptor.capture());
+            assertThat(requestCaptor.getValue().getOptions().getDimensions()).isEqualTo(1536);
+            ArgumentCaptor<Map<String, Object>> metadataCaptor = ArgumentCaptor.forClass(Map.class);
+            verify(objectMapper).writeValueAsString(metadataCaptor.capture());
+            assertThat(metadataCaptor.getValue())
+                    .containsEntry(DocumentChunkVectorStore.METADATA_EMBEDDING_MODEL, "gemini-embedding-002@1536");
+            assertThat(vectorStore.getActiveProfile()).isEqualTo(targetProfile);
+        }
+    }
+
+    // ==================== 兩階段搜尋測試 ====================
+
+    @Nested
+    @DisplayName("兩階段量化搜尋")
+    class TwoPhaseSearchTests {
+
+        private void useQuantization(VectorQuantization quantization) {
+            vectorStore = DocumentChunkVectorStore.builder(jdbcTemplate, embeddingModel, objectMapper)
+                    .dimensions(DIMENSIONS)
+                    .defaultProfile(new EmbeddingProfile("gemini-embedding-001", DIMENSIONS))
+                    .coarseSearchOptions(new CoarseSearchOptions(quantization, 4, 400))
+                    .build();
+            when(embeddingModel.embed("query")).thenReturn(new float[DIMENSIONS]);
+            when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), any(), any(), any(), any(), any()))
+                    .thenReturn(List.of());
+        }
+
+        @Test
+        @DisplayName("HALFVEC 以半精度表達式取候選並以完整向量重新排序")
+        void shouldSearchHalfvecCandidates_thenRerank() {
+            // Given
+            useQuantization(VectorQuantization.HALFVEC);
+
+            // When
+            vectorStore.similaritySearch(SearchRequest.builder().query("query").topK(5).build());
+
+            // Then - 候選數 = topK × 4
+            ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+            verify(jdbcTemplate).query(sqlCaptor.capture(), any(RowMapper.class),
+                    any(), any(), eq(20), any(), any(), eq(5));
+            assertThat(sqlCaptor.getValue())
+                    .contains("ORDER BY (dc.embedding)::halfvec(768) <=> (?::vector)::halfvec(768)")
+                    .contains("c.embedding <=> ?::vector AS distance");
+            // 候選查詢同樣在交易內啟用 iterative scan，ef_search 至少為候選數
+            verify(jdbcTemplate).queryForObject(anyString(), eq(Long.class),
+                    eq("hnsw.ef_search"), eq("100"),
+                    eq("hnsw.iterative_scan"), eq("relaxed_order"),
+                    eq("hnsw.max_scan_tuples"), eq("20000"));
+        }
+
+        @Test
+        @DisplayName("BINARY 以 Hamming 距離取候選")
+        void shouldSearchBinaryCandidates_withHammingDistance() {
+            // Given
+            useQuantization(VectorQuantization.BINARY);
+
+            // When
+            vectorStore.similaritySearch(SearchRequest.builder().query("query").topK(5).build());
+
+            // Then
+            ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+            verify(jdbcTemplate).query(sqlCaptor.capture(), any(RowMapper.class),
+                    any(), any(), any(), any(), any(), any());
+            assertThat(sqlCaptor.getValue())
+                    .contains("binary_quantize(dc.embedding)::bit(768) <~> binary_quantize(?::vector)::bit(768)");
+        }
+
+        @Test
+        @DisplayName("Matryoshka 截斷以前綴維度取候選")
+        void shouldSearchTruncatedPrefix_whenCoarseDimensionsConfigured() {
+            // Given
+            vectorStore = DocumentChunkVectorStore.builder(jdbcTemplate, embeddingModel, objectMapper)
+                    .dimensions(DIMENSIONS)
+                    .defaultProfile(new EmbeddingProfile("gemini-embedding-001", DIMENSIONS))
+                    .coarseSearchOptions(new CoarseSearchOptions(VectorQuantization.NONE, 256, 4, 400))
+                    .build();
+            when(embeddingModel.embed("query")).thenReturn(new float[DIMENSIONS]);
+
+            // When
+            vectorStore.similaritySearch(SearchRequest.builder().query("query").topK(5).build());
+
+            // Then
+            ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+            verify(jdbcTemplate).query(sqlCaptor.capture(), any(RowMapper.class),
+                    any(), any(), any(), any(), any(), any());
+            assertThat(sqlCaptor.getValue())
+                    .contains("ORDER BY (subvector(dc.embedding, 1, 256))::vector(256) <=> "
+                            + "(subvector(?::vector, 1, 256))::vector(256)");
+        }
+
+        @Test
+        @DisplayName("截斷可與量化組合，索引名稱反映縮減後的維度")
+        void shouldComposeTruncationWithQuantization() {
+            CoarseSearchOptions options = new CoarseSearchOptions(VectorQuantization.BINARY, 128, 10, 400);
+
+            assertThat(options.coarseExpression("embedding", DIMENSIONS))
+                    .isEqualTo("binary_quantize(subvector(embedding, 1, 128))::bit(128)");
+            assertThat(options.indexName(DIMENSIONS)).isEqualTo("idx_document_chunks_embedding_binary_128");
+            // 截斷維度不小於完整維度時不截斷
+            assertThat(options.effectiveDimensions(64)).isEqualTo(64);
+        }
+
+        @Test
+        @DisplayName("候選數不超過上限且不少於 topK")
+        void shouldClampCandidateCount() {
+            CoarseSearchOptions options = new CoarseSearchOptions(VectorQuantization.BINARY, 10, 100);
+
+            assertThat(options.candidateCount(5)).isEqualTo(50);
+            assertThat(options.candidateCount(50)).isEqualTo(100);
+            assertThat(options.candidateCount(200)).isEqualTo(200);
+        }
+    }
+
+    // ==================== 記憶體向量索引測試 ====================
+
+    @Nested
+    @DisplayName("記憶體向量索引")
+    class InMemoryIndexTests {
+
+        private InMemoryVectorIndexRegistry registry;
+
+        @BeforeEach
+        void setUpRegistry() {
+            registry = mock(InMemoryVectorIndexRegistry.class);
+            vectorStore = DocumentChunkVectorStore.builder(jdbcTemplate, embeddingModel, objectMapper)
+                    .dimensions(DIMENSIONS)
+                    .defaultProfile(new EmbeddingProfile("gemini-embedding-001", DIMENSIONS))
+                    .inMemoryIndex(registry)
+                    .build();
+            when(embeddingModel.embed("query")).thenReturn(new float[DIMENSIONS]);
+        }
+
+        private SearchRequest versionRequest(String versionId) {
+            return SearchRequest.builder()
+                    .query("query")
+                    .topK(2)
+                    .similarityThreshold(0.5)
+                    .filterExpression(new FilterExpressionBuilder().eq("versionId", versionId).build())
+                    .build();
+        }
+
+        @Test
+        @DisplayName("版本索引已載入時只以主鍵取回內容")
+        void shouldHydrateById_whenVersionIndexLoaded() {
+            // Given
+            String versionId = randomId();
+            when(registry.search(eq(versionId), any(float[].class), eq(2), eq(0.5)))
+                    .thenReturn(Optional.of(List.of(new ScoredChunk("chunk-1", 0.9f), new ScoredChunk("chunk-2", 0.8f))));
+
+            // When
+            vectorStore.similaritySearch(versionRequest(versionId));
+
+            // Then - 參數依序為 (id, distance) 配對，不執行向量距離 SQL
+            ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+            verify(jdbcTemplate).query(sqlCaptor.capture(), any(RowMapper.class),
+                    eq("chunk-1"), any(), eq("chunk-2"), any());
+            assertThat(sqlCaptor.getValue())
+                    .contains("JOIN (VALUES (?, ?::float8), (?, ?::float8))")
+                    .doesNotContain("<=>");
+        }
+
+        @Test
+        @DisplayName("版本索引尚未載入時改走資料庫搜尋")
+        void shouldFallBackToDatabase_whenVersionIndexNotLoaded() {
+            // Given
+            String versionId = randomId();
+            when(registry.search(eq(versionId), any(float[].class), eq(2), eq(0.5))).thenReturn(Optional.empty());
+
+            // When
+            vectorStore.similaritySearch(versionRequest(versionId));
+
+            // Then
+            ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+            verify(jdbcTemplate).query(sqlCaptor.capture(), any(RowMapper.class), any(), any(), any());
+            assertThat(sqlCaptor.getValue()).contains("dc.embedding <=> ?");
+        }
+
+        @Test
+        @DisplayName("只有單一版本的等值條件可使用記憶體索引")
+        void shouldExtractVersionId_onlyFromSimpleEquality() {
+            FilterExpressionBuilder b = new FilterExpressionBuilder();
+
+            assertThat(DocumentChunkVectorStore.extractVersionId(b.eq("versionId", "V1").build()))
+                    .isEqualTo("V1");
+            assertThat(DocumentChunkVectorStore.extractVersionId(
+                    b.and(b.eq("versionId", "V1"), b.eq("documentId", "D1")).build())).isNull();
+            assertThat(DocumentChunkVectorStore.extractVersionId(b.eq("documentId", "D1").build())).isNull();
+            assertThat(DocumentChunkVectorStore.extractVersionId(null)).isNull();
+        }
+
+        @Test
+        @DisplayName("切換 embedding 模型時清空記憶體索引")
+        void shouldInvalidateIndexes_whenActiveProfileSwitched() {
+            // When
+            vectorStore.switchActiveProfile(new EmbeddingProfile("gemini-embedding-002", DIMENSIONS));
+
+            // Then
+            verify(registry).invalidateAll();
+        }
+    }
+
     // ==================== getName() 方法測試 ====================
 
     @Test
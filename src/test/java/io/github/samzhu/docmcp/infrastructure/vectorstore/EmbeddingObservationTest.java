@@ -0,0 +1,53 @@
+package io.github.samzhu.docmcp.infrastructure.vectorstore;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * EmbeddingObservation 單元測試
+ */
+@DisplayName("EmbeddingObservation")
+class EmbeddingObservationTest {
+
+    @Test
+    @DisplayName("should notify global listeners for every call and scoped listeners only inside the scope")
+    void shouldNotifyGlobalAndScopedListeners() {
+        // Arrange
+        List<String> global = new ArrayList<>();
+        List<String> scoped = new ArrayList<>();
+        EmbeddingObservation embeddings = new EmbeddingObservation(
+                List.of((operation, texts, nanos) -> global.add(operation + ":" + texts)));
+
+        // Act
+        String result = EmbeddingObservation.observe((operation, texts, nanos) -> scoped.add(operation + ":" + texts),
+                () -> embeddings.record(EmbeddingObservation.OPERATION_DOCUMENT, 8, () -> "ok"));
+        embeddings.record(EmbeddingObservation.OPERATION_QUERY, 1, () -> null);
+
+        // Assert
+        assertThat(result).isEqualTo("ok");
+        assertThat(global).containsExactly("document:8", "query:1");
+        assertThat(scoped).containsExactly("document:8");
+    }
+
+    @Test
+    @DisplayName("should notify listeners when the embedding call fails")
+    void shouldNotifyListenersOnFailure() {
+        // Arrange
+        List<Long> elapsed = new ArrayList<>();
+        EmbeddingObservation embeddings = new EmbeddingObservation(
+                List.of((operation, texts, nanos) -> elapsed.add(nanos)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> embeddings.record(EmbeddingObservation.OPERATION_DOCUMENT, 3, () -> {
+            throw new IllegalStateException("quota exceeded");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(elapsed).hasSize(1);
+        assertThat(elapsed.getFirst()).isGreaterThanOrEqualTo(0L);
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.samzhu.docmcp.infrastructure.vectorstore;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * PgVectorCodec 單元測試
+ * <p>
+ * 驗證 pgvector 二進位格式（vector_send / vector_recv）與文字格式的編解碼。
+ * </p>
+ */
+@DisplayName("PgVectorCodec")
+class PgVectorCodecTest {
+
+    @Nested
+    @DisplayName("二進位格式")
+    class BinaryFormatTests {
+
+        @Test
+        @DisplayName("編碼為 int16 維度 + int16 保留 + big-endian float4")
+        void shouldEncodeInPgvectorBinaryLayout() {
+            // When
+            byte[] bytes = PgVectorCodec.encode(new float[]{1.5f, -2f});
+
+            // Then
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            assertThat(bytes).hasSize(12);
+            assertThat(buffer.getShort()).isEqualTo((short) 2);
+            assertThat(buffer.getShort()).isZero();
+            assertThat(buffer.getFloat()).isEqualTo(1.5f);
+            assertThat(buffer.getFloat()).isEqualTo(-2f);
+        }
+
+        @Test
+        @DisplayName("編碼後解碼應得到相同向量")
+        void shouldRoundTrip() {
+            float[] vector = new float[768];
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = (float) Math.sin(i) / 3;
+            }
+
+            assertThat(PgVectorCodec.decode(PgVectorCodec.encode(vector))).containsExactly(vector);
+        }
+
+        @Test
+        @DisplayName("資料長度與維度不符時拋出例外")
+        void shouldRejectTruncatedBytes() {
+            byte[] bytes = PgVectorCodec.encode(new float[]{1f, 2f});
+            byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+
+            assertThatThrownBy(() -> PgVectorCodec.decode(truncated))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> PgVectorCodec.decode(new byte[2]))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("null 解碼為 null")
+        void shouldDecodeNullAsNull() {
+            assertThat(PgVectorCodec.decode(null)).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("文字格式")
+    class TextFormatTests {
+
+        @Test
+        @DisplayName("解析含空白的文字格式")
+        void shouldParseTextWithSpaces() {
+            assertThat(PgVectorCodec.parseText("[0.1, -0.2,3]")).containsExactly(0.1f, -0.2f, 3f);
+            assertThat(PgVectorCodec.parseText("[]")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("格式化結果可被解析回相同向量")
+        void shouldFormatParseableText() {
+            float[] vector = {0.1f, 0.2f, 0.3f};
+
+            String text = PgVectorCodec.formatText(vector);
+
+            assertThat(text).isEqualTo("[0.1,0.2,0.3]");
+            assertThat(PgVectorCodec.parseText(text)).containsExactly(vector);
+        }
+
+        @Test
+        @DisplayName("就地解析的結果與 Float.parseFloat 逐位元相同")
+        void shouldParseExactlyLikeFloatParseFloat() {
+            // Given - 任意位元樣式的 float 與常見的十進位寫法
+            SplittableRandom random = new SplittableRandom(42);
+            for (int i = 0; i < 100_000; i++) {
+                float value = Float.intBitsToFloat(random.nextInt());
+                if (Float.isNaN(value) || Float.isInfinite(value)) {
+                    continue;
+                }
+                float small = (float) random.nextDouble(-1, 1);
+                for (String text : List.of(Float.toString(value), Float.toString(small),
+                        String.format(Locale.ROOT, "%.9g", small), String.format(Locale.ROOT, "%.3e", small))) {
+                    // Then
+                    assertThat(Float.floatToRawIntBits(PgVectorCodec.parseFloat(text, 0, text.length())))
+                            .as(text)
+                            .isEqualTo(Float.floatToRawIntBits(Float.parseFloat(text)));
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("邊界值與格式錯誤的值與 Float.parseFloat 行為一致")
+        void shouldHandleEdgeCasesLikeFloatParseFloat() {
+            assertThat(PgVectorCodec.parseText("[ -0 , 1e-45,3.4028235E38, 1.000000059604644775390625 ]"))
+                    .containsExactly(-0f, Float.MIN_VALUE, Float.MAX_VALUE, Float.parseFloat("1.000000059604644775390625"));
+            assertThat(PgVectorCodec.parseFloat("x1.5y", 1, 4)).isEqualTo(1.5f);
+            assertThatThrownBy(() -> PgVectorCodec.parseText("[0.1,abc]")).isInstanceOf(NumberFormatException.class);
+            assertThatThrownBy(() -> PgVectorCodec.parseText("[1e,2]")).isInstanceOf(NumberFormatException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("BinaryVector")
+    class BinaryVectorTests {
+
+        @Test
+        @DisplayName("二進位與文字表示一致")
+        void shouldExposeBinaryAndTextRepresentations() throws Exception {
+            // Given
+            PgVectorCodec.BinaryVector vector = PgVectorCodec.toPGobject(new float[]{1f, 2f});
+
+            // When
+            byte[] bytes = new byte[vector.lengthInBytes()];
+            vector.toBytes(bytes, 0);
+            PgVectorCodec.BinaryVector received = new PgVectorCodec.BinaryVector();
+            received.setByteValue(bytes, 0);
+
+            // Then
+            assertThat(vector.getType()).isEqualTo("vector");
+            assertThat(vector.getValue()).isEqualTo("[1.0,2.0]");
+            assertThat(received.getVector()).containsExactly(1f, 2f);
+            assertThat(received).isEqualTo(vector);
+        }
+    }
+}
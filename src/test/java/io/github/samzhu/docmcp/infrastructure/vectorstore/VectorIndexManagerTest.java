@@ -0,0 +1,208 @@
+package io.github.samzhu.docmcp.infrastructure.vectorstore;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * VectorIndexManager 單元測試
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("VectorIndexManager")
+class VectorIndexManagerTest {
+
+    private static final int DIMENSIONS = 768;
+    private static final String INDEX = "idx_document_chunks_embedding_halfvec_768";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private VectorIndexManager manager;
+
+    @BeforeEach
+    void setUp() {
+        manager = new VectorIndexManager(jdbcTemplate, new CoarseSearchOptions(VectorQuantization.HALFVEC, 4, 400));
+    }
+
+    /**
+     * 完整精度索引已存在且有效
+     */
+    private void givenActiveIndexValid() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Boolean.class), eq(VectorIndexManager.ACTIVE_INDEX)))
+                .thenReturn(List.of(true));
+    }
+
+    @Test
+    @DisplayName("未啟用兩階段搜尋時只以 CONCURRENTLY 建立完整精度索引")
+    void shouldCreateOnlyActiveIndex_whenCoarseSearchDisabled() {
+        // Arrange
+        manager = new VectorIndexManager(jdbcTemplate, CoarseSearchOptions.DISABLED);
+        when(jdbcTemplate.queryForList(anyString(), eq(Boolean.class), eq(VectorIndexManager.ACTIVE_INDEX)))
+                .thenReturn(List.of());
+
+        // Act
+        manager.ensureIndexes(DIMENSIONS);
+
+        // Assert
+        verify(jdbcTemplate).execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + VectorIndexManager.ACTIVE_INDEX
+                + " ON document_chunks USING hnsw (embedding vector_cosine_ops)");
+        verify(jdbcTemplate, never()).execute(contains("halfvec"));
+    }
+
+    @Test
+    @DisplayName("維度超過 vector 索引上限時不建立完整精度索引")
+    void shouldSkipActiveIndex_whenDimensionsExceedLimit() {
+        // Arrange
+        manager = new VectorIndexManager(jdbcTemplate, CoarseSearchOptions.DISABLED);
+
+        // Act
+        manager.ensureIndexes(3072);
+
+        // Assert
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("索引不存在時直接建立")
+    void shouldCreate_whenIndexMissing() {
+        // Arrange
+        givenActiveIndexValid();
+        when(jdbcTemplate.queryForList(anyString(), eq(Boolean.class), eq(INDEX))).thenReturn(List.of());
+
+        // Act
+        manager.ensureIndexes(DIMENSIONS);
+
+        // Assert
+        verify(jdbcTemplate, never()).execute(startsWith("DROP INDEX"));
+        verify(jdbcTemplate).execute(startsWith("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + INDEX));
+    }
+
+    @Test
+    @DisplayName("中斷建立留下的 INVALID 索引先刪除再重建")
+    void shouldDropAndRecreate_whenIndexInvalid() {
+        // Arrange
+        givenActiveIndexValid();
+        when(jdbcTemplate.queryForList(anyString(), eq(Boolean.class), eq(INDEX))).thenReturn(List.of(false));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq(INDEX))).thenReturn(0L);
+
+        // Act
+        manager.ensureIndexes(DIMENSIONS);
+
+        // Assert
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).execute("DROP INDEX CONCURRENTLY IF EXISTS " + INDEX);
+        order.verify(jdbcTemplate).execute(startsWith("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + INDEX));
+    }
+
+    @Test
+    @DisplayName("其他實例建立中的 INVALID 索引不刪除")
+    void shouldKeepIndex_whenBuildInProgress() {
+        // Arrange
+        givenActiveIndexValid();
+        when(jdbcTemplate.queryForList(anyString(), eq(Boolean.class), eq(INDEX))).thenReturn(List.of(false));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq(INDEX))).thenReturn(1L);
+
+        // Act
+        manager.ensureIndexes(DIMENSIONS);
+
+        // Assert
+        verify(jdbcTemplate, never()).execute(startsWith("DROP INDEX"));
+    }
+
+    @Test
+    @DisplayName("有效索引保持不變")
+    void shouldKeepIndex_whenValid() {
+        // Arrange
+        givenActiveIndexValid();
+        when(jdbcTemplate.queryForList(anyString(), eq(Boolean.class), eq(INDEX))).thenReturn(List.of(true));
+
+        // Act
+        manager.ensureIndexes(DIMENSIONS);
+
+        // Assert
+        verify(jdbcTemplate, never()).execute(startsWith("DROP INDEX"));
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class), eq(INDEX));
+    }
+
+    @Test
+    @DisplayName("超過 2000 維的影子欄位只建立量化表達式索引")
+    void shouldBuildOnlyQuantizedIndex_whenShadowDimensionsExceedVectorLimit() {
+        // Arrange
+        String shadowIndex = "idx_document_chunks_embedding_next_halfvec_3072";
+        when(jdbcTemplate.queryForList(anyString(), eq(Boolean.class), eq(shadowIndex))).thenReturn(List.of());
+
+        // Act
+        manager.buildIndexes("embedding_next", 3072);
+
+        // Assert
+        verify(jdbcTemplate).execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + shadowIndex
+                + " ON document_chunks USING hnsw (((embedding_next)::halfvec(3072)) halfvec_cosine_ops)");
+        verify(jdbcTemplate, never()).execute(contains("vector_cosine_ops"));
+        assertThat(manager.indexNames("embedding_next", 3072)).containsExactly(shadowIndex);
+    }
+
+    @Test
+    @DisplayName("影子欄位的索引名稱與 embedding 欄位一一對應")
+    void shouldNameShadowIndexesAfterColumn() {
+        assertThat(manager.indexNames("embedding_next", DIMENSIONS)).containsExactly(
+                "idx_document_chunks_embedding_next_hnsw", "idx_document_chunks_embedding_next_halfvec_768");
+        assertThat(manager.indexNames("embedding", DIMENSIONS)).containsExactly(
+                VectorIndexManager.ACTIVE_INDEX, INDEX);
+    }
+
+    @Test
+    @DisplayName("超過 vector 索引上限的維度需由量化索引支援")
+    void shouldSupportLargeDimensions_onlyWithQuantizedIndex() {
+        assertThat(manager.supportsDimensions(3072)).isTrue();
+        assertThat(manager.supportsDimensions(4001)).isFalse();
+        assertThat(new VectorIndexManager(jdbcTemplate, CoarseSearchOptions.DISABLED).supportsDimensions(3072))
+                .isFalse();
+        assertThat(new VectorIndexManager(jdbcTemplate, CoarseSearchOptions.DISABLED).supportsDimensions(2000))
+                .isTrue();
+    }
+
+    @Test
+    @DisplayName("影子欄位索引的整體狀態：建立中優先於 INVALID，INVALID 優先於不存在")
+    void shouldAggregateIndexState_acrossShadowIndexes() {
+        // Arrange - 完整精度索引為中斷建立留下的 INVALID，量化索引尚未建立
+        String hnsw = "idx_document_chunks_embedding_next_hnsw";
+        String halfvec = "idx_document_chunks_embedding_next_halfvec_768";
+        when(jdbcTemplate.queryForList(anyString(), eq(Boolean.class), eq(hnsw))).thenReturn(List.of(false));
+        when(jdbcTemplate.queryForList(anyString(), eq(Boolean.class), eq(halfvec))).thenReturn(List.of());
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq(hnsw))).thenReturn(0L, 1L);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq(halfvec))).thenReturn(0L);
+
+        // Act & Assert - 第二次查詢時完整精度索引由其他實例建立中
+        assertThat(manager.indexState("embedding_next", DIMENSIONS)).isEqualTo(VectorIndexManager.IndexState.INVALID);
+        assertThat(manager.indexState("embedding_next", DIMENSIONS)).isEqualTo(VectorIndexManager.IndexState.BUILDING);
+    }
+
+    @Test
+    @DisplayName("所有索引皆有效時狀態為 VALID")
+    void shouldReportValid_whenAllIndexesValid() {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), eq(Boolean.class), anyString())).thenReturn(List.of(true));
+
+        // Act & Assert
+        assertThat(manager.indexState("embedding_next", DIMENSIONS)).isEqualTo(VectorIndexManager.IndexState.VALID);
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class), anyString());
+    }
+}
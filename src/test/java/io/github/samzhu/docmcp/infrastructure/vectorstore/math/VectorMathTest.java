@@ -0,0 +1,152 @@
+package io.github.samzhu.docmcp.infrastructure.vectorstore.math;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * VectorMath 單元測試
+ * <p>
+ * 以純量實作為基準，驗證 SIMD 實作在各種長度（含不足一個向量寬度的尾端）下結果一致，
+ * 以及批次 top-K 的排序正確性。
+ * </p>
+ */
+@DisplayName("VectorMath")
+class VectorMathTest {
+
+    private final VectorMath scalar = VectorMath.scalar();
+    // 測試以 --add-modules jdk.incubator.vector 執行（build.gradle），SimdVectorMath 位於 vectorApi source set
+    private final VectorMath simd = VectorMath.get();
+
+    private static float[] randomVector(SplittableRandom random, int length) {
+        float[] vector = new float[length];
+        for (int i = 0; i < length; i++) {
+            vector[i] = (float) random.nextDouble(-1, 1);
+        }
+        return vector;
+    }
+
+    @Test
+    @DisplayName("模組存在時載入 vectorApi source set 的 SIMD 實作")
+    void shouldSelectSimdImplementation_whenModuleIsPresent() {
+        assertThat(simd.name()).startsWith("simd-");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 7, 8, 17, 768, 1536, 1537})
+    @DisplayName("SIMD 與純量實作的 dot / cosine / norm 結果一致")
+    void simdShouldMatchScalar(int length) {
+        // Given
+        SplittableRandom random = new SplittableRandom(length);
+        float[] a = randomVector(random, length);
+        float[] b = randomVector(random, length);
+
+        // Then
+        assertThat(simd.dot(a, b)).isCloseTo(scalar.dot(a, b), within(1e-3f));
+        assertThat(simd.cosine(a, b)).isCloseTo(scalar.cosine(a, b), within(1e-5f));
+        assertThat(simd.norm(a)).isCloseTo(scalar.norm(a), within(1e-3f));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 768})
+    @DisplayName("儲存區上的 dot 與陣列版本一致")
+    void segmentDotShouldMatchArrayDot(int length) {
+        // Given - 第二個向量，驗證 byteOffset 的計算
+        SplittableRandom random = new SplittableRandom(7);
+        float[] first = randomVector(random, length);
+        float[] second = randomVector(random, length);
+        float[] query = randomVector(random, length);
+        MemorySegment segment = Arena.ofAuto().allocate(2L * length * Float.BYTES, 64);
+        MemorySegment.copy(first, 0, segment, ValueLayout.JAVA_FLOAT, 0, length);
+        MemorySegment.copy(second, 0, segment, ValueLayout.JAVA_FLOAT, (long) length * Float.BYTES, length);
+
+        // Then
+        long offset = (long) length * Float.BYTES;
+        assertThat(scalar.dot(segment, offset, query)).isCloseTo(scalar.dot(second, query), within(1e-4f));
+        assertThat(simd.dot(segment, offset, query)).isCloseTo(scalar.dot(second, query), within(1e-3f));
+    }
+
+    @Test
+    @DisplayName("cosine 對零向量回傳 0")
+    void cosineShouldReturnZero_forZeroVector() {
+        assertThat(scalar.cosine(new float[]{0, 0}, new float[]{1, 1})).isZero();
+        assertThat(simd.cosine(new float[]{0, 0}, new float[]{1, 1})).isZero();
+    }
+
+    @Test
+    @DisplayName("長度不同時拋出例外")
+    void shouldRejectDifferentLengths() {
+        assertThatThrownBy(() -> scalar.dot(new float[2], new float[3])).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> simd.cosine(new float[2], new float[3])).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("normalize 回傳單位向量且不修改原陣列")
+    void normalizeShouldReturnUnitVectorCopy() {
+        float[] vector = {3, 4};
+
+        float[] normalized = simd.normalize(vector);
+
+        assertThat(normalized).containsExactly(new float[]{0.6f, 0.8f}, within(1e-6f));
+        assertThat(vector).containsExactly(3, 4);
+    }
+
+    @Test
+    @DisplayName("topK 依內積由高至低回傳最佳的 k 個向量")
+    void topKShouldReturnBestScoresInDescendingOrder() {
+        // Given
+        int count = 500;
+        int dimensions = 33;
+        SplittableRandom random = new SplittableRandom(11);
+        float[][] vectors = new float[count][];
+        MemorySegment segment = Arena.ofAuto().allocate((long) count * dimensions * Float.BYTES, 64);
+        for (int i = 0; i < count; i++) {
+            vectors[i] = randomVector(random, dimensions);
+            MemorySegment.copy(vectors[i], 0, segment, ValueLayout.JAVA_FLOAT,
+                    (long) i * dimensions * Float.BYTES, dimensions);
+        }
+        float[] query = randomVector(random, dimensions);
+        int[] expected = IntStream.range(0, count).boxed()
+                .sorted(Comparator.comparingDouble((Integer i) -> scalar.dot(vectors[i], query)).reversed())
+                .limit(10)
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        // When
+        VectorMath.TopK scalarTop = scalar.topK(segment, count, query, 10);
+        VectorMath.TopK simdTop = simd.topK(segment, count, query, 10);
+
+        // Then
+        assertThat(scalarTop.indices()).containsExactly(expected);
+        assertThat(simdTop.indices()).containsExactly(expected);
+        float[] scores = scalarTop.scores().clone();
+        Arrays.sort(scores);
+        assertThat(scalarTop.scores()[0]).isEqualTo(scores[scores.length - 1]);
+    }
+
+    @Test
+    @DisplayName("k 大於向量數時回傳全部向量")
+    void topKShouldReturnAll_whenKExceedsCount() {
+        MemorySegment segment = Arena.ofAuto().allocate(2L * Float.BYTES, 64);
+        segment.setAtIndex(ValueLayout.JAVA_FLOAT, 0, 1f);
+        segment.setAtIndex(ValueLayout.JAVA_FLOAT, 1, 2f);
+
+        VectorMath.TopK top = scalar.topK(segment, 2, new float[]{1f}, 5);
+
+        assertThat(top.indices()).containsExactly(1, 0);
+        assertThat(top.scores()).containsExactly(2f, 1f);
+    }
+}
@@ -0,0 +1,248 @@
+package io.github.samzhu.docmcp.infrastructure.vectorstore.memory;
+
+import io.github.samzhu.docmcp.domain.event.SyncCompletedEvent;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.PgVectorCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * InMemoryVectorIndexRegistry 單元測試
+ * <p>
+ * 驗證延遲載入、記憶體預算淘汰、同步完成後重建與模型切換清空。
+ * 使用同步執行器讓背景載入在呼叫端執行緒完成。
+ * </p>
+ */
+@DisplayName("InMemoryVectorIndexRegistry")
+class InMemoryVectorIndexRegistryTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+    }
+
+    private InMemoryVectorIndexRegistry registry(long memoryBudgetBytes) {
+        InMemoryIndexOptions options = new InMemoryIndexOptions(true, memoryBudgetBytes, 16, 100, 64, 2000,
+                Duration.ofMinutes(10), 1);
+        return new InMemoryVectorIndexRegistry(jdbcTemplate, options, Runnable::run);
+    }
+
+    /**
+     * 模擬版本的區塊向量查詢結果
+     */
+    private void givenVersionChunks(String versionId, float[]... vectors) throws Exception {
+        int dimensions = vectors.length == 0 ? 0 : vectors[0].length;
+        givenVersionStats(versionId, vectors.length, dimensions, dimensions);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int i = 0; i < vectors.length; i++) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString("id")).thenReturn(versionId + "-" + i);
+                when(rs.getBytes("embedding")).thenReturn(PgVectorCodec.encode(vectors[i]));
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(versionId));
+    }
+
+    /**
+     * 模擬版本的區塊數與維度統計查詢
+     */
+    @SuppressWarnings("unchecked")
+    private void givenVersionStats(String versionId, int count, int minDimensions, int maxDimensions) {
+        when(jdbcTemplate.queryForObject(contains("COUNT(*)"), any(RowMapper.class), eq(versionId)))
+                .thenAnswer(invocation -> {
+                    ResultSet rs = mock(ResultSet.class);
+                    when(rs.getInt("chunk_count")).thenReturn(count);
+                    when(rs.getInt("min_dimensions")).thenReturn(minDimensions);
+                    when(rs.getInt("max_dimensions")).thenReturn(maxDimensions);
+                    return ((RowMapper<?>) invocation.getArgument(1)).mapRow(rs, 0);
+                });
+    }
+
+    @Nested
+    @DisplayName("search")
+    class SearchTests {
+
+        @Test
+        @DisplayName("首次查詢觸發載入並回傳 empty，載入後在記憶體中搜尋")
+        void shouldLoadLazily_thenSearchInMemory() throws Exception {
+            // Given
+            givenVersionChunks("V1", new float[]{1, 0, 0}, new float[]{0, 1, 0});
+            InMemoryVectorIndexRegistry registry = registry(1024 * 1024);
+
+            // When
+            Optional<List<ScoredChunk>> first = registry.search("V1", new float[]{1, 0, 0}, 1, 0.5);
+            Optional<List<ScoredChunk>> second = registry.search("V1", new float[]{1, 0, 0}, 1, 0.5);
+
+            // Then
+            assertThat(first).isEmpty();
+            assertThat(second).hasValueSatisfying(results ->
+                    assertThat(results).extracting(ScoredChunk::id).containsExactly("V1-0"));
+        }
+
+        @Test
+        @DisplayName("查詢維度與索引不符時回傳 empty")
+        void shouldReturnEmpty_whenDimensionsDiffer() throws Exception {
+            // Given
+            givenVersionChunks("V1", new float[]{1, 0, 0});
+            InMemoryVectorIndexRegistry registry = registry(1024 * 1024);
+            registry.load("V1");
+
+            // When & Then
+            assertThat(registry.search("V1", new float[]{1, 0}, 1, 0)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("未指定版本時不使用記憶體索引")
+        void shouldReturnEmpty_whenVersionIdIsNull() {
+            assertThat(registry(1024 * 1024).search(null, new float[]{1, 0, 0}, 1, 0)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("記憶體預算")
+    class MemoryBudgetTests {
+
+        @Test
+        @DisplayName("超過預算時淘汰最久未使用的版本")
+        void shouldEvictLeastRecentlyUsedVersion() throws Exception {
+            // Given - 預算只容得下一個版本
+            givenVersionChunks("V1", new float[]{1, 0, 0}, new float[]{0, 1, 0});
+            givenVersionChunks("V2", new float[]{0, 0, 1}, new float[]{1, 1, 0});
+            InMemoryVectorIndexRegistry registry = registry(200);
+
+            // When
+            registry.load("V1");
+            registry.load("V2");
+
+            // Then
+            assertThat(registry.isLoaded("V1")).isFalse();
+            assertThat(registry.isLoaded("V2")).isTrue();
+            assertThat(registry.getUsedBytes()).isLessThanOrEqualTo(200);
+        }
+
+        @Test
+        @DisplayName("單一版本超過預算時不載入，也不重複嘗試")
+        void shouldSkipOversizedVersion() throws Exception {
+            // Given
+            givenVersionChunks("V1", new float[]{1, 0, 0}, new float[]{0, 1, 0});
+            InMemoryVectorIndexRegistry registry = registry(16);
+
+            // When
+            registry.search("V1", new float[]{1, 0, 0}, 1, 0);
+            registry.search("V1", new float[]{1, 0, 0}, 1, 0);
+
+            // Then - 以統計判斷超過預算，不讀取任何向量
+            assertThat(registry.isLoaded("V1")).isFalse();
+            verify(jdbcTemplate, times(1)).queryForObject(contains("COUNT(*)"), any(RowMapper.class), eq("V1"));
+            verify(jdbcTemplate, never()).query(anyString(), any(RowCallbackHandler.class), eq("V1"));
+        }
+
+        @Test
+        @DisplayName("大型版本在讀取向量前即以區塊數與維度拒絕")
+        void shouldRejectLargeVersion_beforeReadingVectors() {
+            // Given - 十萬個 768 維向量約 293 MB，遠超預算
+            givenVersionStats("V1", 100_000, 768, 768);
+            InMemoryVectorIndexRegistry registry = registry(1024 * 1024);
+
+            // When
+            registry.load("V1");
+
+            // Then
+            assertThat(registry.isLoaded("V1")).isFalse();
+            verify(jdbcTemplate, never()).query(anyString(), any(RowCallbackHandler.class), eq("V1"));
+        }
+
+        @Test
+        @DisplayName("維度不一致時不讀取向量")
+        void shouldSkipVersion_whenDimensionsAreMixed() {
+            // Given
+            givenVersionStats("V1", 2, 768, 1536);
+            InMemoryVectorIndexRegistry registry = registry(1024 * 1024);
+
+            // When
+            registry.load("V1");
+
+            // Then
+            assertThat(registry.isLoaded("V1")).isFalse();
+            verify(jdbcTemplate, never()).query(anyString(), any(RowCallbackHandler.class), eq("V1"));
+        }
+
+        @Test
+        @DisplayName("載入期間區塊數量改變時捨棄此次載入")
+        void shouldDiscardLoad_whenRowCountChangesDuringLoad() throws Exception {
+            // Given - 統計時 1 個區塊，讀取時已有 2 個
+            givenVersionChunks("V1", new float[]{1, 0, 0}, new float[]{0, 1, 0});
+            givenVersionStats("V1", 1, 3, 3);
+            InMemoryVectorIndexRegistry registry = registry(1024 * 1024);
+
+            // When
+            registry.load("V1");
+
+            // Then
+            assertThat(registry.isLoaded("V1")).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("重新整理")
+    class RefreshTests {
+
+        @Test
+        @DisplayName("已載入的版本在同步完成後重新建立")
+        void shouldRebuildLoadedVersion_onSyncCompleted() throws Exception {
+            // Given
+            givenVersionChunks("V1", new float[]{1, 0, 0});
+            InMemoryVectorIndexRegistry registry = registry(1024 * 1024);
+            registry.load("V1");
+
+            // When
+            registry.onSyncCompleted(new SyncCompletedEvent("V1", "S1", 1, 1));
+            registry.onSyncCompleted(new SyncCompletedEvent("V2", "S2", 1, 1));
+
+            // Then - 未載入的版本不因同步而載入
+            verify(jdbcTemplate, times(2)).query(anyString(), any(RowCallbackHandler.class), eq("V1"));
+            verify(jdbcTemplate, times(0)).query(anyString(), any(RowCallbackHandler.class), eq("V2"));
+        }
+
+        @Test
+        @DisplayName("模型切換後清空所有索引")
+        void shouldClearIndexes_onInvalidateAll() throws Exception {
+            // Given
+            givenVersionChunks("V1", new float[]{1, 0, 0});
+            InMemoryVectorIndexRegistry registry = registry(1024 * 1024);
+            registry.load("V1");
+
+            // When
+            registry.invalidateAll();
+
+            // Then
+            assertThat(registry.isLoaded("V1")).isFalse();
+            assertThat(registry.getUsedBytes()).isZero();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.samzhu.docmcp.infrastructure.vectorstore.memory;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * VersionVectorIndex 單元測試
+ * <p>
+ * 以隨機向量驗證 HNSW 搜尋相對於精確掃描的召回率，以及精確掃描與相似度門檻的行為。
+ * </p>
+ */
+@DisplayName("VersionVectorIndex")
+class VersionVectorIndexTest {
+
+    private static final int DIMENSIONS = 64;
+
+    private static InMemoryIndexOptions options(int flatSearchThreshold) {
+        return new InMemoryIndexOptions(true, 64L * 1024 * 1024, 16, 100, 64, flatSearchThreshold,
+                Duration.ofMinutes(10), 1);
+    }
+
+    private static List<float[]> randomVectors(Random random, int count) {
+        List<float[]> vectors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            float[] vector = new float[DIMENSIONS];
+            for (int d = 0; d < DIMENSIONS; d++) {
+                vector[d] = (float) random.nextGaussian();
+            }
+            vectors.add(vector);
+        }
+        return vectors;
+    }
+
+    private static List<String> ids(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "chunk-" + i).toList();
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0, normA = 0, normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return dot / Math.sqrt(normA * normB);
+    }
+
+    @Test
+    @DisplayName("HNSW 搜尋的 recall@10 應接近精確掃描")
+    void shouldReachHighRecall_comparedToExactSearch() {
+        // Given
+        Random random = new Random(42);
+        int count = 3000;
+        List<float[]> vectors = randomVectors(random, count);
+        VersionVectorIndex index = VersionVectorIndex.build("V1", ids(count), vectors, options(1000));
+        assertThat(index.isGraphIndexed()).isTrue();
+
+        // When
+        int topK = 10;
+        int hits = 0;
+        List<float[]> queries = randomVectors(random, 50);
+        for (float[] query : queries) {
+            Set<String> expected = new HashSet<>(IntStream.range(0, count).boxed()
+                    .sorted(Comparator.comparingDouble((Integer i) -> cosine(query, vectors.get(i))).reversed())
+                    .limit(topK)
+                    .map(i -> "chunk-" + i)
+                    .toList());
+            for (ScoredChunk chunk : index.search(query, topK, -1, 64)) {
+                if (expected.contains(chunk.id())) {
+                    hits++;
+                }
+            }
+        }
+
+        // Then
+        double recall = (double) hits / (queries.size() * topK);
+        assertThat(recall).isGreaterThan(0.9);
+    }
+
+    @Test
+    @DisplayName("區塊數低於門檻時以精確掃描回傳依相似度排序的結果")
+    void shouldUseExactSearch_belowThreshold() {
+        // Given
+        float[] a = {1, 0, 0, 0};
+        float[] b = {0.7f, 0.7f, 0, 0};
+        float[] c = {0, 0, 1, 0};
+        VersionVectorIndex index = VersionVectorIndex.build("V1", List.of("a", "b", "c"), List.of(a, b, c),
+                options(2000));
+
+        // When
+        List<ScoredChunk> results = index.search(new float[]{2, 0, 0, 0}, 2, 0.5, 64);
+
+        // Then - 查詢向量不需預先正規化，相似度低於門檻的結果被排除
+        assertThat(index.isGraphIndexed()).isFalse();
+        assertThat(results).extracting(ScoredChunk::id).containsExactly("a", "b");
+        assertThat(results.getFirst().similarity()).isCloseTo(1.0f, within(1e-5f));
+    }
+
+    @Test
+    @DisplayName("查詢向量維度不符時拋出例外")
+    void shouldRejectQueryWithDifferentDimensions() {
+        VersionVectorIndex index = VersionVectorIndex.build("V1", List.of("a"), List.of(new float[]{1, 0}),
+                options(2000));
+
+        assertThatThrownBy(() -> index.search(new float[]{1, 0, 0}, 1, 0, 64))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.samzhu.docmcp.loadtest;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.embedding.EmbeddingResultMetadata;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 以雜湊產生向量的 EmbeddingModel
+ * <p>
+ * 將文字切成單字後以 feature hashing 投影到固定維度並正規化：
+ * 相同文字永遠得到相同向量，共用單字越多的文字 cosine 相似度越高，
+ * 讓語意搜尋在沒有外部 embedding API 的環境下也能回傳有意義的結果，且每次執行結果一致。
+ * 每個單字分散到 {@value #HASHES_PER_TOKEN} 個維度（各自帶正負號），段落長度的文字會得到接近稠密的向量，
+ * 量化（halfvec、binary）與維度截斷的行為較接近真實模型。
+ * </p>
+ * <p>
+ * 向量只反映單字重疊，相似度普遍低於真實模型，使用時應調低相似度門檻。
+ * </p>
+ */
+public class HashEmbeddingModel implements EmbeddingModel {
+
+    public static final int DIMENSIONS = 768;
+
+    static final int HASHES_PER_TOKEN = 8;
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        List<Embedding> embeddings = new ArrayList<>();
+        List<String> texts = request.getInstructions();
+        for (int i = 0; i < texts.size(); i++) {
+            embeddings.add(new Embedding(embed(texts.get(i)), i, EmbeddingResultMetadata.EMPTY));
+        }
+        return new EmbeddingResponse(embeddings);
+    }
+
+    @Override
+    public float[] embed(String text) {
+        float[] vector = new float[DIMENSIONS];
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            int hash = token.hashCode();
+            for (int i = 0; i < HASHES_PER_TOKEN; i++) {
+                hash = mix(hash + i);
+                vector[Math.floorMod(hash, DIMENSIONS)] += (hash & 0x8000_0000) == 0 ? 1f : -1f;
+            }
+        }
+        return normalize(vector);
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return embed(document.getText());
+    }
+
+    @Override
+    public List<float[]> embed(List<String> texts) {
+        return texts.stream()
+                .map(this::embed)
+                .toList();
+    }
+
+    @Override
+    public int dimensions() {
+        return DIMENSIONS;
+    }
+
+    /**
+     * 打散 String.hashCode 的低位元分佈（murmur3 fmix32）
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85eb_ca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2_ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm == 0) {
+            // 空白文字仍回傳單位向量，避免 cosine 距離為 NaN
+            vector[0] = 1f;
+            return vector;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+        return vector;
+    }
+}
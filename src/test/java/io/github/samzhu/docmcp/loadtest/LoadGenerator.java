@@ -0,0 +1,156 @@
+package io.github.samzhu.docmcp.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 開放式（open-loop）負載產生器
+ * <p>
+ * 依目標 RPS 排定每個請求的預定發送時間，不等待前一個請求完成，
+ * 每個請求在獨立的虛擬執行緒上發送：
+ * <ul>
+ *   <li>延遲從預定發送時間起算，伺服器變慢時排隊時間也計入，避免 coordinated omission 低估尾端延遲</li>
+ *   <li>各情境依序輪流發送，每個情境的 RPS 約為總 RPS ÷ 情境數</li>
+ *   <li>暖機期間的請求照常發送但不列入統計</li>
+ * </ul>
+ * </p>
+ */
+public class LoadGenerator {
+
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+
+    public LoadGenerator(HttpClient httpClient, Duration requestTimeout) {
+        this.httpClient = httpClient;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * 負載情境
+     *
+     * @param name    情境名稱（用於報告）
+     * @param request 產生下一個請求（每次呼叫可帶不同查詢）
+     * @param success 判斷回應是否成功
+     */
+    public record Scenario(String name, Supplier<HttpRequest> request, Predicate<HttpResponse<String>> success) {
+    }
+
+    /**
+     * 單一情境的量測結果（延遲單位為毫秒）
+     */
+    public record ScenarioReport(String scenario, int requests, int errors, double errorRate,
+                                 double throughput, double p50, double p95, double p99, double max) {
+    }
+
+    /**
+     * 以目標 RPS 執行所有情境
+     *
+     * @param scenarios 負載情境
+     * @param rps       總目標 RPS
+     * @param warmup    暖機時間（不列入統計）
+     * @param duration  量測時間
+     * @return 各情境的量測結果
+     */
+    public List<ScenarioReport> run(List<Scenario> scenarios, double rps, Duration warmup, Duration duration)
+            throws InterruptedException {
+        Map<Scenario, LatencyRecorder> recorders = new LinkedHashMap<>();
+        int expected = (int) Math.ceil(rps * duration.toSeconds() / scenarios.size()) + 1;
+        scenarios.forEach(scenario -> recorders.put(scenario, new LatencyRecorder(expected)));
+
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rps);
+        long start = System.nanoTime();
+        long measureStart = start + warmup.toNanos();
+        long end = measureStart + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long intended = start + i * intervalNanos;
+                if (intended >= end) {
+                    break;
+                }
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                Scenario scenario = scenarios.get((int) (i % scenarios.size()));
+                HttpRequest request = scenario.request().get();
+                boolean measured = intended >= measureStart;
+                executor.submit(() -> {
+                    boolean ok = send(scenario, request);
+                    if (measured) {
+                        recorders.get(scenario).record(System.nanoTime() - intended, ok);
+                    }
+                });
+            }
+            // 關閉時等待所有已發送的請求完成（單一請求受 requestTimeout 限制）
+        }
+
+        double seconds = duration.toNanos() / 1e9;
+        return recorders.entrySet().stream()
+                .map(entry -> entry.getValue().report(entry.getKey().name(), seconds))
+                .toList();
+    }
+
+    private boolean send(Scenario scenario, HttpRequest request) {
+        try {
+            HttpRequest timed = HttpRequest.newBuilder(request, (name, value) -> true)
+                    .timeout(requestTimeout)
+                    .build();
+            return scenario.success().test(httpClient.send(timed, HttpResponse.BodyHandlers.ofString()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * 延遲紀錄（奈秒）
+     */
+    private static final class LatencyRecorder {
+
+        private long[] latencies;
+        private int count;
+        private int errors;
+
+        LatencyRecorder(int expected) {
+            this.latencies = new long[Math.max(16, expected)];
+        }
+
+        synchronized void record(long nanos, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        synchronized ScenarioReport report(String name, double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return new ScenarioReport(name, count, errors,
+                    count == 0 ? 0 : (double) errors / count,
+                    count / seconds,
+                    Percentiles.millis(sorted, 0.50),
+                    Percentiles.millis(sorted, 0.95),
+                    Percentiles.millis(sorted, 0.99),
+                    count == 0 ? 0 : sorted[count - 1] / 1e6);
+        }
+    }
+}
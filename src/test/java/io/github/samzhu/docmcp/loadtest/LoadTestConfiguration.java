@@ -0,0 +1,40 @@
+package io.github.samzhu.docmcp.loadtest;
+
+import io.github.samzhu.docmcp.infrastructure.vectorstore.DocumentChunkConverter;
+import io.github.samzhu.docmcp.repository.DocumentRepository;
+import io.github.samzhu.docmcp.repository.LibraryRepository;
+import io.github.samzhu.docmcp.repository.LibraryVersionRepository;
+import io.github.samzhu.docmcp.service.IdService;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 負載測試配置
+ * <p>
+ * 以雜湊向量取代測試用的固定向量（讓相似度搜尋有意義），並提供語料產生器。
+ * 與 {@code TestcontainersConfiguration} 一起匯入，取代 {@code TestConfig}。
+ * </p>
+ */
+@TestConfiguration
+public class LoadTestConfiguration {
+
+    @Bean
+    EmbeddingModel embeddingModel() {
+        return new HashEmbeddingModel();
+    }
+
+    @Bean
+    LoadTestCorpus loadTestCorpus(LibraryRepository libraryRepository,
+                                  LibraryVersionRepository libraryVersionRepository,
+                                  DocumentRepository documentRepository,
+                                  VectorStore vectorStore,
+                                  DocumentChunkConverter chunkConverter,
+                                  IdService idService,
+                                  JdbcTemplate jdbcTemplate) {
+        return new LoadTestCorpus(libraryRepository, libraryVersionRepository, documentRepository,
+                vectorStore, chunkConverter, idService, jdbcTemplate);
+    }
+}
@@ -0,0 +1,203 @@
+package io.github.samzhu.docmcp.loadtest;
+
+import io.github.samzhu.docmcp.domain.enums.SourceType;
+import io.github.samzhu.docmcp.domain.model.Document;
+import io.github.samzhu.docmcp.domain.model.Library;
+import io.github.samzhu.docmcp.domain.model.LibraryVersion;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.DocumentChunkConverter;
+import io.github.samzhu.docmcp.repository.DocumentRepository;
+import io.github.samzhu.docmcp.repository.LibraryRepository;
+import io.github.samzhu.docmcp.repository.LibraryVersionRepository;
+import io.github.samzhu.docmcp.service.IdService;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 負載測試語料產生器
+ * <p>
+ * 以固定亂數種子產生 N 個函式庫 × M 個版本 × K 個區塊的語料，寫入資料庫：
+ * <ul>
+ *   <li>每個區塊由一個主題（{@link #TOPICS}）的詞彙加上通用填充詞組成，同主題的查詢可同時命中關鍵字與向量搜尋</li>
+ *   <li>每份文件包含 {@link #CHUNKS_PER_DOCUMENT} 個區塊，文件內容為區塊的串接</li>
+ *   <li>區塊經 VectorStore 寫入並產生 embedding，與同步流程相同</li>
+ *   <li>schema 未建立 search_vector 觸發器，寫入後直接更新全文檢索欄位</li>
+ * </ul>
+ * 相同的參數與種子會產生相同的語料與查詢序列，方便比較不同版本的量測結果。
+ * </p>
+ */
+public class LoadTestCorpus {
+
+    static final int CHUNKS_PER_DOCUMENT = 4;
+
+    private static final int WORDS_PER_CHUNK = 80;
+
+    /**
+     * 主題詞彙：每個主題的詞彙用於產生區塊內容與查詢
+     */
+    static final List<List<String>> TOPICS = List.of(
+            List.of("connection", "pool", "datasource", "timeout", "idle", "maximum"),
+            List.of("transaction", "isolation", "rollback", "commit", "propagation", "savepoint"),
+            List.of("security", "authentication", "token", "oauth", "filter", "authorization"),
+            List.of("cache", "eviction", "ttl", "invalidate", "redis", "caffeine"),
+            List.of("retry", "backoff", "circuit", "breaker", "resilience", "fallback"),
+            List.of("logging", "appender", "pattern", "level", "logger", "structured"),
+            List.of("metrics", "counter", "timer", "gauge", "histogram", "percentile"),
+            List.of("scheduler", "cron", "fixed", "delay", "task", "executor"),
+            List.of("validation", "constraint", "annotation", "message", "violation", "group"),
+            List.of("serialization", "json", "jackson", "module", "deserializer", "mapper"),
+            List.of("migration", "flyway", "schema", "baseline", "version", "script"),
+            List.of("testing", "mock", "slice", "container", "assertion", "fixture"),
+            List.of("websocket", "stomp", "broker", "subscription", "session", "heartbeat"),
+            List.of("reactive", "publisher", "subscriber", "backpressure", "flux", "mono"),
+            List.of("configuration", "property", "profile", "binding", "override", "environment"),
+            List.of("deployment", "container", "image", "layer", "native", "startup")
+    );
+
+    private static final List<String> FILLER = List.of(
+            "the", "application", "service", "when", "you", "can", "use", "default", "value",
+            "example", "following", "section", "describes", "how", "to", "set", "enable", "with",
+            "for", "each", "request", "runtime", "is", "applied", "and", "this", "option", "of");
+
+    private final LibraryRepository libraryRepository;
+    private final LibraryVersionRepository libraryVersionRepository;
+    private final DocumentRepository documentRepository;
+    private final VectorStore vectorStore;
+    private final DocumentChunkConverter chunkConverter;
+    private final IdService idService;
+    private final JdbcTemplate jdbcTemplate;
+
+    public LoadTestCorpus(LibraryRepository libraryRepository,
+                          LibraryVersionRepository libraryVersionRepository,
+                          DocumentRepository documentRepository,
+                          VectorStore vectorStore,
+                          DocumentChunkConverter chunkConverter,
+                          IdService idService,
+                          JdbcTemplate jdbcTemplate) {
+        this.libraryRepository = libraryRepository;
+        this.libraryVersionRepository = libraryVersionRepository;
+        this.documentRepository = documentRepository;
+        this.vectorStore = vectorStore;
+        this.chunkConverter = chunkConverter;
+        this.idService = idService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 查詢目標：函式庫與版本
+     *
+     * @param libraryId 函式庫 ID
+     * @param versionId 版本 ID（向量搜尋的過濾條件）
+     * @param version   版本號
+     */
+    public record Target(String libraryId, String versionId, String version) {
+    }
+
+    /**
+     * 產生並寫入語料
+     *
+     * @param libraries         函式庫數量
+     * @param versionsPerLibrary 每個函式庫的版本數
+     * @param chunksPerVersion  每個版本的區塊數
+     * @param seed              亂數種子
+     * @return 所有函式庫版本，供查詢使用
+     */
+    public List<Target> seed(int libraries, int versionsPerLibrary, int chunksPerVersion, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Target> targets = new ArrayList<>();
+
+        for (int l = 0; l < libraries; l++) {
+            String libraryId = idService.generateId();
+            String name = "loadtest-lib-" + l;
+            libraryRepository.save(Library.create(libraryId, name, "Load Test Library " + l,
+                    "Synthetic library for load testing", SourceType.GITHUB,
+                    "https://github.com/example/" + name, "loadtest", null));
+
+            for (int v = 0; v < versionsPerLibrary; v++) {
+                String version = "1." + v + ".0";
+                String versionId = idService.generateId();
+                libraryVersionRepository.save(
+                        LibraryVersion.create(versionId, libraryId, version, v == versionsPerLibrary - 1));
+                seedVersion(versionId, chunksPerVersion, random);
+                targets.add(new Target(libraryId, versionId, version));
+            }
+        }
+
+        // 全文檢索欄位權重與 schema.sql 註解中的 update_documents_search_vector() 觸發器相同
+        jdbcTemplate.update("""
+                UPDATE documents
+                SET search_vector = setweight(to_tsvector('english', COALESCE(title, '')), 'A') ||
+                                    setweight(to_tsvector('english', COALESCE(content, '')), 'B')
+                WHERE search_vector IS NULL
+                """);
+        return targets;
+    }
+
+    /**
+     * 產生主題查詢（2-3 個同主題詞彙）
+     */
+    public static String query(SplittableRandom random) {
+        List<String> topic = TOPICS.get(random.nextInt(TOPICS.size()));
+        int words = 2 + random.nextInt(2);
+        List<String> terms = new ArrayList<>(words);
+        while (terms.size() < words) {
+            String term = topic.get(random.nextInt(topic.size()));
+            if (!terms.contains(term)) {
+                terms.add(term);
+            }
+        }
+        return String.join(" ", terms);
+    }
+
+    private void seedVersion(String versionId, int chunks, SplittableRandom random) {
+        List<org.springframework.ai.document.Document> chunkDocuments = new ArrayList<>(chunks);
+        for (int start = 0; start < chunks; start += CHUNKS_PER_DOCUMENT) {
+            int count = Math.min(CHUNKS_PER_DOCUMENT, chunks - start);
+            int topicIndex = random.nextInt(TOPICS.size());
+            List<String> topic = TOPICS.get(topicIndex);
+
+            String documentId = idService.generateId();
+            String title = capitalize(topic.get(0)) + " " + topic.get(1) + " guide " + (start / CHUNKS_PER_DOCUMENT);
+            String path = "docs/" + topic.get(0) + "/guide-" + (start / CHUNKS_PER_DOCUMENT) + ".md";
+
+            List<String> contents = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                contents.add(paragraph(topic, random));
+            }
+            String content = String.join("\n\n", contents);
+            documentRepository.save(Document.create(documentId, versionId, title, path, content,
+                    Integer.toHexString(content.hashCode()), "markdown"));
+
+            for (int i = 0; i < count; i++) {
+                String text = contents.get(i);
+                chunkDocuments.add(chunkConverter.createNewChunkDocument(versionId, documentId, i,
+                        text, WORDS_PER_CHUNK, title, path, List.of(title)));
+            }
+        }
+        vectorStore.add(chunkDocuments);
+    }
+
+    /**
+     * 產生一段主題文字（約三分之一為主題詞彙）
+     */
+    static String paragraph(List<String> topic, SplittableRandom random) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < WORDS_PER_CHUNK; i++) {
+            if (i > 0) {
+                text.append(i % 12 == 0 ? ". " : " ");
+            }
+            String word = random.nextInt(3) == 0
+                    ? topic.get(random.nextInt(topic.size()))
+                    : FILLER.get(random.nextInt(FILLER.size()));
+            text.append(word);
+        }
+        return text.append('.').toString();
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
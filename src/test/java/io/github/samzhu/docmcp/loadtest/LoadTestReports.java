@@ -0,0 +1,47 @@
+package io.github.samzhu.docmcp.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 負載測試報告輸出
+ * <p>
+ * 報告寫入 {@code loadtest.report-dir}（預設 build/reports/loadtest），
+ * 每次執行覆寫同名檔案。
+ * </p>
+ */
+final class LoadTestReports {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private LoadTestReports() {
+    }
+
+    /**
+     * 寫入 JSON 報告
+     *
+     * @param name    檔名（不含副檔名）
+     * @param config  執行參數
+     * @param results 量測結果
+     * @return 報告檔路徑
+     */
+    static Path write(String name, Map<String, Object> config, Object results) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("config", config);
+        report.put("results", results);
+
+        Path reportDir = Path.of(System.getProperty("loadtest.report-dir", "build/reports/loadtest"));
+        Files.createDirectories(reportDir);
+        Path file = reportDir.resolve(name + ".json");
+        MAPPER.writeValue(file.toFile(), report);
+        return file.toAbsolutePath();
+    }
+}
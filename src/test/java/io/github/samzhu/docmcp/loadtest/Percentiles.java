@@ -0,0 +1,25 @@
+package io.github.samzhu.docmcp.loadtest;
+
+/**
+ * 延遲百分位數計算
+ */
+final class Percentiles {
+
+    private Percentiles() {
+    }
+
+    /**
+     * nearest-rank 百分位數
+     *
+     * @param sortedNanos 已排序的延遲（奈秒）
+     * @param quantile    百分位（0-1）
+     * @return 延遲（毫秒），沒有樣本時為 0
+     */
+    static double millis(long[] sortedNanos, double quantile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sortedNanos.length);
+        return sortedNanos[Math.max(0, rank - 1)] / 1e6;
+    }
+}
@@ -0,0 +1,228 @@
+package io.github.samzhu.docmcp.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.samzhu.docmcp.TestcontainersConfiguration;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 搜尋負載測試
+ * <p>
+ * 以 Testcontainers PostgreSQL（pgvector）啟動完整應用程式，改用 {@link HashEmbeddingModel}
+ * 產生確定性的向量，寫入合成語料後以目標 RPS 對 HTTP 端點施壓，輸出各情境的 p50/p95/p99 與錯誤數：
+ * <ul>
+ *   <li>search_docs：經 Stateless MCP HTTP 傳輸（POST /mcp，JSON-RPC tools/call）</li>
+ *   <li>semantic_search：同上</li>
+ *   <li>hybrid：GET /api/search?mode=hybrid（混合搜尋目前沒有對應的 MCP 工具）</li>
+ * </ul>
+ * 結果寫入 {@code build/reports/loadtest/search-load.json}（見 {@link LoadTestReports}）。
+ * </p>
+ *
+ * <pre>
+ * ./gradlew loadTest -Ploadtest.libraries=20 -Ploadtest.versions=3 -Ploadtest.chunks=400 -Ploadtest.rps=100
+ * </pre>
+ *
+ * <p>
+ * 可用參數（皆為 {@code loadtest.*} 系統屬性）：libraries、versions、chunks（每版本區塊數）、
+ * rps（總目標 RPS）、warmup-seconds、duration-seconds、seed、max-error-rate、report-dir。
+ * </p>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                // 雜湊向量的相似度低於真實模型，混合搜尋的語意門檻需一併調低
+                "docmcp.search.hybrid.min-similarity=0.1",
+                // 測試設定預設開啟 DEBUG，每個請求的 SQL 日誌會主導延遲
+                "logging.level.io.github.samzhu.docmcp=INFO",
+                "logging.level.org.springframework.jdbc=WARN"
+        })
+@Import({TestcontainersConfiguration.class, LoadTestConfiguration.class})
+@ActiveProfiles("test")
+@Tag("loadtest")
+class SearchLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchLoadTest.class);
+
+    private static final double SEMANTIC_THRESHOLD = 0.1;
+    private static final int LIMIT = 10;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong requestIds = new AtomicLong();
+
+    @Value("${local.server.port}")
+    private int port;
+
+    @Autowired
+    private LoadTestCorpus corpus;
+
+    @Test
+    void searchUnderLoad() throws Exception {
+        int libraries = Integer.getInteger("loadtest.libraries", 5);
+        int versions = Integer.getInteger("loadtest.versions", 2);
+        int chunks = Integer.getInteger("loadtest.chunks", 200);
+        double rps = Double.parseDouble(System.getProperty("loadtest.rps", "30"));
+        Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 10L));
+        Duration duration = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 30L));
+        long seed = Long.getLong("loadtest.seed", 42L);
+        double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+
+        // Arrange
+        long seedStart = System.nanoTime();
+        List<LoadTestCorpus.Target> targets = corpus.seed(libraries, versions, chunks, seed);
+        long seedMillis = (System.nanoTime() - seedStart) / 1_000_000;
+        log.info("Seeded {} libraries × {} versions × {} chunks in {} ms", libraries, versions, chunks, seedMillis);
+
+        SplittableRandom random = new SplittableRandom(seed);
+        List<LoadGenerator.Scenario> scenarios = List.of(
+                new LoadGenerator.Scenario("search_docs",
+                        () -> {
+                            var target = pick(targets, random);
+                            return mcpToolCall("search_docs", Map.of(
+                                    "libraryId", target.libraryId(),
+                                    "version", target.version(),
+                                    "query", LoadTestCorpus.query(random),
+                                    "limit", LIMIT));
+                        },
+                        this::isMcpSuccess),
+                new LoadGenerator.Scenario("semantic_search",
+                        () -> {
+                            var target = pick(targets, random);
+                            return mcpToolCall("semantic_search", Map.of(
+                                    "libraryId", target.libraryId(),
+                                    "version", target.version(),
+                                    "query", LoadTestCorpus.query(random),
+                                    "limit", LIMIT,
+                                    "threshold", SEMANTIC_THRESHOLD));
+                        },
+                        this::isMcpSuccess),
+                new LoadGenerator.Scenario("hybrid",
+                        () -> hybridSearch(pick(targets, random), LoadTestCorpus.query(random)),
+                        response -> response.statusCode() == 200)
+        );
+
+        // Act
+        List<LoadGenerator.ScenarioReport> reports;
+        try (HttpClient httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build()) {
+            reports = new LoadGenerator(httpClient, Duration.ofSeconds(30))
+                    .run(scenarios, rps, warmup, duration);
+        }
+
+        // Assert
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("libraries", libraries);
+        config.put("versions", versions);
+        config.put("chunksPerVersion", chunks);
+        config.put("targetRps", rps);
+        config.put("warmupSeconds", warmup.toSeconds());
+        config.put("durationSeconds", duration.toSeconds());
+        config.put("seed", seed);
+        config.put("seedMillis", seedMillis);
+        Path reportFile = LoadTestReports.write("search-load", config, reports);
+        log.info("Load test report written to {}", reportFile);
+
+        reports.forEach(report -> log.info(String.format(
+                "%-16s requests=%6d errors=%4d rps=%7.1f p50=%8.1fms p95=%8.1fms p99=%8.1fms max=%8.1fms",
+                report.scenario(), report.requests(), report.errors(), report.throughput(),
+                report.p50(), report.p95(), report.p99(), report.max())));
+
+        assertThat(reports).allSatisfy(report -> {
+            assertThat(report.requests()).as("%s requests", report.scenario()).isPositive();
+            assertThat(report.errorRate()).as("%s error rate", report.scenario()).isLessThanOrEqualTo(maxErrorRate);
+        });
+    }
+
+    private static LoadTestCorpus.Target pick(List<LoadTestCorpus.Target> targets, SplittableRandom random) {
+        return targets.get(random.nextInt(targets.size()));
+    }
+
+    /**
+     * 建立 MCP tools/call 請求（Stateless 傳輸不需要先 initialize）
+     */
+    private HttpRequest mcpToolCall(String tool, Map<String, Object> arguments) {
+        Map<String, Object> body = Map.of(
+                "jsonrpc", "2.0",
+                "id", requestIds.incrementAndGet(),
+                "method", "tools/call",
+                "params", Map.of("name", tool, "arguments", arguments));
+        try {
+            return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/mcp"))
+                    .header("Content-Type", "application/json")
+                    .header("Accept", "application/json, text/event-stream")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest hybridSearch(LoadTestCorpus.Target target, String query) {
+        String uri = "http://localhost:" + port + "/api/search?mode=hybrid"
+                + "&libraryId=" + target.libraryId()
+                + "&version=" + target.version()
+                + "&limit=" + LIMIT
+                + "&query=" + URLEncoder.encode(query, StandardCharsets.UTF_8);
+        return HttpRequest.newBuilder(URI.create(uri)).GET().build();
+    }
+
+    /**
+     * MCP 回應成功：HTTP 200、沒有 JSON-RPC error，且工具結果不是 isError
+     */
+    private boolean isMcpSuccess(HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            return false;
+        }
+        try {
+            JsonNode message = objectMapper.readTree(jsonRpcPayload(response.body()));
+            return !message.has("error")
+                    && message.has("result")
+                    && !message.path("result").path("isError").asBoolean(false);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 取出 JSON-RPC 訊息（伺服器也可能以單一 SSE 事件回應）
+     */
+    private static String jsonRpcPayload(String body) {
+        String trimmed = body.strip();
+        if (trimmed.startsWith("{")) {
+            return trimmed;
+        }
+        StringBuilder data = new StringBuilder();
+        for (String line : trimmed.split("\\R")) {
+            if (line.startsWith("data:")) {
+                data.append(line.substring(5).strip());
+            }
+        }
+        return data.toString();
+    }
+}
@@ -0,0 +1,225 @@
+package io.github.samzhu.docmcp.loadtest;
+
+import io.github.samzhu.docmcp.TestcontainersConfiguration;
+import io.github.samzhu.docmcp.domain.enums.SourceType;
+import io.github.samzhu.docmcp.domain.enums.SyncStatus;
+import io.github.samzhu.docmcp.domain.model.Library;
+import io.github.samzhu.docmcp.domain.model.LibraryVersion;
+import io.github.samzhu.docmcp.domain.model.SyncHistory;
+import io.github.samzhu.docmcp.repository.LibraryRepository;
+import io.github.samzhu.docmcp.repository.LibraryVersionRepository;
+import io.github.samzhu.docmcp.service.IdService;
+import io.github.samzhu.docmcp.service.SyncService;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 同步吞吐量基準測試
+ * <p>
+ * 以 MockWebServer 扮演 GitHub（{@link SyntheticGitHub}），透過
+ * {@code docmcp.github.fetch.*-base-url} 將同步流程導向本機，
+ * 對不同規模的合成儲存庫執行完整的 {@link SyncService#syncFromGitHub}（下載、解析、分塊、embedding、寫入），
+ * 量測每種取得策略的：
+ * <ul>
+ *   <li>files/sec 與 chunks/sec（以 syncFromGitHub 的總耗時計算）</li>
+ *   <li>peak heap：同步前執行 GC 並重設各 heap pool 的峰值，同步後加總各 pool 峰值（略高於實際同時使用量）</li>
+ *   <li>各階段耗時（同步歷史 metadata 的 stageMillis）</li>
+ * </ul>
+ * embedding 使用 {@link HashEmbeddingModel}，不含外部 API 延遲；MockWebServer 與 tarball 位於同一 JVM，計入 heap。
+ * 結果寫入 {@code build/reports/loadtest/sync-throughput.json}。
+ * </p>
+ *
+ * <pre>
+ * ./gradlew loadTest --tests '*SyncThroughputTest' -Ploadtest.sync.docs=100,1000,10000,50000
+ * </pre>
+ *
+ * <p>
+ * 可用參數：{@code loadtest.sync.docs}（文件數，逗號分隔）、
+ * {@code loadtest.sync.strategies}（archive、git-tree）、{@code loadtest.seed}。
+ * </p>
+ */
+@SpringBootTest(properties = {
+        // 測試設定預設開啟 DEBUG，每個檔案的 SQL 日誌會主導同步耗時
+        "logging.level.io.github.samzhu.docmcp=INFO",
+        "logging.level.org.springframework.jdbc=WARN",
+        // 不讓 Contents API 作為 fallback 掩蓋目標策略的失敗
+        "docmcp.github.fetch.contents-api.enabled=false"
+})
+@Import({TestcontainersConfiguration.class, LoadTestConfiguration.class})
+@ActiveProfiles("test")
+@Tag("loadtest")
+class SyncThroughputTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncThroughputTest.class);
+
+    private static final String TAG = "v1.0.0";
+    private static final String BRANCH = "main";
+
+    private static final SyntheticGitHub github = new SyntheticGitHub();
+    private static MockWebServer server;
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private LibraryRepository libraryRepository;
+
+    @Autowired
+    private LibraryVersionRepository libraryVersionRepository;
+
+    @Autowired
+    private IdService idService;
+
+    @DynamicPropertySource
+    static void githubEndpoints(DynamicPropertyRegistry registry) {
+        registry.add("docmcp.github.fetch.api-base-url", SyncThroughputTest::baseUrl);
+        registry.add("docmcp.github.fetch.raw-base-url", SyncThroughputTest::baseUrl);
+        registry.add("docmcp.github.fetch.codeload-base-url", SyncThroughputTest::baseUrl);
+    }
+
+    private static synchronized String baseUrl() {
+        if (server == null) {
+            server = new MockWebServer();
+            server.setDispatcher(github);
+            try {
+                server.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        String url = server.url("/").toString();
+        return url.substring(0, url.length() - 1);
+    }
+
+    @AfterAll
+    static void shutdown() throws IOException {
+        if (server != null) {
+            server.shutdown();
+        }
+    }
+
+    /**
+     * 取得策略：Archive 只支援 tag，使用分支名稱可讓 Git Tree 成為第一個支援的策略
+     */
+    private enum Strategy {
+        ARCHIVE("Archive", TAG),
+        GIT_TREE("GitTree", BRANCH);
+
+        private final String strategyName;
+        private final String ref;
+
+        Strategy(String strategyName, String ref) {
+            this.strategyName = strategyName;
+            this.ref = ref;
+        }
+
+        static Strategy parse(String value) {
+            return valueOf(value.strip().toUpperCase().replace('-', '_'));
+        }
+    }
+
+    /**
+     * 單次同步的量測結果
+     */
+    record SyncRun(String strategy, int documents, long tarballBytes, int filesProcessed, int chunksCreated,
+                   double seconds, double filesPerSecond, double chunksPerSecond, double peakHeapMb,
+                   Object stageMillis) {
+    }
+
+    @Test
+    void syncThroughput() throws Exception {
+        List<Integer> sizes = Arrays.stream(System.getProperty("loadtest.sync.docs", "100,1000").split(","))
+                .map(String::strip)
+                .map(Integer::valueOf)
+                .toList();
+        List<Strategy> strategies = Arrays.stream(
+                        System.getProperty("loadtest.sync.strategies", "archive,git-tree").split(","))
+                .map(Strategy::parse)
+                .toList();
+        long seed = Long.getLong("loadtest.seed", 42L);
+
+        List<SyncRun> runs = new ArrayList<>();
+        for (int documents : sizes) {
+            // Arrange
+            String repo = "docs-" + documents;
+            long tarballBytes = github.register(repo, documents, seed, TAG);
+            String libraryId = idService.generateId();
+            libraryRepository.save(Library.create(libraryId, repo, "Sync Throughput " + documents,
+                    "Synthetic repository for sync benchmarks", SourceType.GITHUB,
+                    "https://github.com/" + SyntheticGitHub.OWNER + "/" + repo, "loadtest", null));
+
+            for (Strategy strategy : strategies) {
+                String versionId = idService.generateId();
+                libraryVersionRepository.save(LibraryVersion.create(versionId, libraryId,
+                        strategy.ref + "-" + strategy.strategyName.toLowerCase(), false));
+
+                // Act
+                List<MemoryPoolMXBean> heapPools = resetHeapPeaks();
+                long start = System.nanoTime();
+                SyncHistory history = syncService.syncFromGitHub(versionId, SyntheticGitHub.OWNER, repo,
+                        SyntheticGitHub.DOCS_PATH, strategy.ref).join();
+                double seconds = (System.nanoTime() - start) / 1e9;
+                long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+
+                // Assert
+                assertThat(history.getStatus()).as("%s %d docs: %s", strategy, documents, history.getErrorMessage())
+                        .isEqualTo(SyncStatus.SUCCESS);
+                assertThat(history.getMetadata()).containsEntry("strategy", strategy.strategyName);
+                assertThat(history.getDocumentsProcessed()).isEqualTo(documents);
+
+                SyncRun run = new SyncRun(strategy.strategyName, documents, tarballBytes,
+                        history.getDocumentsProcessed(), history.getChunksCreated(), seconds,
+                        history.getDocumentsProcessed() / seconds, history.getChunksCreated() / seconds,
+                        peakHeap / (1024.0 * 1024.0), history.getMetadata().get("stageMillis"));
+                runs.add(run);
+                log.info(String.format("%-8s docs=%6d chunks=%7d time=%8.1fs files/s=%8.1f chunks/s=%8.1f peakHeap=%7.1fMB",
+                        run.strategy(), run.documents(), run.chunksCreated(), run.seconds(),
+                        run.filesPerSecond(), run.chunksPerSecond(), run.peakHeapMb()));
+            }
+        }
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("documents", sizes);
+        config.put("strategies", strategies.stream().map(strategy -> strategy.strategyName).toList());
+        config.put("seed", seed);
+        config.put("maxHeapMb", Runtime.getRuntime().maxMemory() / (1024 * 1024));
+        Path reportFile = LoadTestReports.write("sync-throughput", config, runs);
+        log.info("Sync throughput report written to {}", reportFile);
+    }
+
+    /**
+     * 執行 GC 後重設各 heap pool 的峰值，讓峰值只反映接下來的同步
+     */
+    private static List<MemoryPoolMXBean> resetHeapPeaks() {
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isValid())
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        return heapPools;
+    }
+}
@@ -0,0 +1,201 @@
+package io.github.samzhu.docmcp.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 本機 GitHub 替身（MockWebServer Dispatcher）
+ * <p>
+ * 為註冊的合成儲存庫回應同步流程會呼叫的三種端點，
+ * 搭配 {@code docmcp.github.fetch.*-base-url} 指向 MockWebServer 使用：
+ * <ul>
+ *   <li>codeload：{@code /{owner}/{repo}/tar.gz/refs/tags/{ref}}，回傳 gzip tarball（Archive 策略）</li>
+ *   <li>API：{@code /repos/{owner}/{repo}/git/trees/{ref}}，回傳完整目錄樹（Git Tree 策略）</li>
+ *   <li>raw：{@code /{owner}/{repo}/{ref}/{path}}，回傳單一檔案內容（Git Tree 策略逐檔下載）</li>
+ * </ul>
+ * 文件內容由儲存庫種子與文件序號決定，tarball 在註冊時預先產生，不計入同步耗時。
+ * </p>
+ */
+public class SyntheticGitHub extends Dispatcher {
+
+    public static final String OWNER = "loadtest";
+    public static final String DOCS_PATH = "docs";
+
+    private static final int DOCUMENTS_PER_DIRECTORY = 100;
+    private static final int SECTIONS_PER_DOCUMENT = 3;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Repository> repositories = new ConcurrentHashMap<>();
+
+    /**
+     * 合成儲存庫
+     *
+     * @param documents 文件數
+     * @param seed      內容種子
+     * @param tag       提供 tarball 的 tag
+     * @param tarball   tag 對應的 gzip tarball
+     */
+    private record Repository(int documents, long seed, String tag, byte[] tarball) {
+    }
+
+    /**
+     * 註冊合成儲存庫
+     *
+     * @param repo      儲存庫名稱
+     * @param documents 文件數
+     * @param seed      內容種子
+     * @param tag       提供 tarball 的 tag（例如 v1.0.0）
+     * @return tarball 大小（bytes）
+     */
+    public long register(String repo, int documents, long seed, String tag) {
+        byte[] tarball = buildTarball(repo, documents, seed, tag);
+        repositories.put(repo, new Repository(documents, seed, tag, tarball));
+        return tarball.length;
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) {
+        String path = request.getPath();
+        int query = path.indexOf('?');
+        String[] segments = (query >= 0 ? path.substring(0, query) : path).substring(1).split("/", -1);
+
+        // /repos/{owner}/{repo}/git/trees/{ref}
+        if (segments.length == 6 && segments[0].equals("repos") && segments[3].equals("git")
+                && segments[4].equals("trees")) {
+            Repository repository = repositories.get(segments[2]);
+            return repository == null ? notFound() : json(tree(repository));
+        }
+        if (segments.length < 4 || !segments[0].equals(OWNER)) {
+            return notFound();
+        }
+        Repository repository = repositories.get(segments[1]);
+        if (repository == null) {
+            return notFound();
+        }
+        // /{owner}/{repo}/tar.gz/refs/tags/{ref}
+        if (segments[2].equals("tar.gz")) {
+            return segments[segments.length - 1].equals(repository.tag())
+                    ? new MockResponse()
+                            .setHeader("Content-Type", "application/x-gzip")
+                            .setBody(new Buffer().write(repository.tarball()))
+                    : notFound();
+        }
+        // /{owner}/{repo}/{ref}/{path}
+        String filePath = String.join("/", List.of(segments).subList(3, segments.length));
+        int index = documentIndex(filePath);
+        if (index < 0 || index >= repository.documents()) {
+            return notFound();
+        }
+        return new MockResponse()
+                .setHeader("Content-Type", "text/plain; charset=utf-8")
+                .setBody(document(repository.seed(), index));
+    }
+
+    /**
+     * 第 index 份文件的路徑（每 100 份一個子目錄）
+     */
+    static String documentPath(int index) {
+        return DOCS_PATH + "/section-" + (index / DOCUMENTS_PER_DIRECTORY) + "/guide-" + index + ".md";
+    }
+
+    /**
+     * 第 index 份文件的 Markdown 內容（標題加三個章節，每章節兩段）
+     */
+    static String document(long seed, int index) {
+        SplittableRandom random = new SplittableRandom(seed * 1_000_003L + index);
+        List<String> topic = LoadTestCorpus.TOPICS.get(random.nextInt(LoadTestCorpus.TOPICS.size()));
+
+        StringBuilder markdown = new StringBuilder()
+                .append("# ").append(topic.get(0)).append(' ').append(topic.get(1))
+                .append(" guide ").append(index).append("\n\n");
+        for (int section = 0; section < SECTIONS_PER_DOCUMENT; section++) {
+            markdown.append("## ").append(topic.get(random.nextInt(topic.size())))
+                    .append(' ').append(section + 1).append("\n\n")
+                    .append(LoadTestCorpus.paragraph(topic, random)).append("\n\n")
+                    .append(LoadTestCorpus.paragraph(topic, random)).append("\n\n");
+        }
+        return markdown.toString();
+    }
+
+    private static int documentIndex(String path) {
+        String prefix = "/guide-";
+        int start = path.lastIndexOf(prefix);
+        if (!path.startsWith(DOCS_PATH + "/") || start < 0 || !path.endsWith(".md")) {
+            return -1;
+        }
+        try {
+            int index = Integer.parseInt(path.substring(start + prefix.length(), path.length() - 3));
+            return documentPath(index).equals(path) ? index : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private ObjectNode tree(Repository repository) {
+        ObjectNode root = objectMapper.createObjectNode();
+        ArrayNode tree = root.putArray("tree");
+        for (int i = 0; i < repository.documents(); i++) {
+            tree.addObject()
+                    .put("path", documentPath(i))
+                    .put("mode", "100644")
+                    .put("type", "blob")
+                    .put("sha", Integer.toHexString(i))
+                    .put("size", document(repository.seed(), i).length());
+        }
+        root.put("truncated", false);
+        return root;
+    }
+
+    private MockResponse json(Object body) {
+        try {
+            return new MockResponse()
+                    .setHeader("Content-Type", "application/json")
+                    .setBody(new Buffer().write(objectMapper.writeValueAsBytes(body)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MockResponse notFound() {
+        return new MockResponse().setResponseCode(404);
+    }
+
+    /**
+     * 產生與 codeload 相同結構的 tarball（根目錄為 {repo}-{不含 v 的 tag}）
+     */
+    private static byte[] buildTarball(String repo, int documents, long seed, String tag) {
+        String root = repo + "-" + (tag.startsWith("v") ? tag.substring(1) : tag) + "/";
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(new GZIPOutputStream(bytes))) {
+            tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+            for (int i = 0; i < documents; i++) {
+                byte[] content = document(seed, i).getBytes(StandardCharsets.UTF_8);
+                TarArchiveEntry entry = new TarArchiveEntry(root + documentPath(i));
+                entry.setSize(content.length);
+                tar.putArchiveEntry(entry);
+                tar.write(content);
+                tar.closeArchiveEntry();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,373 @@
+package io.github.samzhu.docmcp.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.samzhu.docmcp.TestcontainersConfiguration;
+import io.github.samzhu.docmcp.config.VectorSearchProperties;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.CoarseSearchOptions;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.DocumentChunkVectorStore;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.EmbeddingProfile;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.HnswScanOptions;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.PgVectorCodec;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.VectorIndexManager;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.VectorQuantization;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 向量搜尋召回率與延遲評估
+ * <p>
+ * 以 Testcontainers PostgreSQL（pgvector）寫入合成語料後，對固定的查詢集合比較：
+ * <ul>
+ *   <li>精確 top-K：讀出版本內所有區塊向量，在 JVM 中以 cosine 距離暴力計算（ground truth）</li>
+ *   <li>近似 top-K：各配置的 {@link DocumentChunkVectorStore#similaritySearch}（與 SearchService 相同的版本過濾條件）</li>
+ * </ul>
+ * 每個配置輸出 recall@K（平均與最差）、結果少於 K 筆的查詢數、延遲 p50/p95/p99（單執行緒依序查詢，
+ * 含查詢 embedding 與交易）、第一階段 HNSW 索引大小與建立時間，結果寫入 {@code build/reports/loadtest/vector-recall.json}。
+ * 距離與第 K 名相同（誤差 {@value #TIE_EPSILON} 內）的結果視為命中，避免同分排序差異低估召回率。
+ * </p>
+ * <p>
+ * 配置以 {@code quantization[:coarseDimensions[:candidateMultiplier]][@iterativeScan]} 表示（例如 {@code binary:0:16}、
+ * {@code halfvec:256:4}、{@code none@off}），{@code configured} 為目前 docmcp.search.vector.* 設定下的 VectorStore Bean；
+ * maxCandidates 與 hnsw.* 沿用目前設定。
+ * </p>
+ * <p>
+ * 語料預設為多個函式庫 × 版本共用同一個 HNSW 索引，每個版本只佔資料表的一小部分：
+ * 未啟用 iterative scan（{@code @off}）時版本過濾會讓結果少於 K 筆，啟用時測試要求每個查詢都取得完整的 K 筆。向量來自 {@link HashEmbeddingModel}，
+ * 數值適合比較不同配置的相對差異，調整正式環境參數前仍應以真實模型的向量複驗。
+ * </p>
+ *
+ * <pre>
+ * ./gradlew loadTest --tests '*VectorRecallEvaluationTest' -Ploadtest.chunks=5000 \
+ *     -Ploadtest.vector.configs=configured,none,halfvec:0:4,binary:0:16
+ * </pre>
+ *
+ * <p>
+ * 可用參數：{@code loadtest.libraries}、{@code loadtest.versions}、{@code loadtest.chunks}（每版本區塊數）、
+ * {@code loadtest.vector.queries}、{@code loadtest.vector.top-k}、{@code loadtest.vector.configs}、
+ * {@code loadtest.vector.min-recall}（低於此平均召回率時測試失敗，預設 0）、{@code loadtest.seed}。
+ * </p>
+ */
+@SpringBootTest(properties = {
+        // 測試設定預設開啟 DEBUG，每次查詢的 SQL 日誌會主導延遲
+        "logging.level.io.github.samzhu.docmcp=INFO",
+        "logging.level.org.springframework.jdbc=WARN"
+})
+@Import({TestcontainersConfiguration.class, LoadTestConfiguration.class})
+@ActiveProfiles("test")
+@Tag("loadtest")
+class VectorRecallEvaluationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(VectorRecallEvaluationTest.class);
+
+    // VectorIndexManager 在完整向量上建立的 HNSW 索引（單階段搜尋使用）
+    private static final String FULL_VECTOR_INDEX = VectorIndexManager.ACTIVE_INDEX;
+    private static final double TIE_EPSILON = 1e-5;
+    private static final int WARMUP_QUERIES = 20;
+
+    @Autowired
+    private LoadTestCorpus corpus;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EmbeddingModel embeddingModel;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DocumentChunkVectorStore configuredStore;
+
+    @Autowired
+    private VectorSearchProperties vectorSearchProperties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 版本內的區塊向量
+     */
+    private record ChunkVector(String id, float[] vector) {
+    }
+
+    /**
+     * 查詢與其精確 top-K
+     *
+     * @param text        查詢文字
+     * @param versionId   過濾的版本 ID
+     * @param distances   版本內每個區塊與查詢的 cosine 距離
+     * @param expected    精確 top-K 的數量（版本內符合門檻的區塊可能少於 K）
+     * @param kthDistance 第 expected 名的距離
+     */
+    private record EvaluationQuery(String text, String versionId, Map<String, Double> distances,
+                                   int expected, double kthDistance) {
+    }
+
+    /**
+     * 單一配置的評估結果（延遲單位為毫秒）
+     */
+    record EvaluationResult(String configuration, String quantization, int coarseDimensions,
+                            int candidateMultiplier, int maxCandidates, String iterativeScan, boolean twoPhase,
+                            String index, long indexBytes, long indexBuildMillis, int queries,
+                            double recallAtK, double minRecall, int shortQueries,
+                            double p50, double p95, double p99, double max) {
+    }
+
+    @Test
+    void recallAndLatency() throws Exception {
+        int libraries = Integer.getInteger("loadtest.libraries", 4);
+        int versions = Integer.getInteger("loadtest.versions", 2);
+        int chunks = Integer.getInteger("loadtest.chunks", 1000);
+        int queryCount = Integer.getInteger("loadtest.vector.queries", 200);
+        int topK = Integer.getInteger("loadtest.vector.top-k", 10);
+        List<String> configurations = Arrays.stream(System.getProperty("loadtest.vector.configs",
+                        "configured,none@off,none,halfvec:0:4,binary:0:8,binary:0:16,none:256:4,halfvec:256:4").split(","))
+                .map(String::strip)
+                .toList();
+        double minRecall = Double.parseDouble(System.getProperty("loadtest.vector.min-recall", "0"));
+        long seed = Long.getLong("loadtest.seed", 42L);
+
+        // Arrange
+        List<LoadTestCorpus.Target> targets = corpus.seed(libraries, versions, chunks, seed);
+        jdbcTemplate.execute("ANALYZE document_chunks");
+        Map<String, List<ChunkVector>> vectorsByVersion = loadVectors();
+        List<EvaluationQuery> queries = buildQueries(targets, vectorsByVersion, queryCount, topK, seed);
+
+        EmbeddingProfile profile = configuredStore.getActiveProfile();
+        int dimensions = profile != null ? profile.dimensions() : HashEmbeddingModel.DIMENSIONS;
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        List<EvaluationResult> results = new ArrayList<>();
+        for (String configuration : configurations) {
+            CoarseSearchOptions options = "configured".equals(configuration)
+                    ? vectorSearchProperties.toCoarseSearchOptions()
+                    : parse(configuration);
+            HnswScanOptions hnswOptions = parseHnsw(configuration);
+            String index = options.enabled() ? options.indexName(dimensions) : FULL_VECTOR_INDEX;
+
+            long buildStart = System.nanoTime();
+            new VectorIndexManager(jdbcTemplate, options).ensureIndexes(dimensions);
+            long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+            // 預設配置直接使用 Bean（包含記憶體索引等其他設定），其餘配置另建 VectorStore
+            VectorStore store = "configured".equals(configuration)
+                    ? configuredStore
+                    : DocumentChunkVectorStore.builder(jdbcTemplate, embeddingModel, objectMapper)
+                            .dimensions(dimensions)
+                            .defaultProfile(profile)
+                            .coarseSearchOptions(options)
+                            .hnswScanOptions(hnswOptions)
+                            .build();
+
+            // Act
+            for (int i = 0; i < Math.min(WARMUP_QUERIES, queries.size()); i++) {
+                search(readOnly, store, queries.get(i), topK);
+            }
+            long[] latencies = new long[queries.size()];
+            double recallSum = 0;
+            double worstRecall = 1;
+            int evaluated = 0;
+            int shortQueries = 0;
+            for (int i = 0; i < queries.size(); i++) {
+                EvaluationQuery query = queries.get(i);
+                long start = System.nanoTime();
+                List<Document> documents = search(readOnly, store, query, topK);
+                latencies[i] = System.nanoTime() - start;
+
+                if (documents.size() < query.expected()) {
+                    shortQueries++;
+                }
+                if (query.expected() > 0) {
+                    double recall = recall(query, documents);
+                    recallSum += recall;
+                    worstRecall = Math.min(worstRecall, recall);
+                    evaluated++;
+                }
+            }
+            Arrays.sort(latencies);
+
+            EvaluationResult result = new EvaluationResult(configuration, options.quantization().name(),
+                    options.effectiveDimensions(dimensions), options.candidateMultiplier(), options.maxCandidates(),
+                    hnswOptions.iterativeScan().name(), options.enabled(),
+                    index, indexBytes(index), buildMillis, evaluated,
+                    evaluated == 0 ? 0 : recallSum / evaluated, worstRecall, shortQueries,
+                    Percentiles.millis(latencies, 0.50), Percentiles.millis(latencies, 0.95),
+                    Percentiles.millis(latencies, 0.99), latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6);
+            results.add(result);
+            log.info(String.format(Locale.ROOT,
+                    "%-16s recall@%d=%.4f min=%.4f short=%4d p50=%7.2fms p95=%7.2fms p99=%7.2fms index=%s (%.1f MB)",
+                    result.configuration(), topK, result.recallAtK(), result.minRecall(), result.shortQueries(),
+                    result.p50(), result.p95(), result.p99(), result.index(), result.indexBytes() / (1024.0 * 1024.0)));
+        }
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("libraries", libraries);
+        config.put("versions", versions);
+        config.put("chunksPerVersion", chunks);
+        config.put("queries", queryCount);
+        config.put("topK", topK);
+        config.put("seed", seed);
+        config.put("tableBytes", jdbcTemplate.queryForObject(
+                "SELECT pg_table_size('document_chunks')", Long.class));
+        Path reportFile = LoadTestReports.write("vector-recall", config, results);
+        log.info("Vector recall report written to {}", reportFile);
+
+        // Assert
+        assertThat(results).allSatisfy(result -> {
+            assertThat(result.queries()).as("%s queries", result.configuration()).isPositive();
+            assertThat(result.recallAtK()).as("%s recall@%d", result.configuration(), topK)
+                    .isGreaterThanOrEqualTo(minRecall);
+        });
+        // 多版本共用索引時，iterative scan 必須讓版本過濾後的搜尋（含兩階段的候選查詢）湊滿 K 筆
+        assertThat(results)
+                .filteredOn(result -> !"OFF".equals(result.iterativeScan()))
+                .allSatisfy(result -> assertThat(result.shortQueries())
+                        .as("%s queries with fewer than %d results", result.configuration(), topK)
+                        .isZero());
+    }
+
+    /**
+     * 解析配置：quantization[:coarseDimensions[:candidateMultiplier]][@iterativeScan]
+     */
+    private CoarseSearchOptions parse(String configuration) {
+        String[] parts = configuration.split("@")[0].split(":");
+        VectorQuantization quantization = VectorQuantization.valueOf(parts[0].toUpperCase(Locale.ROOT));
+        int coarseDimensions = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+        int candidateMultiplier = parts.length > 2 ? Integer.parseInt(parts[2])
+                : vectorSearchProperties.getCandidateMultiplier();
+        return new CoarseSearchOptions(quantization, coarseDimensions, candidateMultiplier,
+                vectorSearchProperties.getMaxCandidates());
+    }
+
+    /**
+     * 解析 iterative scan 覆寫（@off、@strict_order、@relaxed_order），未指定時沿用 docmcp.search.vector.hnsw.*
+     */
+    private HnswScanOptions parseHnsw(String configuration) {
+        HnswScanOptions configured = vectorSearchProperties.getHnsw().toOptions();
+        int at = configuration.indexOf('@');
+        if (at < 0) {
+            return configured;
+        }
+        return new HnswScanOptions(
+                HnswScanOptions.IterativeScan.valueOf(configuration.substring(at + 1).toUpperCase(Locale.ROOT)),
+                configured.efSearch(), configured.maxScanTuples());
+    }
+
+    /**
+     * 與 SearchService 相同的版本過濾條件，相似度門檻 0（所有 cosine 距離小於 1 的區塊）
+     */
+    private static List<Document> search(TransactionTemplate readOnly, VectorStore store,
+                                         EvaluationQuery query, int topK) {
+        SearchRequest request = SearchRequest.builder()
+                .query(query.text())
+                .topK(topK)
+                .similarityThresholdAll()
+                .filterExpression(DocumentChunkVectorStore.METADATA_VERSION_ID + " == '" + query.versionId() + "'")
+                .build();
+        // hnsw.ef_search 與 iterative scan 只在交易內生效，與正式環境的 @Transactional(readOnly = true) 一致
+        return readOnly.execute(status -> store.similaritySearch(request));
+    }
+
+    private static double recall(EvaluationQuery query, List<Document> documents) {
+        int hits = 0;
+        for (Document document : documents) {
+            Double distance = query.distances().get(document.getId());
+            if (distance != null && distance <= query.kthDistance() + TIE_EPSILON) {
+                hits++;
+            }
+        }
+        return (double) Math.min(hits, query.expected()) / query.expected();
+    }
+
+    private Map<String, List<ChunkVector>> loadVectors() {
+        Map<String, List<ChunkVector>> vectorsByVersion = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT dc.id, d.version_id, dc.embedding::text AS embedding
+                FROM document_chunks dc
+                JOIN documents d ON d.id = dc.document_id
+                WHERE dc.embedding IS NOT NULL
+                """, rs -> {
+            vectorsByVersion.computeIfAbsent(rs.getString("version_id"), key -> new ArrayList<>())
+                    .add(new ChunkVector(rs.getString("id"), PgVectorCodec.parseText(rs.getString("embedding"))));
+        });
+        return vectorsByVersion;
+    }
+
+    /**
+     * 以固定種子產生查詢，並暴力計算每個查詢的精確 top-K
+     */
+    private List<EvaluationQuery> buildQueries(List<LoadTestCorpus.Target> targets,
+                                               Map<String, List<ChunkVector>> vectorsByVersion,
+                                               int count, int topK, long seed) {
+        SplittableRandom random = new SplittableRandom(seed ^ 0x5DEECE66DL);
+        List<EvaluationQuery> queries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LoadTestCorpus.Target target = targets.get(random.nextInt(targets.size()));
+            String text = LoadTestCorpus.query(random);
+            float[] queryVector = embeddingModel.embed(text);
+            List<ChunkVector> chunks = vectorsByVersion.getOrDefault(target.versionId(), List.of());
+
+            Map<String, Double> distances = HashMap.newHashMap(chunks.size());
+            double[] eligible = new double[chunks.size()];
+            int eligibleCount = 0;
+            for (ChunkVector chunk : chunks) {
+                double distance = cosineDistance(queryVector, chunk.vector());
+                distances.put(chunk.id(), distance);
+                // similarityThresholdAll 對應 distance < 1
+                if (distance < 1) {
+                    eligible[eligibleCount++] = distance;
+                }
+            }
+            Arrays.sort(eligible, 0, eligibleCount);
+            int expected = Math.min(topK, eligibleCount);
+            double kthDistance = expected > 0 ? eligible[expected - 1] : 0;
+            queries.add(new EvaluationQuery(text, target.versionId(), distances, expected, kthDistance));
+        }
+        return queries;
+    }
+
+    private static double cosineDistance(float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return normA == 0 || normB == 0 ? 1 : 1 - dot / Math.sqrt(normA * normB);
+    }
+
+    private long indexBytes(String index) {
+        Long bytes = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(pg_relation_size(to_regclass(?)), 0)", Long.class, index);
+        return bytes != null ? bytes : 0;
+    }
+}
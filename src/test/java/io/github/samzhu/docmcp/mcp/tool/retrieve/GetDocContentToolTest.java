@@ -4,7 +4,7 @@ import com.github.f4b6a3.tsid.TsidCreator;
 import io.github.samzhu.docmcp.domain.exception.DocumentNotFoundException;
 import io.github.samzhu.docmcp.domain.model.CodeExample;
 import io.github.samzhu.docmcp.domain.model.Document;
-import io.github.samzhu.docmcp.domain.model.DocumentChunk;
+import io.github.samzhu.docmcp.domain.model.DocumentChunkContent;
 import io.github.samzhu.docmcp.mcp.dto.GetDocContentResult;
 import io.github.samzhu.docmcp.service.DocumentService;
 import org.junit.jupiter.api.BeforeEach;
@@ -123,11 +123,10 @@ class GetDocContentToolTest {
     }
 
     /**
-     * 建立測試用的 DocumentChunk
+     * 建立測試用的 DocumentChunkContent
      */
-    private DocumentChunk createChunk(String id, String documentId, int index, String content) {
-        var now = OffsetDateTime.now();
-        return new DocumentChunk(id, documentId, index, content, null, 100, Map.of(), null, now, now);
+    private DocumentChunkContent createChunk(String id, String documentId, int index, String content) {
+        return new DocumentChunkContent(id, documentId, index, content, 100);
     }
 
     /**
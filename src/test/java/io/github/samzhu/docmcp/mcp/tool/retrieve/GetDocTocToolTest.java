@@ -3,10 +3,11 @@ package io.github.samzhu.docmcp.mcp.tool.retrieve;
 import com.github.f4b6a3.tsid.TsidCreator;
 import io.github.samzhu.docmcp.domain.enums.VersionStatus;
 import io.github.samzhu.docmcp.domain.exception.LibraryNotFoundException;
-import io.github.samzhu.docmcp.domain.model.Document;
+import io.github.samzhu.docmcp.domain.model.DocumentTocEntry;
 import io.github.samzhu.docmcp.domain.model.Library;
 import io.github.samzhu.docmcp.domain.model.LibraryVersion;
 import io.github.samzhu.docmcp.repository.DocumentRepository;
+import io.github.samzhu.docmcp.service.DocTocService;
 import io.github.samzhu.docmcp.service.LibraryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,6 +16,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -44,7 +46,8 @@ class GetDocTocToolTest {
 
     @BeforeEach
     void setUp() {
-        getDocTocTool = new GetDocTocTool(libraryService, documentRepository);
+        getDocTocTool = new GetDocTocTool(libraryService,
+                new DocTocService(documentRepository, 10, Duration.ofMinutes(10)));
     }
 
     @Test
@@ -65,7 +68,7 @@ class GetDocTocToolTest {
         );
 
         when(libraryService.resolveLibrary("spring-boot", null)).thenReturn(resolvedLibrary);
-        when(documentRepository.findByVersionIdOrderByPathAsc(versionId)).thenReturn(documents);
+        when(documentRepository.findTocEntriesByVersionIdOrderByPathAsc(versionId)).thenReturn(documents);
 
         // Act
         var result = getDocTocTool.getDocToc("spring-boot", null, null);
@@ -94,7 +97,7 @@ class GetDocTocToolTest {
         );
 
         when(libraryService.resolveLibrary("react", "17.0.0")).thenReturn(resolvedLibrary);
-        when(documentRepository.findByVersionIdOrderByPathAsc(versionId)).thenReturn(documents);
+        when(documentRepository.findTocEntriesByVersionIdOrderByPathAsc(versionId)).thenReturn(documents);
 
         // Act
         var result = getDocTocTool.getDocToc("react", "17.0.0", null);
@@ -122,7 +125,7 @@ class GetDocTocToolTest {
         );
 
         when(libraryService.resolveLibrary("spring-boot", null)).thenReturn(resolvedLibrary);
-        when(documentRepository.findByVersionIdOrderByPathAsc(versionId)).thenReturn(documents);
+        when(documentRepository.findTocEntriesByVersionIdOrderByPathAsc(versionId)).thenReturn(documents);
 
         // Act - maxDepth 為 2
         var result = getDocTocTool.getDocToc("spring-boot", null, 2);
@@ -146,7 +149,7 @@ class GetDocTocToolTest {
         var resolvedLibrary = new LibraryService.ResolvedLibrary(library, version, "1.0.0");
 
         when(libraryService.resolveLibrary("new-lib", null)).thenReturn(resolvedLibrary);
-        when(documentRepository.findByVersionIdOrderByPathAsc(versionId)).thenReturn(List.of());
+        when(documentRepository.findTocEntriesByVersionIdOrderByPathAsc(versionId)).thenReturn(List.of());
 
         // Act
         var result = getDocTocTool.getDocToc("new-lib", null, null);
@@ -176,8 +179,8 @@ class GetDocTocToolTest {
         return new LibraryVersion(id, libraryId, version, isLatest, false, VersionStatus.ACTIVE, null, null, null, null, null);
     }
 
-    private Document createDocument(String versionId, String title, String path) {
-        return new Document(randomId(), versionId, title, path, "content", null, "markdown", null, null, null, null);
+    private DocumentTocEntry createDocument(String versionId, String title, String path) {
+        return new DocumentTocEntry(randomId(), title, path);
     }
 
     /**
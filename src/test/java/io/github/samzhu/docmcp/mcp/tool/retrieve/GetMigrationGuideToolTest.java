@@ -2,22 +2,29 @@ package io.github.samzhu.docmcp.mcp.tool.retrieve;
 
 import com.github.f4b6a3.tsid.TsidCreator;
 import io.github.samzhu.docmcp.config.FeatureFlags;
+import io.github.samzhu.docmcp.domain.enums.MigrationRelevance;
 import io.github.samzhu.docmcp.domain.enums.VersionStatus;
-import io.github.samzhu.docmcp.domain.model.Document;
 import io.github.samzhu.docmcp.domain.model.LibraryVersion;
+import io.github.samzhu.docmcp.domain.model.MigrationGuideDocument;
 import io.github.samzhu.docmcp.mcp.dto.GetMigrationGuideResult;
+import io.github.samzhu.docmcp.mcp.dto.GetMigrationGuideResult.MigrationGuideItem;
 import io.github.samzhu.docmcp.repository.DocumentRepository;
 import io.github.samzhu.docmcp.repository.LibraryVersionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -115,21 +122,19 @@ class GetMigrationGuideToolTest {
     }
 
     @Test
-    @DisplayName("should find migration guide by title")
-    void shouldFindMigrationGuideByTitle() {
+    @DisplayName("should return guides classified at sync time")
+    void shouldReturnGuidesClassifiedAtSyncTime() {
         // Arrange
         when(featureFlags.isMigrationGuides()).thenReturn(true);
         String libraryId = randomId();
         String versionId = randomId();
 
         var version = createVersion(versionId, libraryId, "3.5.0");
-        var migrationDoc = createDocument(randomId(), versionId,
-                "Migration Guide from 3.0 to 3.5",
-                "docs/migration.md",
-                "This guide helps you migrate...");
+        var migrationDoc = createGuide(versionId, "Migration Guide from 3.0 to 3.5",
+                "docs/migration.md", MigrationRelevance.MIGRATION, "This guide helps you migrate...");
 
         when(versionRepository.findByLibraryId(libraryId)).thenReturn(List.of(version));
-        when(documentRepository.findByVersionId(versionId)).thenReturn(List.of(migrationDoc));
+        when(documentRepository.findMigrationGuides(Set.of(versionId))).thenReturn(List.of(migrationDoc));
 
         // Act
         GetMigrationGuideResult result = getMigrationGuideTool.getMigrationGuide(
@@ -138,104 +143,87 @@ class GetMigrationGuideToolTest {
         // Assert
         assertThat(result.guides()).hasSize(1);
         assertThat(result.guides().getFirst().title()).contains("Migration");
+        assertThat(result.guides().getFirst().version()).isEqualTo("3.5.0");
         assertThat(result.guides().getFirst().relevance()).isEqualTo("migration");
     }
 
     @Test
-    @DisplayName("should find upgrade guide by path")
-    void shouldFindUpgradeGuideByPath() {
+    @DisplayName("should only query versions after fromVersion up to toVersion")
+    @SuppressWarnings("unchecked")
+    void shouldOnlyQueryVersionsInRange() {
         // Arrange
         when(featureFlags.isMigrationGuides()).thenReturn(true);
         String libraryId = randomId();
-        String versionId = randomId();
-
-        var version = createVersion(versionId, libraryId, "3.5.0");
-        var upgradeDoc = createDocument(randomId(), versionId,
-                "Version 3.5 Guide",
-                "docs/upgrading-to-3.5.md",
-                "Steps to upgrade your application...");
+        var v29 = createVersion(randomId(), libraryId, "2.9.0");
+        var v30 = createVersion(randomId(), libraryId, "3.0.0");
+        var v35m1 = createVersion(randomId(), libraryId, "3.5.0-M1");
+        var v310 = createVersion(randomId(), libraryId, "3.10.0");
+        var v40 = createVersion(randomId(), libraryId, "4.0.0");
 
-        when(versionRepository.findByLibraryId(libraryId)).thenReturn(List.of(version));
-        when(documentRepository.findByVersionId(versionId)).thenReturn(List.of(upgradeDoc));
+        when(versionRepository.findByLibraryId(libraryId)).thenReturn(List.of(v40, v310, v35m1, v30, v29));
+        when(documentRepository.findMigrationGuides(anyCollection())).thenReturn(List.of());
 
         // Act
-        GetMigrationGuideResult result = getMigrationGuideTool.getMigrationGuide(
-                libraryId, "3.0.0", "3.5.0");
+        getMigrationGuideTool.getMigrationGuide(libraryId, "3.0.0", "3.10.0");
 
-        // Assert
-        assertThat(result.guides()).hasSize(1);
-        assertThat(result.guides().getFirst().relevance()).isEqualTo("upgrade");
+        // Assert - 3.10.0 以語意排序大於 3.5.0-M1，且不包含起始版本 3.0.0
+        ArgumentCaptor<Collection<String>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(documentRepository).findMigrationGuides(captor.capture());
+        assertThat(captor.getValue()).containsExactlyInAnyOrder(v35m1.getId(), v310.getId());
     }
 
     @Test
-    @DisplayName("should find breaking changes document by content")
-    void shouldFindBreakingChangesDocumentByContent() {
+    @DisplayName("should accept versions in reverse order")
+    @SuppressWarnings("unchecked")
+    void shouldAcceptVersionsInReverseOrder() {
         // Arrange
         when(featureFlags.isMigrationGuides()).thenReturn(true);
         String libraryId = randomId();
-        String versionId = randomId();
-
-        var version = createVersion(versionId, libraryId, "3.5.0");
-        // Use a title and path that doesn't match other keywords
-        var breakingDoc = createDocument(randomId(), versionId,
-                "Version 3.5 Notes",
-                "docs/notes.md",
-                "## Breaking Changes\n\nThe following APIs have been removed...");
+        var v30 = createVersion(randomId(), libraryId, "3.0.0");
+        var v35 = createVersion(randomId(), libraryId, "3.5.0");
 
-        when(versionRepository.findByLibraryId(libraryId)).thenReturn(List.of(version));
-        when(documentRepository.findByVersionId(versionId)).thenReturn(List.of(breakingDoc));
+        when(versionRepository.findByLibraryId(libraryId)).thenReturn(List.of(v35, v30));
+        when(documentRepository.findMigrationGuides(anyCollection())).thenReturn(List.of());
 
         // Act
-        GetMigrationGuideResult result = getMigrationGuideTool.getMigrationGuide(
-                libraryId, "3.0.0", "3.5.0");
+        getMigrationGuideTool.getMigrationGuide(libraryId, "3.5.0", "3.0.0");
 
         // Assert
-        assertThat(result.guides()).hasSize(1);
-        assertThat(result.guides().getFirst().relevance()).isEqualTo("breaking-changes");
+        ArgumentCaptor<Collection<String>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(documentRepository).findMigrationGuides(captor.capture());
+        assertThat(captor.getValue()).containsExactly(v35.getId());
     }
 
     @Test
-    @DisplayName("should find changelog document")
-    void shouldFindChangelogDocument() {
+    @DisplayName("should not query documents when no version falls in range")
+    void shouldNotQueryDocumentsWhenNoVersionInRange() {
         // Arrange
         when(featureFlags.isMigrationGuides()).thenReturn(true);
         String libraryId = randomId();
-        String versionId = randomId();
-
-        var version = createVersion(versionId, libraryId, "3.5.0");
-        var changelogDoc = createDocument(randomId(), versionId,
-                "Changelog",
-                "CHANGELOG.md",
-                "## [3.5.0] - 2024-01-15\n### Added\n- New feature...");
-
-        when(versionRepository.findByLibraryId(libraryId)).thenReturn(List.of(version));
-        when(documentRepository.findByVersionId(versionId)).thenReturn(List.of(changelogDoc));
+        when(versionRepository.findByLibraryId(libraryId))
+                .thenReturn(List.of(createVersion(randomId(), libraryId, "2.0.0")));
 
         // Act
         GetMigrationGuideResult result = getMigrationGuideTool.getMigrationGuide(
                 libraryId, "3.0.0", "3.5.0");
 
         // Assert
-        assertThat(result.guides()).hasSize(1);
-        assertThat(result.guides().getFirst().relevance()).isEqualTo("release-notes");
+        assertThat(result.guides()).isEmpty();
+        assertThat(result.message()).contains("No migration guides found");
+        verify(documentRepository, never()).findMigrationGuides(anyCollection());
     }
 
     @Test
-    @DisplayName("should not include unrelated documents")
-    void shouldNotIncludeUnrelatedDocuments() {
+    @DisplayName("should return empty result when no documents are classified as relevant")
+    void shouldReturnEmptyWhenNoRelevantDocuments() {
         // Arrange
         when(featureFlags.isMigrationGuides()).thenReturn(true);
         String libraryId = randomId();
         String versionId = randomId();
 
-        var version = createVersion(versionId, libraryId, "3.5.0");
-        var unrelatedDoc = createDocument(randomId(), versionId,
-                "Getting Started",
-                "docs/getting-started.md",
-                "Welcome to our library! This guide will help you get started...");
-
-        when(versionRepository.findByLibraryId(libraryId)).thenReturn(List.of(version));
-        when(documentRepository.findByVersionId(versionId)).thenReturn(List.of(unrelatedDoc));
+        when(versionRepository.findByLibraryId(libraryId))
+                .thenReturn(List.of(createVersion(versionId, libraryId, "3.5.0")));
+        when(documentRepository.findMigrationGuides(Set.of(versionId))).thenReturn(List.of());
 
         // Act
         GetMigrationGuideResult result = getMigrationGuideTool.getMigrationGuide(
@@ -247,37 +235,31 @@ class GetMigrationGuideToolTest {
     }
 
     @Test
-    @DisplayName("should sort guides by relevance priority")
+    @DisplayName("should sort guides by relevance priority then version")
     void shouldSortGuidesByRelevancePriority() {
         // Arrange
         when(featureFlags.isMigrationGuides()).thenReturn(true);
         String libraryId = randomId();
-        String versionId = randomId();
+        var v39 = createVersion(randomId(), libraryId, "3.9.0");
+        var v310 = createVersion(randomId(), libraryId, "3.10.0");
 
-        var version = createVersion(versionId, libraryId, "3.5.0");
-        var changelogDoc = createDocument(randomId(), versionId,
-                "Changelog", "CHANGELOG.md", "Changes...");
-        var migrationDoc = createDocument(randomId(), versionId,
-                "Migration Guide", "docs/migration.md", "Migrate...");
-        var upgradeDoc = createDocument(randomId(), versionId,
-                "Upgrade Steps", "docs/upgrade.md", "Upgrade...");
-
-        when(versionRepository.findByLibraryId(libraryId)).thenReturn(List.of(version));
-        when(documentRepository.findByVersionId(versionId))
-                .thenReturn(List.of(changelogDoc, migrationDoc, upgradeDoc));
+        when(versionRepository.findByLibraryId(libraryId)).thenReturn(List.of(v310, v39));
+        when(documentRepository.findMigrationGuides(anyCollection())).thenReturn(List.of(
+                createGuide(v310.getId(), "Changelog", "CHANGELOG.md", MigrationRelevance.RELEASE_NOTES, "Changes..."),
+                createGuide(v310.getId(), "Migration Guide", "docs/migration.md", MigrationRelevance.MIGRATION, "Migrate..."),
+                createGuide(v39.getId(), "Upgrade Steps", "docs/upgrade.md", MigrationRelevance.UPGRADE, "Upgrade..."),
+                createGuide(v39.getId(), "Migration Guide", "docs/migration.md", MigrationRelevance.MIGRATION, "Migrate...")
+        ));
 
         // Act
         GetMigrationGuideResult result = getMigrationGuideTool.getMigrationGuide(
-                libraryId, "3.0.0", "3.5.0");
+                libraryId, "3.0.0", "3.10.0");
 
         // Assert
-        assertThat(result.guides()).hasSize(3);
-        // Migration should be first (priority 1)
-        assertThat(result.guides().get(0).relevance()).isEqualTo("migration");
-        // Upgrade should be second (priority 2)
-        assertThat(result.guides().get(1).relevance()).isEqualTo("upgrade");
-        // Release notes should be last (priority 4)
-        assertThat(result.guides().get(2).relevance()).isEqualTo("release-notes");
+        assertThat(result.guides()).extracting(MigrationGuideItem::relevance)
+                .containsExactly("migration", "migration", "upgrade", "release-notes");
+        assertThat(result.guides()).extracting(MigrationGuideItem::version)
+                .containsExactly("3.9.0", "3.10.0", "3.9.0", "3.10.0");
     }
 
     @Test
@@ -289,12 +271,12 @@ class GetMigrationGuideToolTest {
         String versionId = randomId();
 
         var version = createVersion(versionId, libraryId, "3.5.0");
-        String longContent = "Migration guide content. ".repeat(50);
-        var migrationDoc = createDocument(randomId(), versionId,
-                "Migration Guide", "docs/migration.md", longContent);
+        String excerpt = "Migration guide content. ".repeat(50).substring(0, 301);
+        var migrationDoc = createGuide(versionId, "Migration Guide", "docs/migration.md",
+                MigrationRelevance.MIGRATION, excerpt);
 
         when(versionRepository.findByLibraryId(libraryId)).thenReturn(List.of(version));
-        when(documentRepository.findByVersionId(versionId)).thenReturn(List.of(migrationDoc));
+        when(documentRepository.findMigrationGuides(Set.of(versionId))).thenReturn(List.of(migrationDoc));
 
         // Act
         GetMigrationGuideResult result = getMigrationGuideTool.getMigrationGuide(
@@ -312,8 +294,8 @@ class GetMigrationGuideToolTest {
                 VersionStatus.ACTIVE, "docs", null, null, OffsetDateTime.now(), OffsetDateTime.now());
     }
 
-    private Document createDocument(String id, String versionId, String title, String path, String content) {
-        return new Document(id, versionId, title, path, content, "hash",
-                "markdown", Map.of(), null, OffsetDateTime.now(), OffsetDateTime.now());
+    private MigrationGuideDocument createGuide(String versionId, String title, String path,
+                                               MigrationRelevance relevance, String excerpt) {
+        return new MigrationGuideDocument(randomId(), versionId, title, path, relevance, excerpt);
     }
 }
@@ -2,10 +2,10 @@ package io.github.samzhu.docmcp.mcp.tool.retrieve;
 
 import com.github.f4b6a3.tsid.TsidCreator;
 import io.github.samzhu.docmcp.domain.exception.LibraryNotFoundException;
-import io.github.samzhu.docmcp.domain.model.Document;
-import io.github.samzhu.docmcp.domain.model.DocumentChunk;
-import io.github.samzhu.docmcp.repository.DocumentChunkRepository;
+import io.github.samzhu.docmcp.domain.model.DocumentSummary;
 import io.github.samzhu.docmcp.repository.DocumentRepository;
+import io.github.samzhu.docmcp.service.RelatedDocsService;
+import io.github.samzhu.docmcp.service.RelatedDocsService.RelatedDocument;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,9 +18,11 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -33,13 +35,13 @@ class GetRelatedDocsToolTest {
     private DocumentRepository documentRepository;
 
     @Mock
-    private DocumentChunkRepository chunkRepository;
+    private RelatedDocsService relatedDocsService;
 
     private GetRelatedDocsTool getRelatedDocsTool;
 
     @BeforeEach
     void setUp() {
-        getRelatedDocsTool = new GetRelatedDocsTool(documentRepository, chunkRepository);
+        getRelatedDocsTool = new GetRelatedDocsTool(documentRepository, relatedDocsService);
     }
 
     /**
@@ -54,34 +56,25 @@ class GetRelatedDocsToolTest {
     void shouldReturnRelatedDocuments() {
         // Arrange
         var sourceDocId = randomId();
-        var relatedDocId1 = randomId();
-        var relatedDocId2 = randomId();
         var versionId = randomId();
-
         var sourceDoc = createDocument(sourceDocId, versionId, "Spring MVC Introduction", "docs/spring-mvc.md");
-        var sourceChunk = createChunk(sourceDocId, "Introduction to Spring MVC...", new float[]{0.1f, 0.2f});
-
-        var relatedChunk1 = createChunk(relatedDocId1, "RESTful services in Spring...", new float[]{0.15f, 0.25f});
-        var relatedChunk2 = createChunk(relatedDocId2, "Web development with Spring...", new float[]{0.12f, 0.22f});
-
-        var relatedDoc1 = createDocument(relatedDocId1, versionId, "REST Services", "docs/rest.md");
-        var relatedDoc2 = createDocument(relatedDocId2, versionId, "Web Development", "docs/web.md");
 
-        when(documentRepository.findById(sourceDocId)).thenReturn(Optional.of(sourceDoc));
-        when(chunkRepository.findFirstByDocumentId(sourceDocId)).thenReturn(sourceChunk);
-        when(chunkRepository.findSimilarChunksExcludingDocument(any(), anyString(), anyInt()))
-                .thenReturn(List.of(relatedChunk1, relatedChunk2));
-        when(documentRepository.findById(relatedDocId1)).thenReturn(Optional.of(relatedDoc1));
-        when(documentRepository.findById(relatedDocId2)).thenReturn(Optional.of(relatedDoc2));
+        when(documentRepository.findSummaryById(sourceDocId)).thenReturn(Optional.of(sourceDoc));
+        when(relatedDocsService.findRelated(sourceDocId, versionId, 5, true)).thenReturn(List.of(
+                new RelatedDocument(randomId(), "REST Services", "docs/rest.md", 0.92, "RESTful services in Spring..."),
+                new RelatedDocument(randomId(), "Web Development", "docs/web.md", 0.87, "Web development with Spring...")
+        ));
 
         // Act
-        var result = getRelatedDocsTool.getRelatedDocs(sourceDocId, null);
+        var result = getRelatedDocsTool.getRelatedDocs(sourceDocId, null, null);
 
         // Assert
         assertThat(result.sourceDocumentId()).isEqualTo(sourceDocId);
         assertThat(result.sourceTitle()).isEqualTo("Spring MVC Introduction");
         assertThat(result.sourcePath()).isEqualTo("docs/spring-mvc.md");
         assertThat(result.relatedDocs()).hasSize(2);
+        assertThat(result.relatedDocs().getFirst().title()).isEqualTo("REST Services");
+        assertThat(result.relatedDocs().getFirst().similarity()).isEqualTo(0.92);
     }
 
     @Test
@@ -89,44 +82,59 @@ class GetRelatedDocsToolTest {
     void shouldSupportLimitParameter() {
         // Arrange
         var sourceDocId = randomId();
-        var relatedDocId = randomId();
         var versionId = randomId();
-
         var sourceDoc = createDocument(sourceDocId, versionId, "Source Doc", "docs/source.md");
-        var sourceChunk = createChunk(sourceDocId, "Source content...", new float[]{0.1f, 0.2f});
-
-        var relatedChunk = createChunk(relatedDocId, "Related content...", new float[]{0.15f, 0.25f});
-        var relatedDoc = createDocument(relatedDocId, versionId, "Related Doc", "docs/related.md");
 
-        when(documentRepository.findById(sourceDocId)).thenReturn(Optional.of(sourceDoc));
-        when(chunkRepository.findFirstByDocumentId(sourceDocId)).thenReturn(sourceChunk);
-        when(chunkRepository.findSimilarChunksExcludingDocument(any(), anyString(), anyInt()))
-                .thenReturn(List.of(relatedChunk));
-        when(documentRepository.findById(relatedDocId)).thenReturn(Optional.of(relatedDoc));
+        when(documentRepository.findSummaryById(sourceDocId)).thenReturn(Optional.of(sourceDoc));
+        when(relatedDocsService.findRelated(sourceDocId, versionId, 3, true)).thenReturn(List.of(
+                new RelatedDocument(randomId(), "Related Doc", "docs/related.md", 0.8, "Related content...")
+        ));
 
         // Act
-        var result = getRelatedDocsTool.getRelatedDocs(sourceDocId, 3);
+        var result = getRelatedDocsTool.getRelatedDocs(sourceDocId, 3, null);
 
         // Assert
         assertThat(result.relatedDocs()).hasSize(1);
     }
 
     @Test
-    @DisplayName("當來源文件沒有 embedding 時應回傳空列表")
-    void shouldReturnEmptyWhenNoEmbedding() {
+    @DisplayName("應支援搜尋同函式庫的所有版本")
+    void shouldSearchAllVersionsWhenRequested() {
         // Arrange
         var sourceDocId = randomId();
         var versionId = randomId();
         var sourceDoc = createDocument(sourceDocId, versionId, "Source Doc", "docs/source.md");
 
-        when(documentRepository.findById(sourceDocId)).thenReturn(Optional.of(sourceDoc));
-        when(chunkRepository.findFirstByDocumentId(sourceDocId)).thenReturn(null);
+        when(documentRepository.findSummaryById(sourceDocId)).thenReturn(Optional.of(sourceDoc));
+        when(relatedDocsService.findRelated(sourceDocId, versionId, 5, false)).thenReturn(List.of());
 
         // Act
-        var result = getRelatedDocsTool.getRelatedDocs(sourceDocId, null);
+        getRelatedDocsTool.getRelatedDocs(sourceDocId, null, false);
 
         // Assert
-        assertThat(result.relatedDocs()).isEmpty();
+        verify(relatedDocsService).findRelated(sourceDocId, versionId, 5, false);
+    }
+
+    @Test
+    @DisplayName("應截斷過長的內容片段")
+    void shouldTruncateLongSnippet() {
+        // Arrange
+        var sourceDocId = randomId();
+        var versionId = randomId();
+        var sourceDoc = createDocument(sourceDocId, versionId, "Source Doc", "docs/source.md");
+
+        when(documentRepository.findSummaryById(sourceDocId)).thenReturn(Optional.of(sourceDoc));
+        when(relatedDocsService.findRelated(sourceDocId, versionId, 5, true)).thenReturn(List.of(
+                new RelatedDocument(randomId(), "Long Doc", "docs/long.md", 0.8, "a".repeat(256)),
+                new RelatedDocument(randomId(), "Empty Doc", "docs/empty.md", 0.7, null)
+        ));
+
+        // Act
+        var result = getRelatedDocsTool.getRelatedDocs(sourceDocId, null, null);
+
+        // Assert
+        assertThat(result.relatedDocs().get(0).snippet()).hasSize(203).endsWith("...");
+        assertThat(result.relatedDocs().get(1).snippet()).isEmpty();
     }
 
     @Test
@@ -135,17 +143,13 @@ class GetRelatedDocsToolTest {
         // Arrange
         var sourceDocId = randomId();
         var versionId = randomId();
-
         var sourceDoc = createDocument(sourceDocId, versionId, "Unique Doc", "docs/unique.md");
-        var sourceChunk = createChunk(sourceDocId, "Very unique content...", new float[]{0.1f, 0.2f});
 
-        when(documentRepository.findById(sourceDocId)).thenReturn(Optional.of(sourceDoc));
-        when(chunkRepository.findFirstByDocumentId(sourceDocId)).thenReturn(sourceChunk);
-        when(chunkRepository.findSimilarChunksExcludingDocument(any(), anyString(), anyInt()))
-                .thenReturn(List.of());
+        when(documentRepository.findSummaryById(sourceDocId)).thenReturn(Optional.of(sourceDoc));
+        when(relatedDocsService.findRelated(sourceDocId, versionId, 5, true)).thenReturn(List.of());
 
         // Act
-        var result = getRelatedDocsTool.getRelatedDocs(sourceDocId, null);
+        var result = getRelatedDocsTool.getRelatedDocs(sourceDocId, null, null);
 
         // Assert
         assertThat(result.relatedDocs()).isEmpty();
@@ -156,25 +160,19 @@ class GetRelatedDocsToolTest {
     void shouldThrowExceptionWhenDocumentNotFound() {
         // Arrange
         var docId = randomId();
-        when(documentRepository.findById(docId)).thenReturn(Optional.empty());
+        when(documentRepository.findSummaryById(docId)).thenReturn(Optional.empty());
 
         // Act & Assert
-        assertThatThrownBy(() -> getRelatedDocsTool.getRelatedDocs(docId, null))
+        assertThatThrownBy(() -> getRelatedDocsTool.getRelatedDocs(docId, null, null))
                 .isInstanceOf(LibraryNotFoundException.class)
                 .hasMessageContaining("文件不存在");
+        verify(relatedDocsService, never()).findRelated(anyString(), anyString(), anyInt(), anyBoolean());
     }
 
     /**
-     * 建立測試用的 Document
-     */
-    private Document createDocument(String id, String versionId, String title, String path) {
-        return new Document(id, versionId, title, path, "content", null, "markdown", null, null, null, null);
-    }
-
-    /**
-     * 建立測試用的 DocumentChunk
+     * 建立測試用的 DocumentSummary
      */
-    private DocumentChunk createChunk(String documentId, String content, float[] embedding) {
-        return new DocumentChunk(randomId(), documentId, 0, content, embedding, 100, null, null, null, null);
+    private DocumentSummary createDocument(String id, String versionId, String title, String path) {
+        return new DocumentSummary(id, versionId, title, path, "markdown", null);
     }
 }
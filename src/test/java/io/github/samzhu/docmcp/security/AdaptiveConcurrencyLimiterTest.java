@@ -0,0 +1,176 @@
+package io.github.samzhu.docmcp.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * AdaptiveConcurrencyLimiter 單元測試
+ */
+@DisplayName("AdaptiveConcurrencyLimiter")
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long NO_WAIT = 0;
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("should count weights against the limit")
+    void shouldApplyWeights() throws Exception {
+        // Arrange
+        var limiter = new AdaptiveConcurrencyLimiter(5, 1, 10, 10, false, System.nanoTime());
+
+        // Act
+        int heavy = limiter.acquire(4, NO_WAIT);
+        int light = limiter.acquire(1, NO_WAIT);
+        int rejected = limiter.acquire(1, NO_WAIT);
+
+        // Assert
+        assertThat(heavy).isEqualTo(4);
+        assertThat(light).isEqualTo(1);
+        assertThat(rejected).isZero();
+        assertThat(limiter.getAvailable()).isZero();
+    }
+
+    @Test
+    @DisplayName("should cap a weight larger than the limit so it can still run")
+    void shouldCapOversizedWeight() throws Exception {
+        // Arrange
+        var limiter = new AdaptiveConcurrencyLimiter(3, 1, 3, 10, false, System.nanoTime());
+
+        // Act
+        int granted = limiter.acquire(8, NO_WAIT);
+
+        // Assert
+        assertThat(granted).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("should queue until a permit is released")
+    void shouldQueueUntilReleased() throws Exception {
+        // Arrange
+        var limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 10, false, System.nanoTime());
+        int first = limiter.acquire(1, NO_WAIT);
+
+        // Act
+        CompletableFuture<Integer> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.acquire(1, TimeUnit.SECONDS.toNanos(5));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+        limiter.release(first, 10 * MS);
+
+        // Assert
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should give up after the wait deadline")
+    void shouldTimeOut() throws Exception {
+        // Arrange
+        var limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 10, false, System.nanoTime());
+        limiter.acquire(1, NO_WAIT);
+
+        // Act
+        long start = System.nanoTime();
+        int granted = limiter.acquire(1, 50 * MS);
+
+        // Assert
+        assertThat(granted).isZero();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(50 * MS);
+    }
+
+    @Test
+    @DisplayName("should reject immediately when the queue is full")
+    void shouldRejectWhenQueueFull() throws Exception {
+        // Arrange
+        var limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 0, false, System.nanoTime());
+        limiter.acquire(1, NO_WAIT);
+
+        // Act
+        long start = System.nanoTime();
+        int granted = limiter.acquire(1, TimeUnit.SECONDS.toNanos(5));
+
+        // Assert
+        assertThat(granted).isZero();
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    @DisplayName("should lower the limit when latency rises under load")
+    void shouldDecreaseLimitWhenLatencyRises() throws Exception {
+        // Arrange
+        var limiter = new AdaptiveConcurrencyLimiter(20, 1, 50, 10, true, System.nanoTime());
+        saturateAndRelease(limiter, 20, 10 * MS, 50);
+        int baseline = limiter.getLimit();
+
+        // Act - 延遲變為 10 倍（短期反應，長期平均尚未追上）
+        saturateAndRelease(limiter, limiter.getLimit(), 100 * MS, 2);
+
+        // Assert
+        assertThat(limiter.getLimit()).isLessThan(baseline);
+    }
+
+    @Test
+    @DisplayName("should raise the limit when saturated and latency is stable")
+    void shouldIncreaseLimitWhenLatencyIsStable() throws Exception {
+        // Arrange
+        var limiter = new AdaptiveConcurrencyLimiter(10, 1, 50, 10, true, System.nanoTime());
+
+        // Act
+        saturateAndRelease(limiter, 10, 10 * MS, 50);
+
+        // Assert
+        assertThat(limiter.getLimit()).isGreaterThan(10);
+    }
+
+    @Test
+    @DisplayName("should not grow the limit while lightly used")
+    void shouldNotGrowWhenIdle() throws Exception {
+        // Arrange
+        var limiter = new AdaptiveConcurrencyLimiter(10, 1, 50, 10, true, System.nanoTime());
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            limiter.release(limiter.acquire(1, NO_WAIT), 10 * MS);
+        }
+
+        // Assert
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("should report idle only without in-flight requests")
+    void shouldDetectIdle() throws Exception {
+        // Arrange
+        var limiter = new AdaptiveConcurrencyLimiter(2, 1, 2, 10, false, System.nanoTime());
+        int granted = limiter.acquire(1, NO_WAIT);
+
+        // Act & Assert
+        assertThat(limiter.isIdle(System.nanoTime() + TimeUnit.HOURS.toNanos(1), 0)).isFalse();
+        limiter.release(granted, MS);
+        assertThat(limiter.isIdle(System.nanoTime() + TimeUnit.HOURS.toNanos(1), 0)).isTrue();
+    }
+
+    /**
+     * 佔滿上限後全部釋放，重複指定輪數
+     */
+    private void saturateAndRelease(AdaptiveConcurrencyLimiter limiter, int inFlight, long latencyNanos,
+                                    int rounds) throws InterruptedException {
+        for (int round = 0; round < rounds; round++) {
+            int count = Math.min(inFlight, limiter.getLimit());
+            for (int i = 0; i < count; i++) {
+                limiter.acquire(1, NO_WAIT);
+            }
+            for (int i = 0; i < count; i++) {
+                limiter.release(1, latencyNanos);
+            }
+        }
+    }
+}
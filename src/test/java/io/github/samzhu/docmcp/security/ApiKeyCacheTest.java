@@ -0,0 +1,140 @@
+package io.github.samzhu.docmcp.security;
+
+import com.github.f4b6a3.tsid.TsidCreator;
+import io.github.samzhu.docmcp.domain.enums.ApiKeyStatus;
+import io.github.samzhu.docmcp.domain.model.ApiKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ApiKeyCache 單元測試
+ */
+@DisplayName("ApiKeyCache")
+class ApiKeyCacheTest {
+
+    @Test
+    @DisplayName("should fingerprint raw keys with SHA-256 without keeping the raw key")
+    void shouldFingerprintRawKey() {
+        // Act
+        String fingerprint = ApiKeyCache.fingerprint("dmcp_secret");
+
+        // Assert
+        assertThat(fingerprint).hasSize(64).doesNotContain("secret");
+        assertThat(ApiKeyCache.fingerprint("dmcp_secret")).isEqualTo(fingerprint);
+        assertThat(ApiKeyCache.fingerprint("dmcp_other")).isNotEqualTo(fingerprint);
+    }
+
+    @Test
+    @DisplayName("should return cached key within TTL")
+    void shouldReturnCachedKey() {
+        // Arrange
+        ApiKeyCache cache = new ApiKeyCache(Duration.ofMinutes(1), 10);
+        ApiKey apiKey = createApiKey(null);
+
+        // Act
+        cache.put("fp", apiKey, cache.generation());
+
+        // Assert
+        assertThat(cache.get("fp")).contains(apiKey);
+    }
+
+    @Test
+    @DisplayName("should not cache when TTL is zero")
+    void shouldNotCacheWhenDisabled() {
+        // Arrange
+        ApiKeyCache cache = new ApiKeyCache(Duration.ZERO, 10);
+
+        // Act
+        cache.put("fp", createApiKey(null), cache.generation());
+
+        // Assert
+        assertThat(cache.get("fp")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should drop entries whose key has expired")
+    void shouldDropExpiredKey() {
+        // Arrange
+        ApiKeyCache cache = new ApiKeyCache(Duration.ofMinutes(1), 10);
+        cache.put("fp", createApiKey(OffsetDateTime.now().minusSeconds(1)), cache.generation());
+
+        // Act & Assert
+        assertThat(cache.get("fp")).isEmpty();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("should invalidate all entries of a key id")
+    void shouldInvalidateByKeyId() {
+        // Arrange
+        ApiKeyCache cache = new ApiKeyCache(Duration.ofMinutes(1), 10);
+        ApiKey revoked = createApiKey(null);
+        ApiKey other = createApiKey(null);
+        cache.put("fp-1", revoked, cache.generation());
+        cache.put("fp-2", other, cache.generation());
+
+        // Act
+        cache.invalidate(revoked.getId());
+
+        // Assert
+        assertThat(cache.get("fp-1")).isEmpty();
+        assertThat(cache.get("fp-2")).contains(other);
+    }
+
+    @Test
+    @DisplayName("should ignore results of validations that started before an invalidation")
+    void shouldIgnoreStalePut() {
+        // Arrange
+        ApiKeyCache cache = new ApiKeyCache(Duration.ofMinutes(1), 10);
+        ApiKey apiKey = createApiKey(null);
+        long generation = cache.generation();
+
+        // Act - 驗證進行中時金鑰被撤銷
+        cache.invalidate(apiKey.getId());
+        cache.put("fp", apiKey, generation);
+
+        // Assert
+        assertThat(cache.get("fp")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should evict least recently used entry when full")
+    void shouldEvictLeastRecentlyUsed() {
+        // Arrange
+        ApiKeyCache cache = new ApiKeyCache(Duration.ofMinutes(1), 2);
+        cache.put("fp-1", createApiKey(null), cache.generation());
+        cache.put("fp-2", createApiKey(null), cache.generation());
+        cache.get("fp-1");
+
+        // Act
+        cache.put("fp-3", createApiKey(null), cache.generation());
+
+        // Assert
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("fp-1")).isPresent();
+        assertThat(cache.get("fp-2")).isEmpty();
+    }
+
+    private ApiKey createApiKey(OffsetDateTime expiresAt) {
+        var now = OffsetDateTime.now();
+        return new ApiKey(
+                TsidCreator.getTsid().toString(),
+                "test-key",
+                "$2a$10$dummyhash",
+                "dmcp_test123",
+                ApiKeyStatus.ACTIVE,
+                1000,
+                expiresAt,
+                null,
+                "system",
+                0L,
+                now,
+                now
+        );
+    }
+}
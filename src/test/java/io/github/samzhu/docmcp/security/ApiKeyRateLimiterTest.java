@@ -0,0 +1,197 @@
+package io.github.samzhu.docmcp.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * ApiKeyRateLimiter 單元測試
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ApiKeyRateLimiter")
+class ApiKeyRateLimiterTest {
+
+    private static final String KEY_ID = "0KEY000000001";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ApiKeyRateLimiter rateLimiter;
+
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = new ApiKeyRateLimiter(jdbcTemplate, Duration.ofMinutes(10));
+        now = System.nanoTime();
+    }
+
+    @Test
+    @DisplayName("should allow up to the hourly limit and then reject with Retry-After")
+    void shouldRejectWhenBucketIsEmpty() {
+        // Arrange - 每小時 3 次，每 1200 秒補充一次
+
+        // Act
+        var first = rateLimiter.tryAcquire(KEY_ID, 3, now);
+        rateLimiter.tryAcquire(KEY_ID, 3, now);
+        var third = rateLimiter.tryAcquire(KEY_ID, 3, now);
+        var fourth = rateLimiter.tryAcquire(KEY_ID, 3, now);
+
+        // Assert
+        assertThat(first.allowed()).isTrue();
+        assertThat(first.remaining()).isEqualTo(2);
+        assertThat(third.allowed()).isTrue();
+        assertThat(third.remaining()).isZero();
+        assertThat(fourth.allowed()).isFalse();
+        assertThat(fourth.limit()).isEqualTo(3);
+        assertThat(fourth.retryAfterSeconds()).isBetween(1199L, 1200L);
+        assertThat(fourth.resetSeconds()).isBetween(3599L, 3600L);
+    }
+
+    @Test
+    @DisplayName("should refill tokens over time")
+    void shouldRefillOverTime() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire(KEY_ID, 3, now);
+        }
+        assertThat(rateLimiter.tryAcquire(KEY_ID, 3, now).allowed()).isFalse();
+
+        // Act
+        var later = rateLimiter.tryAcquire(KEY_ID, 3, now + TimeUnit.SECONDS.toNanos(1201));
+
+        // Assert
+        assertThat(later.allowed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should honor quota already consumed by other replicas")
+    void shouldHonorSharedBucket() throws Exception {
+        // Arrange - 共用桶已被其他實例用完
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn(KEY_ID);
+        when(rs.getDouble(2)).thenReturn(0.0);
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        // Act
+        var decision = rateLimiter.tryAcquire(KEY_ID, 1000, now);
+
+        // Assert
+        assertThat(decision.allowed()).isFalse();
+        assertThat(decision.retryAfterSeconds()).isPositive();
+    }
+
+    @Test
+    @DisplayName("should push local consumption since the last sync in one batch")
+    void shouldSyncLocalConsumption() throws Exception {
+        // Arrange
+        rateLimiter.tryAcquire(KEY_ID, 1000, now);
+        rateLimiter.tryAcquire(KEY_ID, 1000, now);
+
+        // Act
+        rateLimiter.sync();
+
+        // Assert - 第二次 query 是排程同步，消耗量為 2
+        ArgumentCaptor<PreparedStatementCreator> captor = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate, atLeastOnce()).query(captor.capture(), any(RowCallbackHandler.class));
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(mock(PreparedStatement.class));
+        captor.getValue().createPreparedStatement(connection);
+        verify(connection).createArrayOf("varchar", new Object[]{KEY_ID});
+        verify(connection).createArrayOf(eq("float8"), eq(new Object[]{2.0}));
+    }
+
+    @Test
+    @DisplayName("should keep requests consumed while a sync is in flight")
+    void shouldKeepConsumptionDuringSync() throws Exception {
+        // Arrange - 共用桶剩 10 次；排程同步等待資料庫回應時另有一個請求
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn(KEY_ID);
+        when(rs.getDouble(2)).thenReturn(10.0);
+        AtomicInteger queries = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (queries.incrementAndGet() == 2) {
+                rateLimiter.tryAcquire(KEY_ID, 1000, now);
+            }
+            invocation.<RowCallbackHandler>getArgument(1).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        rateLimiter.tryAcquire(KEY_ID, 1000, now);
+
+        // Act
+        rateLimiter.sync();
+        var next = rateLimiter.tryAcquire(KEY_ID, 1000, now);
+
+        // Assert - 同步期間的消耗從共用剩餘量中扣除，不被同步結果覆蓋
+        assertThat(next.allowed()).isTrue();
+        assertThat(next.remaining()).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("should keep limiting locally when the database is unavailable")
+    void shouldFallBackToLocalBucket() {
+        // Arrange
+        when(jdbcTemplate.update(any(PreparedStatementCreator.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        // Act
+        var first = rateLimiter.tryAcquire(KEY_ID, 1, now);
+        var second = rateLimiter.tryAcquire(KEY_ID, 1, now);
+
+        // Assert
+        assertThat(first.allowed()).isTrue();
+        assertThat(second.allowed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("should evict idle buckets only after their consumption is synchronized")
+    void shouldEvictIdleBuckets() throws Exception {
+        // Arrange
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn(KEY_ID);
+        when(rs.getDouble(2)).thenReturn(999.0);
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        ApiKeyRateLimiter shortIdle = new ApiKeyRateLimiter(jdbcTemplate, Duration.ZERO);
+        shortIdle.tryAcquire(KEY_ID, 1000, now - TimeUnit.SECONDS.toNanos(5));
+
+        // Act - 第一次同步送出消耗量，之後才可移除
+        shortIdle.sync();
+        int afterFirstSync = shortIdle.size();
+        shortIdle.sync();
+
+        // Assert
+        assertThat(afterFirstSync).isEqualTo(1);
+        assertThat(shortIdle.size()).isZero();
+    }
+}
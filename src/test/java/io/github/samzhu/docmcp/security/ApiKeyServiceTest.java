@@ -12,12 +12,15 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -33,6 +36,14 @@ class ApiKeyServiceTest {
     @Mock
     private ApiKeyRepository apiKeyRepository;
 
+    @Mock
+    private ApiKeyRevocationChannel revocationChannel;
+
+    @Mock
+    private ApiKeyUsageTracker usageTracker;
+
+    private ApiKeyCache apiKeyCache;
+
     private ApiKeyService apiKeyService;
 
     /**
@@ -44,7 +55,8 @@ class ApiKeyServiceTest {
 
     @BeforeEach
     void setUp() {
-        apiKeyService = new ApiKeyService(idService, apiKeyRepository);
+        apiKeyCache = new ApiKeyCache(Duration.ofMinutes(1), 100);
+        apiKeyService = new ApiKeyService(idService, apiKeyRepository, apiKeyCache, revocationChannel, usageTracker);
     }
 
     @Test
@@ -119,6 +131,59 @@ class ApiKeyServiceTest {
         assertThat(result.get().getName()).isEqualTo("test-key");
     }
 
+    @Test
+    void shouldServeRepeatedValidationFromCache() {
+        // 準備
+        String rawKey = "dmcp_test123456789012345678901234";
+        String keyPrefix = "dmcp_test123";
+        var apiKey = createApiKeyWithHash(rawKey, keyPrefix);
+        when(apiKeyRepository.findByKeyPrefix(keyPrefix)).thenReturn(Optional.of(apiKey));
+
+        // 執行
+        var first = apiKeyService.validateKey(rawKey);
+        var second = apiKeyService.validateKey(rawKey);
+
+        // 驗證：只有第一次查詢資料庫與比對 BCrypt
+        assertThat(first).isPresent();
+        assertThat(second).contains(first.get());
+        verify(apiKeyRepository, times(1)).findByKeyPrefix(keyPrefix);
+    }
+
+    @Test
+    void shouldNotCacheWrongKeyWithSamePrefix() {
+        // 準備
+        String rawKey = "dmcp_test123456789012345678901234";
+        String keyPrefix = "dmcp_test123";
+        var apiKey = createApiKeyWithHash(rawKey, keyPrefix);
+        when(apiKeyRepository.findByKeyPrefix(keyPrefix)).thenReturn(Optional.of(apiKey));
+
+        // 執行
+        var result = apiKeyService.validateKey("dmcp_test123_wrong_secret_value_xx");
+
+        // 驗證
+        assertThat(result).isEmpty();
+        assertThat(apiKeyCache.size()).isZero();
+    }
+
+    @Test
+    void shouldInvalidateCacheAndNotifyOnRevoke() {
+        // 準備
+        String rawKey = "dmcp_test123456789012345678901234";
+        String keyPrefix = "dmcp_test123";
+        var apiKey = createApiKeyWithHash(rawKey, keyPrefix);
+        when(apiKeyRepository.findByKeyPrefix(keyPrefix)).thenReturn(Optional.of(apiKey));
+        when(apiKeyRepository.findById(apiKey.getId())).thenReturn(Optional.of(apiKey));
+        when(apiKeyRepository.save(any(ApiKey.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        apiKeyService.validateKey(rawKey);
+
+        // 執行
+        apiKeyService.revokeKey(apiKey.getId());
+
+        // 驗證
+        assertThat(apiKeyCache.size()).isZero();
+        verify(revocationChannel).publish(apiKey.getId());
+    }
+
     @Test
     void shouldReturnEmptyForInvalidKey() {
         // 準備
@@ -165,6 +230,19 @@ class ApiKeyServiceTest {
         assertThat(captor.getValue().getStatus()).isEqualTo(ApiKeyStatus.REVOKED);
     }
 
+    @Test
+    void shouldRecordLastUsedInMemory() {
+        // 準備
+        var apiKey = createApiKey("test-key", "dmcp_test1234");
+
+        // 執行
+        apiKeyService.updateLastUsed(apiKey);
+
+        // 驗證
+        verify(usageTracker).record(apiKey.getId());
+        verify(apiKeyRepository, never()).save(any(ApiKey.class));
+    }
+
     @Test
     void shouldThrowExceptionWhenRevokingNonexistentKey() {
         // 準備
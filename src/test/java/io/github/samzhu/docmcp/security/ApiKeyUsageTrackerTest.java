@@ -0,0 +1,137 @@
+package io.github.samzhu.docmcp.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * ApiKeyUsageTracker 單元測試
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ApiKeyUsageTracker")
+class ApiKeyUsageTrackerTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ApiKeyUsageTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new ApiKeyUsageTracker(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("should coalesce requests into one batched row per key")
+    @SuppressWarnings("unchecked")
+    void shouldCoalesceIntoOneRowPerKey() {
+        // Arrange
+        tracker.record("key-1", NOW);
+        tracker.record("key-1", NOW + 500);
+        tracker.record("key-1", NOW + 200);
+        tracker.record("key-2", NOW + 100);
+
+        // Act
+        tracker.flush();
+
+        // Assert
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture());
+        assertThat(captor.getValue()).hasSize(2)
+                .anySatisfy(args -> {
+                    assertThat(args[1]).isEqualTo("key-1");
+                    assertThat(args[0]).isEqualTo(new Timestamp(NOW + 500));
+                });
+    }
+
+    @Test
+    @DisplayName("should not touch the database when nothing changed since last flush")
+    void shouldSkipFlushWhenClean() {
+        // Arrange
+        tracker.record("key-1", NOW);
+        tracker.flush();
+
+        // Act
+        tracker.flush();
+
+        // Assert
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    @DisplayName("should not flush before any request is recorded")
+    void shouldNotFlushWhenEmpty() {
+        // Act
+        tracker.flush();
+
+        // Assert
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    @DisplayName("should retry pending updates after a failed flush")
+    void shouldRetryAfterFailure() {
+        // Arrange
+        tracker.record("key-1", NOW);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"))
+                .thenReturn(new int[]{1});
+
+        // Act
+        tracker.flush();
+        tracker.flush();
+        tracker.flush();
+
+        // Assert
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    @DisplayName("should count requests per minute for the last hour")
+    void shouldBuildPerMinuteHistogram() {
+        // Arrange
+        long minuteStart = NOW - NOW % 60_000;
+        tracker.record("key-1", minuteStart - 60_000);
+        tracker.record("key-1", minuteStart);
+        tracker.record("key-1", minuteStart + 30_000);
+        // 超過 60 分鐘前的請求不計入直方圖
+        tracker.record("key-1", minuteStart - 60 * 60_000);
+
+        // Act
+        var usage = tracker.getUsage("key-1", minuteStart + 59_000).orElseThrow();
+
+        // Assert
+        assertThat(usage.totalRequests()).isEqualTo(4);
+        assertThat(usage.requestsPerMinute()).hasSize(ApiKeyUsageTracker.HISTOGRAM_MINUTES);
+        assertThat(usage.requestsPerMinute().getLast()).isEqualTo(2L);
+        assertThat(usage.requestsPerMinute().get(ApiKeyUsageTracker.HISTOGRAM_MINUTES - 2)).isEqualTo(1L);
+        assertThat(usage.requestsPerMinute().stream().mapToLong(Long::longValue).sum()).isEqualTo(3);
+        assertThat(usage.lastUsedAt().toInstant().toEpochMilli()).isEqualTo(minuteStart + 30_000);
+    }
+
+    @Test
+    @DisplayName("should return empty usage for keys not seen by this instance")
+    void shouldReturnEmptyForUnknownKey() {
+        // Act & Assert
+        assertThat(tracker.getUsage("unknown")).isEmpty();
+    }
+}
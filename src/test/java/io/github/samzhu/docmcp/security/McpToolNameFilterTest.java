@@ -0,0 +1,186 @@
+package io.github.samzhu.docmcp.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * McpToolNameFilter 單元測試
+ */
+@DisplayName("McpToolNameFilter")
+class McpToolNameFilterTest {
+
+    private final McpToolNameFilter filter = new McpToolNameFilter(new ObjectMapper());
+
+    @Test
+    @DisplayName("should expose the tool name of a tools/call request and keep the body readable")
+    void shouldExtractToolName() throws Exception {
+        // Arrange
+        String body = """
+                {"jsonrpc":"2.0","id":3,"method":"tools/call","params":{"name":"semantic_search","arguments":{}}}""";
+        MockHttpServletRequest request = mcpRequest(body);
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertThat(request.getAttribute(McpToolNameFilter.TOOL_NAME_ATTRIBUTE)).isEqualTo("semantic_search");
+        byte[] forwarded = chain.getRequest().getInputStream().readAllBytes();
+        assertThat(new String(forwarded, StandardCharsets.UTF_8)).isEqualTo(body);
+    }
+
+    @Test
+    @DisplayName("should not set a tool name for other JSON-RPC methods")
+    void shouldIgnoreOtherMethods() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = mcpRequest("""
+                {"jsonrpc":"2.0","id":1,"method":"tools/list"}""");
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertThat(request.getAttribute(McpToolNameFilter.TOOL_NAME_ATTRIBUTE)).isNull();
+    }
+
+    @Test
+    @DisplayName("should pass malformed bodies through unchanged")
+    void shouldIgnoreMalformedBody() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = mcpRequest("{not json");
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertThat(request.getAttribute(McpToolNameFilter.TOOL_NAME_ATTRIBUTE)).isNull();
+        assertThat(chain.getRequest().getReader().readLine()).isEqualTo("{not json");
+    }
+
+    @Test
+    @DisplayName("should skip requests outside the MCP endpoint")
+    void shouldSkipOtherPaths() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/libraries");
+        request.setContent("{}".getBytes(StandardCharsets.UTF_8));
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+
+    @Test
+    @DisplayName("should read a bounded prefix of chunked requests and still extract the tool name")
+    void shouldExtractToolNameFromChunkedRequest() throws Exception {
+        // Arrange
+        String body = """
+                {"jsonrpc":"2.0","id":3,"method":"tools/call","params":{"name":"semantic_search","arguments":{}}}""";
+        MockHttpServletRequest request = chunked(mcpRequest(body));
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertThat(request.getAttribute(McpToolNameFilter.TOOL_NAME_ATTRIBUTE)).isEqualTo("semantic_search");
+        assertThat(chain.getRequest().getContentLength()).isEqualTo(body.length());
+    }
+
+    @Test
+    @DisplayName("should replay the buffered prefix followed by the rest of an oversized chunked body")
+    void shouldReplayOversizedChunkedBody() throws Exception {
+        // Arrange - 未提供 Content-Length，內容超過讀取上限
+        String body = """
+                {"jsonrpc":"2.0","id":3,"method":"tools/call","params":{"name":"semantic_search","arguments":{"query":"%s"}}}"""
+                .formatted("x".repeat(McpToolNameFilter.MAX_PEEK_BYTES));
+        MockHttpServletRequest request = chunked(mcpRequest(body));
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert - 不解析（預設權重），後續處理仍取得完整內容
+        assertThat(request.getAttribute(McpToolNameFilter.TOOL_NAME_ATTRIBUTE)).isNull();
+        assertThat(chain.getRequest().getContentLengthLong()).isEqualTo(-1);
+        byte[] forwarded = chain.getRequest().getInputStream().readAllBytes();
+        assertThat(new String(forwarded, StandardCharsets.UTF_8)).isEqualTo(body);
+    }
+
+    @Test
+    @DisplayName("should notify a read listener immediately when the body is fully buffered")
+    void shouldNotifyReadListenerForBufferedBody() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = mcpRequest("""
+                {"jsonrpc":"2.0","id":1,"method":"tools/list"}""");
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        ServletInputStream input = chain.getRequest().getInputStream();
+        List<String> events = new ArrayList<>();
+
+        // Act
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.add("data:" + new String(input.readAllBytes(), StandardCharsets.UTF_8).length());
+                events.add("ready:" + input.isReady());
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("finished:" + input.isFinished());
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.add("error");
+            }
+        });
+
+        // Assert
+        assertThat(events).containsExactly("data:46", "ready:true", "finished:true");
+    }
+
+    /**
+     * 模擬 chunked 傳輸（未提供 Content-Length）
+     */
+    private MockHttpServletRequest chunked(MockHttpServletRequest request) {
+        MockHttpServletRequest chunked = new MockHttpServletRequest("POST", "/mcp") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+
+            @Override
+            public int getContentLength() {
+                return -1;
+            }
+        };
+        chunked.setContentType(request.getContentType());
+        chunked.setContent(request.getContentAsByteArray());
+        return chunked;
+    }
+
+    private MockHttpServletRequest mcpRequest(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/mcp");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
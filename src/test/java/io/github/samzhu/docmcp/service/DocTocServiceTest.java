@@ -0,0 +1,172 @@
+package io.github.samzhu.docmcp.service;
+
+import io.github.samzhu.docmcp.domain.event.SyncCompletedEvent;
+import io.github.samzhu.docmcp.domain.model.DocumentTocEntry;
+import io.github.samzhu.docmcp.mcp.dto.GetDocTocResult.TocEntry;
+import io.github.samzhu.docmcp.repository.DocumentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * DocTocService 單元測試
+ * <p>
+ * 驗證版本目錄的快取、同步後失效與依深度切片。
+ * </p>
+ */
+@DisplayName("DocTocService")
+class DocTocServiceTest {
+
+    private static final List<DocumentTocEntry> DOCUMENTS = List.of(
+            new DocumentTocEntry("doc-1", "Index", "index.md"),
+            new DocumentTocEntry("doc-2", "Overview", "docs/overview.md"),
+            new DocumentTocEntry("doc-3", "Data Source", "docs/data/datasource.md")
+    );
+
+    private DocumentRepository documentRepository;
+    private DocTocService service;
+
+    @BeforeEach
+    void setUp() {
+        documentRepository = mock(DocumentRepository.class);
+        when(documentRepository.findTocEntriesByVersionIdOrderByPathAsc("v1")).thenReturn(DOCUMENTS);
+        service = new DocTocService(documentRepository, 2, Duration.ofMinutes(10));
+    }
+
+    @Nested
+    @DisplayName("getToc")
+    class GetTocTests {
+
+        @Test
+        @DisplayName("should serve repeated calls from cache")
+        void shouldServeRepeatedCallsFromCache() {
+            // Act
+            var first = service.getToc("v1");
+            var second = service.getToc("v1");
+
+            // Assert
+            assertThat(second).isSameAs(first);
+            verify(documentRepository, times(1)).findTocEntriesByVersionIdOrderByPathAsc("v1");
+            assertThat(service.getHitCount()).isEqualTo(1);
+            assertThat(service.getMissCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should reload after sync completed for the version")
+        void shouldReloadAfterSyncCompleted() {
+            // Arrange
+            service.getToc("v1");
+
+            // Act
+            service.onSyncCompleted(new SyncCompletedEvent("v1", "sync-1", 3, 10));
+
+            // Assert
+            assertThat(service.isCached("v1")).isFalse();
+            service.getToc("v1");
+            verify(documentRepository, times(2)).findTocEntriesByVersionIdOrderByPathAsc("v1");
+        }
+
+        @Test
+        @DisplayName("should still cache a version loaded while another version is invalidated")
+        void shouldCacheWhenOtherVersionIsInvalidatedDuringLoad() {
+            // Arrange - v1 載入期間 v2 完成同步
+            when(documentRepository.findTocEntriesByVersionIdOrderByPathAsc("v1")).thenAnswer(invocation -> {
+                service.invalidate("v2");
+                return DOCUMENTS;
+            });
+
+            // Act
+            service.getToc("v1");
+
+            // Assert
+            assertThat(service.isCached("v1")).isTrue();
+        }
+
+        @Test
+        @DisplayName("should discard a load that overlaps invalidation of the same version")
+        void shouldDiscardLoadOverlappingInvalidationOfSameVersion() {
+            // Arrange - v1 載入期間 v1 完成同步，載入結果可能已過時
+            when(documentRepository.findTocEntriesByVersionIdOrderByPathAsc("v1")).thenAnswer(invocation -> {
+                service.invalidate("v1");
+                return DOCUMENTS;
+            });
+
+            // Act
+            service.getToc("v1");
+
+            // Assert
+            assertThat(service.isCached("v1")).isFalse();
+        }
+
+        @Test
+        @DisplayName("should reload when cached toc is older than max age")
+        void shouldReloadWhenOlderThanMaxAge() {
+            // Arrange
+            service = new DocTocService(documentRepository, 2, Duration.ZERO);
+
+            // Act
+            service.getToc("v1");
+            service.getToc("v1");
+
+            // Assert
+            verify(documentRepository, times(2)).findTocEntriesByVersionIdOrderByPathAsc("v1");
+        }
+
+        @Test
+        @DisplayName("should evict least recently used version beyond max versions")
+        void shouldEvictLeastRecentlyUsedVersion() {
+            // Arrange
+            when(documentRepository.findTocEntriesByVersionIdOrderByPathAsc("v2")).thenReturn(List.of());
+            when(documentRepository.findTocEntriesByVersionIdOrderByPathAsc("v3")).thenReturn(List.of());
+            service.getToc("v1");
+            service.getToc("v2");
+            service.getToc("v1");
+
+            // Act
+            service.getToc("v3");
+
+            // Assert
+            assertThat(service.isCached("v1")).isTrue();
+            assertThat(service.isCached("v2")).isFalse();
+            assertThat(service.isCached("v3")).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("VersionToc")
+    class VersionTocTests {
+
+        @Test
+        @DisplayName("should slice entries by depth keeping path order")
+        void shouldSliceEntriesByDepth() {
+            // Act
+            var toc = service.getToc("v1");
+
+            // Assert
+            assertThat(toc.totalDocs()).isEqualTo(3);
+            assertThat(toc.slice(0)).extracting(TocEntry::documentId).containsExactly("doc-1");
+            assertThat(toc.slice(1)).extracting(TocEntry::documentId).containsExactly("doc-1", "doc-2");
+            assertThat(toc.slice(5)).extracting(TocEntry::depth).containsExactly(0, 1, 2);
+        }
+
+        @Test
+        @DisplayName("should reuse computed slice for same depth")
+        void shouldReuseComputedSlice() {
+            // Act
+            var toc = service.getToc("v1");
+
+            // Assert
+            assertThat(toc.slice(1)).isSameAs(toc.slice(1));
+        }
+    }
+}
@@ -18,7 +18,7 @@ class DocumentChunkerTest {
 
     @BeforeEach
     void setUp() {
-        chunker = new DocumentChunker();
+        chunker = new DocumentChunker(new HeuristicTokenCounter());
     }
 
     @Test
@@ -164,4 +164,44 @@ class DocumentChunkerTest {
         assertThat(chunks).hasSize(1);
         assertThat(chunks.get(0).tokenCount()).isGreaterThan(0);
     }
+
+    @Test
+    @DisplayName("should produce same chunks for CharSequence views as for strings")
+    void shouldChunkCharSequenceViews() {
+        // Arrange
+        String content = "Sentence one. Sentence two.\n\n".repeat(100);
+
+        // Act
+        List<DocumentChunker.ChunkResult> fromString = chunker.chunk(content, 300, 50);
+        List<DocumentChunker.ChunkResult> fromView = chunker.chunk(java.nio.CharBuffer.wrap(content), 300, 50);
+
+        // Assert
+        assertThat(fromView).isEqualTo(fromString);
+    }
+
+    @Test
+    @DisplayName("should break at latest paragraph boundary within search window")
+    void shouldBreakAtLatestParagraphBoundary() {
+        // Arrange - 視窗尾端前 50 字元處有段落邊界，更早處也有
+        String content = "A".repeat(100) + "\n\n" + "B".repeat(848) + "\n\n" + "C".repeat(1000);
+
+        // Act
+        List<DocumentChunker.ChunkResult> chunks = chunker.chunk(content, 1000, 0);
+
+        // Assert
+        assertThat(chunks.get(0).content()).endsWith("B\n\n").hasSize(952);
+    }
+
+    @Test
+    @DisplayName("should not scan beyond search window when content has no line breaks")
+    void shouldFallBackToWordBoundaryWithoutLineBreaks() {
+        // Arrange - 前綴有換行但超出搜尋範圍，視窗內只有空格
+        String content = "intro\n\n" + "word ".repeat(1000);
+
+        // Act
+        List<DocumentChunker.ChunkResult> chunks = chunker.chunk(content, 1000, 0);
+
+        // Assert - 第一個區塊在單詞邊界結束，而不是回到開頭的段落邊界
+        assertThat(chunks.get(0).content()).hasSizeGreaterThan(800).endsWith("word ");
+    }
 }
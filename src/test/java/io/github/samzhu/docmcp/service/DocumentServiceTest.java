@@ -3,7 +3,7 @@ package io.github.samzhu.docmcp.service;
 import io.github.samzhu.docmcp.domain.exception.DocumentNotFoundException;
 import io.github.samzhu.docmcp.domain.model.CodeExample;
 import io.github.samzhu.docmcp.domain.model.Document;
-import io.github.samzhu.docmcp.domain.model.DocumentChunk;
+import io.github.samzhu.docmcp.domain.model.DocumentChunkContent;
 import io.github.samzhu.docmcp.domain.model.LibraryVersion;
 import io.github.samzhu.docmcp.repository.CodeExampleRepository;
 import io.github.samzhu.docmcp.repository.DocumentChunkRepository;
@@ -24,6 +24,8 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -63,7 +65,7 @@ class DocumentServiceTest {
             var example = createCodeExample(randomId(), documentId, "java", "code");
 
             when(documentRepository.findById(documentId)).thenReturn(Optional.of(document));
-            when(chunkRepository.findByDocumentIdOrderByChunkIndex(documentId)).thenReturn(List.of(chunk));
+            when(chunkRepository.findContentByDocumentId(documentId)).thenReturn(List.of(chunk));
             when(codeExampleRepository.findByDocumentId(documentId)).thenReturn(List.of(example));
 
             // Act
@@ -73,6 +75,7 @@ class DocumentServiceTest {
             assertThat(result.document()).isEqualTo(document);
             assertThat(result.chunks()).hasSize(1);
             assertThat(result.codeExamples()).hasSize(1);
+            verify(chunkRepository, never()).findByDocumentIdOrderByChunkIndex(documentId);
         }
 
         @Test
@@ -221,9 +224,8 @@ class DocumentServiceTest {
                 "markdown", Map.of(), null, OffsetDateTime.now(), OffsetDateTime.now());
     }
 
-    private DocumentChunk createChunk(String id, String documentId, int index, String content) {
-        var now = OffsetDateTime.now();
-        return new DocumentChunk(id, documentId, index, content, null, 100, Map.of(), null, now, now);
+    private DocumentChunkContent createChunk(String id, String documentId, int index, String content) {
+        return new DocumentChunkContent(id, documentId, index, content, 100);
     }
 
     private CodeExample createCodeExample(String id, String documentId, String language, String code) {
@@ -0,0 +1,538 @@
+package io.github.samzhu.docmcp.service;
+
+import com.github.f4b6a3.tsid.TsidCreator;
+import io.github.samzhu.docmcp.config.EmbeddingProperties;
+import io.github.samzhu.docmcp.domain.enums.EmbeddingMigrationStatus;
+import io.github.samzhu.docmcp.domain.model.EmbeddingMigration;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.DocumentChunkVectorStore;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.EmbeddingProfile;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.VectorIndexManager;
+import io.github.samzhu.docmcp.infrastructure.vectorstore.VectorIndexManager.IndexState;
+import io.github.samzhu.docmcp.repository.EmbeddingMigrationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * EmbeddingMigrationService 單元測試
+ * <p>
+ * 驗證遷移的啟動檢查、背景重新嵌入、索引建立與切換流程。
+ * </p>
+ */
+@DisplayName("EmbeddingMigrationService")
+class EmbeddingMigrationServiceTest {
+
+    private static final EmbeddingProfile CURRENT = new EmbeddingProfile("gemini-embedding-001", 768);
+    private static final EmbeddingProfile TARGET = new EmbeddingProfile("gemini-embedding-002", 1536);
+
+    private JdbcTemplate jdbcTemplate;
+    private EmbeddingMigrationRepository migrationRepository;
+    private DocumentChunkVectorStore vectorStore;
+    private VectorIndexManager vectorIndexManager;
+    private IdService idService;
+    private RelatedDocsService relatedDocsService;
+    private PlatformTransactionManager transactionManager;
+    private ExecutorService executor;
+    private EmbeddingMigrationService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        migrationRepository = mock(EmbeddingMigrationRepository.class);
+        vectorStore = mock(DocumentChunkVectorStore.class);
+        vectorIndexManager = mock(VectorIndexManager.class);
+        idService = mock(IdService.class);
+        relatedDocsService = mock(RelatedDocsService.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        // 索引建立在呼叫端執行緒同步執行
+        executor = mock(ExecutorService.class);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(executor).execute(any(Runnable.class));
+        when(vectorIndexManager.supportsDimensions(anyInt()))
+                .thenAnswer(invocation -> (int) invocation.getArgument(0) <= 2000);
+
+        when(vectorStore.getActiveProfile()).thenReturn(CURRENT);
+        when(idService.generateId()).thenReturn(randomId());
+        when(migrationRepository.save(any(EmbeddingMigration.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        service = new EmbeddingMigrationService(jdbcTemplate, transactionManager,
+                migrationRepository, vectorStore, vectorIndexManager, new EmbeddingProperties(), idService,
+                relatedDocsService, executor);
+    }
+
+    private String randomId() {
+        return TsidCreator.getTsid().toString();
+    }
+
+    private EmbeddingMigration migration(EmbeddingMigrationStatus status) {
+        return new EmbeddingMigration(randomId(), CURRENT.model(), CURRENT.dimensions(),
+                TARGET.model(), TARGET.dimensions(), status, 10, 0, null,
+                OffsetDateTime.now(), null, 1L, null, null);
+    }
+
+    private EmbeddingMigration indexingMigration(OffsetDateTime updatedAt) {
+        return new EmbeddingMigration(randomId(), CURRENT.model(), CURRENT.dimensions(),
+                TARGET.model(), TARGET.dimensions(), EmbeddingMigrationStatus.INDEXING, 10, 10, null,
+                updatedAt, null, 2L, updatedAt, updatedAt);
+    }
+
+    private EmbeddingMigration completedMigration(OffsetDateTime completedAt) {
+        return new EmbeddingMigration(randomId(), CURRENT.model(), CURRENT.dimensions(),
+                TARGET.model(), TARGET.dimensions(), EmbeddingMigrationStatus.COMPLETED, 10, 10, null,
+                completedAt, completedAt, 3L, null, null);
+    }
+
+    @Nested
+    @DisplayName("startMigration")
+    class StartMigrationTests {
+
+        @Test
+        @DisplayName("should create shadow column and record migration")
+        void shouldCreateShadowColumnAndRecordMigration() {
+            // Arrange
+            when(migrationRepository.findInProgress()).thenReturn(Optional.empty());
+            when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(42);
+
+            // Act
+            EmbeddingMigration result = service.startMigration(TARGET.model(), TARGET.dimensions());
+
+            // Assert
+            verify(jdbcTemplate).execute("ALTER TABLE document_chunks ADD COLUMN embedding_next vector(1536)");
+            assertThat(result.getStatus()).isEqualTo(EmbeddingMigrationStatus.BACKFILLING);
+            assertThat(result.getSourceModel()).isEqualTo(CURRENT.model());
+            assertThat(result.getTargetDimensions()).isEqualTo(1536);
+            assertThat(result.getTotalChunks()).isEqualTo(42);
+        }
+
+        @Test
+        @DisplayName("should reject target identical to current model")
+        void shouldRejectTargetIdenticalToCurrentModel() {
+            assertThatThrownBy(() -> service.startMigration(CURRENT.model(), CURRENT.dimensions()))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verify(migrationRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("should reject dimensions beyond HNSW limit")
+        void shouldRejectDimensionsBeyondHnswLimit() {
+            assertThatThrownBy(() -> service.startMigration(TARGET.model(), 3072))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verify(migrationRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("should accept dimensions beyond 2000 when a quantized index supports them")
+        void shouldAcceptLargeDimensionsWithQuantizedIndex() {
+            // Arrange - 啟用 halfvec 量化時 3072 維可建立索引
+            when(vectorIndexManager.supportsDimensions(3072)).thenReturn(true);
+            when(migrationRepository.findInProgress()).thenReturn(Optional.empty());
+            when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(0);
+
+            // Act
+            EmbeddingMigration result = service.startMigration(TARGET.model(), 3072);
+
+            // Assert
+            verify(jdbcTemplate).execute("ALTER TABLE document_chunks ADD COLUMN embedding_next vector(3072)");
+            assertThat(result.getTargetDimensions()).isEqualTo(3072);
+        }
+
+        @Test
+        @DisplayName("should reject when another migration is in progress")
+        void shouldRejectWhenAnotherMigrationIsInProgress() {
+            // Arrange
+            when(migrationRepository.findInProgress())
+                    .thenReturn(Optional.of(migration(EmbeddingMigrationStatus.BACKFILLING)));
+
+            // Act & Assert
+            assertThatThrownBy(() -> service.startMigration(TARGET.model(), TARGET.dimensions()))
+                    .isInstanceOf(EmbeddingMigrationService.MigrationException.class);
+            verify(jdbcTemplate, never()).execute(anyString());
+        }
+    }
+
+    @Nested
+    @DisplayName("advance")
+    class AdvanceTests {
+
+        @Test
+        @SuppressWarnings("unchecked")
+        @DisplayName("should re-embed claimed chunks into shadow column with target model")
+        void shouldReembedClaimedChunksIntoShadowColumn() throws Exception {
+            // Arrange - 第一批領取到一個區塊，之後沒有剩餘
+            EmbeddingMigration backfilling = migration(EmbeddingMigrationStatus.BACKFILLING);
+            stubClaimedChunk();
+            when(vectorStore.embedWith(TARGET, List.of("Spring Boot 設定")))
+                    .thenReturn(List.of(new float[TARGET.dimensions()]));
+            when(jdbcTemplate.batchUpdate(contains("SET embedding_next"), anyList())).thenReturn(new int[]{1});
+
+            // Act
+            service.advance(backfilling);
+
+            // Assert
+            verify(vectorStore).embedWith(TARGET, List.of("Spring Boot 設定"));
+            ArgumentCaptor<List<Object[]>> batchArgs = ArgumentCaptor.forClass(List.class);
+            ArgumentCaptor<String> updateSql = ArgumentCaptor.forClass(String.class);
+            verify(jdbcTemplate).batchUpdate(updateSql.capture(), batchArgs.capture());
+            // 切換前 embeddingModel 仍描述 embedding 欄位，影子向量的模型另存於 shadowEmbeddingModel
+            assertThat(updateSql.getValue())
+                    .contains("md5(content) = ?", "'{shadowEmbeddingModel}'")
+                    .doesNotContain("'{embeddingModel}'");
+            assertThat(batchArgs.getValue().getFirst()).containsSubsequence(TARGET.key(), "chunk-1", "hash-1");
+            verify(jdbcTemplate).update(contains("migrated_chunks = migrated_chunks + ?"), eq(1), eq(backfilling.getId()));
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        @DisplayName("should claim and embed without holding a transaction")
+        void shouldClaimAndEmbedWithoutHoldingTransaction() throws Exception {
+            // Arrange - 領取以單一 UPDATE ... RETURNING 寫入領取期限後即提交
+            stubClaimedChunk();
+            when(vectorStore.embedWith(TARGET, List.of("Spring Boot 設定")))
+                    .thenReturn(List.of(new float[TARGET.dimensions()]));
+
+            // Act
+            service.advance(migration(EmbeddingMigrationStatus.BACKFILLING));
+
+            // Assert
+            verify(jdbcTemplate, atLeastOnce()).query(
+                    contains("SET embedding_claimed_until"), any(RowMapper.class), any(Object[].class));
+            verify(transactionManager, never()).getTransaction(any());
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        @DisplayName("should not count chunks rewritten while being embedded")
+        void shouldNotCountChunksRewrittenWhileBeingEmbedded() throws Exception {
+            // Arrange - 寫回時內容雜湊不符，條件式 UPDATE 影響 0 列
+            stubClaimedChunk();
+            when(vectorStore.embedWith(TARGET, List.of("Spring Boot 設定")))
+                    .thenReturn(List.of(new float[TARGET.dimensions()]));
+            when(jdbcTemplate.batchUpdate(contains("SET embedding_next"), anyList())).thenReturn(new int[]{0});
+            when(jdbcTemplate.queryForObject(contains("embedding_next IS NULL"), eq(Integer.class))).thenReturn(1);
+
+            // Act
+            service.advance(migration(EmbeddingMigrationStatus.BACKFILLING));
+
+            // Assert - 區塊仍待處理，不計入進度也不進入索引階段
+            verify(jdbcTemplate, never()).update(contains("migrated_chunks = migrated_chunks + ?"), any(Object[].class));
+            verify(vectorIndexManager, never()).buildIndexes(anyString(), anyInt());
+        }
+
+        @SuppressWarnings("unchecked")
+        private void stubClaimedChunk() throws Exception {
+            // 第一批領取到一個區塊，之後沒有可領取的區塊
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getString("id")).thenReturn("chunk-1");
+            when(rs.getString("content")).thenReturn("Spring Boot 設定");
+            when(rs.getString("content_hash")).thenReturn("hash-1");
+            when(jdbcTemplate.query(contains("embedding_next IS NULL"), any(RowMapper.class), any(Object[].class)))
+                    .thenAnswer(invocation -> List.of(((RowMapper<?>) invocation.getArgument(1)).mapRow(rs, 0)))
+                    .thenReturn(List.of());
+        }
+
+        @Test
+        @DisplayName("should build shadow index once backfill is complete")
+        void shouldBuildShadowIndexOnceBackfillIsComplete() {
+            // Arrange - 沒有待處理區塊，狀態轉換成功
+            when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+            when(vectorIndexManager.indexState("embedding_next", TARGET.dimensions())).thenReturn(IndexState.VALID);
+
+            // Act
+            service.advance(migration(EmbeddingMigrationStatus.BACKFILLING));
+
+            // Assert - 影子欄位的索引交由 VectorIndexManager 在背景執行緒建立
+            verify(executor).execute(any(Runnable.class));
+            verify(vectorIndexManager).buildIndexes("embedding_next", TARGET.dimensions());
+            verify(jdbcTemplate).update(anyString(), eq("READY"), any(), anyString(), eq("INDEXING"));
+            verify(vectorStore, never()).switchActiveProfile(any());
+        }
+
+        @Test
+        @DisplayName("should rebuild interrupted shadow index when restarting from INDEXING")
+        void shouldRebuildInterruptedShadowIndexWhenRestartingFromIndexing() {
+            // Arrange - 建立中的實例重新啟動，留下 INVALID 索引且沒有進行中的建立
+            EmbeddingMigration indexing = indexingMigration(OffsetDateTime.now().minusMinutes(30));
+            when(vectorIndexManager.indexState("embedding_next", TARGET.dimensions()))
+                    .thenReturn(IndexState.INVALID, IndexState.VALID);
+            when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+
+            // Act
+            service.advance(indexing);
+
+            // Assert - 重新領取後建立索引並轉為 READY
+            verify(jdbcTemplate).update(contains("updated_at < CURRENT_TIMESTAMP - make_interval"),
+                    eq(indexing.getId()), eq(300));
+            verify(vectorIndexManager).buildIndexes("embedding_next", TARGET.dimensions());
+            verify(jdbcTemplate).update(anyString(), eq("READY"), any(), eq(indexing.getId()), eq("INDEXING"));
+        }
+
+        @Test
+        @DisplayName("should not rebuild when another instance has just claimed the index build")
+        void shouldNotRebuildWhenAnotherInstanceClaimedIndexBuild() {
+            // Arrange - 領取期限內已被其他實例更新
+            EmbeddingMigration indexing = indexingMigration(OffsetDateTime.now());
+            when(vectorIndexManager.indexState("embedding_next", TARGET.dimensions())).thenReturn(IndexState.MISSING);
+            when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(0);
+
+            // Act
+            service.advance(indexing);
+
+            // Assert
+            verify(vectorIndexManager, never()).buildIndexes(anyString(), anyInt());
+        }
+
+        @Test
+        @DisplayName("should move to READY when shadow index is already valid after restart")
+        void shouldMoveToReadyWhenShadowIndexIsValid() {
+            // Arrange - 索引在重新啟動前已建立完成，但尚未轉換狀態
+            EmbeddingMigration indexing = indexingMigration(OffsetDateTime.now().minusMinutes(30));
+            when(vectorIndexManager.indexState("embedding_next", TARGET.dimensions())).thenReturn(IndexState.VALID);
+            when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+
+            // Act
+            service.advance(indexing);
+
+            // Assert
+            verify(jdbcTemplate).update(anyString(), eq("READY"), any(), eq(indexing.getId()), eq("INDEXING"));
+            verify(vectorIndexManager, never()).buildIndexes(anyString(), anyInt());
+        }
+
+        @Test
+        @DisplayName("should wait while another instance is still building the shadow index")
+        void shouldWaitWhileShadowIndexIsBuilding() {
+            // Arrange
+            EmbeddingMigration indexing = indexingMigration(OffsetDateTime.now().minusMinutes(30));
+            when(vectorIndexManager.indexState("embedding_next", TARGET.dimensions())).thenReturn(IndexState.BUILDING);
+
+            // Act
+            service.advance(indexing);
+
+            // Assert
+            verify(vectorIndexManager, never()).buildIndexes(anyString(), anyInt());
+            verify(vectorIndexManager, never()).cancelBuilds(anyString(), anyInt());
+            verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        }
+
+        @Test
+        @DisplayName("should cancel build and fail migration once index timeout has elapsed")
+        void shouldFailMigrationOnceIndexTimeoutHasElapsed() {
+            // Arrange - 預設期限 360 分鐘
+            EmbeddingMigration indexing = indexingMigration(OffsetDateTime.now().minusMinutes(361));
+            when(vectorIndexManager.indexState("embedding_next", TARGET.dimensions())).thenReturn(IndexState.BUILDING);
+            when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+
+            // Act
+            service.advance(indexing);
+
+            // Assert
+            verify(vectorIndexManager).cancelBuilds("embedding_next", TARGET.dimensions());
+            verify(jdbcTemplate).update(anyString(), eq("FAILED"), contains("逾時"),
+                    eq(indexing.getId()), eq("INDEXING"));
+        }
+
+        @Test
+        @DisplayName("should swap columns and switch vector store when ready")
+        void shouldSwapColumnsAndSwitchVectorStoreWhenReady() {
+            // Arrange
+            EmbeddingMigration ready = migration(EmbeddingMigrationStatus.READY);
+            when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class)))
+                    .thenReturn(List.of(ready.getId()));
+            when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(0);
+            when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+            when(vectorIndexManager.indexNames("embedding_next", TARGET.dimensions())).thenReturn(
+                    List.of("idx_document_chunks_embedding_next_hnsw", "idx_document_chunks_embedding_next_halfvec_1536"));
+            when(vectorIndexManager.indexNames("embedding", TARGET.dimensions())).thenReturn(
+                    List.of("idx_document_chunks_embedding_hnsw", "idx_document_chunks_embedding_halfvec_1536"));
+
+            // Act
+            service.advance(ready);
+
+            // Assert
+            verify(jdbcTemplate).execute("LOCK TABLE document_chunks IN ACCESS EXCLUSIVE MODE");
+            verify(jdbcTemplate).execute("ALTER TABLE document_chunks RENAME COLUMN embedding_next TO embedding");
+            verify(jdbcTemplate).execute("ALTER INDEX idx_document_chunks_embedding_next_hnsw"
+                    + " RENAME TO idx_document_chunks_embedding_hnsw");
+            verify(jdbcTemplate).execute("ALTER INDEX idx_document_chunks_embedding_next_halfvec_1536"
+                    + " RENAME TO idx_document_chunks_embedding_halfvec_1536");
+            verify(jdbcTemplate).update(contains("jsonb_set(metadata - 'shadowEmbeddingModel', '{embeddingModel}'"));
+            verify(jdbcTemplate).update("DELETE FROM document_centroids");
+            verify(vectorStore).switchActiveProfile(TARGET);
+            verify(vectorIndexManager).ensureIndexes(TARGET.dimensions());
+            verify(relatedDocsService).refreshAll();
+        }
+
+        @Test
+        @DisplayName("should postpone cutover while chunks are still pending")
+        void shouldPostponeCutoverWhileChunksAreStillPending() {
+            // Arrange
+            EmbeddingMigration ready = migration(EmbeddingMigrationStatus.READY);
+            when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class)))
+                    .thenReturn(List.of(ready.getId()));
+            when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(3);
+
+            // Act
+            service.advance(ready);
+
+            // Assert
+            verify(jdbcTemplate, never()).execute(contains("RENAME COLUMN"));
+            verify(vectorStore, never()).switchActiveProfile(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("runMigrationStep")
+    class RunMigrationStepTests {
+
+        @Test
+        @DisplayName("should apply latest completed migration to vector store")
+        void shouldApplyLatestCompletedMigrationToVectorStore() {
+            // Arrange - 切換已由其他實例完成且已超過修正時間
+            EmbeddingMigration completed = new EmbeddingMigration(randomId(), CURRENT.model(), CURRENT.dimensions(),
+                    TARGET.model(), TARGET.dimensions(), EmbeddingMigrationStatus.COMPLETED, 10, 10, null,
+                    OffsetDateTime.now().minusDays(1), OffsetDateTime.now().minusDays(1), 3L, null, null);
+            when(migrationRepository.findLatestCompleted()).thenReturn(Optional.of(completed));
+            when(migrationRepository.findInProgress()).thenReturn(Optional.empty());
+
+            // Act
+            service.runMigrationStep();
+
+            // Assert
+            verify(vectorStore).switchActiveProfile(TARGET);
+            verify(vectorStore, never()).embedWith(any(), anyList());
+            verify(jdbcTemplate, never()).execute(contains("embedding_previous"));
+        }
+
+        @Test
+        @DisplayName("should drop previous column once retention has elapsed")
+        void shouldDropPreviousColumnOnceRetentionHasElapsed() {
+            // Arrange - 切換已超過預設保留時間（168 小時）
+            EmbeddingMigration completed = completedMigration(OffsetDateTime.now().minusDays(8));
+            when(migrationRepository.findLatestCompleted()).thenReturn(Optional.of(completed));
+            when(migrationRepository.findInProgress()).thenReturn(Optional.empty());
+            when(jdbcTemplate.queryForObject(contains("information_schema.columns"), eq(Integer.class))).thenReturn(1);
+
+            // Act
+            service.runMigrationStep();
+
+            // Assert
+            verify(jdbcTemplate).execute("DROP INDEX CONCURRENTLY IF EXISTS idx_document_chunks_embedding_hnsw_previous");
+            verify(jdbcTemplate).execute("ALTER TABLE document_chunks DROP COLUMN IF EXISTS embedding_previous");
+        }
+
+        @Test
+        @DisplayName("should keep previous column when retention is disabled")
+        void shouldKeepPreviousColumnWhenRetentionIsDisabled() {
+            // Arrange
+            EmbeddingProperties properties = new EmbeddingProperties();
+            properties.getMigration().setPreviousRetentionHours(0);
+            service = new EmbeddingMigrationService(jdbcTemplate, transactionManager,
+                    migrationRepository, vectorStore, vectorIndexManager, properties, idService,
+                    relatedDocsService, executor);
+            when(migrationRepository.findLatestCompleted())
+                    .thenReturn(Optional.of(completedMigration(OffsetDateTime.now().minusDays(30))));
+            when(migrationRepository.findInProgress()).thenReturn(Optional.empty());
+
+            // Act
+            service.runMigrationStep();
+
+            // Assert
+            verify(jdbcTemplate, never()).execute(contains("embedding_previous"));
+        }
+    }
+
+    @Nested
+    @DisplayName("finalizeMigration")
+    class FinalizeMigrationTests {
+
+        @Test
+        @DisplayName("should drop previous column for latest completed migration")
+        void shouldDropPreviousColumnForLatestCompletedMigration() {
+            // Arrange
+            EmbeddingMigration completed = completedMigration(OffsetDateTime.now().minusHours(1));
+            when(migrationRepository.findLatestCompleted()).thenReturn(Optional.of(completed));
+            when(migrationRepository.findInProgress()).thenReturn(Optional.empty());
+
+            // Act
+            service.finalizeMigration(completed.getId());
+
+            // Assert
+            verify(jdbcTemplate).execute("ALTER TABLE document_chunks DROP COLUMN IF EXISTS embedding_previous");
+        }
+
+        @Test
+        @DisplayName("should reject finalizing a migration that is not the latest completed")
+        void shouldRejectFinalizingOlderMigration() {
+            // Arrange
+            when(migrationRepository.findLatestCompleted())
+                    .thenReturn(Optional.of(completedMigration(OffsetDateTime.now().minusHours(1))));
+
+            // Act & Assert
+            assertThatThrownBy(() -> service.finalizeMigration(randomId()))
+                    .isInstanceOf(EmbeddingMigrationService.MigrationException.class);
+            verify(jdbcTemplate, never()).execute(contains("embedding_previous"));
+        }
+    }
+
+    @Nested
+    @DisplayName("cancelMigration")
+    class CancelMigrationTests {
+
+        @Test
+        @DisplayName("should drop shadow column when cancelling in-progress migration")
+        void shouldDropShadowColumnWhenCancelling() {
+            // Arrange
+            EmbeddingMigration inProgress = migration(EmbeddingMigrationStatus.BACKFILLING);
+            when(migrationRepository.findById(inProgress.getId())).thenReturn(Optional.of(inProgress));
+            when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+
+            // Act
+            service.cancelMigration(inProgress.getId());
+
+            // Assert
+            verify(jdbcTemplate).update(contains("SET metadata = metadata - 'shadowEmbeddingModel'"));
+            verify(jdbcTemplate, never()).update(contains("'{embeddingModel}'"), any(Object[].class));
+            verify(jdbcTemplate).execute("ALTER TABLE document_chunks DROP COLUMN IF EXISTS embedding_next");
+        }
+
+        @Test
+        @DisplayName("should reject cancelling a completed migration")
+        void shouldRejectCancellingCompletedMigration() {
+            // Arrange
+            EmbeddingMigration completed = migration(EmbeddingMigrationStatus.COMPLETED);
+            when(migrationRepository.findById(completed.getId())).thenReturn(Optional.of(completed));
+
+            // Act & Assert
+            assertThatThrownBy(() -> service.cancelMigration(completed.getId()))
+                    .isInstanceOf(EmbeddingMigrationService.MigrationException.class);
+        }
+    }
+}
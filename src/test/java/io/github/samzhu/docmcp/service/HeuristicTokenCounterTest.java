@@ -0,0 +1,45 @@
+package io.github.samzhu.docmcp.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * HeuristicTokenCounter 單元測試
+ */
+@DisplayName("HeuristicTokenCounter")
+class HeuristicTokenCounterTest {
+
+    private final HeuristicTokenCounter counter = new HeuristicTokenCounter();
+
+    @Test
+    @DisplayName("should count about four characters per token for latin text")
+    void shouldCountLatinText() {
+        assertThat(counter.countTokens("Hello world, test")).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("should count about one and a half characters per token for CJK text")
+    void shouldCountCjkText() {
+        assertThat(counter.countTokens("文件分塊服務")).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("should count only the requested range")
+    void shouldCountRange() {
+        // Arrange
+        String text = "prefix 文件分塊服務 suffix";
+
+        // Act & Assert
+        assertThat(counter.countTokens(text, 7, 13)).isEqualTo(counter.countTokens("文件分塊服務"));
+    }
+
+    @Test
+    @DisplayName("should return zero for null or empty text")
+    void shouldReturnZeroForEmptyText() {
+        assertThat(counter.countTokens(null)).isZero();
+        assertThat(counter.countTokens("")).isZero();
+        assertThat(counter.countTokens("abc", 2, 2)).isZero();
+    }
+}
@@ -0,0 +1,120 @@
+package io.github.samzhu.docmcp.service;
+
+import com.github.f4b6a3.tsid.TsidCreator;
+import io.github.samzhu.docmcp.config.FeatureFlags;
+import io.github.samzhu.docmcp.domain.event.SyncCompletedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * MigrationGuideIndexer 單元測試
+ */
+@DisplayName("MigrationGuideIndexer")
+class MigrationGuideIndexerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private FeatureFlags featureFlags;
+    private MigrationGuideIndexer indexer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        featureFlags = new FeatureFlags();
+        featureFlags.setMigrationGuides(true);
+        indexer = new MigrationGuideIndexer(jdbcTemplate, featureFlags);
+    }
+
+    private String randomId() {
+        return TsidCreator.getTsid().toString();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("should classify unclassified documents of the synced version")
+    void shouldClassifyUnclassifiedDocumentsOfSyncedVersion() throws Exception {
+        // Arrange
+        String versionId = randomId();
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("id")).thenReturn("doc-1");
+        when(rs.getString("title")).thenReturn("Upgrading to 3.5");
+        when(rs.getString("path")).thenReturn("docs/upgrade.md");
+        when(rs.getString("content_prefix")).thenReturn("Steps...");
+        when(jdbcTemplate.query(contains("AND version_id = ?"), any(RowMapper.class), eq(versionId), eq(500)))
+                .thenAnswer(invocation -> List.of(((RowMapper<?>) invocation.getArgument(1)).mapRow(rs, 0)));
+
+        // Act
+        indexer.onSyncCompleted(new SyncCompletedEvent(versionId, randomId(), 1, 3));
+
+        // Assert
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq("UPDATE documents SET migration_relevance = ? WHERE id = ?"),
+                captor.capture());
+        assertThat(captor.getValue()).singleElement()
+                .satisfies(args -> assertThat(args).containsExactly("UPGRADE", "doc-1"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("should keep fetching batches until fewer than a full batch remain")
+    void shouldKeepFetchingFullBatches() {
+        // Arrange
+        List<Object[]> fullBatch = Collections.nCopies(500, new Object[]{"NONE", "doc"});
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(500)))
+                .thenReturn((List) fullBatch)
+                .thenReturn((List) List.<Object[]>of(new Object[]{"MIGRATION", "doc-last"}));
+
+        // Act
+        int classified = indexer.classifyAll();
+
+        // Assert
+        assertThat(classified).isEqualTo(501);
+    }
+
+    @Test
+    @DisplayName("should skip classification when migration guides are disabled")
+    void shouldSkipWhenFeatureDisabled() {
+        // Arrange
+        featureFlags.setMigrationGuides(false);
+
+        // Act
+        indexer.onSyncCompleted(new SyncCompletedEvent(randomId(), randomId(), 1, 3));
+
+        // Assert
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("should not update when every document is already classified")
+    void shouldNotUpdateWhenNothingToClassify() {
+        // Arrange
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+
+        // Act
+        int classified = indexer.classifyVersion(randomId());
+
+        // Assert
+        assertThat(classified).isZero();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+}
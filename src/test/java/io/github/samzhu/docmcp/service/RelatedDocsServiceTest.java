@@ -0,0 +1,246 @@
+package io.github.samzhu.docmcp.service;
+
+import com.github.f4b6a3.tsid.TsidCreator;
+import io.github.samzhu.docmcp.config.RelatedDocsProperties;
+import io.github.samzhu.docmcp.domain.event.SyncCompletedEvent;
+import io.github.samzhu.docmcp.service.RelatedDocsService.RelatedDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * RelatedDocsService 單元測試
+ * <p>
+ * 驗證質心搜尋的範圍、預先計算結果的使用、查詢不寫入質心與同步完成後的補齊。
+ * </p>
+ */
+@DisplayName("RelatedDocsService")
+class RelatedDocsServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private RelatedDocsProperties properties;
+    private RelatedDocsService service;
+
+    private String documentId;
+    private String versionId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        properties = new RelatedDocsProperties();
+        service = new RelatedDocsService(jdbcTemplate, mock(PlatformTransactionManager.class), properties);
+
+        documentId = randomId();
+        versionId = randomId();
+    }
+
+    private String randomId() {
+        return TsidCreator.getTsid().toString();
+    }
+
+    private RelatedDocument related(String title) {
+        return new RelatedDocument(randomId(), title, "docs/" + title + ".md", 0.9, "snippet");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenCentroidSearchReturns(List<RelatedDocument> results) {
+        when(jdbcTemplate.query(contains("FROM document_centroids s"), any(RowMapper.class), eq(documentId), anyInt()))
+                .thenReturn((List) results);
+    }
+
+    private void givenSourceCentroid(boolean exists) {
+        when(jdbcTemplate.queryForObject(contains("WHERE document_id = ?"), eq(Boolean.class), eq(documentId)))
+                .thenReturn(exists);
+    }
+
+    @Nested
+    @DisplayName("findRelated")
+    class FindRelatedTests {
+
+        @Test
+        @SuppressWarnings("unchecked")
+        @DisplayName("should search centroids within the same version by default")
+        void shouldSearchCentroidsWithinSameVersion() {
+            // Arrange
+            givenSourceCentroid(true);
+            givenCentroidSearchReturns(List.of(related("rest")));
+
+            // Act
+            List<RelatedDocument> results = service.findRelated(documentId, versionId, 5, true);
+
+            // Assert
+            assertThat(results).extracting(RelatedDocument::title).containsExactly("rest");
+            verify(jdbcTemplate).query(contains("c.version_id = s.version_id"), any(RowMapper.class),
+                    eq(documentId), eq(5));
+            verify(jdbcTemplate, never()).query(contains("FROM related_documents"), any(RowMapper.class),
+                    any(Object[].class));
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        @DisplayName("should widen scope to the whole library when requested")
+        void shouldWidenScopeToWholeLibrary() {
+            // Arrange
+            givenSourceCentroid(true);
+            givenCentroidSearchReturns(List.of());
+
+            // Act
+            service.findRelated(documentId, versionId, 5, false);
+
+            // Assert
+            verify(jdbcTemplate).query(contains("lv.library_id"), any(RowMapper.class), eq(documentId), eq(5));
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        @DisplayName("should return precomputed results when enabled")
+        void shouldReturnPrecomputedResultsWhenEnabled() {
+            // Arrange
+            properties.setPrecompute(true);
+            when(jdbcTemplate.query(contains("FROM related_documents"), any(RowMapper.class), eq(documentId), eq(5)))
+                    .thenReturn((List) List.of(related("precomputed")));
+
+            // Act
+            List<RelatedDocument> results = service.findRelated(documentId, versionId, 5, true);
+
+            // Assert
+            assertThat(results).extracting(RelatedDocument::title).containsExactly("precomputed");
+            verify(jdbcTemplate, never()).query(contains("FROM document_centroids s"), any(RowMapper.class),
+                    any(Object[].class));
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        @DisplayName("should fall back to live search when precomputed results are missing")
+        void shouldFallBackToLiveSearchWhenPrecomputedMissing() {
+            // Arrange
+            properties.setPrecompute(true);
+            when(jdbcTemplate.query(contains("FROM related_documents"), any(RowMapper.class), eq(documentId), eq(5)))
+                    .thenReturn(List.of());
+            givenSourceCentroid(true);
+            givenCentroidSearchReturns(List.of(related("live")));
+
+            // Act
+            List<RelatedDocument> results = service.findRelated(documentId, versionId, 5, true);
+
+            // Assert
+            assertThat(results).extracting(RelatedDocument::title).containsExactly("live");
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        @DisplayName("should average chunk embeddings on the fly without writing when the source has no centroid")
+        void shouldAverageOnTheFlyWithoutWriting() {
+            // Arrange
+            givenSourceCentroid(false);
+            when(jdbcTemplate.query(contains("avg(embedding)"), any(RowMapper.class),
+                    eq(documentId), eq(documentId), eq(versionId), eq(5)))
+                    .thenReturn((List) List.of(related("live")));
+
+            // Act
+            List<RelatedDocument> results = service.findRelated(documentId, versionId, 5, true);
+
+            // Assert
+            assertThat(results).extracting(RelatedDocument::title).containsExactly("live");
+            verify(jdbcTemplate).query(contains("cd.version_id = ?"), any(RowMapper.class),
+                    eq(documentId), eq(documentId), eq(versionId), eq(5));
+            verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+            verify(jdbcTemplate, never()).query(contains("FROM document_centroids s"), any(RowMapper.class),
+                    any(Object[].class));
+        }
+    }
+
+    @Nested
+    @DisplayName("computeCentroid")
+    class ComputeCentroidTests {
+
+        @Test
+        @DisplayName("should upsert the centroid of a single document")
+        void shouldUpsertSingleDocumentCentroid() {
+            // Act
+            service.computeCentroid(documentId);
+
+            // Assert
+            verify(jdbcTemplate).update(contains("WHERE d.id = ?"), eq(documentId));
+        }
+    }
+
+    @Nested
+    @DisplayName("onSyncCompleted")
+    class OnSyncCompletedTests {
+
+        @Test
+        @DisplayName("should fill missing version centroids without precomputing related documents by default")
+        void shouldFillMissingCentroidsOnly() {
+            // Act
+            service.onSyncCompleted(new SyncCompletedEvent(versionId, randomId(), 3, 12));
+
+            // Assert
+            verify(jdbcTemplate).update(contains("NOT EXISTS"), eq(versionId));
+            verify(jdbcTemplate, never()).update(contains("DELETE FROM document_centroids"), any(Object[].class));
+            verify(jdbcTemplate, never()).update(contains("INSERT INTO related_documents"), any(Object[].class));
+        }
+
+        @Test
+        @DisplayName("should precompute related documents when enabled")
+        void shouldPrecomputeRelatedDocumentsWhenEnabled() {
+            // Arrange
+            properties.setPrecompute(true);
+            properties.setPrecomputeLimit(10);
+
+            // Act
+            service.onSyncCompleted(new SyncCompletedEvent(versionId, randomId(), 3, 12));
+
+            // Assert
+            verify(jdbcTemplate).update(contains("DELETE FROM related_documents"), eq(versionId));
+            verify(jdbcTemplate).update(contains("INSERT INTO related_documents"), eq(10), eq(versionId));
+        }
+
+        @Test
+        @DisplayName("should skip precomputing versions with more documents than the limit")
+        void shouldSkipPrecomputeForLargeVersions() {
+            // Arrange
+            properties.setPrecompute(true);
+            properties.setPrecomputeMaxDocuments(100);
+            when(jdbcTemplate.queryForObject(contains("COUNT(*)"), eq(Long.class), eq(versionId))).thenReturn(101L);
+
+            // Act
+            service.onSyncCompleted(new SyncCompletedEvent(versionId, randomId(), 3, 12));
+
+            // Assert
+            verify(jdbcTemplate).update(contains("DELETE FROM related_documents"), eq(versionId));
+            verify(jdbcTemplate, never()).update(contains("INSERT INTO related_documents"), any(Object[].class));
+        }
+
+        @Test
+        @DisplayName("should not propagate refresh failures to the sync")
+        void shouldNotPropagateRefreshFailures() {
+            // Arrange
+            when(jdbcTemplate.update(contains("INSERT INTO document_centroids"), eq(versionId)))
+                    .thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+            // Act & Assert
+            assertThatCode(() -> service.onSyncCompleted(new SyncCompletedEvent(versionId, randomId(), 3, 12)))
+                    .doesNotThrowAnyException();
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package io.github.samzhu.docmcp.service;
 
+import io.github.samzhu.docmcp.domain.enums.SourceType;
 import io.github.samzhu.docmcp.domain.model.Document;
+import io.github.samzhu.docmcp.domain.model.DocumentSummary;
+import io.github.samzhu.docmcp.domain.model.Library;
 import io.github.samzhu.docmcp.domain.model.LibraryVersion;
+import io.github.samzhu.docmcp.infrastructure.metrics.LibraryTagResolver;
+import io.github.samzhu.docmcp.infrastructure.metrics.SearchMetrics;
 import io.github.samzhu.docmcp.mcp.dto.SearchResultItem;
 import io.github.samzhu.docmcp.repository.DocumentRepository;
 import io.github.samzhu.docmcp.repository.LibraryVersionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -23,6 +29,8 @@ import static io.github.samzhu.docmcp.infrastructure.vectorstore.DocumentChunkVe
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -37,6 +45,7 @@ class SearchServiceTest {
     private DocumentRepository documentRepository;
     private LibraryVersionRepository versionRepository;
     private VectorStore vectorStore;
+    private SimpleMeterRegistry meterRegistry;
     private SearchService searchService;
 
     private String libraryId;
@@ -48,10 +57,15 @@ class SearchServiceTest {
         versionRepository = mock(LibraryVersionRepository.class);
         vectorStore = mock(VectorStore.class);
 
-        searchService = new SearchService(documentRepository, versionRepository, vectorStore);
+        meterRegistry = new SimpleMeterRegistry();
 
         libraryId = randomId();
         versionId = randomId();
+
+        LibraryTagResolver libraryTags = new LibraryTagResolver(() -> List.of(Library.create(
+                libraryId, "spring-boot", "Spring Boot", null, SourceType.GITHUB, null, null, null)));
+        searchService = new SearchService(documentRepository, versionRepository, vectorStore,
+                new SearchMetrics(meterRegistry, libraryTags));
     }
 
     /**
@@ -201,8 +215,8 @@ class SearchServiceTest {
                     .thenReturn(Optional.of(version));
             when(vectorStore.similaritySearch(any(SearchRequest.class)))
                     .thenReturn(List.of(aiDoc));
-            when(documentRepository.findAllById(List.of(documentId)))
-                    .thenReturn(List.of(document));
+            when(documentRepository.findSummariesByIdIn(List.of(documentId)))
+                    .thenReturn(List.of(toSummary(document)));
 
             // Act
             List<SearchResultItem> results = searchService.semanticSearch(libraryId, null, query, 5, 0.7);
@@ -294,8 +308,8 @@ class SearchServiceTest {
                     .thenReturn(Optional.of(version));
             when(vectorStore.similaritySearch(any(SearchRequest.class)))
                     .thenReturn(List.of(aiDoc));
-            when(documentRepository.findAllById(List.of(documentId)))
-                    .thenReturn(List.of(document));
+            when(documentRepository.findSummariesByIdIn(List.of(documentId)))
+                    .thenReturn(List.of(toSummary(document)));
 
             // Act
             List<SearchResultItem> results = searchService.semanticSearch(libraryId, versionStr, query, 5, 0.7);
@@ -327,8 +341,9 @@ class SearchServiceTest {
             // Act
             List<SearchResultItem> results = searchService.semanticSearch(libraryId, null, "query", 5, 0.7);
 
-            // Assert
+            // Assert - 沒有文件 ID 時不執行空的 IN () 查詢
             assertThat(results).isEmpty();
+            verify(documentRepository, never()).findSummariesByIdIn(anyList());
         }
     }
 
@@ -409,8 +424,8 @@ class SearchServiceTest {
                     .thenReturn(List.of());
             when(vectorStore.similaritySearch(any(SearchRequest.class)))
                     .thenReturn(List.of(aiDoc));
-            when(documentRepository.findAllById(List.of(documentId)))
-                    .thenReturn(List.of(document));
+            when(documentRepository.findSummariesByIdIn(List.of(documentId)))
+                    .thenReturn(List.of(toSummary(document)));
 
             // Act
             List<SearchResultItem> results = searchService.hybridSearch(libraryId, null, query, 10, 0.3, 0.5);
@@ -467,8 +482,8 @@ class SearchServiceTest {
 
             when(vectorStore.similaritySearch(any(SearchRequest.class)))
                     .thenReturn(List.of(aiDoc2, aiDoc1));  // doc2 排第一
-            when(documentRepository.findAllById(anyList()))
-                    .thenReturn(List.of(document1, document2));
+            when(documentRepository.findSummariesByIdIn(anyList()))
+                    .thenReturn(List.of(toSummary(document1), toSummary(document2)));
 
             // Act
             List<SearchResultItem> results = searchService.hybridSearch(libraryId, null, query, 10, 0.3, 0.5);
@@ -510,6 +525,44 @@ class SearchServiceTest {
             // Assert
             assertThat(results).hasSize(3);
         }
+
+        @Test
+        @DisplayName("should record stage timings and only the fused result count")
+        void shouldRecordStageTimingsAndFusedResultCount() {
+            // Arrange
+            String query = "spring";
+            var version = createLibraryVersion(versionId, libraryId, "1.0.0", true);
+            String documentId = randomId();
+            var document = createDocument(documentId, versionId, "Doc", "/docs/doc.md", "Content");
+            var aiDoc = new org.springframework.ai.document.Document(randomId(), "Chunk",
+                    Map.of(METADATA_VERSION_ID, versionId, METADATA_DOCUMENT_ID, documentId,
+                            METADATA_CHUNK_INDEX, 0, "score", 0.9));
+
+            when(versionRepository.findLatestByLibraryId(libraryId))
+                    .thenReturn(Optional.of(version));
+            when(documentRepository.fullTextSearch(eq(versionId), eq(query), anyInt()))
+                    .thenReturn(List.of(document));
+            when(vectorStore.similaritySearch(any(SearchRequest.class)))
+                    .thenReturn(List.of(aiDoc));
+            when(documentRepository.findSummariesByIdIn(anyList()))
+                    .thenReturn(List.of(toSummary(document)));
+
+            // Act
+            List<SearchResultItem> results = searchService.hybridSearch(libraryId, null, query, 10, 0.3, 0.5);
+
+            // Assert
+            for (String stage : List.of(SearchMetrics.STAGE_KEYWORD_SQL, SearchMetrics.STAGE_HYDRATION,
+                    SearchMetrics.STAGE_FUSION)) {
+                assertThat(meterRegistry.get("docmcp.search.stage")
+                        .tags("stage", stage).timer().count()).isEqualTo(1);
+            }
+            var summary = meterRegistry.get("docmcp.search.results")
+                    .tags("mode", SearchMetrics.MODE_HYBRID, "library", libraryId).summary();
+            assertThat(summary.count()).isEqualTo(1);
+            assertThat(summary.totalAmount()).isEqualTo(results.size());
+            assertThat(meterRegistry.find("docmcp.search.results")
+                    .tags("mode", SearchMetrics.MODE_FULLTEXT).summary()).isNull();
+        }
     }
 
     // Helper methods
@@ -529,4 +582,9 @@ class SearchServiceTest {
         return new Document(id, versionId, title, path, content, null, "markdown",
                 Map.of(), null, OffsetDateTime.now(), OffsetDateTime.now());
     }
+
+    private DocumentSummary toSummary(Document document) {
+        return new DocumentSummary(document.getId(), document.getVersionId(), document.getTitle(),
+                document.getPath(), document.getDocType(), document.getUpdatedAt());
+    }
 }
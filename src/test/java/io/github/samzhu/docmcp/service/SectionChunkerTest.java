@@ -0,0 +1,182 @@
+package io.github.samzhu.docmcp.service;
+
+import io.github.samzhu.docmcp.config.ChunkingProperties;
+import io.github.samzhu.docmcp.config.ChunkingProperties.ChunkSizing;
+import io.github.samzhu.docmcp.infrastructure.parser.MarkdownParser;
+import io.github.samzhu.docmcp.infrastructure.parser.ParsedDocument;
+import io.github.samzhu.docmcp.service.DocumentChunker.ChunkResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SectionChunker 單元測試
+ */
+@DisplayName("SectionChunker")
+class SectionChunkerTest {
+
+    private static final ChunkSizing NO_MERGE = new ChunkSizing(true, 50, 0);
+
+    private SectionChunker chunker;
+    private MarkdownParser parser;
+
+    @BeforeEach
+    void setUp() {
+        TokenCounter tokenCounter = new HeuristicTokenCounter();
+        chunker = new SectionChunker(new DocumentChunker(tokenCounter), tokenCounter);
+        parser = new MarkdownParser();
+    }
+
+    @Nested
+    @DisplayName("chunk")
+    class ChunkTests {
+
+        @Test
+        @DisplayName("should split at section boundaries and record heading path")
+        void shouldSplitAtSectionBoundaries() {
+            // Arrange
+            String content = """
+                    # Guide
+
+                    Introduction paragraph for the guide.
+
+                    ## Install
+
+                    Run the installer to set up the tool.
+
+                    ## Configure
+
+                    Edit the configuration file.
+                    """;
+
+            // Act
+            List<ChunkResult> chunks = chunker.chunk(parser.parse(content, "guide.md"), NO_MERGE);
+
+            // Assert
+            assertThat(chunks).hasSize(3);
+            assertThat(chunks.get(0).headingPath()).containsExactly("Guide");
+            assertThat(chunks.get(1).headingPath()).containsExactly("Guide", "Install");
+            assertThat(chunks.get(1).content()).startsWith("## Install");
+            assertThat(chunks.get(2).headingPath()).containsExactly("Guide", "Configure");
+            assertThat(chunks).extracting(ChunkResult::index).containsExactly(0, 1, 2);
+        }
+
+        @Test
+        @DisplayName("should keep code blocks atomic even when over budget")
+        void shouldKeepCodeBlocksAtomic() {
+            // Arrange
+            String code = "int value = 1;\n".repeat(60);
+            String content = "# Example\n\nSome text.\n\n```java\n" + code + "```\n\nAfter the code.\n";
+
+            // Act
+            List<ChunkResult> chunks = chunker.chunk(parser.parse(content, "example.md"), NO_MERGE);
+
+            // Assert
+            assertThat(chunks).filteredOn(c -> c.content().contains("int value"))
+                    .singleElement()
+                    .satisfies(c -> {
+                        assertThat(c.content()).startsWith("```java").contains(code).endsWith("```");
+                        assertThat(c.tokenCount()).isGreaterThan(NO_MERGE.maxTokens());
+                    });
+            assertThat(chunks.getLast().content()).isEqualTo("After the code.");
+        }
+
+        @Test
+        @DisplayName("should merge small sections under min tokens using common heading path")
+        void shouldMergeSmallSections() {
+            // Arrange
+            String content = """
+                    # Guide
+
+                    ## Install
+
+                    Short.
+
+                    ## Configure
+
+                    Also short.
+                    """;
+
+            // Act
+            List<ChunkResult> chunks = chunker.chunk(parser.parse(content, "guide.md"),
+                    new ChunkSizing(true, 500, 100));
+
+            // Assert
+            assertThat(chunks).singleElement().satisfies(c -> {
+                assertThat(c.headingPath()).containsExactly("Guide");
+                assertThat(c.content()).contains("## Install", "## Configure");
+            });
+        }
+
+        @Test
+        @DisplayName("should split oversized paragraphs by line without overlap")
+        void shouldSplitOversizedParagraphs() {
+            // Arrange
+            String paragraph = "word word word word word word word word\n".repeat(30).stripTrailing();
+            String content = "# Long\n\n" + paragraph + "\n";
+
+            // Act
+            List<ChunkResult> chunks = chunker.chunk(parser.parse(content, "long.md"), NO_MERGE);
+
+            // Assert
+            assertThat(chunks).hasSizeGreaterThan(2);
+            assertThat(chunks).allSatisfy(c -> assertThat(c.content().length()).isLessThan(paragraph.length() / 4));
+            String joined = String.join("\n", chunks.stream().map(ChunkResult::content).toList());
+            assertThat(joined.replace("\n\n", "\n")).isEqualTo("# Long\n" + paragraph);
+        }
+
+        @Test
+        @DisplayName("should fall back to sliding window when document has no sections")
+        void shouldFallBackWithoutSections() {
+            // Arrange
+            ParsedDocument parsed = new ParsedDocument("Page", "A".repeat(2000), List.of(), Map.of());
+
+            // Act
+            List<ChunkResult> chunks = chunker.chunk(parsed, ChunkSizing.DEFAULT);
+
+            // Assert
+            assertThat(chunks).hasSizeBetween(2, 4);
+            assertThat(chunks).allSatisfy(c -> assertThat(c.headingPath()).isEmpty());
+        }
+
+        @Test
+        @DisplayName("should fall back to sliding window when section-aware chunking is disabled")
+        void shouldFallBackWhenDisabled() {
+            // Arrange
+            String content = "# Guide\n\n" + "Paragraph text. ".repeat(100);
+
+            // Act
+            List<ChunkResult> chunks = chunker.chunk(parser.parse(content, "guide.md"),
+                    new ChunkSizing(false, 500, 100));
+
+            // Assert
+            assertThat(chunks).allSatisfy(c -> assertThat(c.headingPath()).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("ChunkingProperties.sizingFor")
+    class SizingTests {
+
+        @Test
+        @DisplayName("should apply library override on top of global sizing")
+        void shouldApplyLibraryOverride() {
+            // Arrange
+            ChunkingProperties properties = new ChunkingProperties();
+            ChunkingProperties.Sizing override = new ChunkingProperties.Sizing();
+            override.setMaxTokens(768);
+            properties.getLibraries().put("spring-boot", override);
+
+            // Act & Assert
+            assertThat(properties.sizingFor("spring-boot")).isEqualTo(new ChunkSizing(true, 768, 128));
+            assertThat(properties.sizingFor("react")).isEqualTo(new ChunkSizing(true, 512, 128));
+            assertThat(properties.sizingFor(null)).isEqualTo(ChunkSizing.DEFAULT);
+        }
+    }
+}
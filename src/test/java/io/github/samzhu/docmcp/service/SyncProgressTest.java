@@ -0,0 +1,152 @@
+package io.github.samzhu.docmcp.service;
+
+import io.github.samzhu.docmcp.infrastructure.vectorstore.EmbeddingObservation;
+import io.github.samzhu.docmcp.service.SyncProgress.Stage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SyncProgress 單元測試
+ */
+@DisplayName("SyncProgress")
+class SyncProgressTest {
+
+    private MutableClock clock;
+    private SyncProgress progress;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        progress = new SyncProgress(clock);
+    }
+
+    @Test
+    @DisplayName("should compute throughput and ETA from completed files")
+    void shouldComputeThroughputAndEta() {
+        // Arrange
+        progress.start("Archive", 10);
+        progress.fileProcessed();
+        progress.fileProcessed();
+        progress.fileSkipped();
+        progress.fileFailed();
+        clock.advance(2_000);
+
+        // Act
+        Map<String, Object> metadata = progress.toMetadata();
+
+        // Assert
+        assertThat(metadata)
+                .containsEntry("strategy", "Archive")
+                .containsEntry("filesTotal", 10)
+                .containsEntry("filesProcessed", 2)
+                .containsEntry("filesSkipped", 1)
+                .containsEntry("filesFailed", 1)
+                .containsEntry("filesPerSecond", 2.0)
+                .containsEntry("etaSeconds", 3L);
+    }
+
+    @Test
+    @DisplayName("should omit ETA before any file completes")
+    void shouldOmitEtaBeforeFirstFile() {
+        // Arrange
+        progress.start("Local", 5);
+        clock.advance(1_000);
+
+        // Act
+        Map<String, Object> metadata = progress.toMetadata();
+
+        // Assert
+        assertThat(metadata).containsEntry("filesPerSecond", 0.0).doesNotContainKey("etaSeconds");
+    }
+
+    @Test
+    @DisplayName("should count embedding calls reported inside the tracked scope")
+    void shouldCountEmbeddingCalls() {
+        // Arrange
+        EmbeddingObservation embeddings = EmbeddingObservation.none();
+
+        // Act
+        EmbeddingObservation.observe(progress, () -> {
+            embeddings.record(EmbeddingObservation.OPERATION_DOCUMENT, 8, () -> null);
+            return embeddings.record(EmbeddingObservation.OPERATION_DOCUMENT, 4, () -> null);
+        });
+        // 範圍外的呼叫不計入
+        embeddings.record(EmbeddingObservation.OPERATION_QUERY, 1, () -> null);
+        progress.addEmbeddingTokens(1200);
+
+        // Assert
+        assertThat(progress.toMetadata())
+                .containsEntry("embeddingCalls", 2)
+                .containsEntry("embeddingTexts", 12L)
+                .containsEntry("embeddingTokens", 1200L);
+    }
+
+    @Test
+    @DisplayName("should not count embedding time twice in the enclosing stage")
+    void shouldExcludeEmbeddingTimeFromEnclosingStage() {
+        // Act
+        progress.run(Stage.PERSIST, () -> progress.onEmbedding(EmbeddingObservation.OPERATION_DOCUMENT, 1, 5_000_000_000L));
+        progress.addStageMillis(Stage.EXTRACT, 250);
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        Map<String, Object> stages = (Map<String, Object>) progress.toMetadata().get("stageMillis");
+        assertThat(stages).containsOnlyKeys("fetch", "extract", "parse", "chunk", "embed", "persist");
+        assertThat(stages).containsEntry("embed", 5_000L).containsEntry("extract", 250L);
+        assertThat((Long) stages.get("persist")).isLessThan(1_000L);
+    }
+
+    @Test
+    @DisplayName("should report progress only after the interval elapses")
+    void shouldThrottleReports() {
+        // Arrange
+        progress.start("Archive", 3);
+
+        // Act & Assert
+        assertThat(progress.isReportDue(2_000)).isFalse();
+        clock.advance(2_000);
+        assertThat(progress.isReportDue(2_000)).isTrue();
+        assertThat(progress.isReportDue(2_000)).isFalse();
+    }
+
+    /**
+     * 可手動推進的時鐘
+     */
+    private static class MutableClock extends Clock {
+
+        private long millis = 1_000_000;
+
+        void advance(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
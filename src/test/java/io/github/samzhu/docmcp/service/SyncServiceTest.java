@@ -1,7 +1,9 @@
 package io.github.samzhu.docmcp.service;
 
 import com.github.f4b6a3.tsid.TsidCreator;
+import io.github.samzhu.docmcp.config.ChunkingProperties;
 import io.github.samzhu.docmcp.domain.enums.SyncStatus;
+import io.github.samzhu.docmcp.domain.event.SyncCompletedEvent;
 import io.github.samzhu.docmcp.domain.model.SyncHistory;
 import io.github.samzhu.docmcp.infrastructure.github.GitHubContentFetcher;
 import io.github.samzhu.docmcp.infrastructure.github.strategy.FetchResult;
@@ -11,19 +13,25 @@ import io.github.samzhu.docmcp.infrastructure.vectorstore.DocumentChunkConverter
 import io.github.samzhu.docmcp.repository.CodeExampleRepository;
 import io.github.samzhu.docmcp.repository.DocumentChunkRepository;
 import io.github.samzhu.docmcp.repository.DocumentRepository;
+import io.github.samzhu.docmcp.repository.LibraryRepository;
 import io.github.samzhu.docmcp.repository.SyncHistoryRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.time.OffsetDateTime;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -33,6 +41,8 @@ import java.util.concurrent.ExecutionException;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -61,7 +71,10 @@ class SyncServiceTest {
     private DocumentParser documentParser;
 
     @Mock
-    private DocumentChunker chunker;
+    private SectionChunker chunker;
+
+    @Mock
+    private LibraryRepository libraryRepository;
 
     @Mock
     private VectorStore vectorStore;
@@ -81,6 +94,12 @@ class SyncServiceTest {
     @Mock
     private SyncHistoryRepository syncHistoryRepository;
 
+    @Mock
+    private RelatedDocsService relatedDocsService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private SyncService syncService;
 
     /**
@@ -104,12 +123,16 @@ class SyncServiceTest {
                 localFileClient,
                 parsers,
                 chunker,
+                new ChunkingProperties(),
+                libraryRepository,
                 vectorStore,
                 chunkConverter,
                 documentRepository,
                 chunkRepository,
                 codeExampleRepository,
-                syncHistoryRepository
+                syncHistoryRepository,
+                relatedDocsService,
+                eventPublisher
         );
     }
 
@@ -160,6 +183,42 @@ class SyncServiceTest {
             assertThat(result).isNotNull();
             verify(gitHubContentFetcher).fetch(owner, repo, docsPath, ref);
             verify(syncHistoryRepository).hasRunningSyncTask(versionId);
+            verify(eventPublisher).publishEvent(new SyncCompletedEvent(versionId, successHistory.getId(), 0, 0));
+        }
+
+        @Test
+        @DisplayName("完成時將同步統計寫入 metadata")
+        void shouldKeepSyncStatisticsInMetadata_whenCompleted() throws ExecutionException, InterruptedException {
+            // Given - 準備測試資料
+            String versionId = randomId();
+            SyncHistory pendingHistory = createSyncHistory(versionId, SyncStatus.PENDING);
+            SyncHistory runningHistory = createSyncHistory(versionId, SyncStatus.RUNNING);
+
+            when(syncHistoryRepository.hasRunningSyncTask(versionId)).thenReturn(false);
+            when(syncHistoryRepository.save(any(SyncHistory.class)))
+                    .thenReturn(pendingHistory)
+                    .thenReturn(runningHistory);
+            when(syncHistoryRepository.findById(any(String.class))).thenReturn(Optional.of(pendingHistory));
+
+            FetchResult fetchResult = new FetchResult(List.of(), Map.of(), "Archive", 2048, 15);
+            when(gitHubContentFetcher.fetch("owner", "repo", "docs", "v1.0.0")).thenReturn(fetchResult);
+
+            // When - 執行同步
+            syncService.syncFromGitHub(versionId, "owner", "repo", "docs", "v1.0.0").get();
+
+            // Then - 最後一次儲存為完成狀態，且保留策略、下載大小與階段耗時
+            ArgumentCaptor<SyncHistory> captor = ArgumentCaptor.forClass(SyncHistory.class);
+            verify(syncHistoryRepository, atLeastOnce()).save(captor.capture());
+            SyncHistory completed = captor.getValue();
+            assertThat(completed.getStatus()).isEqualTo(SyncStatus.SUCCESS);
+            assertThat(completed.getMetadata())
+                    .containsEntry("strategy", "Archive")
+                    .containsEntry("bytesDownloaded", 2048L)
+                    .containsEntry("filesTotal", 0)
+                    .containsKey("stageMillis");
+            @SuppressWarnings("unchecked")
+            Map<String, Object> stageMillis = (Map<String, Object>) completed.getMetadata().get("stageMillis");
+            assertThat(stageMillis).containsEntry("extract", 15L);
         }
 
         @Test
@@ -221,6 +280,7 @@ class SyncServiceTest {
             // Then - 驗證結果（應該記錄失敗狀態而非拋出例外）
             assertThat(result).isNotNull();
             verify(syncHistoryRepository).hasRunningSyncTask(versionId);
+            verify(eventPublisher, never()).publishEvent(any(Object.class));
         }
     }
 
@@ -357,6 +417,33 @@ class SyncServiceTest {
         }
     }
 
+    // ==================== calculateContentHash() 方法測試 ====================
+
+    @Nested
+    @DisplayName("calculateContentHash() 方法")
+    class CalculateContentHashTests {
+
+        @Test
+        @DisplayName("相同內容產生相同雜湊")
+        void shouldReturnSameHash_forSameContent() {
+            assertThat(SyncService.calculateContentHash("<h1>Title</h1>"))
+                    .isEqualTo(SyncService.calculateContentHash("<h1>Title</h1>"))
+                    .isNotEqualTo(SyncService.calculateContentHash("<h1>Other</h1>"));
+        }
+
+        @Test
+        @DisplayName("與僅以原始內容計算的舊雜湊不同，既有文件會重新處理")
+        void shouldDifferFromRawContentHash() throws Exception {
+            // Given - 正規化版本加入前的雜湊（原始內容的 SHA-256）
+            String content = "<h1>Title</h1>";
+            String rawHash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(content.getBytes(StandardCharsets.UTF_8)));
+
+            // When & Then
+            assertThat(SyncService.calculateContentHash(content)).isNotEqualTo(rawHash);
+        }
+    }
+
     // ==================== 輔助方法 ====================
 
     /**
@@ -6,6 +6,7 @@ import io.github.samzhu.docmcp.TestcontainersConfiguration;
 import io.github.samzhu.docmcp.domain.enums.SourceType;
 import io.github.samzhu.docmcp.domain.enums.VersionStatus;
 import io.github.samzhu.docmcp.domain.model.Document;
+import io.github.samzhu.docmcp.domain.model.DocumentSummary;
 import io.github.samzhu.docmcp.domain.model.Library;
 import io.github.samzhu.docmcp.domain.model.LibraryVersion;
 import io.github.samzhu.docmcp.repository.DocumentRepository;
@@ -80,11 +81,12 @@ class DocumentControllerTest {
 
         Library library = createLibrary(libraryId, "spring-boot", "Spring Boot");
         LibraryVersion version = createVersion(versionId, libraryId, "3.2.0", true);
-        Document document = createDocument(docId, versionId, "Getting Started", "docs/getting-started.md");
+        DocumentSummary document = new DocumentSummary(docId, versionId, "Getting Started",
+                "docs/getting-started.md", "markdown", OffsetDateTime.now());
 
         when(libraryService.getVersionById(versionId)).thenReturn(version);
         when(libraryService.getLibraryById(libraryId)).thenReturn(library);
-        when(documentRepository.findByVersionIdOrderByPathAsc(versionId)).thenReturn(List.of(document));
+        when(documentRepository.findSummariesByVersionIdOrderByPathAsc(versionId)).thenReturn(List.of(document));
 
         // Act & Assert
         mockMvc.perform(get("/documents").param("versionId", versionId))
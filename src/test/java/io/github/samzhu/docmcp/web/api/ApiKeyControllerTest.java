@@ -7,6 +7,7 @@ import io.github.samzhu.docmcp.TestcontainersConfiguration;
 import io.github.samzhu.docmcp.domain.enums.ApiKeyStatus;
 import io.github.samzhu.docmcp.domain.model.ApiKey;
 import io.github.samzhu.docmcp.security.ApiKeyService;
+import io.github.samzhu.docmcp.security.ApiKeyUsageTracker;
 import io.github.samzhu.docmcp.web.dto.CreateApiKeyRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -138,6 +139,20 @@ class ApiKeyControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @WithMockUser(roles = "API_KEY")
+    void shouldGetApiKeyUsage() throws Exception {
+        var id = randomId();
+        var usage = new ApiKeyUsageTracker.Usage(id, 42, OffsetDateTime.now(), List.of(0L, 40L, 2L));
+
+        when(apiKeyService.getUsage(id)).thenReturn(Optional.of(usage));
+
+        mockMvc.perform(get("/api/keys/{id}/usage", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRequests").value(42))
+                .andExpect(jsonPath("$.requestsPerMinute[1]").value(40));
+    }
+
     @Test
     @WithMockUser(roles = "API_KEY")
     void shouldRevokeApiKey() throws Exception {